@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.benchmark;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.query.aggregation.datasketches.hll.HllSketchBuildAggregatorFactory;
+import org.apache.druid.query.aggregation.datasketches.quantiles.DoublesSketchAggregatorFactory;
+import org.apache.druid.query.aggregation.datasketches.theta.SketchMergeAggregatorFactory;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.LongColumnSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorSizeInspector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the row-at-a-time {@link BufferAggregator} and the {@link VectorAggregator} of the DataSketches
+ * aggregators on the same LONG input, both for a single aggregation slot (timeseries-style) and for several slots
+ * (groupBy-style).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 15)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataSketchesVectorAggregatorBenchmark
+{
+  static {
+    NullHandling.initializeForTests();
+  }
+
+  private static final int VECTOR_SIZE = 512;
+  private static final int NUM_VECTORS = 200;
+  private static final String FIELD_NAME = "x";
+
+  @Param({"hll", "theta", "quantiles"})
+  private String sketchType;
+
+  @Param({"1", "100"})
+  private int numSlots;
+
+  private final ColumnCapabilities capabilities =
+      ColumnCapabilitiesImpl.createSimpleNumericColumnCapabilities(ValueType.LONG);
+
+  private long[][] values;
+  private int[][] positions;
+  private int slotSize;
+  private ByteBuffer buf;
+
+  // Current row for the buffer aggregator, current vector for the vector aggregator.
+  private int currentRow;
+  private int currentVector;
+
+  private BufferAggregator bufferAggregator;
+  private VectorAggregator vectorAggregator;
+
+  @Setup(Level.Trial)
+  public void setUp()
+  {
+    final AggregatorFactory aggregatorFactory;
+    switch (sketchType) {
+      case "hll":
+        aggregatorFactory = new HllSketchBuildAggregatorFactory("sketch", FIELD_NAME, null, null, false);
+        break;
+      case "theta":
+        aggregatorFactory = new SketchMergeAggregatorFactory("sketch", FIELD_NAME, 4096, null, null, null);
+        break;
+      case "quantiles":
+        aggregatorFactory = new DoublesSketchAggregatorFactory("sketch", FIELD_NAME, null);
+        break;
+      default:
+        throw new IllegalArgumentException(sketchType);
+    }
+
+    final Random random = new Random(0);
+    values = new long[NUM_VECTORS][VECTOR_SIZE];
+    positions = new int[NUM_VECTORS][VECTOR_SIZE];
+    slotSize = aggregatorFactory.getMaxIntermediateSizeWithNulls();
+
+    for (int v = 0; v < NUM_VECTORS; v++) {
+      for (int i = 0; i < VECTOR_SIZE; i++) {
+        values[v][i] = random.nextInt(100_000);
+        positions[v][i] = random.nextInt(numSlots) * slotSize;
+      }
+    }
+
+    buf = ByteBuffer.allocateDirect(slotSize * numSlots);
+    bufferAggregator = aggregatorFactory.factorizeBuffered(new RowSelectorFactory());
+    vectorAggregator = aggregatorFactory.factorizeVector(new VectorSelectorFactory());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+  {
+    bufferAggregator.close();
+    vectorAggregator.close();
+  }
+
+  @Benchmark
+  public Object aggregateBuffered()
+  {
+    for (int slot = 0; slot < numSlots; slot++) {
+      bufferAggregator.init(buf, slot * slotSize);
+    }
+
+    for (int v = 0; v < NUM_VECTORS; v++) {
+      currentVector = v;
+      for (int i = 0; i < VECTOR_SIZE; i++) {
+        currentRow = i;
+        bufferAggregator.aggregate(buf, positions[v][i]);
+      }
+    }
+
+    return bufferAggregator.get(buf, 0);
+  }
+
+  @Benchmark
+  public Object aggregateVectorized()
+  {
+    for (int slot = 0; slot < numSlots; slot++) {
+      vectorAggregator.init(buf, slot * slotSize);
+    }
+
+    for (int v = 0; v < NUM_VECTORS; v++) {
+      currentVector = v;
+      if (numSlots == 1) {
+        vectorAggregator.aggregate(buf, 0, 0, VECTOR_SIZE);
+      } else {
+        vectorAggregator.aggregate(buf, VECTOR_SIZE, positions[v], null, 0);
+      }
+    }
+
+    return vectorAggregator.get(buf, 0);
+  }
+
+  private class RowSelectorFactory implements ColumnSelectorFactory
+  {
+    @Override
+    public DimensionSelector makeDimensionSelector(DimensionSpec dimensionSpec)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ColumnValueSelector makeColumnValueSelector(String columnName)
+    {
+      return new LongColumnSelector()
+      {
+        @Override
+        public long getLong()
+        {
+          return values[currentVector][currentRow];
+        }
+
+        @Override
+        public boolean isNull()
+        {
+          return false;
+        }
+
+        @Override
+        public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+        {
+          // Nothing to inspect.
+        }
+      };
+    }
+
+    @Nullable
+    @Override
+    public ColumnCapabilities getColumnCapabilities(String column)
+    {
+      return capabilities;
+    }
+  }
+
+  private class VectorSelectorFactory implements VectorColumnSelectorFactory, VectorSizeInspector
+  {
+    private final double[] doubleVector = new double[VECTOR_SIZE];
+    private final float[] floatVector = new float[VECTOR_SIZE];
+
+    @Override
+    public VectorSizeInspector getVectorSizeInspector()
+    {
+      return this;
+    }
+
+    @Override
+    public int getMaxVectorSize()
+    {
+      return VECTOR_SIZE;
+    }
+
+    @Override
+    public int getCurrentVectorSize()
+    {
+      return VECTOR_SIZE;
+    }
+
+    @Override
+    public SingleValueDimensionVectorSelector makeSingleValueDimensionSelector(DimensionSpec dimensionSpec)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MultiValueDimensionVectorSelector makeMultiValueDimensionSelector(DimensionSpec dimensionSpec)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public VectorValueSelector makeValueSelector(String column)
+    {
+      return new VectorValueSelector()
+      {
+        @Override
+        public long[] getLongVector()
+        {
+          return values[currentVector];
+        }
+
+        @Override
+        public float[] getFloatVector()
+        {
+          final long[] longs = values[currentVector];
+          for (int i = 0; i < VECTOR_SIZE; i++) {
+            floatVector[i] = longs[i];
+          }
+          return floatVector;
+        }
+
+        @Override
+        public double[] getDoubleVector()
+        {
+          final long[] longs = values[currentVector];
+          for (int i = 0; i < VECTOR_SIZE; i++) {
+            doubleVector[i] = longs[i];
+          }
+          return doubleVector;
+        }
+
+        @Nullable
+        @Override
+        public boolean[] getNullVector()
+        {
+          return null;
+        }
+
+        @Override
+        public int getMaxVectorSize()
+        {
+          return VECTOR_SIZE;
+        }
+
+        @Override
+        public int getCurrentVectorSize()
+        {
+          return VECTOR_SIZE;
+        }
+      };
+    }
+
+    @Override
+    public VectorObjectSelector makeObjectSelector(String column)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Nullable
+    @Override
+    public ColumnCapabilities getColumnCapabilities(String column)
+    {
+      return capabilities;
+    }
+  }
+}
@@ -66,7 +66,7 @@ public class FloatCompressionBenchmark
   @Param({"enumerate", "zipfLow", "zipfHigh", "sequential", "uniform"})
   private static String file;
 
-  @Param({"lz4", "none"})
+  @Param({"lz4", "zstd", "none"})
   private static String strategy;
 
   private Supplier<ColumnarFloats> supplier;
@@ -54,6 +54,7 @@ public class FloatCompressionBenchmarkFileGenerator
   public static final List<CompressionStrategy> COMPRESSIONS =
       ImmutableList.of(
           CompressionStrategy.LZ4,
+          CompressionStrategy.ZSTD,
           CompressionStrategy.NONE
       );
 
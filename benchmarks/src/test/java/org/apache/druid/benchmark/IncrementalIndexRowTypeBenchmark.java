@@ -23,21 +23,26 @@ import com.google.common.collect.ImmutableMap;
 import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.data.input.InputRow;
 import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.CountAggregatorFactory;
 import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
 import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.segment.incremental.AppendableIndexSpec;
 import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.incremental.OnheapIncrementalIndex;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OperationsPerInvocation;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.ArrayList;
@@ -53,6 +58,9 @@ public class IncrementalIndexRowTypeBenchmark
     NullHandling.initializeForTests();
   }
 
+  @Param({"onheap", "offheapFacts"})
+  private String indexType;
+
   private IncrementalIndex incIndex;
   private IncrementalIndex incFloatIndex;
   private IncrementalIndex incStrIndex;
@@ -126,11 +134,23 @@ public class IncrementalIndexRowTypeBenchmark
 
   private IncrementalIndex makeIncIndex()
   {
-    return new IncrementalIndex.Builder()
-        .setSimpleTestingIndexSchema(aggs)
-        .setDeserializeComplexMetrics(false)
-        .setMaxRowCount(MAX_ROWS)
-        .buildOnheap();
+    final AppendableIndexSpec spec;
+    switch (indexType) {
+      case OnheapIncrementalIndex.Spec.TYPE:
+        spec = new OnheapIncrementalIndex.Spec();
+        break;
+      case OnheapIncrementalIndex.OffheapFactsSpec.TYPE:
+        spec = new OnheapIncrementalIndex.OffheapFactsSpec();
+        break;
+      default:
+        throw new ISE("Unknown indexType[%s]", indexType);
+    }
+
+    return spec.builder()
+               .setSimpleTestingIndexSchema(aggs)
+               .setDeserializeComplexMetrics(false)
+               .setMaxRowCount(MAX_ROWS)
+               .build();
   }
 
   @Setup
@@ -157,9 +177,17 @@ public class IncrementalIndexRowTypeBenchmark
     incStrIndex = makeIncIndex();
   }
 
+  @TearDown(Level.Iteration)
+  public void tearDown()
+  {
+    incIndex.close();
+    incFloatIndex.close();
+    incStrIndex.close();
+  }
+
   @Benchmark
-  @BenchmarkMode(Mode.AverageTime)
-  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
   @OperationsPerInvocation(MAX_ROWS)
   public void normalLongs(Blackhole blackhole) throws Exception
   {
@@ -171,8 +199,8 @@ public class IncrementalIndexRowTypeBenchmark
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.AverageTime)
-  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
   @OperationsPerInvocation(MAX_ROWS)
   public void normalFloats(Blackhole blackhole) throws Exception
   {
@@ -184,8 +212,8 @@ public class IncrementalIndexRowTypeBenchmark
   }
 
   @Benchmark
-  @BenchmarkMode(Mode.AverageTime)
-  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
   @OperationsPerInvocation(MAX_ROWS)
   public void normalStrings(Blackhole blackhole) throws Exception
   {
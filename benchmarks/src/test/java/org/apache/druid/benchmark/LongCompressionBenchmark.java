@@ -69,7 +69,7 @@ public class LongCompressionBenchmark
   @Param({"auto", "longs"})
   private static String format;
 
-  @Param({"lz4", "none"})
+  @Param({"lz4", "zstd", "none"})
   private static String strategy;
 
   private Supplier<ColumnarLongs> supplier;
@@ -54,6 +54,7 @@ public class LongCompressionBenchmarkFileGenerator
   public static final List<CompressionStrategy> COMPRESSIONS =
       ImmutableList.of(
           CompressionStrategy.LZ4,
+          CompressionStrategy.ZSTD,
           CompressionStrategy.NONE);
   public static final List<CompressionFactory.LongEncodingStrategy> ENCODINGS =
       ImmutableList.of(CompressionFactory.LongEncodingStrategy.AUTO, CompressionFactory.LongEncodingStrategy.LONGS);
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.benchmark.query.QueryBenchmarkUtil;
+import org.apache.druid.collections.StupidPool;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.FileUtils;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.offheap.OffheapBufferGenerator;
+import org.apache.druid.query.FinalizeResultsQueryRunner;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.QueryRunner;
+import org.apache.druid.query.QueryRunnerFactory;
+import org.apache.druid.query.QueryToolChest;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.DoubleMinAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongMaxAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesAggregatorFactory;
+import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesSerde;
+import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.spec.MultipleIntervalSegmentSpec;
+import org.apache.druid.query.topn.TopNQuery;
+import org.apache.druid.query.topn.TopNQueryBuilder;
+import org.apache.druid.query.topn.TopNQueryConfig;
+import org.apache.druid.query.topn.TopNQueryQueryToolChest;
+import org.apache.druid.query.topn.TopNQueryRunnerFactory;
+import org.apache.druid.query.topn.TopNResultValue;
+import org.apache.druid.segment.IndexIO;
+import org.apache.druid.segment.IndexMergerV9;
+import org.apache.druid.segment.IndexSpec;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexSegment;
+import org.apache.druid.segment.column.ColumnConfig;
+import org.apache.druid.segment.generator.DataGenerator;
+import org.apache.druid.segment.generator.GeneratorBasicSchemas;
+import org.apache.druid.segment.generator.GeneratorSchemaInfo;
+import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.serde.ComplexMetrics;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
+import org.apache.druid.timeline.SegmentId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmark for comparing the vectorized topN engine against the cursor-based pooled algorithm
+
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 25)
+public class TopNVectorizeBenchmark
+{
+  static {
+    NullHandling.initializeForTests();
+  }
+
+  private static final SegmentId Q_INDEX_SEGMENT_ID = SegmentId.dummy("qIndex");
+
+  @Param({"750000"})
+  private int rowsPerSegment;
+
+  @Param({"10"})
+  private int threshold;
+
+  @Param({"dimSequential", "dimZipf", "dimUniform"})
+  private String dimension;
+
+  @Param({"false", "true"})
+  private String vectorize;
+
+  private static final Logger log = new Logger(TopNVectorizeBenchmark.class);
+  private static final int RNG_SEED = 9999;
+  private static final IndexMergerV9 INDEX_MERGER_V9;
+  private static final IndexIO INDEX_IO;
+  public static final ObjectMapper JSON_MAPPER;
+
+  private File tmpDir;
+  private QueryableIndex qIndex;
+  private QueryRunnerFactory<Result<TopNResultValue>, TopNQuery> factory;
+  private TopNQuery query;
+
+  static {
+    JSON_MAPPER = new DefaultObjectMapper();
+    INDEX_IO = new IndexIO(
+        JSON_MAPPER,
+        new ColumnConfig()
+        {
+          @Override
+          public int columnCacheSizeBytes()
+          {
+            return 0;
+          }
+        }
+    );
+    INDEX_MERGER_V9 = new IndexMergerV9(JSON_MAPPER, INDEX_IO, OffHeapMemorySegmentWriteOutMediumFactory.instance());
+  }
+
+  @Setup
+  public void setup() throws IOException
+  {
+    log.info("SETUP CALLED AT " + System.currentTimeMillis());
+
+    ComplexMetrics.registerSerde("hyperUnique", new HyperUniquesSerde());
+
+    final GeneratorSchemaInfo schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get("basic");
+
+    // A plain string dimension with no extraction function, so the pooled algorithm is used when not vectorizing.
+    query = new TopNQueryBuilder()
+        .dataSource("blah")
+        .granularity(Granularities.ALL)
+        .dimension(dimension)
+        .metric("sumFloatNormal")
+        .threshold(threshold)
+        .intervals(new MultipleIntervalSegmentSpec(ImmutableList.of(schemaInfo.getDataInterval())))
+        .aggregators(
+            ImmutableList.of(
+                new LongSumAggregatorFactory("sumLongSequential", "sumLongSequential"),
+                new LongMaxAggregatorFactory("maxLongUniform", "maxLongUniform"),
+                new DoubleSumAggregatorFactory("sumFloatNormal", "sumFloatNormal"),
+                new DoubleMinAggregatorFactory("minFloatZipf", "minFloatZipf"),
+                new HyperUniquesAggregatorFactory("hyperUniquesMet", "hyper")
+            )
+        )
+        .context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, vectorize))
+        .build();
+
+    final DataGenerator gen = new DataGenerator(
+        schemaInfo.getColumnSchemas(),
+        RNG_SEED,
+        schemaInfo.getDataInterval(),
+        rowsPerSegment
+    );
+
+    final IncrementalIndex incIndex = new IncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(schemaInfo.getAggsArray())
+        .setMaxRowCount(rowsPerSegment)
+        .buildOnheap();
+
+    for (int j = 0; j < rowsPerSegment; j++) {
+      incIndex.add(gen.nextRow());
+    }
+
+    tmpDir = FileUtils.createTempDir();
+    log.info("Using temp dir: " + tmpDir.getAbsolutePath());
+
+    qIndex = INDEX_IO.loadIndex(INDEX_MERGER_V9.persist(incIndex, tmpDir, new IndexSpec(), null));
+    incIndex.close();
+
+    factory = new TopNQueryRunnerFactory(
+        new StupidPool<>(
+            "TopNBenchmark-compute-bufferPool",
+            new OffheapBufferGenerator("compute", 250000000),
+            0,
+            Integer.MAX_VALUE
+        ),
+        new TopNQueryQueryToolChest(new TopNQueryConfig()),
+        QueryBenchmarkUtil.NOOP_QUERYWATCHER
+    );
+  }
+
+  @TearDown
+  public void tearDown() throws IOException
+  {
+    qIndex.close();
+    FileUtils.deleteDirectory(tmpDir);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void querySingleQueryableIndex(Blackhole blackhole)
+  {
+    final QueryRunner<Result<TopNResultValue>> runner = QueryBenchmarkUtil.makeQueryRunner(
+        factory,
+        Q_INDEX_SEGMENT_ID,
+        new QueryableIndexSegment(qIndex, Q_INDEX_SEGMENT_ID)
+    );
+
+    final QueryToolChest<Result<TopNResultValue>, TopNQuery> toolChest = factory.getToolchest();
+    final QueryRunner<Result<TopNResultValue>> theRunner = new FinalizeResultsQueryRunner<>(
+        toolChest.mergeResults(toolChest.preMergeQueryDecoration(runner)),
+        toolChest
+    );
+
+    final List<Result<TopNResultValue>> results =
+        theRunner.run(QueryPlus.wrap(query), ResponseContext.createEmpty()).toList();
+
+    for (Result<TopNResultValue> result : results) {
+      blackhole.consume(result);
+    }
+  }
+}
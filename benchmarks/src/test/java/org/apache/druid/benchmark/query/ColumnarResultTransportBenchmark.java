@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.benchmark.query;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import org.apache.druid.client.JsonParserIterator;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.columnar.ColumnarResultFormat;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.groupby.GroupByQuery;
+import org.apache.druid.query.groupby.GroupByQueryConfig;
+import org.apache.druid.query.groupby.GroupByQueryQueryToolChest;
+import org.apache.druid.query.groupby.ResultRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Broker side cost of reading and merging groupBy results sent by data servers as Smile, and in the
+ * {@link ColumnarResultFormat}.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 25)
+public class ColumnarResultTransportBenchmark
+{
+  static {
+    NullHandling.initializeForTests();
+  }
+
+  @Param({"4"})
+  private int numServers;
+
+  @Param({"100000"})
+  private int rowsPerServer;
+
+  @Param({"1000", "100000"})
+  private int dimensionCardinality;
+
+  private GroupByQuery query;
+  private ObjectMapper mapper;
+  private JavaType resultType;
+  private List<byte[]> smileResponses;
+  private List<byte[]> columnarResponses;
+
+  @Setup
+  public void setup() throws IOException
+  {
+    query = GroupByQuery.builder()
+                        .setDataSource("foo")
+                        .setGranularity(Granularities.ALL)
+                        .setInterval(Intervals.ETERNITY)
+                        .setDimensions(DefaultDimensionSpec.of("dimA"), DefaultDimensionSpec.of("dimB"))
+                        .setAggregatorSpecs(
+                            new LongSumAggregatorFactory("sumLong", "metLong"),
+                            new DoubleSumAggregatorFactory("sumDouble", "metDouble")
+                        )
+                        .setContext(ImmutableMap.of(GroupByQueryConfig.CTX_KEY_ARRAY_RESULT_ROWS, true))
+                        .build();
+    mapper = new GroupByQueryQueryToolChest(null).decorateObjectMapper(
+        new DefaultObjectMapper(new SmileFactory()),
+        query
+    );
+    resultType = mapper.getTypeFactory().constructType(ResultRow.class);
+
+    final Random random = new Random(0);
+    smileResponses = new ArrayList<>();
+    columnarResponses = new ArrayList<>();
+    for (int server = 0; server < numServers; server++) {
+      final List<ResultRow> rows = new ArrayList<>(rowsPerServer);
+      for (int i = 0; i < rowsPerServer; i++) {
+        rows.add(
+            ResultRow.of(
+                "a" + random.nextInt(dimensionCardinality),
+                "b" + random.nextInt(10),
+                (long) random.nextInt(1000),
+                random.nextDouble()
+            )
+        );
+      }
+
+      smileResponses.add(mapper.writeValueAsBytes(rows));
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ColumnarResultFormat.newWriter(query, mapper.writer()).write(Sequences.simple(rows), out);
+      columnarResponses.add(out.toByteArray());
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void mergeSmile(Blackhole blackhole) throws IOException
+  {
+    blackhole.consume(merge(smileResponses, false));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void mergeColumnar(Blackhole blackhole) throws IOException
+  {
+    blackhole.consume(merge(columnarResponses, true));
+  }
+
+  private Map<List<Object>, ResultRow> merge(List<byte[]> responses, boolean columnar) throws IOException
+  {
+    final Map<List<Object>, ResultRow> merged = new HashMap<>();
+    for (byte[] response : responses) {
+      final JsonParserIterator<ResultRow> iterator = new JsonParserIterator<>(
+          resultType,
+          Futures.<InputStream>immediateFuture(new ByteArrayInputStream(response)),
+          "url",
+          query,
+          "host",
+          mapper,
+          columnar
+      );
+      while (iterator.hasNext()) {
+        final ResultRow row = iterator.next();
+        final List<Object> key = Arrays.asList(row.get(0), row.get(1));
+        final ResultRow existing = merged.putIfAbsent(key, row);
+        if (existing != null) {
+          existing.set(2, ((Number) existing.get(2)).longValue() + ((Number) row.get(2)).longValue());
+          existing.set(3, ((Number) existing.get(3)).doubleValue() + ((Number) row.get(3)).doubleValue());
+        }
+      }
+      iterator.close();
+    }
+    return merged;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordinator;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.apache.druid.client.ImmutableDruidDataSource;
+import org.apache.druid.client.ImmutableDruidServer;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.server.coordination.DruidServerMetadata;
+import org.apache.druid.server.coordination.ServerType;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.NumberedShardSpec;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time of a balancing decision of {@link CostBalancerStrategy} and {@link SampledCostBalancerStrategy},
+ * on a tier of 100 servers serving 2M segments of 20 datasources, hourly over two years, all computed on the calling
+ * thread. {@link #sampledCostFirstDecision} includes building the histograms of all the servers, which is done once per
+ * coordinator run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseG1GC", "-Xmx8g"})
+public class SampledCostBalancerStrategyBenchmark
+{
+  private static final DateTime START = DateTimes.of("2019-01-01");
+  private static final int NUM_SERVERS = 100;
+  private static final int NUM_SEGMENTS = 2_000_000;
+  private static final int NUM_DATASOURCES = 20;
+  private static final int NUM_HOURS = 2 * 365 * 24;
+
+  @Param({"50", "500"})
+  private int maxSamplesPerServer;
+
+  private final ListeningExecutorService exec = Execs.directExecutor();
+  private List<ServerHolder> servers;
+  private CostBalancerStrategy costStrategy;
+  private SampledCostBalancerStrategy sampledStrategy;
+  private DataSegment proposalSegment;
+
+  @Setup(Level.Trial)
+  public void setupCluster()
+  {
+    final Random random = new Random(0);
+    final List<Map<String, List<DataSegment>>> segmentsPerServer = new ArrayList<>(NUM_SERVERS);
+    for (int i = 0; i < NUM_SERVERS; i++) {
+      segmentsPerServer.add(new HashMap<>());
+    }
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      final String dataSource = "dataSource" + (i % NUM_DATASOURCES);
+      final int hour = (i / NUM_DATASOURCES) % NUM_HOURS;
+      final int partition = i / (NUM_DATASOURCES * NUM_HOURS);
+      segmentsPerServer.get(random.nextInt(NUM_SERVERS))
+                       .computeIfAbsent(dataSource, ds -> new ArrayList<>())
+                       .add(createSegment(dataSource, hour, partition));
+    }
+
+    servers = new ArrayList<>(NUM_SERVERS);
+    for (int i = 0; i < NUM_SERVERS; i++) {
+      final Map<String, ImmutableDruidDataSource> dataSources = new HashMap<>();
+      int numSegments = 0;
+      for (Map.Entry<String, List<DataSegment>> entry : segmentsPerServer.get(i).entrySet()) {
+        dataSources.put(
+            entry.getKey(),
+            new ImmutableDruidDataSource(entry.getKey(), Collections.emptyMap(), entry.getValue())
+        );
+        numSegments += entry.getValue().size();
+      }
+      final String name = "server" + i;
+      servers.add(
+          new ServerHolder(
+              new ImmutableDruidServer(
+                  new DruidServerMetadata(name, name, null, Long.MAX_VALUE, ServerType.HISTORICAL, "tier", 0),
+                  0L,
+                  dataSources,
+                  numSegments
+              ),
+              new LoadQueuePeonTester()
+          )
+      );
+    }
+
+    costStrategy = new CostBalancerStrategy(exec);
+    sampledStrategy = new SampledCostBalancerStrategy(exec, maxSamplesPerServer);
+    proposalSegment = createSegment("dataSource0", NUM_HOURS / 2, Integer.MAX_VALUE);
+    // Builds the histograms.
+    sampledStrategy.findNewSegmentHomeReplicator(proposalSegment, servers);
+  }
+
+  @Benchmark
+  public ServerHolder costDecision()
+  {
+    return costStrategy.findNewSegmentHomeReplicator(proposalSegment, servers);
+  }
+
+  @Benchmark
+  public ServerHolder sampledCostDecision()
+  {
+    return sampledStrategy.findNewSegmentHomeReplicator(proposalSegment, servers);
+  }
+
+  @Benchmark
+  public ServerHolder sampledCostFirstDecision()
+  {
+    return new SampledCostBalancerStrategy(exec, maxSamplesPerServer)
+        .findNewSegmentHomeReplicator(proposalSegment, servers);
+  }
+
+  private static DataSegment createSegment(String dataSource, int hour, int partition)
+  {
+    final DateTime start = START.plusHours(hour);
+    return new DataSegment(
+        dataSource,
+        new Interval(start, start.plusHours(1)),
+        "v1",
+        null,
+        null,
+        null,
+        new NumberedShardSpec(partition, 0),
+        0,
+        100
+    );
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.druid.java.util.common.logger.Logger;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 /**
@@ -83,6 +84,37 @@ public class GuavaUtils
     return arg1;
   }
 
+  /**
+   * Waits for all the given futures, even if some of them fail, so that none of them is still running when an error
+   * is reported. If any failed, throws an ExecutionException caused by the first failure, with the other failures
+   * added to it as suppressed exceptions.
+   *
+   * @return results of the futures, in the same order
+   */
+  public static <T> List<T> getAll(List<? extends Future<? extends T>> futures)
+      throws InterruptedException, ExecutionException
+  {
+    final List<T> results = new ArrayList<>(futures.size());
+    Throwable error = null;
+    for (Future<? extends T> future : futures) {
+      try {
+        results.add(future.get());
+      }
+      catch (ExecutionException e) {
+        if (error == null) {
+          error = e.getCause();
+        } else {
+          error.addSuppressed(e.getCause());
+        }
+      }
+    }
+
+    if (error != null) {
+      throw new ExecutionException(error);
+    }
+    return results;
+  }
+
   /**
    * Cancel futures manually, because sometime we can't cancel all futures in {@link com.google.common.util.concurrent.Futures.CombinedFuture}
    * automatically. Especially when we call {@link  com.google.common.util.concurrent.Futures#allAsList(Iterable)} to create a batch of
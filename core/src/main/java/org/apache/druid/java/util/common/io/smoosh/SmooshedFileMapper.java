@@ -49,6 +49,13 @@ import java.util.TreeMap;
 public class SmooshedFileMapper implements Closeable
 {
   private static final Interner<String> STRING_INTERNER = Interners.newWeakInterner();
+  private static final int PAGE_SIZE = 4096;
+
+  /**
+   * Sink of the bytes read by {@link #prefetch}, so that the reads are not optimized away.
+   */
+  @SuppressWarnings("unused")
+  private static volatile byte prefetchChecksum;
 
   public static SmooshedFileMapper load(File baseDir) throws IOException
   {
@@ -119,7 +126,7 @@ public class SmooshedFileMapper implements Closeable
    * Returns a mapped buffer of the smooshed file with the given name. Buffer's contents from 0 to capacity() are the
    * whole mapped file contents, limit() is equal to capacity().
    */
-  public ByteBuffer mapFile(String name) throws IOException
+  public synchronized ByteBuffer mapFile(String name) throws IOException
   {
     final Metadata metadata = internalFiles.get(name);
     if (metadata == null) {
@@ -142,8 +149,31 @@ public class SmooshedFileMapper implements Closeable
     return retVal.slice();
   }
 
+  /**
+   * Reads every page of the smooshed file with the given name, so that it is in the page cache before the queries
+   * using it need it. This is what madvise(MADV_WILLNEED) would do, except that it blocks until the pages are read.
+   *
+   * @return the size of the file in bytes, or 0 if there is no such file
+   */
+  public long prefetch(String name) throws IOException
+  {
+    final ByteBuffer buffer = mapFile(name);
+    if (buffer == null || buffer.limit() == 0) {
+      return 0;
+    }
+
+    byte checksum = 0;
+    for (int i = 0; i < buffer.limit(); i += PAGE_SIZE) {
+      checksum ^= buffer.get(i);
+    }
+    // The file may not start at a page boundary, in which case its last page is not read by the loop above.
+    checksum ^= buffer.get(buffer.limit() - 1);
+    prefetchChecksum = checksum;
+    return buffer.limit();
+  }
+
   @Override
-  public void close()
+  public synchronized void close()
   {
     Throwable thrown = null;
     for (MappedByteBuffer mappedByteBuffer : buffersList) {
@@ -24,14 +24,18 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -67,6 +71,49 @@ public class GuavaUtilsTest
     Assert.assertEquals(null, GuavaUtils.getEnumIfPresent(MyEnum.class, "buckle_my_shoe"));
   }
 
+  @Test
+  public void testGetAll() throws Exception
+  {
+    Assert.assertEquals(
+        Arrays.asList(1, 2),
+        GuavaUtils.getAll(Arrays.asList(Futures.immediateFuture(1), Futures.immediateFuture(2)))
+    );
+  }
+
+  @Test
+  public void testGetAllWaitsForAllFutures() throws Exception
+  {
+    final RuntimeException first = new RuntimeException("first");
+    final RuntimeException second = new RuntimeException("second");
+    final SettableFuture<Integer> last = SettableFuture.create();
+    final List<ListenableFuture<Integer>> futures = Arrays.asList(
+        Futures.immediateFailedFuture(first),
+        Futures.immediateFailedFuture(second),
+        last
+    );
+
+    final ExecutorService service = Executors.newSingleThreadExecutor();
+    try {
+      final Future<List<Integer>> all = service.submit(() -> GuavaUtils.getAll(futures));
+      Thread.sleep(100);
+      Assert.assertFalse(all.isDone());
+
+      last.set(3);
+      try {
+        all.get();
+        Assert.fail("Expected ExecutionException");
+      }
+      catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof ExecutionException);
+        Assert.assertSame(first, e.getCause().getCause());
+        Assert.assertArrayEquals(new Throwable[]{second}, first.getSuppressed());
+      }
+    }
+    finally {
+      service.shutdownNow();
+    }
+  }
+
   @Test
   public void testCancelAll()
   {
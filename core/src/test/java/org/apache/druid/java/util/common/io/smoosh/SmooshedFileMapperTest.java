@@ -192,6 +192,26 @@ public class SmooshedFileMapperTest
     Assert.assertEquals(totalMemoryUsedBeforeAddingFile, totalMemoryUsedAfterAddingFile);
   }
 
+  @Test
+  public void testPrefetch() throws IOException
+  {
+    File baseDir = folder.newFolder("base");
+
+    try (FileSmoosher smoosher = new FileSmoosher(baseDir)) {
+      smoosher.add("small", ByteBuffer.wrap(Ints.toByteArray(1)));
+      smoosher.add("large", ByteBuffer.allocate(3 * 4096 + 5));
+      smoosher.add("empty", ByteBuffer.allocate(0));
+    }
+
+    try (SmooshedFileMapper mapper = SmooshedFileMapper.load(baseDir)) {
+      Assert.assertEquals(4, mapper.prefetch("small"));
+      Assert.assertEquals(3 * 4096 + 5, mapper.prefetch("large"));
+      Assert.assertEquals(0, mapper.prefetch("empty"));
+      Assert.assertEquals(0, mapper.prefetch("missing"));
+      Assert.assertEquals(1, mapper.mapFile("small").getInt());
+    }
+  }
+
   private void validateOutput(File baseDir) throws IOException
   {
     File[] files = baseDir.listFiles();
@@ -26,8 +26,13 @@ import org.apache.datasketches.hll.TgtHllType;
 import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 
@@ -81,6 +86,40 @@ public class HllSketchBuildAggregatorFactory extends HllSketchAggregatorFactory
     );
   }
 
+  @Override
+  public VectorAggregator factorizeVector(final VectorColumnSelectorFactory selectorFactory)
+  {
+    final ColumnCapabilities capabilities = selectorFactory.getColumnCapabilities(getFieldName());
+    if (capabilities != null && ValueType.isNumeric(capabilities.getType())) {
+      return HllSketchBuildVectorAggregator.forNumbers(
+          selectorFactory.makeValueSelector(getFieldName()),
+          capabilities.getType(),
+          getLgK(),
+          TgtHllType.valueOf(getTgtHllType()),
+          getMaxIntermediateSize()
+      );
+    } else {
+      return HllSketchBuildVectorAggregator.forObjects(
+          selectorFactory.makeObjectSelector(getFieldName()),
+          getLgK(),
+          TgtHllType.valueOf(getTgtHllType()),
+          getMaxIntermediateSize()
+      );
+    }
+  }
+
+  @Override
+  public boolean canVectorize(final ColumnInspector columnInspector)
+  {
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(getFieldName());
+
+    // Multi-value string columns do not offer vector object selectors.
+    return capabilities == null
+           || ValueType.isNumeric(capabilities.getType())
+           || capabilities.getType() == ValueType.COMPLEX
+           || (capabilities.getType() == ValueType.STRING && capabilities.hasMultipleValues().isFalse());
+  }
+
   /**
    * For the HLL_4 sketch type, this value can be exceeded slightly in extremely rare cases.
    * The sketch will request on-heap memory and move there. It is handled in HllSketchBuildBufferAggregator.
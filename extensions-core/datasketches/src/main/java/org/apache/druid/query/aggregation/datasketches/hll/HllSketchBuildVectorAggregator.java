@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.hll;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.TgtHllType;
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+
+/**
+ * Vectorized version of {@link HllSketchBuildBufferAggregator}. Numeric inputs are read as primitive vectors, anything
+ * else is read as objects and handed to {@link HllSketchBuildAggregator#updateSketch}.
+ *
+ * Unlike the buffer aggregator, no locks are needed: vectorized engines never call aggregate() and get() concurrently.
+ */
+public class HllSketchBuildVectorAggregator implements VectorAggregator
+{
+  @Nullable
+  private final VectorValueSelector valueSelector;
+  @Nullable
+  private final VectorObjectSelector objectSelector;
+  @Nullable
+  private final ValueType numericType;
+  private final int size;
+  private final IdentityHashMap<ByteBuffer, WritableMemory> memCache = new IdentityHashMap<>();
+  private final IdentityHashMap<ByteBuffer, Int2ObjectMap<HllSketch>> sketchCache = new IdentityHashMap<>();
+
+  /**
+   * Used by {@link #init(ByteBuffer, int)}, like the prebuilt image in {@link HllSketchBuildBufferAggregator}.
+   */
+  private final byte[] emptySketch;
+
+  private HllSketchBuildVectorAggregator(
+      @Nullable final VectorValueSelector valueSelector,
+      @Nullable final VectorObjectSelector objectSelector,
+      @Nullable final ValueType numericType,
+      final int lgK,
+      final TgtHllType tgtHllType,
+      final int size
+  )
+  {
+    this.valueSelector = valueSelector;
+    this.objectSelector = objectSelector;
+    this.numericType = numericType;
+    this.size = size;
+    this.emptySketch = new byte[size];
+
+    //noinspection ResultOfObjectAllocationIgnored (HllSketch writes to "emptySketch" as a side effect of construction)
+    new HllSketch(lgK, tgtHllType, WritableMemory.wrap(emptySketch));
+  }
+
+  /**
+   * Creates an aggregator that reads a LONG, FLOAT or DOUBLE column through a {@link VectorValueSelector}.
+   */
+  public static HllSketchBuildVectorAggregator forNumbers(
+      final VectorValueSelector selector,
+      final ValueType type,
+      final int lgK,
+      final TgtHllType tgtHllType,
+      final int size
+  )
+  {
+    if (!ValueType.isNumeric(type)) {
+      throw new IAE("Expected a numeric type, got [%s]", type);
+    }
+    return new HllSketchBuildVectorAggregator(selector, null, type, lgK, tgtHllType, size);
+  }
+
+  /**
+   * Creates an aggregator that reads objects through a {@link VectorObjectSelector}.
+   */
+  public static HllSketchBuildVectorAggregator forObjects(
+      final VectorObjectSelector selector,
+      final int lgK,
+      final TgtHllType tgtHllType,
+      final int size
+  )
+  {
+    return new HllSketchBuildVectorAggregator(null, selector, null, lgK, tgtHllType, size);
+  }
+
+  @Override
+  public void init(final ByteBuffer buf, final int position)
+  {
+    final int oldPosition = buf.position();
+    try {
+      buf.position(position);
+      buf.put(emptySketch);
+    }
+    finally {
+      buf.position(oldPosition);
+    }
+
+    final WritableMemory mem = getMemory(buf).writableRegion(position, size);
+    putSketchIntoCache(buf, position, HllSketch.writableWrap(mem));
+  }
+
+  @Override
+  public void aggregate(final ByteBuffer buf, final int position, final int startRow, final int endRow)
+  {
+    final HllSketch sketch = sketchCache.get(buf).get(position);
+    final RowUpdater updater = makeRowUpdater();
+
+    for (int i = startRow; i < endRow; i++) {
+      updater.update(sketch, i);
+    }
+  }
+
+  @Override
+  public void aggregate(
+      final ByteBuffer buf,
+      final int numRows,
+      final int[] positions,
+      @Nullable final int[] rows,
+      final int positionOffset
+  )
+  {
+    final Int2ObjectMap<HllSketch> sketches = sketchCache.get(buf);
+    final RowUpdater updater = makeRowUpdater();
+
+    for (int i = 0; i < numRows; i++) {
+      updater.update(sketches.get(positions[i] + positionOffset), rows != null ? rows[i] : i);
+    }
+  }
+
+  @Override
+  public Object get(final ByteBuffer buf, final int position)
+  {
+    return sketchCache.get(buf).get(position).copy();
+  }
+
+  /**
+   * Same as {@link HllSketchBuildBufferAggregator#relocate}.
+   */
+  @Override
+  public void relocate(final int oldPosition, final int newPosition, final ByteBuffer oldBuf, final ByteBuffer newBuf)
+  {
+    HllSketch sketch = sketchCache.get(oldBuf).get(oldPosition);
+    final WritableMemory oldMem = getMemory(oldBuf).writableRegion(oldPosition, size);
+    if (sketch.isSameResource(oldMem)) { // sketch has not moved
+      final WritableMemory newMem = getMemory(newBuf).writableRegion(newPosition, size);
+      sketch = HllSketch.writableWrap(newMem);
+    }
+    putSketchIntoCache(newBuf, newPosition, sketch);
+  }
+
+  @Override
+  public void close()
+  {
+    memCache.clear();
+    sketchCache.clear();
+  }
+
+  /**
+   * Fetches the current vector once, and returns a function that applies one of its rows to a sketch.
+   */
+  private RowUpdater makeRowUpdater()
+  {
+    if (objectSelector != null) {
+      final Object[] vector = objectSelector.getObjectVector();
+      return (sketch, row) -> {
+        final Object value = vector[row];
+        if (value != null) {
+          HllSketchBuildAggregator.updateSketch(sketch, value);
+        }
+      };
+    }
+
+    final boolean[] nullVector = valueSelector.getNullVector();
+
+    switch (numericType) {
+      case LONG: {
+        final long[] vector = valueSelector.getLongVector();
+        return (sketch, row) -> {
+          if (nullVector == null || !nullVector[row]) {
+            sketch.update(vector[row]);
+          }
+        };
+      }
+      case FLOAT: {
+        final float[] vector = valueSelector.getFloatVector();
+        return (sketch, row) -> {
+          if (nullVector == null || !nullVector[row]) {
+            sketch.update((double) vector[row]);
+          }
+        };
+      }
+      default: {
+        final double[] vector = valueSelector.getDoubleVector();
+        return (sketch, row) -> {
+          if (nullVector == null || !nullVector[row]) {
+            sketch.update(vector[row]);
+          }
+        };
+      }
+    }
+  }
+
+  private WritableMemory getMemory(final ByteBuffer buf)
+  {
+    return memCache.computeIfAbsent(buf, b -> WritableMemory.wrap(b, ByteOrder.LITTLE_ENDIAN));
+  }
+
+  private void putSketchIntoCache(final ByteBuffer buf, final int position, final HllSketch sketch)
+  {
+    final Int2ObjectMap<HllSketch> map = sketchCache.computeIfAbsent(buf, b -> new Int2ObjectOpenHashMap<>());
+    map.put(position, sketch);
+  }
+
+  @FunctionalInterface
+  private interface RowUpdater
+  {
+    void update(HllSketch sketch, int row);
+  }
+}
@@ -29,8 +29,13 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.AggregatorFactoryNotMergeableException;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 
@@ -102,6 +107,24 @@ public class HllSketchMergeAggregatorFactory extends HllSketchAggregatorFactory
     );
   }
 
+  @Override
+  public VectorAggregator factorizeVector(final VectorColumnSelectorFactory selectorFactory)
+  {
+    return new HllSketchMergeVectorAggregator(
+        selectorFactory.makeObjectSelector(getFieldName()),
+        getLgK(),
+        TgtHllType.valueOf(getTgtHllType()),
+        getMaxIntermediateSize()
+    );
+  }
+
+  @Override
+  public boolean canVectorize(final ColumnInspector columnInspector)
+  {
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(getFieldName());
+    return capabilities == null || capabilities.getType() == ValueType.COMPLEX;
+  }
+
   @Override
   public int getMaxIntermediateSize()
   {
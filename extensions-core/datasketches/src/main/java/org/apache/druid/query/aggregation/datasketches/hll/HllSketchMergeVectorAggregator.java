@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.hll;
+
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.TgtHllType;
+import org.apache.datasketches.hll.Union;
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+
+/**
+ * Vectorized version of {@link HllSketchMergeBufferAggregator}.
+ * The input column must contain {@link HllSketch}
+ */
+public class HllSketchMergeVectorAggregator implements VectorAggregator
+{
+  private final VectorObjectSelector selector;
+  private final TgtHllType tgtHllType;
+  private final int size;
+  private final IdentityHashMap<ByteBuffer, WritableMemory> memCache = new IdentityHashMap<>();
+
+  /**
+   * Used by {@link #init(ByteBuffer, int)}, like the prebuilt image in {@link HllSketchMergeBufferAggregator}.
+   */
+  private final byte[] emptyUnion;
+
+  public HllSketchMergeVectorAggregator(
+      final VectorObjectSelector selector,
+      final int lgK,
+      final TgtHllType tgtHllType,
+      final int size
+  )
+  {
+    this.selector = selector;
+    this.tgtHllType = tgtHllType;
+    this.size = size;
+    this.emptyUnion = new byte[size];
+
+    //noinspection ResultOfObjectAllocationIgnored (Union writes to "emptyUnion" as a side effect of construction)
+    new Union(lgK, WritableMemory.wrap(emptyUnion));
+  }
+
+  @Override
+  public void init(final ByteBuffer buf, final int position)
+  {
+    // Copy prebuilt empty union object. Union objects never exceed the max size, so there is no need to cache them;
+    // see HllSketchMergeBufferAggregator#init.
+    final int oldPosition = buf.position();
+    try {
+      buf.position(position);
+      buf.put(emptyUnion);
+    }
+    finally {
+      buf.position(oldPosition);
+    }
+  }
+
+  @Override
+  public void aggregate(final ByteBuffer buf, final int position, final int startRow, final int endRow)
+  {
+    final Object[] vector = selector.getObjectVector();
+    final Union union = wrapUnion(buf, position);
+
+    for (int i = startRow; i < endRow; i++) {
+      final HllSketch sketch = (HllSketch) vector[i];
+      if (sketch != null) {
+        union.update(sketch);
+      }
+    }
+  }
+
+  @Override
+  public void aggregate(
+      final ByteBuffer buf,
+      final int numRows,
+      final int[] positions,
+      @Nullable final int[] rows,
+      final int positionOffset
+  )
+  {
+    final Object[] vector = selector.getObjectVector();
+
+    for (int i = 0; i < numRows; i++) {
+      final HllSketch sketch = (HllSketch) vector[rows != null ? rows[i] : i];
+      if (sketch != null) {
+        wrapUnion(buf, positions[i] + positionOffset).update(sketch);
+      }
+    }
+  }
+
+  @Override
+  public Object get(final ByteBuffer buf, final int position)
+  {
+    return wrapUnion(buf, position).getResult(tgtHllType);
+  }
+
+  @Override
+  public void close()
+  {
+    memCache.clear();
+  }
+
+  private Union wrapUnion(final ByteBuffer buf, final int position)
+  {
+    final WritableMemory mem = memCache.computeIfAbsent(buf, b -> WritableMemory.wrap(b, ByteOrder.LITTLE_ENDIAN))
+                                       .writableRegion(position, size);
+    return Union.writableWrap(mem);
+  }
+}
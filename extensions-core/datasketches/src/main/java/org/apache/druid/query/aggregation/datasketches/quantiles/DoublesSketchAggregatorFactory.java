@@ -32,11 +32,17 @@ import org.apache.druid.query.aggregation.AggregatorFactoryNotMergeableException
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
 import org.apache.druid.query.aggregation.ObjectAggregateCombiner;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.cache.CacheKeyBuilder;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
@@ -119,6 +125,33 @@ public class DoublesSketchAggregatorFactory extends AggregatorFactory
     return new DoublesSketchMergeBufferAggregator(selector, k, getMaxIntermediateSizeWithNulls());
   }
 
+  @Override
+  public VectorAggregator factorizeVector(final VectorColumnSelectorFactory selectorFactory)
+  {
+    final ColumnCapabilities capabilities = selectorFactory.getColumnCapabilities(fieldName);
+    if (capabilities != null && ValueType.isNumeric(capabilities.getType())) {
+      return new DoublesSketchBuildVectorAggregator(
+          selectorFactory.makeValueSelector(fieldName),
+          k,
+          getMaxIntermediateSizeWithNulls()
+      );
+    }
+    final VectorObjectSelector selector = selectorFactory.makeObjectSelector(fieldName);
+    if (selector instanceof NilVectorSelector) {
+      return new NoopDoublesSketchVectorAggregator();
+    }
+    return new DoublesSketchMergeVectorAggregator(selector, k, getMaxIntermediateSizeWithNulls());
+  }
+
+  @Override
+  public boolean canVectorize(final ColumnInspector columnInspector)
+  {
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(fieldName);
+    return capabilities == null
+           || ValueType.isNumeric(capabilities.getType())
+           || capabilities.getType() == ValueType.COMPLEX;
+  }
+
   @Override
   public Object deserialize(final Object object)
   {
@@ -25,9 +25,16 @@ import org.apache.datasketches.quantiles.DoublesSketch;
 import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
 
 public class DoublesSketchMergeAggregatorFactory extends DoublesSketchAggregatorFactory
 {
@@ -60,4 +67,21 @@ public class DoublesSketchMergeAggregatorFactory extends DoublesSketchAggregator
     return new DoublesSketchMergeBufferAggregator(selector, getK(), getMaxIntermediateSizeWithNulls());
   }
 
+  @Override
+  public VectorAggregator factorizeVector(final VectorColumnSelectorFactory selectorFactory)
+  {
+    final VectorObjectSelector selector = selectorFactory.makeObjectSelector(getFieldName());
+    if (selector instanceof NilVectorSelector) {
+      return new NoopDoublesSketchVectorAggregator();
+    }
+    return new DoublesSketchMergeVectorAggregator(selector, getK(), getMaxIntermediateSizeWithNulls());
+  }
+
+  @Override
+  public boolean canVectorize(final ColumnInspector columnInspector)
+  {
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(getFieldName());
+    return capabilities == null || capabilities.getType() == ValueType.COMPLEX;
+  }
+
 }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.quantiles;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.datasketches.quantiles.DoublesSketch;
+import org.apache.datasketches.quantiles.DoublesUnion;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+
+/**
+ * Vectorized version of {@link DoublesSketchMergeBufferAggregator}.
+ */
+public class DoublesSketchMergeVectorAggregator implements VectorAggregator
+{
+  private final VectorObjectSelector selector;
+  private final int k;
+  private final int maxIntermediateSize;
+  private final IdentityHashMap<ByteBuffer, WritableMemory> memCache = new IdentityHashMap<>();
+  private final IdentityHashMap<ByteBuffer, Int2ObjectMap<DoublesUnion>> unions = new IdentityHashMap<>();
+
+  public DoublesSketchMergeVectorAggregator(
+      final VectorObjectSelector selector,
+      final int k,
+      final int maxIntermediateSize
+  )
+  {
+    this.selector = selector;
+    this.k = k;
+    this.maxIntermediateSize = maxIntermediateSize;
+  }
+
+  @Override
+  public void init(final ByteBuffer buffer, final int position)
+  {
+    final WritableMemory region = getMemory(buffer).writableRegion(position, maxIntermediateSize);
+    final DoublesUnion union = DoublesUnion.builder().setMaxK(k).build(region);
+    putUnion(buffer, position, union);
+  }
+
+  @Override
+  public void aggregate(final ByteBuffer buffer, final int position, final int startRow, final int endRow)
+  {
+    final Object[] vector = selector.getObjectVector();
+    final DoublesUnion union = unions.get(buffer).get(position);
+
+    for (int i = startRow; i < endRow; i++) {
+      updateUnion(union, vector[i]);
+    }
+  }
+
+  @Override
+  public void aggregate(
+      final ByteBuffer buffer,
+      final int numRows,
+      final int[] positions,
+      @Nullable final int[] rows,
+      final int positionOffset
+  )
+  {
+    final Object[] vector = selector.getObjectVector();
+    final Int2ObjectMap<DoublesUnion> unionMap = unions.get(buffer);
+
+    for (int i = 0; i < numRows; i++) {
+      updateUnion(unionMap.get(positions[i] + positionOffset), vector[rows != null ? rows[i] : i]);
+    }
+  }
+
+  @Override
+  public Object get(final ByteBuffer buffer, final int position)
+  {
+    return unions.get(buffer).get(position).getResult();
+  }
+
+  /**
+   * Same as {@link DoublesSketchMergeBufferAggregator#relocate}.
+   */
+  @Override
+  public void relocate(int oldPosition, int newPosition, ByteBuffer oldBuffer, ByteBuffer newBuffer)
+  {
+    DoublesUnion union = unions.get(oldBuffer).get(oldPosition);
+    final WritableMemory oldMem = getMemory(oldBuffer).writableRegion(oldPosition, maxIntermediateSize);
+    if (union.isSameResource(oldMem)) { // union was not relocated on heap
+      final WritableMemory newMem = getMemory(newBuffer).writableRegion(newPosition, maxIntermediateSize);
+      union = DoublesUnion.wrap(newMem);
+    }
+    putUnion(newBuffer, newPosition, union);
+
+    Int2ObjectMap<DoublesUnion> map = unions.get(oldBuffer);
+    map.remove(oldPosition);
+    if (map.isEmpty()) {
+      unions.remove(oldBuffer);
+      memCache.remove(oldBuffer);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    unions.clear();
+    memCache.clear();
+  }
+
+  /**
+   * Like {@link DoublesSketchMergeAggregator#updateUnion}, but for an object that has already been read.
+   */
+  private static void updateUnion(final DoublesUnion union, @Nullable final Object object)
+  {
+    if (object == null) {
+      return;
+    }
+    if (object instanceof DoublesSketch) {
+      union.update((DoublesSketch) object);
+    } else {
+      union.update(((Number) object).doubleValue());
+    }
+  }
+
+  private WritableMemory getMemory(final ByteBuffer buffer)
+  {
+    return memCache.computeIfAbsent(buffer, buf -> WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN));
+  }
+
+  private void putUnion(final ByteBuffer buffer, final int position, final DoublesUnion union)
+  {
+    Int2ObjectMap<DoublesUnion> map = unions.computeIfAbsent(buffer, buf -> new Int2ObjectOpenHashMap<>());
+    map.put(position, union);
+  }
+}
@@ -31,9 +31,14 @@ import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.BufferAggregator;
 import org.apache.druid.query.aggregation.ObjectAggregateCombiner;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.segment.BaseObjectColumnValueSelector;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -77,6 +82,44 @@ public abstract class SketchAggregatorFactory extends AggregatorFactory
     return new SketchBufferAggregator(selector, size, getMaxIntermediateSizeWithNulls());
   }
 
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    final ColumnCapabilities capabilities = selectorFactory.getColumnCapabilities(fieldName);
+    if (capabilities != null && isVectorizableNumber(capabilities.getType())) {
+      return SketchVectorAggregator.forNumbers(
+          selectorFactory.makeValueSelector(fieldName),
+          capabilities.getType(),
+          size,
+          getMaxIntermediateSizeWithNulls()
+      );
+    } else {
+      return SketchVectorAggregator.forObjects(
+          selectorFactory.makeObjectSelector(fieldName),
+          size,
+          getMaxIntermediateSizeWithNulls()
+      );
+    }
+  }
+
+  @Override
+  public boolean canVectorize(ColumnInspector columnInspector)
+  {
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(fieldName);
+
+    // FLOAT is left out because SketchAggregator#updateUnion rejects floats. Multi-value string columns do not offer
+    // vector object selectors.
+    return capabilities == null
+           || isVectorizableNumber(capabilities.getType())
+           || capabilities.getType() == ValueType.COMPLEX
+           || (capabilities.getType() == ValueType.STRING && capabilities.hasMultipleValues().isFalse());
+  }
+
+  private static boolean isVectorizableNumber(ValueType type)
+  {
+    return type == ValueType.LONG || type == ValueType.DOUBLE;
+  }
+
   @Override
   public Object deserialize(Object object)
   {
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.theta;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.apache.datasketches.Family;
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.datasketches.theta.SetOperation;
+import org.apache.datasketches.theta.Union;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+
+/**
+ * Vectorized version of {@link SketchBufferAggregator}, used for both building and merging theta sketches. LONG and
+ * DOUBLE inputs are read as primitive vectors, anything else is read as objects and handed to
+ * {@link SketchAggregator#updateUnion}.
+ */
+public class SketchVectorAggregator implements VectorAggregator
+{
+  @Nullable
+  private final VectorValueSelector valueSelector;
+  @Nullable
+  private final VectorObjectSelector objectSelector;
+  @Nullable
+  private final ValueType numericType;
+  private final int size;
+  private final int maxIntermediateSize;
+  private final IdentityHashMap<ByteBuffer, Int2ObjectMap<Union>> unions = new IdentityHashMap<>();
+  private final IdentityHashMap<ByteBuffer, WritableMemory> memCache = new IdentityHashMap<>();
+
+  private SketchVectorAggregator(
+      @Nullable final VectorValueSelector valueSelector,
+      @Nullable final VectorObjectSelector objectSelector,
+      @Nullable final ValueType numericType,
+      final int size,
+      final int maxIntermediateSize
+  )
+  {
+    this.valueSelector = valueSelector;
+    this.objectSelector = objectSelector;
+    this.numericType = numericType;
+    this.size = size;
+    this.maxIntermediateSize = maxIntermediateSize;
+  }
+
+  /**
+   * Creates an aggregator that reads a LONG or DOUBLE column through a {@link VectorValueSelector}. FLOAT is not
+   * accepted, since {@link SketchAggregator#updateUnion} does not accept floats either.
+   */
+  public static SketchVectorAggregator forNumbers(
+      final VectorValueSelector selector,
+      final ValueType type,
+      final int size,
+      final int maxIntermediateSize
+  )
+  {
+    if (type != ValueType.LONG && type != ValueType.DOUBLE) {
+      throw new IAE("Expected LONG or DOUBLE, got [%s]", type);
+    }
+    return new SketchVectorAggregator(selector, null, type, size, maxIntermediateSize);
+  }
+
+  /**
+   * Creates an aggregator that reads objects through a {@link VectorObjectSelector}.
+   */
+  public static SketchVectorAggregator forObjects(
+      final VectorObjectSelector selector,
+      final int size,
+      final int maxIntermediateSize
+  )
+  {
+    return new SketchVectorAggregator(null, selector, null, size, maxIntermediateSize);
+  }
+
+  @Override
+  public void init(final ByteBuffer buf, final int position)
+  {
+    createNewUnion(buf, position, false);
+  }
+
+  @Override
+  public void aggregate(final ByteBuffer buf, final int position, final int startRow, final int endRow)
+  {
+    final Union union = unions.get(buf).get(position);
+    final RowUpdater updater = makeRowUpdater();
+
+    for (int i = startRow; i < endRow; i++) {
+      updater.update(union, i);
+    }
+  }
+
+  @Override
+  public void aggregate(
+      final ByteBuffer buf,
+      final int numRows,
+      final int[] positions,
+      @Nullable final int[] rows,
+      final int positionOffset
+  )
+  {
+    final Int2ObjectMap<Union> unionMap = unions.get(buf);
+    final RowUpdater updater = makeRowUpdater();
+
+    for (int i = 0; i < numRows; i++) {
+      updater.update(unionMap.get(positions[i] + positionOffset), rows != null ? rows[i] : i);
+    }
+  }
+
+  @Override
+  public Object get(final ByteBuffer buf, final int position)
+  {
+    final Int2ObjectMap<Union> unionMap = unions.get(buf);
+    final Union union = unionMap != null ? unionMap.get(position) : null;
+    if (union == null) {
+      return SketchHolder.EMPTY;
+    }
+    // Ordered, like SketchBufferAggregator#get, since the result will most likely be unioned again later.
+    return SketchHolder.of(union.getResult(true, null));
+  }
+
+  @Override
+  public void relocate(final int oldPosition, final int newPosition, final ByteBuffer oldBuffer, final ByteBuffer newBuffer)
+  {
+    createNewUnion(newBuffer, newPosition, true);
+    final Int2ObjectMap<Union> unionMap = unions.get(oldBuffer);
+    if (unionMap != null) {
+      unionMap.remove(oldPosition);
+      if (unionMap.isEmpty()) {
+        unions.remove(oldBuffer);
+        memCache.remove(oldBuffer);
+      }
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    unions.clear();
+    memCache.clear();
+  }
+
+  /**
+   * Fetches the current vector once, and returns a function that applies one of its rows to a union.
+   */
+  private RowUpdater makeRowUpdater()
+  {
+    if (objectSelector != null) {
+      final Object[] vector = objectSelector.getObjectVector();
+      return (union, row) -> {
+        final Object value = vector[row];
+        if (value != null) {
+          SketchAggregator.updateUnion(union, value);
+        }
+      };
+    }
+
+    final boolean[] nullVector = valueSelector.getNullVector();
+
+    if (numericType == ValueType.LONG) {
+      final long[] vector = valueSelector.getLongVector();
+      return (union, row) -> {
+        if (nullVector == null || !nullVector[row]) {
+          union.update(vector[row]);
+        }
+      };
+    } else {
+      final double[] vector = valueSelector.getDoubleVector();
+      return (union, row) -> {
+        if (nullVector == null || !nullVector[row]) {
+          union.update(vector[row]);
+        }
+      };
+    }
+  }
+
+  private void createNewUnion(final ByteBuffer buf, final int position, final boolean isWrapped)
+  {
+    final WritableMemory mem = memCache.computeIfAbsent(buf, b -> WritableMemory.wrap(b, ByteOrder.LITTLE_ENDIAN))
+                                       .writableRegion(position, maxIntermediateSize);
+    final Union union = isWrapped
+                        ? (Union) SetOperation.wrap(mem)
+                        : (Union) SetOperation.builder().setNominalEntries(size).build(Family.UNION, mem);
+    unions.computeIfAbsent(buf, b -> new Int2ObjectOpenHashMap<>()).put(position, union);
+  }
+
+  @FunctionalInterface
+  private interface RowUpdater
+  {
+    void update(Union union, int row);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.hll;
+
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.TgtHllType;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class HllSketchVectorAggregatorTest
+{
+  private static final int LG_K = 12;
+  private static final TgtHllType TGT_HLL_TYPE = TgtHllType.HLL_4;
+  private static final int SIZE = HllSketch.getMaxUpdatableSerializationBytes(LG_K, TGT_HLL_TYPE);
+  private static final double DELTA = 0.01;
+
+  @Test
+  public void testBuildFromObjects()
+  {
+    final VectorObjectSelector selector = objectSelector(new Object[]{"a", "b", null, "c", "a", "d"});
+    final HllSketchBuildVectorAggregator aggregator =
+        HllSketchBuildVectorAggregator.forObjects(selector, LG_K, TGT_HLL_TYPE, SIZE);
+    final ByteBuffer buf = ByteBuffer.allocate(SIZE * 2);
+
+    aggregator.init(buf, SIZE);
+    aggregator.aggregate(buf, SIZE, 0, 5);
+
+    Assert.assertEquals(3, ((HllSketch) aggregator.get(buf, SIZE)).getEstimate(), DELTA);
+  }
+
+  @Test
+  public void testBuildFromLongsWithPositions()
+  {
+    final VectorValueSelector selector = EasyMock.createMock(VectorValueSelector.class);
+    EasyMock.expect(selector.getLongVector()).andReturn(new long[]{1, 2, 3, 4, 5}).anyTimes();
+    EasyMock.expect(selector.getNullVector()).andReturn(new boolean[]{false, false, true, false, false}).anyTimes();
+    EasyMock.replay(selector);
+
+    final HllSketchBuildVectorAggregator aggregator =
+        HllSketchBuildVectorAggregator.forNumbers(selector, ValueType.LONG, LG_K, TGT_HLL_TYPE, SIZE);
+    final ByteBuffer buf = ByteBuffer.allocate(SIZE * 2);
+    aggregator.init(buf, 0);
+    aggregator.init(buf, SIZE);
+
+    // Rows 0, 2 and 4 go to the first slot, rows 1 and 3 to the second. Row 2 is null.
+    aggregator.aggregate(buf, 5, new int[]{0, SIZE, 0, SIZE, 0}, null, 0);
+
+    Assert.assertEquals(2, ((HllSketch) aggregator.get(buf, 0)).getEstimate(), DELTA);
+    Assert.assertEquals(2, ((HllSketch) aggregator.get(buf, SIZE)).getEstimate(), DELTA);
+  }
+
+  @Test
+  public void testMerge()
+  {
+    final HllSketch sketch1 = new HllSketch(LG_K, TGT_HLL_TYPE);
+    sketch1.update("a");
+    sketch1.update("b");
+    final HllSketch sketch2 = new HllSketch(LG_K, TGT_HLL_TYPE);
+    sketch2.update("b");
+    sketch2.update("c");
+
+    final VectorObjectSelector selector = objectSelector(new Object[]{sketch1, null, sketch2});
+    final int size = new HllSketchMergeAggregatorFactory("x", "x", LG_K, TGT_HLL_TYPE.name(), false)
+        .getMaxIntermediateSize();
+    final HllSketchMergeVectorAggregator aggregator =
+        new HllSketchMergeVectorAggregator(selector, LG_K, TGT_HLL_TYPE, size);
+    final ByteBuffer buf = ByteBuffer.allocate(size * 2);
+    aggregator.init(buf, 0);
+    aggregator.init(buf, size);
+
+    aggregator.aggregate(buf, 0, 0, 3);
+    aggregator.aggregate(buf, 2, new int[]{size, size}, new int[]{1, 2}, 0);
+
+    Assert.assertEquals(3, ((HllSketch) aggregator.get(buf, 0)).getEstimate(), DELTA);
+    Assert.assertEquals(2, ((HllSketch) aggregator.get(buf, size)).getEstimate(), DELTA);
+  }
+
+  private static VectorObjectSelector objectSelector(final Object[] vector)
+  {
+    final VectorObjectSelector selector = EasyMock.createMock(VectorObjectSelector.class);
+    EasyMock.expect(selector.getObjectVector()).andReturn(vector).anyTimes();
+    EasyMock.replay(selector);
+    return selector;
+  }
+}
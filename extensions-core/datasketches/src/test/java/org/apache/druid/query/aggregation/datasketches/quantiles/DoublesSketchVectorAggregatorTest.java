@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.quantiles;
+
+import org.apache.datasketches.quantiles.DoublesSketch;
+import org.apache.datasketches.quantiles.UpdateDoublesSketch;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class DoublesSketchVectorAggregatorTest
+{
+  private static final int K = 128;
+  private static final int SIZE = new DoublesSketchAggregatorFactory("x", "x", K).getMaxIntermediateSize();
+
+  @Test
+  public void testBuild()
+  {
+    final VectorValueSelector selector = EasyMock.createMock(VectorValueSelector.class);
+    EasyMock.expect(selector.getDoubleVector()).andReturn(new double[]{1, 2, 3, 4, 5}).anyTimes();
+    EasyMock.expect(selector.getNullVector()).andReturn(new boolean[]{false, true, false, false, false}).anyTimes();
+    EasyMock.replay(selector);
+
+    final DoublesSketchBuildVectorAggregator aggregator = new DoublesSketchBuildVectorAggregator(selector, K, SIZE);
+    final ByteBuffer buf = ByteBuffer.allocate(SIZE * 2);
+    aggregator.init(buf, 0);
+    aggregator.init(buf, SIZE);
+
+    aggregator.aggregate(buf, 0, 0, 3);
+    aggregator.aggregate(buf, 2, new int[]{SIZE, SIZE}, new int[]{3, 4}, 0);
+
+    final DoublesSketch sketch1 = (DoublesSketch) aggregator.get(buf, 0);
+    Assert.assertEquals(2, sketch1.getN());
+    Assert.assertEquals(1, sketch1.getMinValue(), 0);
+    Assert.assertEquals(3, sketch1.getMaxValue(), 0);
+
+    final DoublesSketch sketch2 = (DoublesSketch) aggregator.get(buf, SIZE);
+    Assert.assertEquals(2, sketch2.getN());
+    Assert.assertEquals(4, sketch2.getMinValue(), 0);
+    Assert.assertEquals(5, sketch2.getMaxValue(), 0);
+  }
+
+  @Test
+  public void testMerge()
+  {
+    final UpdateDoublesSketch sketch1 = DoublesSketch.builder().setK(K).build();
+    sketch1.update(1);
+    sketch1.update(2);
+    final UpdateDoublesSketch sketch2 = DoublesSketch.builder().setK(K).build();
+    sketch2.update(10);
+
+    final VectorObjectSelector selector = EasyMock.createMock(VectorObjectSelector.class);
+    EasyMock.expect(selector.getObjectVector()).andReturn(new Object[]{sketch1, null, sketch2}).anyTimes();
+    EasyMock.replay(selector);
+
+    final DoublesSketchMergeVectorAggregator aggregator = new DoublesSketchMergeVectorAggregator(selector, K, SIZE);
+    final ByteBuffer buf = ByteBuffer.allocate(SIZE);
+    aggregator.init(buf, 0);
+    aggregator.aggregate(buf, 0, 0, 3);
+
+    final DoublesSketch result = (DoublesSketch) aggregator.get(buf, 0);
+    Assert.assertEquals(3, result.getN());
+    Assert.assertEquals(1, result.getMinValue(), 0);
+    Assert.assertEquals(10, result.getMaxValue(), 0);
+  }
+}
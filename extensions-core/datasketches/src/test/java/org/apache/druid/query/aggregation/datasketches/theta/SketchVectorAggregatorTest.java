@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.theta;
+
+import org.apache.datasketches.Family;
+import org.apache.datasketches.theta.SetOperation;
+import org.apache.datasketches.theta.Union;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class SketchVectorAggregatorTest
+{
+  private static final int SIZE = 16;
+  private static final int MAX_INTERMEDIATE_SIZE = SetOperation.getMaxUnionBytes(SIZE);
+  private static final double DELTA = 0.01;
+
+  @Test
+  public void testBuildFromObjects()
+  {
+    final VectorObjectSelector selector = EasyMock.createMock(VectorObjectSelector.class);
+    EasyMock.expect(selector.getObjectVector()).andReturn(new Object[]{"a", "b", null, "b", "c"}).anyTimes();
+    EasyMock.replay(selector);
+
+    final SketchVectorAggregator aggregator = SketchVectorAggregator.forObjects(selector, SIZE, MAX_INTERMEDIATE_SIZE);
+    final ByteBuffer buf = ByteBuffer.allocate(MAX_INTERMEDIATE_SIZE * 2);
+    aggregator.init(buf, 0);
+    aggregator.init(buf, MAX_INTERMEDIATE_SIZE);
+
+    aggregator.aggregate(buf, 0, 0, 4);
+    aggregator.aggregate(buf, 3, new int[]{0, 0, 0}, new int[]{2, 3, 4}, MAX_INTERMEDIATE_SIZE);
+
+    Assert.assertEquals(2, ((SketchHolder) aggregator.get(buf, 0)).getEstimate(), DELTA);
+    Assert.assertEquals(2, ((SketchHolder) aggregator.get(buf, MAX_INTERMEDIATE_SIZE)).getEstimate(), DELTA);
+  }
+
+  @Test
+  public void testBuildFromDoubles()
+  {
+    final VectorValueSelector selector = EasyMock.createMock(VectorValueSelector.class);
+    EasyMock.expect(selector.getDoubleVector()).andReturn(new double[]{1.5, 2.5, 1.5, 3.5}).anyTimes();
+    EasyMock.expect(selector.getNullVector()).andReturn(new boolean[]{false, false, false, true}).anyTimes();
+    EasyMock.replay(selector);
+
+    final SketchVectorAggregator aggregator =
+        SketchVectorAggregator.forNumbers(selector, ValueType.DOUBLE, SIZE, MAX_INTERMEDIATE_SIZE);
+    final ByteBuffer buf = ByteBuffer.allocate(MAX_INTERMEDIATE_SIZE);
+    aggregator.init(buf, 0);
+    aggregator.aggregate(buf, 0, 0, 4);
+
+    Assert.assertEquals(2, ((SketchHolder) aggregator.get(buf, 0)).getEstimate(), DELTA);
+  }
+
+  @Test
+  public void testMerge()
+  {
+    final Union union1 = (Union) SetOperation.builder().setNominalEntries(SIZE).build(Family.UNION);
+    union1.update("a");
+    union1.update("b");
+    final Union union2 = (Union) SetOperation.builder().setNominalEntries(SIZE).build(Family.UNION);
+    union2.update("b");
+    union2.update("c");
+
+    final VectorObjectSelector selector = EasyMock.createMock(VectorObjectSelector.class);
+    EasyMock.expect(selector.getObjectVector())
+            .andReturn(new Object[]{SketchHolder.of(union1.getResult()), SketchHolder.of(union2.getResult())})
+            .anyTimes();
+    EasyMock.replay(selector);
+
+    final SketchVectorAggregator aggregator = SketchVectorAggregator.forObjects(selector, SIZE, MAX_INTERMEDIATE_SIZE);
+    final ByteBuffer buf = ByteBuffer.allocate(MAX_INTERMEDIATE_SIZE);
+    aggregator.init(buf, 0);
+    aggregator.aggregate(buf, 0, 0, 2);
+
+    Assert.assertEquals(3, ((SketchHolder) aggregator.get(buf, 0)).getEstimate(), DELTA);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFloatsNotAccepted()
+  {
+    SketchVectorAggregator.forNumbers(EasyMock.createMock(VectorValueSelector.class), ValueType.FLOAT, SIZE, 0);
+  }
+}
@@ -72,6 +72,9 @@ public class KafkaIndexTaskTuningConfigTest
     Assert.assertEquals(new IndexSpec(), config.getIndexSpecForIntermediatePersists());
     Assert.assertEquals(false, config.isReportParseExceptions());
     Assert.assertEquals(0, config.getHandoffConditionTimeout());
+    Assert.assertEquals(1, config.getNumPersistThreads());
+    Assert.assertEquals(1, config.getNumMergeThreads());
+    Assert.assertEquals(0, config.getMaxMergeMemoryBytes());
   }
 
   @Test
@@ -89,7 +92,10 @@ public class KafkaIndexTaskTuningConfigTest
                      + "  \"handoffConditionTimeout\": 100,\n"
                      + "  \"indexSpec\": { \"metricCompression\" : \"NONE\" },\n"
                      + "  \"indexSpecForIntermediatePersists\": { \"dimensionCompression\" : \"uncompressed\" },\n"
-                     + "  \"appendableIndexSpec\": { \"type\" : \"onheap\" }\n"
+                     + "  \"appendableIndexSpec\": { \"type\" : \"onheap\" },\n"
+                     + "  \"numPersistThreads\": 2,\n"
+                     + "  \"numMergeThreads\": 3,\n"
+                     + "  \"maxMergeMemoryBytes\": 1000000\n"
                      + "}";
 
     KafkaIndexTaskTuningConfig config = (KafkaIndexTaskTuningConfig) mapper.readValue(
@@ -114,6 +120,9 @@ public class KafkaIndexTaskTuningConfigTest
     Assert.assertEquals(100, config.getHandoffConditionTimeout());
     Assert.assertEquals(new IndexSpec(null, null, CompressionStrategy.NONE, null), config.getIndexSpec());
     Assert.assertEquals(new IndexSpec(null, CompressionStrategy.UNCOMPRESSED, null, null), config.getIndexSpecForIntermediatePersists());
+    Assert.assertEquals(2, config.getNumPersistThreads());
+    Assert.assertEquals(3, config.getNumMergeThreads());
+    Assert.assertEquals(1000000, config.getMaxMergeMemoryBytes());
   }
 
   @Test
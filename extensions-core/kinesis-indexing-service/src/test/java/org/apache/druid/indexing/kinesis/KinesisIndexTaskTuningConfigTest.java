@@ -84,6 +84,9 @@ public class KinesisIndexTaskTuningConfigTest
     Assert.assertNull(config.getFetchThreads());
     Assert.assertFalse(config.isSkipSequenceNumberAvailabilityCheck());
     Assert.assertFalse(config.isResetOffsetAutomatically());
+    Assert.assertEquals(1, config.getNumPersistThreads());
+    Assert.assertEquals(1, config.getNumMergeThreads());
+    Assert.assertEquals(0, config.getMaxMergeMemoryBytes());
   }
 
   @Test
@@ -106,7 +109,10 @@ public class KinesisIndexTaskTuningConfigTest
                      + "  \"resetOffsetAutomatically\": false,\n"
                      + "  \"skipSequenceNumberAvailabilityCheck\": true,\n"
                      + "  \"fetchThreads\": 2,\n"
-                     + "  \"appendableIndexSpec\": { \"type\" : \"onheap\" }\n"
+                     + "  \"appendableIndexSpec\": { \"type\" : \"onheap\" },\n"
+                     + "  \"numPersistThreads\": 2,\n"
+                     + "  \"numMergeThreads\": 3,\n"
+                     + "  \"maxMergeMemoryBytes\": 1000000\n"
                      + "}";
 
     KinesisIndexTaskTuningConfig config = (KinesisIndexTaskTuningConfig) mapper.readValue(
@@ -135,6 +141,9 @@ public class KinesisIndexTaskTuningConfigTest
     Assert.assertEquals(2, (int) config.getFetchThreads());
     Assert.assertTrue(config.isSkipSequenceNumberAvailabilityCheck());
     Assert.assertFalse(config.isResetOffsetAutomatically());
+    Assert.assertEquals(2, config.getNumPersistThreads());
+    Assert.assertEquals(3, config.getNumMergeThreads());
+    Assert.assertEquals(1000000, config.getMaxMergeMemoryBytes());
   }
 
   @Test
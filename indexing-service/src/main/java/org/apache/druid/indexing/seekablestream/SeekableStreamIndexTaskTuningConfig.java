@@ -20,6 +20,7 @@
 package org.apache.druid.indexing.seekablestream;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
 import org.apache.druid.indexer.partitions.DynamicPartitionsSpec;
 import org.apache.druid.segment.IndexSpec;
 import org.apache.druid.segment.incremental.AppendableIndexSpec;
@@ -60,6 +61,10 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements Appenderato
   private final int maxParseExceptions;
   private final int maxSavedParseExceptions;
 
+  private final int numPersistThreads;
+  private final int numMergeThreads;
+  private final long maxMergeMemoryBytes;
+
   public SeekableStreamIndexTaskTuningConfig(
       @Nullable AppendableIndexSpec appendableIndexSpec,
       @Nullable Integer maxRowsInMemory,
@@ -83,6 +88,60 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements Appenderato
       @Nullable Integer maxParseExceptions,
       @Nullable Integer maxSavedParseExceptions
   )
+  {
+    this(
+        appendableIndexSpec,
+        maxRowsInMemory,
+        maxBytesInMemory,
+        maxRowsPerSegment,
+        maxTotalRows,
+        intermediatePersistPeriod,
+        basePersistDirectory,
+        maxPendingPersists,
+        indexSpec,
+        indexSpecForIntermediatePersists,
+        buildV9Directly,
+        reportParseExceptions,
+        handoffConditionTimeout,
+        resetOffsetAutomatically,
+        skipSequenceNumberAvailabilityCheck,
+        segmentWriteOutMediumFactory,
+        intermediateHandoffPeriod,
+        logParseExceptions,
+        maxParseExceptions,
+        maxSavedParseExceptions,
+        null,
+        null,
+        null
+    );
+  }
+
+  public SeekableStreamIndexTaskTuningConfig(
+      @Nullable AppendableIndexSpec appendableIndexSpec,
+      @Nullable Integer maxRowsInMemory,
+      @Nullable Long maxBytesInMemory,
+      @Nullable Integer maxRowsPerSegment,
+      @Nullable Long maxTotalRows,
+      @Nullable Period intermediatePersistPeriod,
+      @Nullable File basePersistDirectory,
+      @Nullable Integer maxPendingPersists,
+      @Nullable IndexSpec indexSpec,
+      @Nullable IndexSpec indexSpecForIntermediatePersists,
+      // This parameter is left for compatibility when reading existing configs, to be removed in Druid 0.12.
+      @Deprecated @JsonProperty("buildV9Directly") @Nullable Boolean buildV9Directly,
+      @Deprecated @Nullable Boolean reportParseExceptions,
+      @Nullable Long handoffConditionTimeout,
+      @Nullable Boolean resetOffsetAutomatically,
+      Boolean skipSequenceNumberAvailabilityCheck,
+      @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
+      @Nullable Period intermediateHandoffPeriod,
+      @Nullable Boolean logParseExceptions,
+      @Nullable Integer maxParseExceptions,
+      @Nullable Integer maxSavedParseExceptions,
+      @Nullable Integer numPersistThreads,
+      @Nullable Integer numMergeThreads,
+      @Nullable Long maxMergeMemoryBytes
+  )
   {
     // Cannot be a static because default basePersistDirectory is unique per-instance
     final RealtimeTuningConfig defaults = RealtimeTuningConfig.makeDefaultTuningConfig(basePersistDirectory);
@@ -132,6 +191,12 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements Appenderato
     this.logParseExceptions = logParseExceptions == null
                               ? TuningConfig.DEFAULT_LOG_PARSE_EXCEPTIONS
                               : logParseExceptions;
+    this.numPersistThreads = numPersistThreads == null ? 1 : numPersistThreads;
+    this.numMergeThreads = numMergeThreads == null ? 1 : numMergeThreads;
+    this.maxMergeMemoryBytes = maxMergeMemoryBytes == null ? 0 : maxMergeMemoryBytes;
+    Preconditions.checkArgument(this.numPersistThreads > 0, "numPersistThreads must be positive");
+    Preconditions.checkArgument(this.numMergeThreads > 0, "numMergeThreads must be positive");
+    Preconditions.checkArgument(this.maxMergeMemoryBytes >= 0, "maxMergeMemoryBytes must be non-negative");
   }
 
   @Override
@@ -198,6 +263,27 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements Appenderato
     return maxPendingPersists;
   }
 
+  @Override
+  @JsonProperty
+  public int getNumPersistThreads()
+  {
+    return numPersistThreads;
+  }
+
+  @Override
+  @JsonProperty
+  public int getNumMergeThreads()
+  {
+    return numMergeThreads;
+  }
+
+  @Override
+  @JsonProperty
+  public long getMaxMergeMemoryBytes()
+  {
+    return maxMergeMemoryBytes;
+  }
+
   @Override
   @JsonProperty
   public IndexSpec getIndexSpec()
@@ -303,6 +389,9 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements Appenderato
            logParseExceptions == that.logParseExceptions &&
            maxParseExceptions == that.maxParseExceptions &&
            maxSavedParseExceptions == that.maxSavedParseExceptions &&
+           numPersistThreads == that.numPersistThreads &&
+           numMergeThreads == that.numMergeThreads &&
+           maxMergeMemoryBytes == that.maxMergeMemoryBytes &&
            Objects.equals(partitionsSpec, that.partitionsSpec) &&
            Objects.equals(intermediatePersistPeriod, that.intermediatePersistPeriod) &&
            Objects.equals(basePersistDirectory, that.basePersistDirectory) &&
@@ -333,7 +422,10 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements Appenderato
         skipSequenceNumberAvailabilityCheck,
         logParseExceptions,
         maxParseExceptions,
-        maxSavedParseExceptions
+        maxSavedParseExceptions,
+        numPersistThreads,
+        numMergeThreads,
+        maxMergeMemoryBytes
     );
   }
 
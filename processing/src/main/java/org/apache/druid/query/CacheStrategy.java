@@ -74,6 +74,35 @@ public interface CacheStrategy<T, CacheType, QueryType extends Query<T>>
    */
   byte[] computeResultLevelCacheKey(QueryType query);
 
+  /**
+   * Returns whether the results of the given query are the results of the same query on each of the granularity
+   * buckets of its intervals, concatenated in the order of the query. If so, the result-level cache can cache the
+   * results of each bucket separately, and only recompute the buckets whose segments changed. Queries with a limit or
+   * with totals over all the buckets for example are not.
+   *
+   * @param query the query to be cached, with a granularity other than "all"
+   *
+   * @return true if the results of the query can be cached per granularity bucket
+   */
+  default boolean isResultLevelCacheableByBucket(QueryType query)
+  {
+    return false;
+  }
+
+  /**
+   * Returns the timestamp of the given result, in milliseconds, which tells the granularity bucket it belongs to. Used
+   * to split the results of a query on several buckets into the results of each bucket. Only called for queries for
+   * which {@link #isResultLevelCacheableByBucket} returns true.
+   *
+   * @param result a result of the query
+   *
+   * @return the timestamp of the result
+   */
+  default long getResultTimestampMillis(T result)
+  {
+    throw new UnsupportedOperationException("Results are not cacheable by bucket");
+  }
+
   /**
    * Returns the class type of what is used in the cache
    *
@@ -264,6 +264,12 @@ public class DefaultQueryMetrics<QueryType extends Query<?>> implements QueryMet
     return this;
   }
 
+  @Override
+  public QueryMetrics<QueryType> reportQueryBackPressureTime(long timeNs)
+  {
+    return reportMillisTimeMetric("query/backPressure/time", timeNs);
+  }
+
   @Override
   public QueryMetrics<QueryType> reportNodeTime(long timeNs)
   {
@@ -297,6 +303,42 @@ public class DefaultQueryMetrics<QueryType extends Query<?>> implements QueryMet
     return this;
   }
 
+  @Override
+  public QueryMetrics<QueryType> reportRowsScanned(long numRows)
+  {
+    return reportMetric("query/rows/scanned", numRows);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportRowsMatched(long numRows)
+  {
+    return reportMetric("query/rows/matched", numRows);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportBitmapFilters(long numFilters)
+  {
+    return reportMetric("query/filters/bitmap", numFilters);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportMatcherFilters(long numFilters)
+  {
+    return reportMetric("query/filters/matcher", numFilters);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportBytesDecompressed(long byteCount)
+  {
+    return reportMetric("query/decompressed/bytes", byteCount);
+  }
+
+  @Override
+  public QueryMetrics<QueryType> reportMergeBufferBytes(long byteCount)
+  {
+    return reportMetric("query/mergeBuffer/bytes", byteCount);
+  }
+
   @Override
   public QueryMetrics<QueryType> reportParallelMergeParallelism(int parallelism)
   {
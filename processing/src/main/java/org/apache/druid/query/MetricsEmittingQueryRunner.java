@@ -103,6 +103,9 @@ public class MetricsEmittingQueryRunner<T> implements QueryRunner<T>
           public void before()
           {
             startTimeNs = System.nanoTime();
+            if (creationTimeNs > 0) {
+              responseContext.add(ResponseContext.Key.QUERY_WAIT_NANOS, startTimeNs - creationTimeNs);
+            }
           }
 
           @Override
@@ -174,6 +174,11 @@ public class QueryContexts
     return parseBoolean(query, "useResultLevelCache", defaultValue);
   }
 
+  public static <T> boolean isIncrementalResultLevelCache(Query<T> query, boolean defaultValue)
+  {
+    return parseBoolean(query, "incrementalResultLevelCache", defaultValue);
+  }
+
   public static <T> boolean isFinalize(Query<T> query, boolean defaultValue)
   {
     return parseBoolean(query, FINALIZE_KEY, defaultValue);
@@ -189,6 +194,11 @@ public class QueryContexts
     return parseBoolean(query, "serializeDateTimeAsLongInner", defaultValue);
   }
 
+  public static <T> boolean isColumnarResultTransport(Query<T> query, boolean defaultValue)
+  {
+    return parseBoolean(query, "columnarResultTransport", defaultValue);
+  }
+
   public static <T> Vectorize getVectorize(Query<T> query)
   {
     return getVectorize(query, QueryContexts.DEFAULT_VECTORIZE);
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query;
+
+import org.apache.druid.query.context.ResponseContext;
+
+import javax.annotation.Nullable;
+
+/**
+ * Counters of the work done to process a query on a data server: rows scanned and matched by cursors, filters
+ * evaluated with bitmap indexes and with value matchers, bytes decompressed from column blocks, and bytes of merge
+ * buffers acquired.
+ *
+ * The counters of a segment are updated on the hot path without synchronization, so an instance must only be updated
+ * by one thread at a time. {@link QueryCountersQueryRunner} makes the counters of the segment being processed
+ * available to the code processing it through {@link #current()}, and adds them to
+ * {@link ResponseContext.Key#QUERY_COUNTERS} once the segment is processed, which sums the counters of all segments.
+ */
+public class QueryCounters
+{
+  private static final ThreadLocal<QueryCounters> CURRENT = new ThreadLocal<>();
+
+  private long rowsScanned = 0;
+  private long rowsMatched = 0;
+  private long bitmapFilters = 0;
+  private long matcherFilters = 0;
+  private long bytesDecompressed = 0;
+  private long mergeBufferBytes = 0;
+
+  /**
+   * Returns the counters of the segment being processed by the current thread, or null if they are not tracked.
+   */
+  @Nullable
+  public static QueryCounters current()
+  {
+    return CURRENT.get();
+  }
+
+  /**
+   * Sets the counters of the segment being processed by the current thread.
+   *
+   * @return the counters previously set, to restore once done
+   */
+  @Nullable
+  static QueryCounters setCurrent(@Nullable QueryCounters counters)
+  {
+    final QueryCounters previous = CURRENT.get();
+    if (counters == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(counters);
+    }
+    return previous;
+  }
+
+  /**
+   * Returns the sum of two counters, without modifying them. Used as the merge function of
+   * {@link ResponseContext.Key#QUERY_COUNTERS}.
+   */
+  public static QueryCounters sum(QueryCounters counters1, QueryCounters counters2)
+  {
+    final QueryCounters sum = new QueryCounters();
+    sum.add(counters1);
+    sum.add(counters2);
+    return sum;
+  }
+
+  public void addRows(long scanned, long matched)
+  {
+    rowsScanned += scanned;
+    rowsMatched += matched;
+  }
+
+  public void addFilters(long numBitmapFilters, long numMatcherFilters)
+  {
+    bitmapFilters += numBitmapFilters;
+    matcherFilters += numMatcherFilters;
+  }
+
+  public void addBytesDecompressed(long bytes)
+  {
+    bytesDecompressed += bytes;
+  }
+
+  public void addMergeBufferBytes(long bytes)
+  {
+    mergeBufferBytes += bytes;
+  }
+
+  public long getRowsScanned()
+  {
+    return rowsScanned;
+  }
+
+  public long getRowsMatched()
+  {
+    return rowsMatched;
+  }
+
+  public long getBitmapFilters()
+  {
+    return bitmapFilters;
+  }
+
+  public long getMatcherFilters()
+  {
+    return matcherFilters;
+  }
+
+  public long getBytesDecompressed()
+  {
+    return bytesDecompressed;
+  }
+
+  public long getMergeBufferBytes()
+  {
+    return mergeBufferBytes;
+  }
+
+  public boolean isEmpty()
+  {
+    return rowsScanned == 0
+           && rowsMatched == 0
+           && bitmapFilters == 0
+           && matcherFilters == 0
+           && bytesDecompressed == 0
+           && mergeBufferBytes == 0;
+  }
+
+  /**
+   * Registers the counters as metrics of the given {@link QueryMetrics}. Counters that are zero, such as the bytes of
+   * merge buffers for queries which don't use any, are not registered.
+   */
+  public void report(QueryMetrics<?> queryMetrics)
+  {
+    if (rowsScanned > 0) {
+      queryMetrics.reportRowsScanned(rowsScanned);
+    }
+    if (rowsMatched > 0) {
+      queryMetrics.reportRowsMatched(rowsMatched);
+    }
+    if (bitmapFilters > 0) {
+      queryMetrics.reportBitmapFilters(bitmapFilters);
+    }
+    if (matcherFilters > 0) {
+      queryMetrics.reportMatcherFilters(matcherFilters);
+    }
+    if (bytesDecompressed > 0) {
+      queryMetrics.reportBytesDecompressed(bytesDecompressed);
+    }
+    if (mergeBufferBytes > 0) {
+      queryMetrics.reportMergeBufferBytes(mergeBufferBytes);
+    }
+  }
+
+  private void add(QueryCounters other)
+  {
+    rowsScanned += other.rowsScanned;
+    rowsMatched += other.rowsMatched;
+    bitmapFilters += other.bitmapFilters;
+    matcherFilters += other.matcherFilters;
+    bytesDecompressed += other.bytesDecompressed;
+    mergeBufferBytes += other.mergeBufferBytes;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "QueryCounters{" +
+           "rowsScanned=" + rowsScanned +
+           ", rowsMatched=" + rowsMatched +
+           ", bitmapFilters=" + bitmapFilters +
+           ", matcherFilters=" + matcherFilters +
+           ", bytesDecompressed=" + bytesDecompressed +
+           ", mergeBufferBytes=" + mergeBufferBytes +
+           '}';
+  }
+}
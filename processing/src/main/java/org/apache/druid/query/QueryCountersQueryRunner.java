@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query;
+
+import com.google.common.base.Supplier;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.SequenceWrapper;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.query.context.ResponseContext;
+
+import javax.annotation.Nullable;
+
+/**
+ * Tracks the {@link QueryCounters} of a query, like {@link CPUTimeMetricQueryRunner} tracks its CPU time.
+ *
+ * Wrapping the runner of a segment, it makes new counters available through {@link QueryCounters#current()} while
+ * the runner and its sequence run, and adds them to {@link ResponseContext.Key#QUERY_COUNTERS} once the sequence is
+ * done. Wrapping the runner merging the results of all segments, it reports the counters summed in the response
+ * context to {@link QueryMetrics} once the sequence is done.
+ */
+public class QueryCountersQueryRunner<T> implements QueryRunner<T>
+{
+  private final QueryRunner<T> delegate;
+  @Nullable
+  private final QueryToolChest<T, ? extends Query<T>> queryToolChest;
+  @Nullable
+  private final ServiceEmitter emitter;
+  private final boolean report;
+
+  private QueryCountersQueryRunner(
+      QueryRunner<T> delegate,
+      @Nullable QueryToolChest<T, ? extends Query<T>> queryToolChest,
+      @Nullable ServiceEmitter emitter,
+      boolean report
+  )
+  {
+    this.delegate = delegate;
+    this.queryToolChest = queryToolChest;
+    this.emitter = emitter;
+    this.report = report;
+  }
+
+  /**
+   * Returns a runner tracking the counters of a single segment.
+   */
+  public static <T> QueryRunner<T> forSegment(QueryRunner<T> delegate)
+  {
+    return new QueryCountersQueryRunner<>(delegate, null, null, false);
+  }
+
+  /**
+   * Returns a runner reporting the counters of all the segments processed by the given runner.
+   */
+  public static <T> QueryRunner<T> forQuery(
+      QueryRunner<T> delegate,
+      QueryToolChest<T, ? extends Query<T>> queryToolChest,
+      ServiceEmitter emitter
+  )
+  {
+    return new QueryCountersQueryRunner<>(delegate, queryToolChest, emitter, true);
+  }
+
+  @Override
+  public Sequence<T> run(final QueryPlus<T> queryPlus, final ResponseContext responseContext)
+  {
+    return report ? runAndReport(queryPlus, responseContext) : runSegment(queryPlus, responseContext);
+  }
+
+  private Sequence<T> runSegment(final QueryPlus<T> queryPlus, final ResponseContext responseContext)
+  {
+    final QueryCounters counters = new QueryCounters();
+    final Sequence<T> baseSequence;
+    final QueryCounters previous = QueryCounters.setCurrent(counters);
+    try {
+      baseSequence = delegate.run(queryPlus, responseContext);
+    }
+    finally {
+      QueryCounters.setCurrent(previous);
+    }
+
+    return Sequences.wrap(
+        baseSequence,
+        new SequenceWrapper()
+        {
+          @Override
+          public <RetType> RetType wrap(Supplier<RetType> sequenceProcessing)
+          {
+            final QueryCounters previous = QueryCounters.setCurrent(counters);
+            try {
+              return sequenceProcessing.get();
+            }
+            finally {
+              QueryCounters.setCurrent(previous);
+            }
+          }
+
+          @Override
+          public void after(boolean isDone, Throwable thrown)
+          {
+            if (!counters.isEmpty()) {
+              responseContext.add(ResponseContext.Key.QUERY_COUNTERS, counters);
+            }
+          }
+        }
+    );
+  }
+
+  private Sequence<T> runAndReport(final QueryPlus<T> queryPlus, final ResponseContext responseContext)
+  {
+    final QueryPlus<T> queryWithMetrics = queryPlus.withQueryMetrics(queryToolChest);
+    return Sequences.wrap(
+        delegate.run(queryWithMetrics, responseContext),
+        new SequenceWrapper()
+        {
+          @Override
+          public void after(boolean isDone, Throwable thrown)
+          {
+            final QueryCounters counters =
+                (QueryCounters) responseContext.get(ResponseContext.Key.QUERY_COUNTERS);
+            if (counters != null && !counters.isEmpty()) {
+              counters.report(queryWithMetrics.getQueryMetrics());
+              queryWithMetrics.getQueryMetrics().emit(emitter);
+            }
+          }
+        }
+    );
+  }
+}
@@ -299,6 +299,12 @@ public interface QueryMetrics<QueryType extends Query<?>>
    */
   QueryMetrics<QueryType> reportBackPressureTime(long timeNs);
 
+  /**
+   * Registers "query backpressure time" metric: the time during which reads of the results of the query from all data
+   * servers were suspended, summed over data servers.
+   */
+  QueryMetrics<QueryType> reportQueryBackPressureTime(long timeNs);
+
   /**
    * Registers "node time" metric.
    */
@@ -326,6 +332,37 @@ public interface QueryMetrics<QueryType extends Query<?>>
    */
   QueryMetrics<QueryType> reportPreFilteredRows(long numRows);
 
+  /**
+   * Reports the number of rows scanned by the cursors of the query, summed over segments: the rows left after applying
+   * {@link #preFilters(List)}, on which {@link #postFilters(List)} are evaluated. See {@link QueryCounters}.
+   */
+  QueryMetrics<QueryType> reportRowsScanned(long numRows);
+
+  /**
+   * Reports the number of rows matched by the filters of the query and returned by its cursors, summed over segments.
+   */
+  QueryMetrics<QueryType> reportRowsMatched(long numRows);
+
+  /**
+   * Reports the number of filters evaluated with bitmap indexes, summed over segments.
+   */
+  QueryMetrics<QueryType> reportBitmapFilters(long numFilters);
+
+  /**
+   * Reports the number of filters evaluated row by row with value matchers, summed over segments.
+   */
+  QueryMetrics<QueryType> reportMatcherFilters(long numFilters);
+
+  /**
+   * Reports the number of bytes decompressed from the blocks of compressed columns read by the query.
+   */
+  QueryMetrics<QueryType> reportBytesDecompressed(long byteCount);
+
+  /**
+   * Reports the number of bytes of the merge buffers acquired by the query.
+   */
+  QueryMetrics<QueryType> reportMergeBufferBytes(long byteCount);
+
   /**
    * Reports number of parallel tasks the broker used to process the query during parallel merge. This value is
    * identical to the {@link #parallelMergeParallelism} dimension value, but optionally also available as a metric.
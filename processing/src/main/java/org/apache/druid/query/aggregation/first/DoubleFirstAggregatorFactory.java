@@ -30,13 +30,19 @@ import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.BaseDoubleColumnValueSelector;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -73,6 +79,21 @@ public class DoubleFirstAggregatorFactory extends AggregatorFactory
     }
   };
 
+  private static final VectorAggregator NIL_VECTOR_AGGREGATOR = new DoubleFirstVectorAggregator(null, null)
+  {
+    @Override
+    public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+    {
+      // no-op
+    }
+
+    @Override
+    public void aggregate(ByteBuffer buf, int numRows, int[] positions, @Nullable int[] rows, int positionOffset)
+    {
+      // no-op
+    }
+  };
+
   public static final Comparator<SerializablePair<Long, Double>> VALUE_COMPARATOR =
       SerializablePair.createNullHandlingComparator(Double::compare, true);
 
@@ -122,6 +143,28 @@ public class DoubleFirstAggregatorFactory extends AggregatorFactory
     }
   }
 
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    final VectorValueSelector valueSelector = selectorFactory.makeValueSelector(fieldName);
+    if (valueSelector instanceof NilVectorSelector) {
+      return NIL_VECTOR_AGGREGATOR;
+    } else {
+      return new DoubleFirstVectorAggregator(
+          selectorFactory.makeValueSelector(ColumnHolder.TIME_COLUMN_NAME),
+          valueSelector
+      );
+    }
+  }
+
+  @Override
+  public boolean canVectorize(ColumnInspector columnInspector)
+  {
+    // Non-numeric inputs are parsed row by row, which has no vectorized counterpart.
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(fieldName);
+    return capabilities == null || capabilities.getType().isNumeric();
+  }
+
   @Override
   public Comparator getComparator()
   {
@@ -158,6 +201,13 @@ public class DoubleFirstAggregatorFactory extends AggregatorFactory
   {
     return new DoubleFirstAggregatorFactory(name, name)
     {
+      @Override
+      public boolean canVectorize(ColumnInspector columnInspector)
+      {
+        // Intermediate pairs are only read row by row.
+        return false;
+      }
+
       @Override
       public Aggregator factorize(ColumnSelectorFactory metricFactory)
       {
@@ -30,13 +30,19 @@ import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.BaseLongColumnValueSelector;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -72,6 +78,21 @@ public class LongFirstAggregatorFactory extends AggregatorFactory
     }
   };
 
+  private static final VectorAggregator NIL_VECTOR_AGGREGATOR = new LongFirstVectorAggregator(null, null)
+  {
+    @Override
+    public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+    {
+      // no-op
+    }
+
+    @Override
+    public void aggregate(ByteBuffer buf, int numRows, int[] positions, @Nullable int[] rows, int positionOffset)
+    {
+      // no-op
+    }
+  };
+
   public static final Comparator<SerializablePair<Long, Long>> VALUE_COMPARATOR =
       SerializablePair.createNullHandlingComparator(Long::compare, true);
 
@@ -119,6 +140,28 @@ public class LongFirstAggregatorFactory extends AggregatorFactory
     }
   }
 
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    final VectorValueSelector valueSelector = selectorFactory.makeValueSelector(fieldName);
+    if (valueSelector instanceof NilVectorSelector) {
+      return NIL_VECTOR_AGGREGATOR;
+    } else {
+      return new LongFirstVectorAggregator(
+          selectorFactory.makeValueSelector(ColumnHolder.TIME_COLUMN_NAME),
+          valueSelector
+      );
+    }
+  }
+
+  @Override
+  public boolean canVectorize(ColumnInspector columnInspector)
+  {
+    // Non-numeric inputs are parsed row by row, which has no vectorized counterpart.
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(fieldName);
+    return capabilities == null || capabilities.getType().isNumeric();
+  }
+
   @Override
   public Comparator getComparator()
   {
@@ -155,6 +198,13 @@ public class LongFirstAggregatorFactory extends AggregatorFactory
   {
     return new LongFirstAggregatorFactory(name, name)
     {
+      @Override
+      public boolean canVectorize(ColumnInspector columnInspector)
+      {
+        // Intermediate pairs are only read row by row.
+        return false;
+      }
+
       @Override
       public Aggregator factorize(ColumnSelectorFactory metricFactory)
       {
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.first;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Base type for vectorized 'first' aggregators for primitive numeric columns. Uses the same buffer layout as
+ * {@link NumericFirstBufferAggregator}: the earliest timestamp, a null byte, then the value.
+ */
+public abstract class NumericFirstVectorAggregator implements VectorAggregator
+{
+  static final int NULL_OFFSET = Long.BYTES;
+  static final int VALUE_OFFSET = NULL_OFFSET + Byte.BYTES;
+
+  private final boolean useDefault = NullHandling.replaceWithDefault();
+  private final VectorValueSelector timeSelector;
+
+  final VectorValueSelector valueSelector;
+
+  public NumericFirstVectorAggregator(VectorValueSelector timeSelector, VectorValueSelector valueSelector)
+  {
+    this.timeSelector = timeSelector;
+    this.valueSelector = valueSelector;
+  }
+
+  /**
+   * Initialize the buffer value at the position of {@link #VALUE_OFFSET}
+   */
+  abstract void initValue(ByteBuffer buf, int position);
+
+  /**
+   * Place the primitive value of the given row of the current vector in the buffer at the position of
+   * {@link #VALUE_OFFSET}
+   */
+  abstract void putValue(ByteBuffer buf, int position, int row);
+
+  boolean isValueNull(ByteBuffer buf, int position)
+  {
+    return buf.get(position + NULL_OFFSET) == NullHandling.IS_NULL_BYTE;
+  }
+
+  @Override
+  public void init(ByteBuffer buf, int position)
+  {
+    buf.putLong(position, Long.MAX_VALUE);
+    buf.put(position + NULL_OFFSET, useDefault ? NullHandling.IS_NOT_NULL_BYTE : NullHandling.IS_NULL_BYTE);
+    initValue(buf, position + VALUE_OFFSET);
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+  {
+    final long[] timeVector = timeSelector.getLongVector();
+    long firstTime = buf.getLong(position);
+    int firstTimeRow = -1;
+
+    // Only the earliest row of the range needs to be written to the buffer.
+    for (int i = startRow; i < endRow; i++) {
+      if (timeVector[i] < firstTime) {
+        firstTime = timeVector[i];
+        firstTimeRow = i;
+      }
+    }
+
+    if (firstTimeRow >= 0) {
+      update(buf, position, firstTime, firstTimeRow, valueSelector.getNullVector());
+    }
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int numRows, int[] positions, @Nullable int[] rows, int positionOffset)
+  {
+    final long[] timeVector = timeSelector.getLongVector();
+    final boolean[] nullVector = valueSelector.getNullVector();
+
+    for (int i = 0; i < numRows; i++) {
+      final int position = positions[i] + positionOffset;
+      final int row = rows != null ? rows[i] : i;
+      final long time = timeVector[row];
+
+      if (time < buf.getLong(position)) {
+        update(buf, position, time, row, nullVector);
+      }
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    // no resources to cleanup
+  }
+
+  private void update(ByteBuffer buf, int position, long time, int row, @Nullable boolean[] nullVector)
+  {
+    buf.putLong(position, time);
+    if (useDefault || nullVector == null || !nullVector[row]) {
+      buf.put(position + NULL_OFFSET, NullHandling.IS_NOT_NULL_BYTE);
+      putValue(buf, position + VALUE_OFFSET, row);
+    } else {
+      buf.put(position + NULL_OFFSET, NullHandling.IS_NULL_BYTE);
+    }
+  }
+}
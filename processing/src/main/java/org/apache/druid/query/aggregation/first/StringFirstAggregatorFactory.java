@@ -31,12 +31,18 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
 import org.apache.druid.query.aggregation.SerializablePairLongString;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.cache.CacheKeyBuilder;
 import org.apache.druid.segment.BaseObjectColumnValueSelector;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -78,6 +84,21 @@ public class StringFirstAggregatorFactory extends AggregatorFactory
     }
   };
 
+  private static final VectorAggregator NIL_VECTOR_AGGREGATOR = new StringFirstVectorAggregator(null, null, 0, false)
+  {
+    @Override
+    public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+    {
+      // no-op
+    }
+
+    @Override
+    public void aggregate(ByteBuffer buf, int numRows, int[] positions, @Nullable int[] rows, int positionOffset)
+    {
+      // no-op
+    }
+  };
+
   public static final int DEFAULT_MAX_STRING_SIZE = 1024;
 
   public static final Comparator TIME_COMPARATOR = (o1, o2) -> Longs.compare(
@@ -179,6 +200,33 @@ public class StringFirstAggregatorFactory extends AggregatorFactory
     }
   }
 
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    final VectorObjectSelector valueSelector = selectorFactory.makeObjectSelector(fieldName);
+    if (valueSelector instanceof NilVectorSelector) {
+      return NIL_VECTOR_AGGREGATOR;
+    } else {
+      final ColumnCapabilities capabilities = selectorFactory.getColumnCapabilities(fieldName);
+      return new StringFirstVectorAggregator(
+          selectorFactory.makeValueSelector(ColumnHolder.TIME_COLUMN_NAME),
+          valueSelector,
+          maxStringBytes,
+          capabilities == null || capabilities.getType() == ValueType.COMPLEX
+      );
+    }
+  }
+
+  @Override
+  public boolean canVectorize(ColumnInspector columnInspector)
+  {
+    // Multi-value and numeric columns do not offer vector object selectors.
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(fieldName);
+    return capabilities == null
+           || capabilities.getType() == ValueType.COMPLEX
+           || (capabilities.getType() == ValueType.STRING && capabilities.hasMultipleValues().isFalse());
+  }
+
   @Override
   public Comparator getComparator()
   {
@@ -87,6 +87,28 @@ public class StringFirstLastUtils
     return new SerializablePairLongString(time, string);
   }
 
+  /**
+   * Vectorized counterpart of {@link #readPairFromSelectors}, reading one row of the current vectors.
+   */
+  @Nullable
+  public static SerializablePairLongString readPairFromVectors(
+      final long[] timeVector,
+      final Object[] objectVector,
+      final int row
+  )
+  {
+    final Object object = objectVector[row];
+
+    if (object instanceof SerializablePairLongString) {
+      return (SerializablePairLongString) object;
+    } else if (object != null) {
+      return new SerializablePairLongString(timeVector[row], DimensionHandlerUtils.convertObjectToString(object));
+    } else {
+      // Don't aggregate nulls.
+      return null;
+    }
+  }
+
   public static void writePair(
       final ByteBuffer buf,
       final int position,
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.first;
+
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.query.aggregation.SerializablePairLongString;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Vectorized version of {@link StringFirstBufferAggregator}. Values are read through a {@link VectorObjectSelector},
+ * which yields Strings for single-value string columns and {@link SerializablePairLongString} for columns that hold
+ * intermediate results, in which case {@code needsFoldCheck} must be set.
+ */
+public class StringFirstVectorAggregator implements VectorAggregator
+{
+  private static final SerializablePairLongString INIT = new SerializablePairLongString(
+      DateTimes.MAX.getMillis(),
+      null
+  );
+
+  private final VectorValueSelector timeSelector;
+  private final VectorObjectSelector valueSelector;
+  private final int maxStringBytes;
+  private final boolean needsFoldCheck;
+
+  public StringFirstVectorAggregator(
+      VectorValueSelector timeSelector,
+      VectorObjectSelector valueSelector,
+      int maxStringBytes,
+      boolean needsFoldCheck
+  )
+  {
+    this.timeSelector = timeSelector;
+    this.valueSelector = valueSelector;
+    this.maxStringBytes = maxStringBytes;
+    this.needsFoldCheck = needsFoldCheck;
+  }
+
+  @Override
+  public void init(ByteBuffer buf, int position)
+  {
+    StringFirstLastUtils.writePair(buf, position, INIT, maxStringBytes);
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+  {
+    final long[] timeVector = timeSelector.getLongVector();
+    final Object[] objectVector = valueSelector.getObjectVector();
+    long firstTime = buf.getLong(position);
+
+    // Only the earliest row of the range needs to be written to the buffer.
+    if (needsFoldCheck) {
+      SerializablePairLongString firstPair = null;
+      for (int i = startRow; i < endRow; i++) {
+        final SerializablePairLongString inPair = readPair(timeVector, objectVector, i, firstTime);
+        if (inPair != null) {
+          firstTime = inPair.lhs;
+          firstPair = inPair;
+        }
+      }
+
+      if (firstPair != null) {
+        StringFirstLastUtils.writePair(buf, position, firstPair, maxStringBytes);
+      }
+    } else {
+      int firstTimeRow = -1;
+      for (int i = startRow; i < endRow; i++) {
+        if (timeVector[i] < firstTime) {
+          firstTime = timeVector[i];
+          firstTimeRow = i;
+        }
+      }
+
+      if (firstTimeRow >= 0) {
+        final String value = DimensionHandlerUtils.convertObjectToString(objectVector[firstTimeRow]);
+        StringFirstLastUtils.writePair(buf, position, new SerializablePairLongString(firstTime, value), maxStringBytes);
+      }
+    }
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int numRows, int[] positions, @Nullable int[] rows, int positionOffset)
+  {
+    final long[] timeVector = timeSelector.getLongVector();
+    final Object[] objectVector = valueSelector.getObjectVector();
+
+    for (int i = 0; i < numRows; i++) {
+      final int position = positions[i] + positionOffset;
+      final int row = rows != null ? rows[i] : i;
+      final SerializablePairLongString inPair = readPair(timeVector, objectVector, row, buf.getLong(position));
+
+      if (inPair != null) {
+        StringFirstLastUtils.writePair(buf, position, inPair, maxStringBytes);
+      }
+    }
+  }
+
+  @Override
+  public Object get(ByteBuffer buf, int position)
+  {
+    return StringFirstLastUtils.readPair(buf, position);
+  }
+
+  @Override
+  public void close()
+  {
+    // no resources to cleanup
+  }
+
+  /**
+   * Returns the pair for the given row if it is earlier than {@code currentTime}, or null otherwise. Follows the same
+   * rules as {@link StringFirstBufferAggregator#aggregate}: nulls are skipped only when folding is a possibility.
+   */
+  @Nullable
+  private SerializablePairLongString readPair(
+      final long[] timeVector,
+      final Object[] objectVector,
+      final int row,
+      final long currentTime
+  )
+  {
+    if (needsFoldCheck) {
+      final SerializablePairLongString inPair = StringFirstLastUtils.readPairFromVectors(timeVector, objectVector, row);
+      return inPair != null && inPair.lhs < currentTime ? inPair : null;
+    } else {
+      final long time = timeVector[row];
+      return time < currentTime
+             ? new SerializablePairLongString(time, DimensionHandlerUtils.convertObjectToString(objectVector[row]))
+             : null;
+    }
+  }
+}
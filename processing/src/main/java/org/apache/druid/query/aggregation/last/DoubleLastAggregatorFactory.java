@@ -30,15 +30,21 @@ import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.aggregation.first.DoubleFirstAggregatorFactory;
 import org.apache.druid.query.aggregation.first.LongFirstAggregatorFactory;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.BaseDoubleColumnValueSelector;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -75,6 +81,21 @@ public class DoubleLastAggregatorFactory extends AggregatorFactory
     }
   };
 
+  private static final VectorAggregator NIL_VECTOR_AGGREGATOR = new DoubleLastVectorAggregator(null, null)
+  {
+    @Override
+    public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+    {
+      // no-op
+    }
+
+    @Override
+    public void aggregate(ByteBuffer buf, int numRows, int[] positions, @Nullable int[] rows, int positionOffset)
+    {
+      // no-op
+    }
+  };
+
   private final String fieldName;
   private final String name;
   private final boolean storeDoubleAsFloat;
@@ -120,6 +141,28 @@ public class DoubleLastAggregatorFactory extends AggregatorFactory
     }
   }
 
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    final VectorValueSelector valueSelector = selectorFactory.makeValueSelector(fieldName);
+    if (valueSelector instanceof NilVectorSelector) {
+      return NIL_VECTOR_AGGREGATOR;
+    } else {
+      return new DoubleLastVectorAggregator(
+          selectorFactory.makeValueSelector(ColumnHolder.TIME_COLUMN_NAME),
+          valueSelector
+      );
+    }
+  }
+
+  @Override
+  public boolean canVectorize(ColumnInspector columnInspector)
+  {
+    // Non-numeric inputs are parsed row by row, which has no vectorized counterpart.
+    final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(fieldName);
+    return capabilities == null || capabilities.getType().isNumeric();
+  }
+
   @Override
   public Comparator getComparator()
   {
@@ -156,6 +199,13 @@ public class DoubleLastAggregatorFactory extends AggregatorFactory
   {
     return new DoubleLastAggregatorFactory(name, name)
     {
+      @Override
+      public boolean canVectorize(ColumnInspector columnInspector)
+      {
+        // Intermediate pairs are only read row by row.
+        return false;
+      }
+
       @Override
       public Aggregator factorize(ColumnSelectorFactory metricFactory)
       {
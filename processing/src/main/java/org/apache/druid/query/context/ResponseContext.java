@@ -30,6 +30,7 @@ import com.google.common.collect.Lists;
 import org.apache.druid.guice.annotations.PublicApi;
 import org.apache.druid.java.util.common.NonnullPair;
 import org.apache.druid.java.util.common.jackson.JacksonUtils;
+import org.apache.druid.query.QueryCounters;
 import org.apache.druid.query.SegmentDescriptor;
 import org.joda.time.Interval;
 
@@ -164,6 +165,11 @@ public abstract class ResponseContext
      * Query total bytes gathered.
      */
     QUERY_TOTAL_BYTES_GATHERED("queryTotalBytesGathered"),
+    /**
+     * Total time, in nanoseconds, during which the Broker suspended reads of the query results sent by data servers,
+     * because results it already received were not consumed yet.
+     */
+    QUERY_BACK_PRESSURE_NANOS("queryBackPressureNanos"),
     /**
      * This variable indicates when a running query should be expired,
      * and is effective only when 'timeout' of queryContext has a positive value.
@@ -188,6 +194,22 @@ public abstract class ResponseContext
         "cpuConsumed",
             (oldValue, newValue) -> ((Number) oldValue).longValue() + ((Number) newValue).longValue()
     ),
+    /**
+     * Longest time, in nanoseconds, that a segment of the query waited on a data server before it was processed.
+     * Read by the Broker to estimate how busy the data server is.
+     */
+    QUERY_WAIT_NANOS(
+        "queryWaitNanos",
+            (oldValue, newValue) -> Math.max(((Number) oldValue).longValue(), ((Number) newValue).longValue())
+    ),
+    /**
+     * Counters of the work done to process the query on a data server, summed over segments.
+     * For additional information see {@link QueryCounters}
+     */
+    QUERY_COUNTERS(
+        "queryCounters",
+            (oldValue, newValue) -> QueryCounters.sum((QueryCounters) oldValue, (QueryCounters) newValue)
+    ),
     /**
      * Indicates if a {@link ResponseContext} was truncated during serialization.
      */
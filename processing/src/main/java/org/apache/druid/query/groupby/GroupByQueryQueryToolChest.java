@@ -58,6 +58,9 @@ import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
 import org.apache.druid.query.dimension.DimensionSpec;
 import org.apache.druid.query.extraction.ExtractionFn;
+import org.apache.druid.query.groupby.orderby.DefaultLimitSpec;
+import org.apache.druid.query.groupby.orderby.LimitSpec;
+import org.apache.druid.query.groupby.orderby.NoopLimitSpec;
 import org.apache.druid.query.groupby.resource.GroupByQueryResource;
 import org.apache.druid.query.groupby.strategy.GroupByStrategy;
 import org.apache.druid.query.groupby.strategy.GroupByStrategySelector;
@@ -548,6 +551,31 @@ public class GroupByQueryQueryToolChest extends QueryToolChest<ResultRow, GroupB
         return builder.build();
       }
 
+      @Override
+      public boolean isResultLevelCacheableByBucket(GroupByQuery query)
+      {
+        // Rows of different buckets are sorted by time, unless sortByDimsFirst is set, and tell their bucket only if
+        // they have their own timestamp. Limits and subtotals apply to all the buckets.
+        final LimitSpec limitSpec = query.getLimitSpec();
+        final boolean isLimited;
+        if (limitSpec instanceof DefaultLimitSpec) {
+          isLimited = ((DefaultLimitSpec) limitSpec).isLimited() || ((DefaultLimitSpec) limitSpec).isOffset();
+        } else {
+          isLimited = !(limitSpec instanceof NoopLimitSpec);
+        }
+        return !isLimited
+               && !query.getContextSortByDimsFirst()
+               && query.getResultRowHasTimestamp()
+               && (query.getSubtotalsSpec() == null || query.getSubtotalsSpec().isEmpty())
+               && !(query.getDataSource() instanceof QueryDataSource);
+      }
+
+      @Override
+      public long getResultTimestampMillis(ResultRow result)
+      {
+        return result.getLong(0);
+      }
+
       @Override
       public TypeReference<Object> getCacheObjectClazz()
       {
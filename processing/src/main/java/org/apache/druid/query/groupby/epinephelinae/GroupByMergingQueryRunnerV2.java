@@ -46,6 +46,7 @@ import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.query.AbstractPrioritizedCallable;
 import org.apache.druid.query.ChainedExecutionQueryRunner;
 import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryCounters;
 import org.apache.druid.query.QueryInterruptedException;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
@@ -188,6 +189,12 @@ public class GroupByMergingQueryRunnerV2 implements QueryRunner<ResultRow>
               );
               resources.registerAll(mergeBufferHolders);
 
+              final QueryCounters counters = new QueryCounters();
+              for (ReferenceCountingResourceHolder<ByteBuffer> holder : mergeBufferHolders) {
+                counters.addMergeBufferBytes(holder.get().capacity());
+              }
+              responseContext.add(ResponseContext.Key.QUERY_COUNTERS, counters);
+
               final ReferenceCountingResourceHolder<ByteBuffer> mergeBufferHolder = mergeBufferHolders.get(0);
               final ReferenceCountingResourceHolder<ByteBuffer> combineBufferHolder = numMergeBuffers == 2 ?
                                                                                       mergeBufferHolders.get(1) :
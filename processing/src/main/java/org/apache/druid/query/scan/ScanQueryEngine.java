@@ -124,6 +124,27 @@ public class ScanQueryEngine
 
     responseContext.add(ResponseContext.Key.NUM_SCANNED_ROWS, 0L);
     final long limit = calculateRemainingScanRowsLimit(query, responseContext);
+
+    final boolean descending = query.getOrder().equals(ScanQuery.Order.DESCENDING) ||
+                               (query.getOrder().equals(ScanQuery.Order.NONE) && query.isDescending());
+
+    final boolean doVectorize = QueryContexts.getVectorize(query).shouldVectorize(
+        ScanQueryVectorEngine.canVectorize(query, adapter, filter, allColumns, descending)
+    );
+
+    if (doVectorize) {
+      return ScanQueryVectorEngine.process(
+          query,
+          adapter,
+          filter,
+          intervals.get(0),
+          allColumns,
+          segmentId,
+          limit,
+          responseContext
+      );
+    }
+
     return Sequences.concat(
             adapter
                 .makeCursors(
@@ -131,8 +152,7 @@ public class ScanQueryEngine
                     intervals.get(0),
                     query.getVirtualColumns(),
                     Granularities.ALL,
-                    query.getOrder().equals(ScanQuery.Order.DESCENDING) ||
-                    (query.getOrder().equals(ScanQuery.Order.NONE) && query.isDescending()),
+                    descending,
                     null
                 )
                 .map(cursor -> new BaseSequence<>(
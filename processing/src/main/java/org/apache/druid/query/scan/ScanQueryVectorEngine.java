@@ -0,0 +1,575 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.scan;
+
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.UOE;
+import org.apache.druid.java.util.common.guava.BaseSequence;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryTimeoutException;
+import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.timeline.SegmentId;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Vectorized counterpart of {@link ScanQueryEngine}. Rows are read a vector at a time through a
+ * {@link VectorColumnSelectorFactory}, and then sliced into batches of {@link ScanQuery#getBatchSize()} rows.
+ *
+ * Only used for ascending or unordered scans, since vector cursors cannot iterate backwards.
+ */
+class ScanQueryVectorEngine
+{
+  private ScanQueryVectorEngine()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Returns whether a scan of the given columns can run through this engine. Callers decide whether to actually
+   * vectorize through {@link QueryContexts.Vectorize#shouldVectorize}, so that "force" fails like it does for
+   * timeseries and groupBy queries.
+   */
+  static boolean canVectorize(
+      final ScanQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter,
+      final List<String> columns,
+      final boolean descending
+  )
+  {
+    final VirtualColumns virtualColumns = query.getVirtualColumns();
+
+    return VirtualColumns.shouldVectorize(query, virtualColumns, adapter)
+           && adapter.canVectorize(filter, virtualColumns, descending)
+           && canVectorizeColumns(adapter, virtualColumns, columns, query.isLegacy());
+  }
+
+  /**
+   * Returns whether all requested non-virtual columns can be read through vector selectors.
+   */
+  private static boolean canVectorizeColumns(
+      final StorageAdapter adapter,
+      final VirtualColumns virtualColumns,
+      final List<String> columns,
+      final boolean legacy
+  )
+  {
+    for (String column : columns) {
+      if (virtualColumns.exists(column) || (legacy && ScanQueryEngine.LEGACY_TIMESTAMP_KEY.equals(column))) {
+        continue;
+      }
+
+      final ColumnCapabilities capabilities = adapter.getColumnCapabilities(column);
+
+      if (capabilities == null) {
+        // Nonexistent column, reads as all nulls.
+        continue;
+      }
+
+      switch (capabilities.getType()) {
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case COMPLEX:
+          break;
+        case STRING:
+          if (!capabilities.isDictionaryEncoded().isTrue()) {
+            return false;
+          }
+          break;
+        default:
+          return false;
+      }
+    }
+
+    return true;
+  }
+
+  static Sequence<ScanResultValue> process(
+      final ScanQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter,
+      final Interval interval,
+      final List<String> allColumns,
+      final SegmentId segmentId,
+      final long limit,
+      final ResponseContext responseContext
+  )
+  {
+    final boolean legacy = query.isLegacy();
+
+    return new BaseSequence<>(
+        new BaseSequence.IteratorMaker<ScanResultValue, ScanVectorIterator>()
+        {
+          @Override
+          public ScanVectorIterator make()
+          {
+            final VectorCursor cursor = adapter.makeVectorCursor(
+                filter,
+                interval,
+                query.getVirtualColumns(),
+                false,
+                QueryContexts.getVectorSize(query),
+                null
+            );
+
+            final ColumnReader[] readers = new ColumnReader[allColumns.size()];
+            if (cursor != null) {
+              for (int i = 0; i < readers.length; i++) {
+                readers[i] = makeColumnReader(
+                    cursor.getColumnSelectorFactory(),
+                    query.getVirtualColumns(),
+                    allColumns.get(i),
+                    legacy
+                );
+              }
+            }
+
+            return new ScanVectorIterator(query, cursor, allColumns, readers, segmentId, limit, responseContext);
+          }
+
+          @Override
+          public void cleanup(ScanVectorIterator iterFromMake)
+          {
+            iterFromMake.close();
+          }
+        }
+    );
+  }
+
+  private static ColumnReader makeColumnReader(
+      final VectorColumnSelectorFactory factory,
+      final VirtualColumns virtualColumns,
+      final String column,
+      final boolean legacy
+  )
+  {
+    if (legacy && ScanQueryEngine.LEGACY_TIMESTAMP_KEY.equals(column)) {
+      return new LegacyTimestampColumnReader(factory.makeValueSelector(ColumnHolder.TIME_COLUMN_NAME));
+    }
+
+    if (virtualColumns.exists(column)) {
+      // Object selectors on virtual columns match the values returned by ColumnValueSelector#getObject in the
+      // non-vectorized engine, including expressions that produce nulls.
+      return new ObjectColumnReader(factory.makeObjectSelector(column));
+    }
+
+    final ColumnCapabilities capabilities = factory.getColumnCapabilities(column);
+
+    if (capabilities == null) {
+      return NilColumnReader.INSTANCE;
+    }
+
+    switch (capabilities.getType()) {
+      case LONG:
+        return new LongColumnReader(factory.makeValueSelector(column));
+      case FLOAT:
+        return new FloatColumnReader(factory.makeValueSelector(column));
+      case DOUBLE:
+        return new DoubleColumnReader(factory.makeValueSelector(column));
+      case STRING:
+        if (capabilities.hasMultipleValues().isMaybeTrue()) {
+          return new MultiValueStringColumnReader(
+              factory.makeMultiValueDimensionSelector(DefaultDimensionSpec.of(column))
+          );
+        } else {
+          return new SingleValueStringColumnReader(
+              factory.makeSingleValueDimensionSelector(DefaultDimensionSpec.of(column))
+          );
+        }
+      case COMPLEX:
+        return new ObjectColumnReader(factory.makeObjectSelector(column));
+      default:
+        throw new UOE("Cannot vectorize scan of column[%s] with type[%s]", column, capabilities.getType());
+    }
+  }
+
+  /**
+   * Produces batches of rows from a {@link VectorCursor}. A batch may span several vectors, and a vector may span
+   * several batches.
+   */
+  private static class ScanVectorIterator implements Iterator<ScanResultValue>
+  {
+    private final ScanQuery query;
+    @Nullable
+    private final VectorCursor cursor;
+    private final List<String> allColumns;
+    private final ColumnReader[] readers;
+    private final SegmentId segmentId;
+    private final long limit;
+    private final ResponseContext responseContext;
+    private final boolean hasTimeout;
+    private final long timeoutAt;
+    private final long start;
+
+    private long offset = 0;
+
+    // Position within the current vector. Zero means that the current vector has not been loaded yet.
+    private int vectorPosition = 0;
+
+    ScanVectorIterator(
+        final ScanQuery query,
+        @Nullable final VectorCursor cursor,
+        final List<String> allColumns,
+        final ColumnReader[] readers,
+        final SegmentId segmentId,
+        final long limit,
+        final ResponseContext responseContext
+    )
+    {
+      this.query = query;
+      this.cursor = cursor;
+      this.allColumns = allColumns;
+      this.readers = readers;
+      this.segmentId = segmentId;
+      this.limit = limit;
+      this.responseContext = responseContext;
+      this.hasTimeout = QueryContexts.hasTimeout(query);
+      this.timeoutAt = (long) responseContext.get(ResponseContext.Key.TIMEOUT_AT);
+      this.start = System.currentTimeMillis();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return cursor != null && !cursor.isDone() && offset < limit;
+    }
+
+    @Override
+    public ScanResultValue next()
+    {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (hasTimeout && System.currentTimeMillis() >= timeoutAt) {
+        throw new QueryTimeoutException(StringUtils.nonStrictFormat("Query [%s] timed out", query.getId()));
+      }
+
+      final int batchSize = query.getBatchSize();
+      final ScanQuery.ResultFormat resultFormat = query.getResultFormat();
+      final boolean compacted;
+
+      if (ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST.equals(resultFormat)) {
+        compacted = true;
+      } else if (ScanQuery.ResultFormat.RESULT_FORMAT_LIST.equals(resultFormat)) {
+        compacted = false;
+      } else {
+        throw new UOE("resultFormat[%s] is not supported", resultFormat.toString());
+      }
+
+      final long lastOffset = offset;
+      final List<Object> events = new ArrayList<>(batchSize);
+      final long iterLimit = Math.min(limit, offset + batchSize);
+
+      while (!cursor.isDone() && offset < iterLimit) {
+        if (vectorPosition == 0) {
+          for (ColumnReader reader : readers) {
+            reader.loadVector();
+          }
+        }
+
+        final int vectorSize = cursor.getCurrentVectorSize();
+        final int rowsToRead = (int) Math.min(vectorSize - vectorPosition, iterLimit - offset);
+
+        for (int i = vectorPosition; i < vectorPosition + rowsToRead; i++) {
+          if (compacted) {
+            final List<Object> theEvent = new ArrayList<>(readers.length);
+            for (ColumnReader reader : readers) {
+              theEvent.add(reader.get(i));
+            }
+            events.add(theEvent);
+          } else {
+            final Map<String, Object> theEvent = new LinkedHashMap<>();
+            for (int j = 0; j < readers.length; j++) {
+              theEvent.put(allColumns.get(j), readers[j].get(i));
+            }
+            events.add(theEvent);
+          }
+        }
+
+        offset += rowsToRead;
+        vectorPosition += rowsToRead;
+
+        if (vectorPosition == vectorSize) {
+          cursor.advance();
+          vectorPosition = 0;
+        }
+      }
+
+      responseContext.add(ResponseContext.Key.NUM_SCANNED_ROWS, offset - lastOffset);
+      if (hasTimeout) {
+        responseContext.put(
+            ResponseContext.Key.TIMEOUT_AT,
+            timeoutAt - (System.currentTimeMillis() - start)
+        );
+      }
+      return new ScanResultValue(segmentId.toString(), allColumns, events);
+    }
+
+    @Override
+    public void remove()
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    void close()
+    {
+      if (cursor != null) {
+        cursor.close();
+      }
+    }
+  }
+
+  /**
+   * Reads values of one column for the current vector. {@link #loadVector()} is called once per vector, before
+   * any call to {@link #get(int)}.
+   */
+  private interface ColumnReader
+  {
+    void loadVector();
+
+    @Nullable
+    Object get(int row);
+  }
+
+  private enum NilColumnReader implements ColumnReader
+  {
+    INSTANCE;
+
+    @Override
+    public void loadVector()
+    {
+      // Nothing to load.
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return null;
+    }
+  }
+
+  private static class LongColumnReader implements ColumnReader
+  {
+    private final VectorValueSelector selector;
+    private long[] vector;
+    @Nullable
+    private boolean[] nulls;
+
+    LongColumnReader(VectorValueSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public void loadVector()
+    {
+      vector = selector.getLongVector();
+      nulls = selector.getNullVector();
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return nulls != null && nulls[row] ? null : vector[row];
+    }
+  }
+
+  private static class LegacyTimestampColumnReader extends LongColumnReader
+  {
+    LegacyTimestampColumnReader(VectorValueSelector selector)
+    {
+      super(selector);
+    }
+
+    @Override
+    public Object get(int row)
+    {
+      return DateTimes.utc((long) super.get(row));
+    }
+  }
+
+  private static class FloatColumnReader implements ColumnReader
+  {
+    private final VectorValueSelector selector;
+    private float[] vector;
+    @Nullable
+    private boolean[] nulls;
+
+    FloatColumnReader(VectorValueSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public void loadVector()
+    {
+      vector = selector.getFloatVector();
+      nulls = selector.getNullVector();
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return nulls != null && nulls[row] ? null : vector[row];
+    }
+  }
+
+  private static class DoubleColumnReader implements ColumnReader
+  {
+    private final VectorValueSelector selector;
+    private double[] vector;
+    @Nullable
+    private boolean[] nulls;
+
+    DoubleColumnReader(VectorValueSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public void loadVector()
+    {
+      vector = selector.getDoubleVector();
+      nulls = selector.getNullVector();
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return nulls != null && nulls[row] ? null : vector[row];
+    }
+  }
+
+  private static class SingleValueStringColumnReader implements ColumnReader
+  {
+    private final SingleValueDimensionVectorSelector selector;
+    private int[] vector;
+
+    SingleValueStringColumnReader(SingleValueDimensionVectorSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public void loadVector()
+    {
+      vector = selector.getRowVector();
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return selector.lookupName(vector[row]);
+    }
+  }
+
+  private static class MultiValueStringColumnReader implements ColumnReader
+  {
+    private final MultiValueDimensionVectorSelector selector;
+    private IndexedInts[] vector;
+
+    MultiValueStringColumnReader(MultiValueDimensionVectorSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public void loadVector()
+    {
+      vector = selector.getRowVector();
+    }
+
+    /**
+     * Same shape as {@link org.apache.druid.segment.DimensionSelector#defaultGetObject()}.
+     */
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      final IndexedInts ints = vector[row];
+      final int rowSize = ints.size();
+      if (rowSize == 0) {
+        return null;
+      } else if (rowSize == 1) {
+        return selector.lookupName(ints.get(0));
+      } else {
+        final String[] strings = new String[rowSize];
+        for (int i = 0; i < rowSize; i++) {
+          strings[i] = selector.lookupName(ints.get(i));
+        }
+        return Arrays.asList(strings);
+      }
+    }
+  }
+
+  private static class ObjectColumnReader implements ColumnReader
+  {
+    private final VectorObjectSelector selector;
+    private Object[] vector;
+
+    ObjectColumnReader(VectorObjectSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public void loadVector()
+    {
+      vector = selector.getObjectVector();
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return vector[row];
+    }
+  }
+}
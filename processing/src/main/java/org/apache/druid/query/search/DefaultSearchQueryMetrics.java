@@ -225,6 +225,12 @@ public class DefaultSearchQueryMetrics implements SearchQueryMetrics
     return delegateQueryMetrics.reportBackPressureTime(timeNs);
   }
 
+  @Override
+  public QueryMetrics reportQueryBackPressureTime(long timeNs)
+  {
+    return delegateQueryMetrics.reportQueryBackPressureTime(timeNs);
+  }
+
   @Override
   public QueryMetrics reportNodeTime(long timeNs)
   {
@@ -255,6 +261,42 @@ public class DefaultSearchQueryMetrics implements SearchQueryMetrics
     return delegateQueryMetrics.reportPreFilteredRows(numRows);
   }
 
+  @Override
+  public QueryMetrics reportRowsScanned(long numRows)
+  {
+    return delegateQueryMetrics.reportRowsScanned(numRows);
+  }
+
+  @Override
+  public QueryMetrics reportRowsMatched(long numRows)
+  {
+    return delegateQueryMetrics.reportRowsMatched(numRows);
+  }
+
+  @Override
+  public QueryMetrics reportBitmapFilters(long numFilters)
+  {
+    return delegateQueryMetrics.reportBitmapFilters(numFilters);
+  }
+
+  @Override
+  public QueryMetrics reportMatcherFilters(long numFilters)
+  {
+    return delegateQueryMetrics.reportMatcherFilters(numFilters);
+  }
+
+  @Override
+  public QueryMetrics reportBytesDecompressed(long byteCount)
+  {
+    return delegateQueryMetrics.reportBytesDecompressed(byteCount);
+  }
+
+  @Override
+  public QueryMetrics reportMergeBufferBytes(long byteCount)
+  {
+    return delegateQueryMetrics.reportMergeBufferBytes(byteCount);
+  }
+
   @Override
   public QueryMetrics reportParallelMergeParallelism(int parallelism)
   {
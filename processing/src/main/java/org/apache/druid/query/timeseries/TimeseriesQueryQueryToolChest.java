@@ -303,6 +303,18 @@ public class TimeseriesQueryQueryToolChest extends QueryToolChest<Result<Timeser
         return builder.build();
       }
 
+      @Override
+      public boolean isResultLevelCacheableByBucket(TimeseriesQuery query)
+      {
+        return query.getLimit() == Integer.MAX_VALUE && !query.isGrandTotal();
+      }
+
+      @Override
+      public long getResultTimestampMillis(Result<TimeseriesResultValue> result)
+      {
+        return result.getTimestamp().getMillis();
+      }
+
       @Override
       public TypeReference<Object> getCacheObjectClazz()
       {
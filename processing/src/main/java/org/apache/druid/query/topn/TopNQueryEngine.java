@@ -25,6 +25,7 @@ import org.apache.druid.collections.NonBlockingPool;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.Result;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.extraction.ExtractionFn;
@@ -74,7 +75,6 @@ public class TopNQueryEngine
     final List<Interval> queryIntervals = query.getQuerySegmentSpec().getIntervals();
     final Filter filter = Filters.convertToCNFFromQueryContext(query, Filters.toFilter(query.getDimensionsFilter()));
     final Granularity granularity = query.getGranularity();
-    final TopNMapFn mapFn = getMapFn(query, adapter, queryMetrics);
 
     Preconditions.checkArgument(
         queryIntervals.size() == 1,
@@ -82,6 +82,19 @@ public class TopNQueryEngine
         queryIntervals
     );
 
+    final boolean doVectorize = QueryContexts.getVectorize(query).shouldVectorize(
+        VectorTopNEngine.canVectorize(query, adapter, filter)
+    );
+
+    if (doVectorize) {
+      if (queryMetrics != null) {
+        queryMetrics.dimensionCardinality(adapter.getDimensionCardinality(query.getDimensionSpec().getDimension()));
+      }
+      return VectorTopNEngine.process(query, adapter, filter, queryIntervals.get(0), bufferPool, queryMetrics);
+    }
+
+    final TopNMapFn mapFn = getMapFn(query, adapter, queryMetrics);
+
     return Sequences.filter(
         Sequences.map(
             adapter.makeCursors(
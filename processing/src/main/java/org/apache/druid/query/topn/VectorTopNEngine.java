@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.topn;
+
+import org.apache.druid.collections.NonBlockingPool;
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.java.util.common.guava.BaseSequence;
+import org.apache.druid.java.util.common.guava.CloseQuietly;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.AggregatorAdapters;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * Vectorized counterpart of {@link PooledTopNAlgorithm}. Dictionary ids are read a vector at a time from a
+ * {@link SingleValueDimensionVectorSelector}, and aggregated through {@link AggregatorAdapters#aggregateVector} into
+ * slots of a pooled buffer. Slots are assigned to dictionary ids in the order they are first seen. If the buffer
+ * cannot hold a slot for every dictionary id, the cursor is reset and the segment is scanned again for the next range
+ * of ids, like {@link BaseTopNAlgorithm} does with {@link TopNParams#getNumValuesPerPass()}.
+ *
+ * Only queries with "all" granularity are handled here, since multiple passes would otherwise have to be made over
+ * each time bucket.
+ */
+public class VectorTopNEngine
+{
+  private static final int UNSEEN_POSITION = -1;
+
+  private VectorTopNEngine()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Returns whether a query can run through this engine. This mirrors the conditions under which
+   * {@link TopNQueryEngine} would choose {@link PooledTopNAlgorithm}, plus the usual vectorization requirements.
+   */
+  public static boolean canVectorize(
+      final TopNQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter
+  )
+  {
+    final DimensionSpec dimensionSpec = query.getDimensionSpec();
+
+    if (!Granularities.ALL.equals(query.getGranularity()) || query.isDescending()) {
+      return false;
+    }
+
+    if (!dimensionSpec.canVectorize()
+        || dimensionSpec.mustDecorate()
+        || dimensionSpec.getExtractionFn() != null
+        || dimensionSpec.getOutputType() != ValueType.STRING) {
+      return false;
+    }
+
+    final ColumnCapabilities capabilities = query.getVirtualColumns().getColumnCapabilitiesWithFallback(
+        adapter,
+        dimensionSpec.getDimension()
+    );
+
+    // Same requirements as PooledTopNAlgorithm, and additionally single-valued.
+    if (capabilities == null
+        || capabilities.getType() != ValueType.STRING
+        || !capabilities.isDictionaryEncoded().isTrue()
+        || !capabilities.areDictionaryValuesUnique().isTrue()
+        || !capabilities.hasMultipleValues().isFalse()) {
+      return false;
+    }
+
+    final VirtualColumns virtualColumns = query.getVirtualColumns();
+
+    return VirtualColumns.shouldVectorize(query, virtualColumns, adapter)
+           && query.getAggregatorSpecs().stream().allMatch(aggregatorFactory -> aggregatorFactory.canVectorize(adapter))
+           && adapter.canVectorize(filter, virtualColumns, false);
+  }
+
+  public static Sequence<Result<TopNResultValue>> process(
+      final TopNQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter,
+      final Interval queryInterval,
+      final NonBlockingPool<ByteBuffer> bufferPool,
+      @Nullable final TopNQueryMetrics queryMetrics
+  )
+  {
+    if (!canVectorize(query, adapter, filter)) {
+      throw new ISE("Cannot vectorize");
+    }
+
+    return new BaseSequence<>(
+        new BaseSequence.IteratorMaker<Result<TopNResultValue>, Iterator<Result<TopNResultValue>>>()
+        {
+          @Override
+          public Iterator<Result<TopNResultValue>> make()
+          {
+            final VectorCursor cursor = adapter.makeVectorCursor(
+                filter,
+                queryInterval,
+                query.getVirtualColumns(),
+                false,
+                QueryContexts.getVectorSize(query),
+                queryMetrics
+            );
+
+            if (cursor == null) {
+              return Collections.emptyIterator();
+            }
+
+            final Closer closer = Closer.create();
+            closer.register(cursor);
+
+            try {
+              return Collections.singletonList(
+                  processCursor(query, adapter, queryInterval, cursor, bufferPool, closer, queryMetrics)
+              ).iterator();
+            }
+            finally {
+              CloseQuietly.close(closer);
+            }
+          }
+
+          @Override
+          public void cleanup(Iterator<Result<TopNResultValue>> iterFromMake)
+          {
+            // Nothing to do, all resources are released by make().
+          }
+        }
+    );
+  }
+
+  private static Result<TopNResultValue> processCursor(
+      final TopNQuery query,
+      final StorageAdapter adapter,
+      final Interval queryInterval,
+      final VectorCursor cursor,
+      final NonBlockingPool<ByteBuffer> bufferPool,
+      final Closer closer,
+      @Nullable final TopNQueryMetrics queryMetrics
+  )
+  {
+    final SingleValueDimensionVectorSelector dimSelector =
+        cursor.getColumnSelectorFactory().makeSingleValueDimensionSelector(query.getDimensionSpec());
+    final int cardinality = dimSelector.getValueCardinality();
+
+    if (cardinality < 0) {
+      throw new UnsupportedOperationException("Cannot operate on a dimension with no dictionary");
+    }
+
+    final AggregatorAdapters aggregators = closer.register(
+        AggregatorAdapters.factorizeVector(cursor.getColumnSelectorFactory(), query.getAggregatorSpecs())
+    );
+
+    final ResourceHolder<ByteBuffer> bufferHolder = closer.register(bufferPool.take());
+    final ByteBuffer buffer = bufferHolder.get();
+    buffer.clear();
+
+    final int spaceNeeded = aggregators.spaceNeeded();
+
+    if (spaceNeeded > buffer.remaining()) {
+      throw new ISE(
+          "Not enough space for aggregators, needed [%,d] bytes but have only [%,d].",
+          spaceNeeded,
+          buffer.remaining()
+      );
+    }
+
+    final int numValuesPerPass = spaceNeeded > 0 ? buffer.remaining() / spaceNeeded : cardinality;
+    final TopNResultBuilder resultBuilder = makeResultBuilder(query, adapter, queryInterval);
+
+    // Reused for every vector: the buffer position of each row that is aggregated, and the row number within
+    // the vector.
+    final int[] vectorPositions = new int[cursor.getMaxVectorSize()];
+    final int[] vectorRows = new int[cursor.getMaxVectorSize()];
+
+    // Buffer position of each dictionary id in the current pass, or UNSEEN_POSITION.
+    final int[] positions = new int[cardinality];
+
+    if (queryMetrics != null) {
+      queryMetrics.startRecordingScanTime();
+    }
+
+    long processedRows = 0;
+
+    for (int passStart = 0; passStart < cardinality; passStart += numValuesPerPass) {
+      final int passEnd = (int) Math.min((long) passStart + numValuesPerPass, cardinality);
+      final boolean allIdsInPass = passStart == 0 && passEnd == cardinality;
+      Arrays.fill(positions, UNSEEN_POSITION);
+      int nextPosition = 0;
+      processedRows = 0;
+
+      while (!cursor.isDone()) {
+        final int[] ids = dimSelector.getRowVector();
+        final int vectorSize = cursor.getCurrentVectorSize();
+        int numRows = 0;
+
+        for (int i = 0; i < vectorSize; i++) {
+          final int id = ids[i];
+
+          if (allIdsInPass || (id >= passStart && id < passEnd)) {
+            int position = positions[id];
+
+            if (position == UNSEEN_POSITION) {
+              position = nextPosition;
+              positions[id] = position;
+              aggregators.init(buffer, position);
+              nextPosition += spaceNeeded;
+            }
+
+            vectorPositions[numRows] = position;
+            vectorRows[numRows] = i;
+            numRows++;
+          }
+        }
+
+        if (numRows > 0) {
+          aggregators.aggregateVector(buffer, numRows, vectorPositions, allIdsInPass ? null : vectorRows);
+        }
+
+        processedRows += vectorSize;
+        cursor.advance();
+      }
+
+      for (int id = passStart; id < passEnd; id++) {
+        final int position = positions[id];
+        if (position != UNSEEN_POSITION) {
+          final Object[] vals = new Object[aggregators.size()];
+          for (int j = 0; j < vals.length; j++) {
+            vals[j] = aggregators.get(buffer, position, j);
+          }
+
+          // Output type must be STRING in order for this engine to be used; so no need to convert value.
+          resultBuilder.addEntry(dimSelector.lookupName(id), id, vals);
+        }
+      }
+
+      BaseQuery.checkInterrupted();
+      cursor.reset();
+    }
+
+    if (queryMetrics != null) {
+      queryMetrics.addProcessedRows(processedRows);
+      queryMetrics.stopRecordingScanTime();
+    }
+
+    return resultBuilder.build();
+  }
+
+  /**
+   * Like {@link BaseTopNAlgorithm#makeResultBuilder}, with the timestamp that a non-vectorized cursor over the same
+   * interval would report.
+   */
+  private static TopNResultBuilder makeResultBuilder(
+      final TopNQuery query,
+      final StorageAdapter adapter,
+      final Interval queryInterval
+  )
+  {
+    final Granularity granularity = query.getGranularity();
+    final Interval dataInterval = new Interval(adapter.getMinTime(), granularity.bucketEnd(adapter.getMaxTime()));
+    final Interval cursorInterval = queryInterval.overlap(dataInterval);
+    final DateTime timestamp = granularity.toDateTime(
+        (cursorInterval == null ? queryInterval : cursorInterval).getStartMillis()
+    );
+
+    final Comparator comparator = query.getTopNMetricSpec()
+                                       .getComparator(query.getAggregatorSpecs(), query.getPostAggregatorSpecs());
+    return query.getTopNMetricSpec().getResultBuilder(
+        timestamp,
+        query.getDimensionSpec(),
+        query.getThreshold(),
+        comparator,
+        query.getAggregatorSpecs(),
+        query.getPostAggregatorSpecs()
+    );
+  }
+}
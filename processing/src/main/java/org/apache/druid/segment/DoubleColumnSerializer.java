@@ -36,10 +36,18 @@ public class DoubleColumnSerializer implements GenericColumnSerializer<Object>
       String columnName,
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      int zstdLevel
   )
   {
-    return new DoubleColumnSerializer(columnName, segmentWriteOutMedium, filenameBase, IndexIO.BYTE_ORDER, compression);
+    return new DoubleColumnSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        IndexIO.BYTE_ORDER,
+        compression,
+        zstdLevel
+    );
   }
 
   private final String columnName;
@@ -47,6 +55,7 @@ public class DoubleColumnSerializer implements GenericColumnSerializer<Object>
   private final String filenameBase;
   private final ByteOrder byteOrder;
   private final CompressionStrategy compression;
+  private final int zstdLevel;
   private ColumnarDoublesSerializer writer;
 
   private DoubleColumnSerializer(
@@ -54,7 +63,8 @@ public class DoubleColumnSerializer implements GenericColumnSerializer<Object>
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       ByteOrder byteOrder,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      int zstdLevel
   )
   {
     this.columnName = columnName;
@@ -62,6 +72,7 @@ public class DoubleColumnSerializer implements GenericColumnSerializer<Object>
     this.filenameBase = filenameBase;
     this.byteOrder = byteOrder;
     this.compression = compression;
+    this.zstdLevel = zstdLevel;
   }
 
   @Override
@@ -72,7 +83,8 @@ public class DoubleColumnSerializer implements GenericColumnSerializer<Object>
         segmentWriteOutMedium,
         StringUtils.format("%s.double_column", filenameBase),
         byteOrder,
-        compression
+        compression,
+        zstdLevel
     );
     writer.open();
   }
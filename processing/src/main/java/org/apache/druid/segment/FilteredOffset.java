@@ -35,6 +35,10 @@ public final class FilteredOffset extends Offset
 {
   private final Offset baseOffset;
   private final ValueMatcher filterMatcher;
+  /**
+   * Number of rows matched by {@link #filterMatcher}, see {@link org.apache.druid.query.QueryCounters}
+   */
+  private long numMatchedRows = 0;
 
   FilteredOffset(
       Offset baseOffset,
@@ -72,7 +76,11 @@ public final class FilteredOffset extends Offset
   {
     while (!Thread.currentThread().isInterrupted()) {
       baseOffset.increment();
-      if (!baseOffset.withinBounds() || filterMatcher.matches()) {
+      if (!baseOffset.withinBounds()) {
+        return;
+      }
+      if (filterMatcher.matches()) {
+        numMatchedRows++;
         return;
       }
     }
@@ -94,7 +102,9 @@ public final class FilteredOffset extends Offset
   private void incrementIfNeededOnCreationOrReset()
   {
     if (baseOffset.withinBounds()) {
-      if (!filterMatcher.matches()) {
+      if (filterMatcher.matches()) {
+        numMatchedRows++;
+      } else {
         increment();
         // increment() returns early if it detects the current Thread is interrupted. It will leave this
         // FilteredOffset in an illegal state, because it may point to an offset that should be filtered. So must to
@@ -104,6 +114,11 @@ public final class FilteredOffset extends Offset
     }
   }
 
+  long getNumMatchedRows()
+  {
+    return numMatchedRows;
+  }
+
   @Override
   public ReadableOffset getBaseReadableOffset()
   {
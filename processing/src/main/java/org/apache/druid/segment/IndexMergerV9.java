@@ -21,6 +21,7 @@ package org.apache.druid.segment;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -28,12 +29,14 @@ import com.google.common.io.Files;
 import com.google.common.primitives.Ints;
 import com.google.inject.Inject;
 import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.common.guava.GuavaUtils;
 import org.apache.druid.io.ZeroCopyByteArrayOutputStream;
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.FileUtils;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.JodaUtils;
+import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.guava.Comparators;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
@@ -81,6 +84,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -161,6 +169,13 @@ public class IndexMergerV9 implements IndexMerger
   private final IndexIO indexIO;
   private final SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory;
 
+  /**
+   * Runs the dimension mergers of the merges whose {@link IndexSpec#getNumColumnMergeThreads()} is more than 1. Shared
+   * by all merges; idle threads are let go, so nothing needs to shut it down.
+   */
+  private final ExecutorService columnMergeExecutor =
+      Executors.newCachedThreadPool(Execs.makeThreadFactory("IndexMergerV9-column-merge-%d"));
+
   @Inject
   public IndexMergerV9(ObjectMapper mapper, IndexIO indexIO, SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory)
   {
@@ -239,15 +254,35 @@ public class IndexMergerV9 implements IndexMerger
 
       final Map<String, DimensionHandler> handlers = makeDimensionHandlers(mergedDimensions, dimCapabilities);
       final List<DimensionMergerV9> mergers = new ArrayList<>();
-      for (int i = 0; i < mergedDimensions.size(); i++) {
-        DimensionHandler handler = handlers.get(mergedDimensions.get(i));
-        mergers.add(handler.makeMerger(indexSpec, segmentWriteOutMedium, dimCapabilities.get(i), progress, closer));
+      final int numColumnMergeThreads =
+          Math.min(indexSpec.getEffectiveNumColumnMergeThreads(), mergedDimensions.size());
+      if (numColumnMergeThreads > 1) {
+        // Each merger gets its own write-out medium and closer, since those are not thread-safe. What ends up in the
+        // smoosher doesn't depend on them: columns are still added to it one after another, in the same order.
+        final ProgressIndicator mergerProgress = new SynchronizedProgressIndicator(progress);
+        for (int i = 0; i < mergedDimensions.size(); i++) {
+          DimensionHandler handler = handlers.get(mergedDimensions.get(i));
+          mergers.add(
+              handler.makeMerger(
+                  indexSpec,
+                  segmentWriteOutMedium.makeChildWriteOutMedium(),
+                  dimCapabilities.get(i),
+                  mergerProgress,
+                  closer.register(Closer.create())
+              )
+          );
+        }
+      } else {
+        for (int i = 0; i < mergedDimensions.size(); i++) {
+          DimensionHandler handler = handlers.get(mergedDimensions.get(i));
+          mergers.add(handler.makeMerger(indexSpec, segmentWriteOutMedium, dimCapabilities.get(i), progress, closer));
+        }
       }
 
       /************* Setup Dim Conversions **************/
       progress.progress();
       startTime = System.currentTimeMillis();
-      writeDimValuesAndSetupDimConversion(adapters, progress, mergedDimensions, mergers);
+      writeDimValuesAndSetupDimConversion(adapters, progress, mergers, numColumnMergeThreads);
       log.debug("Completed dim conversions in %,d millis.", System.currentTimeMillis() - startTime);
 
       /************* Walk through data sets, merge them, and write merged columns *************/
@@ -288,9 +323,9 @@ public class IndexMergerV9 implements IndexMerger
           indexSpec
       );
 
+      forEachMerger(mergers, numColumnMergeThreads, merger -> merger.writeIndexes(rowNumConversions));
       for (int i = 0; i < mergedDimensions.size(); i++) {
         DimensionMergerV9 merger = mergers.get(i);
-        merger.writeIndexes(rowNumConversions);
         if (merger.canSkip()) {
           continue;
         }
@@ -700,6 +735,7 @@ public class IndexMergerV9 implements IndexMerger
           segmentWriteOutMedium,
           columnName,
           indexSpec.getMetricCompression(),
+          indexSpec.getEffectiveZstdCompressionLevel(),
           indexSpec.getLongEncoding()
       );
     } else {
@@ -708,6 +744,7 @@ public class IndexMergerV9 implements IndexMerger
           segmentWriteOutMedium,
           columnName,
           indexSpec.getMetricCompression(),
+          indexSpec.getEffectiveZstdCompressionLevel(),
           indexSpec.getLongEncoding(),
           indexSpec.getBitmapSerdeFactory()
       );
@@ -726,7 +763,8 @@ public class IndexMergerV9 implements IndexMerger
           columnName,
           segmentWriteOutMedium,
           columnName,
-          indexSpec.getMetricCompression()
+          indexSpec.getMetricCompression(),
+          indexSpec.getEffectiveZstdCompressionLevel()
       );
     } else {
       return DoubleColumnSerializerV2.create(
@@ -734,6 +772,7 @@ public class IndexMergerV9 implements IndexMerger
           segmentWriteOutMedium,
           columnName,
           indexSpec.getMetricCompression(),
+          indexSpec.getEffectiveZstdCompressionLevel(),
           indexSpec.getBitmapSerdeFactory()
       );
     }
@@ -751,7 +790,8 @@ public class IndexMergerV9 implements IndexMerger
           columnName,
           segmentWriteOutMedium,
           columnName,
-          indexSpec.getMetricCompression()
+          indexSpec.getMetricCompression(),
+          indexSpec.getEffectiveZstdCompressionLevel()
       );
     } else {
       return FloatColumnSerializerV2.create(
@@ -759,6 +799,7 @@ public class IndexMergerV9 implements IndexMerger
           segmentWriteOutMedium,
           columnName,
           indexSpec.getMetricCompression(),
+          indexSpec.getEffectiveZstdCompressionLevel(),
           indexSpec.getBitmapSerdeFactory()
       );
     }
@@ -767,17 +808,118 @@ public class IndexMergerV9 implements IndexMerger
   private void writeDimValuesAndSetupDimConversion(
       final List<IndexableAdapter> indexes,
       final ProgressIndicator progress,
-      final List<String> mergedDimensions,
-      final List<DimensionMergerV9> mergers
+      final List<DimensionMergerV9> mergers,
+      final int numColumnMergeThreads
   ) throws IOException
   {
     final String section = "setup dimension conversions";
     progress.startSection(section);
+    forEachMerger(mergers, numColumnMergeThreads, merger -> merger.writeMergedValueDictionary(indexes));
+    progress.stopSection(section);
+  }
+
+  /**
+   * Applies the given action to each merger, in order if numColumnMergeThreads is 1, on that many threads of the
+   * {@link #columnMergeExecutor} otherwise. Waits for all the actions to finish, even if some of them fail, so that no
+   * merger is still in use when resources are released.
+   */
+  private void forEachMerger(
+      final List<DimensionMergerV9> mergers,
+      final int numColumnMergeThreads,
+      final MergerAction action
+  ) throws IOException
+  {
+    if (numColumnMergeThreads <= 1) {
+      for (DimensionMergerV9 merger : mergers) {
+        action.apply(merger);
+      }
+      return;
+    }
 
-    for (int dimIndex = 0; dimIndex < mergedDimensions.size(); ++dimIndex) {
-      mergers.get(dimIndex).writeMergedValueDictionary(indexes);
+    // Each worker takes the next merger nobody took yet, which bounds the concurrency of this merge without a pool of
+    // its own. After a failure the workers stop taking mergers, since the merge is going to fail anyway.
+    final AtomicInteger nextMerger = new AtomicInteger();
+    final List<Future<?>> workers = new ArrayList<>(numColumnMergeThreads);
+    for (int i = 0; i < numColumnMergeThreads; i++) {
+      workers.add(
+          columnMergeExecutor.submit(
+              () -> {
+                for (int j = nextMerger.getAndIncrement(); j < mergers.size(); j = nextMerger.getAndIncrement()) {
+                  try {
+                    action.apply(mergers.get(j));
+                  }
+                  catch (Throwable t) {
+                    nextMerger.set(mergers.size());
+                    throw t;
+                  }
+                }
+                return null;
+              }
+          )
+      );
+    }
+
+    try {
+      GuavaUtils.getAll(workers);
+    }
+    catch (InterruptedException e) {
+      GuavaUtils.cancelAll(true, null, workers);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  @FunctionalInterface
+  private interface MergerAction
+  {
+    void apply(DimensionMergerV9 merger) throws IOException;
+  }
+
+  /**
+   * Used by mergers running in the columnMergeExecutor, since ProgressIndicators are not required to be thread-safe.
+   */
+  private static class SynchronizedProgressIndicator implements ProgressIndicator
+  {
+    private final ProgressIndicator delegate;
+
+    SynchronizedProgressIndicator(ProgressIndicator delegate)
+    {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void progress()
+    {
+      delegate.progress();
+    }
+
+    @Override
+    public synchronized void start()
+    {
+      delegate.start();
+    }
+
+    @Override
+    public synchronized void stop()
+    {
+      delegate.stop();
+    }
+
+    @Override
+    public synchronized void startSection(String section)
+    {
+      delegate.startSection(section);
+    }
+
+    @Override
+    public synchronized void stopSection(String section)
+    {
+      delegate.stopSection(section);
     }
-    progress.stopSection(section);
   }
 
   private void mergeCapabilities(
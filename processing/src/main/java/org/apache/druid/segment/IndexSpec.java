@@ -20,12 +20,16 @@
 package org.apache.druid.segment;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import org.apache.druid.segment.column.StringEncodingStrategy;
 import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressionFactory;
@@ -70,12 +74,22 @@ public class IndexSpec
   @Nullable
   private final SegmentizerFactory segmentLoader;
 
+  @Nullable
+  private final StringEncodingStrategy stringDictionaryEncoding;
+  private final Map<String, StringEncodingStrategy> dimensionStringDictionaryEncoding;
+
+  @Nullable
+  private final Integer zstdCompressionLevel;
+
+  @Nullable
+  private final Integer numColumnMergeThreads;
+
   /**
    * Creates an IndexSpec with default parameters
    */
   public IndexSpec()
   {
-    this(null, null, null, null, null);
+    this(null, null, null, null, null, null, null, null, null);
   }
 
   @VisibleForTesting
@@ -86,7 +100,51 @@ public class IndexSpec
       @Nullable CompressionFactory.LongEncodingStrategy longEncoding
   )
   {
-    this(bitmapSerdeFactory, dimensionCompression, metricCompression, longEncoding, null);
+    this(bitmapSerdeFactory, dimensionCompression, metricCompression, longEncoding, null, null, null, null, null);
+  }
+
+  public IndexSpec(
+      @Nullable BitmapSerdeFactory bitmapSerdeFactory,
+      @Nullable CompressionStrategy dimensionCompression,
+      @Nullable CompressionStrategy metricCompression,
+      @Nullable CompressionFactory.LongEncodingStrategy longEncoding,
+      @Nullable SegmentizerFactory segmentLoader
+  )
+  {
+    this(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        segmentLoader,
+        null,
+        null,
+        null,
+        null
+    );
+  }
+
+  public IndexSpec(
+      @Nullable BitmapSerdeFactory bitmapSerdeFactory,
+      @Nullable CompressionStrategy dimensionCompression,
+      @Nullable CompressionStrategy metricCompression,
+      @Nullable CompressionFactory.LongEncodingStrategy longEncoding,
+      @Nullable SegmentizerFactory segmentLoader,
+      @Nullable StringEncodingStrategy stringDictionaryEncoding,
+      @Nullable Map<String, StringEncodingStrategy> dimensionStringDictionaryEncoding
+  )
+  {
+    this(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        segmentLoader,
+        stringDictionaryEncoding,
+        dimensionStringDictionaryEncoding,
+        null,
+        null
+    );
   }
 
   /**
@@ -105,6 +163,19 @@ public class IndexSpec
    *
    * @param longEncoding encoding strategy for metric and dimension columns with type long, null to use the default.
    *                     Defaults to {@link CompressionFactory#DEFAULT_LONG_ENCODING_STRATEGY}
+   *
+   * @param stringDictionaryEncoding storage format of the value dictionary of string dimensions, null to use the
+   *                                 default. Defaults to {@link StringEncodingStrategy#DEFAULT}
+   *
+   * @param dimensionStringDictionaryEncoding per dimension overrides of stringDictionaryEncoding, may be null
+   *
+   * @param zstdCompressionLevel level used by dimension and metric columns compressed with
+   *                             {@link CompressionStrategy#ZSTD}, null to use the default.
+   *                             Defaults to {@link CompressionStrategy.ZstdCompressor#DEFAULT_LEVEL}
+   *
+   * @param numColumnMergeThreads number of threads used to write the value dictionaries and bitmap indexes of different
+   *                              dimensions concurrently, null to use the default. Segments are identical whatever the
+   *                              number of threads. Defaults to 1
    */
   @JsonCreator
   public IndexSpec(
@@ -112,7 +183,12 @@ public class IndexSpec
       @JsonProperty("dimensionCompression") @Nullable CompressionStrategy dimensionCompression,
       @JsonProperty("metricCompression") @Nullable CompressionStrategy metricCompression,
       @JsonProperty("longEncoding") @Nullable CompressionFactory.LongEncodingStrategy longEncoding,
-      @JsonProperty("segmentLoader") @Nullable SegmentizerFactory segmentLoader
+      @JsonProperty("segmentLoader") @Nullable SegmentizerFactory segmentLoader,
+      @JsonProperty("stringDictionaryEncoding") @Nullable StringEncodingStrategy stringDictionaryEncoding,
+      @JsonProperty("dimensionStringDictionaryEncoding") @Nullable
+          Map<String, StringEncodingStrategy> dimensionStringDictionaryEncoding,
+      @JsonProperty("zstdCompressionLevel") @Nullable Integer zstdCompressionLevel,
+      @JsonProperty("numColumnMergeThreads") @Nullable Integer numColumnMergeThreads
   )
   {
     Preconditions.checkArgument(dimensionCompression == null || DIMENSION_COMPRESSION.contains(dimensionCompression),
@@ -124,6 +200,21 @@ public class IndexSpec
     Preconditions.checkArgument(longEncoding == null || LONG_ENCODING_NAMES.contains(longEncoding),
                                 "Unknown long encoding type[%s]", longEncoding);
 
+    Preconditions.checkArgument(
+        zstdCompressionLevel == null
+        || (zstdCompressionLevel >= CompressionStrategy.ZstdCompressor.MIN_LEVEL
+            && zstdCompressionLevel <= CompressionStrategy.ZstdCompressor.MAX_LEVEL),
+        "zstdCompressionLevel[%s] must be between %s and %s",
+        zstdCompressionLevel,
+        CompressionStrategy.ZstdCompressor.MIN_LEVEL,
+        CompressionStrategy.ZstdCompressor.MAX_LEVEL
+    );
+    Preconditions.checkArgument(
+        numColumnMergeThreads == null || numColumnMergeThreads > 0,
+        "numColumnMergeThreads[%s] must be positive",
+        numColumnMergeThreads
+    );
+
     this.bitmapSerdeFactory = bitmapSerdeFactory != null
                               ? bitmapSerdeFactory
                               : new BitmapSerde.DefaultBitmapSerdeFactory();
@@ -131,6 +222,12 @@ public class IndexSpec
     this.metricCompression = metricCompression == null ? DEFAULT_METRIC_COMPRESSION : metricCompression;
     this.longEncoding = longEncoding == null ? DEFAULT_LONG_ENCODING : longEncoding;
     this.segmentLoader = segmentLoader;
+    this.stringDictionaryEncoding = stringDictionaryEncoding;
+    this.dimensionStringDictionaryEncoding = dimensionStringDictionaryEncoding == null
+                                             ? ImmutableMap.of()
+                                             : ImmutableMap.copyOf(dimensionStringDictionaryEncoding);
+    this.zstdCompressionLevel = zstdCompressionLevel;
+    this.numColumnMergeThreads = numColumnMergeThreads;
   }
 
   @JsonProperty("bitmap")
@@ -164,12 +261,88 @@ public class IndexSpec
     return segmentLoader;
   }
 
+  /**
+   * Not included in the JSON form when unset, so that specs written before this option existed keep comparing equal
+   * to their {@link #asMap} form, for example in compaction state.
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public StringEncodingStrategy getStringDictionaryEncoding()
+  {
+    return stringDictionaryEncoding;
+  }
+
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  public Map<String, StringEncodingStrategy> getDimensionStringDictionaryEncoding()
+  {
+    return dimensionStringDictionaryEncoding;
+  }
+
+  /**
+   * Not included in the JSON form when unset, for the same reason as {@link #getStringDictionaryEncoding()}.
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Integer getZstdCompressionLevel()
+  {
+    return zstdCompressionLevel;
+  }
+
+  /**
+   * Returns the level to pass to {@link CompressionStrategy#getCompressor(int)} when writing columns.
+   */
+  @JsonIgnore
+  public int getEffectiveZstdCompressionLevel()
+  {
+    return zstdCompressionLevel == null ? CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL : zstdCompressionLevel;
+  }
+
+  /**
+   * Not included in the JSON form when unset, for the same reason as {@link #getStringDictionaryEncoding()}. Only
+   * changes how fast segments are written, not what they contain, so it is left out of {@link #asMap},
+   * {@link #equals} and {@link #hashCode}. Otherwise changing it would make compaction rewrite every compacted segment.
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Integer getNumColumnMergeThreads()
+  {
+    return numColumnMergeThreads;
+  }
+
+  @JsonIgnore
+  public int getEffectiveNumColumnMergeThreads()
+  {
+    return numColumnMergeThreads == null ? 1 : numColumnMergeThreads;
+  }
+
+  /**
+   * Returns the storage format of the value dictionary of the given string dimension.
+   */
+  public StringEncodingStrategy getStringDictionaryEncoding(String dimension)
+  {
+    final StringEncodingStrategy strategy = dimensionStringDictionaryEncoding.get(dimension);
+    if (strategy != null) {
+      return strategy;
+    }
+    return stringDictionaryEncoding == null ? StringEncodingStrategy.DEFAULT : stringDictionaryEncoding;
+  }
+
+  /**
+   * Returns the JSON form of this spec stored in the compaction state of segments, without
+   * {@link #getNumColumnMergeThreads()}.
+   */
   public Map<String, Object> asMap(ObjectMapper objectMapper)
   {
-    return objectMapper.convertValue(
+    final Map<String, Object> map = objectMapper.convertValue(
         this,
         new TypeReference<Map<String, Object>>() {}
     );
+    map.remove("numColumnMergeThreads");
+    return map;
   }
 
   @Override
@@ -186,13 +359,25 @@ public class IndexSpec
            dimensionCompression == indexSpec.dimensionCompression &&
            metricCompression == indexSpec.metricCompression &&
            longEncoding == indexSpec.longEncoding &&
-           Objects.equals(segmentLoader, indexSpec.segmentLoader);
+           Objects.equals(segmentLoader, indexSpec.segmentLoader) &&
+           Objects.equals(stringDictionaryEncoding, indexSpec.stringDictionaryEncoding) &&
+           Objects.equals(dimensionStringDictionaryEncoding, indexSpec.dimensionStringDictionaryEncoding) &&
+           Objects.equals(zstdCompressionLevel, indexSpec.zstdCompressionLevel);
   }
 
   @Override
   public int hashCode()
   {
-    return Objects.hash(bitmapSerdeFactory, dimensionCompression, metricCompression, longEncoding, segmentLoader);
+    return Objects.hash(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        segmentLoader,
+        stringDictionaryEncoding,
+        dimensionStringDictionaryEncoding,
+        zstdCompressionLevel
+    );
   }
 
   @Override
@@ -204,6 +389,10 @@ public class IndexSpec
            ", metricCompression=" + metricCompression +
            ", longEncoding=" + longEncoding +
            ", segmentLoader=" + segmentLoader +
+           ", stringDictionaryEncoding=" + stringDictionaryEncoding +
+           ", dimensionStringDictionaryEncoding=" + dimensionStringDictionaryEncoding +
+           ", zstdCompressionLevel=" + zstdCompressionLevel +
+           ", numColumnMergeThreads=" + numColumnMergeThreads +
            '}';
   }
 }
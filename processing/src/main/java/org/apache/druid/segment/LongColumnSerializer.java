@@ -40,10 +40,19 @@ public class LongColumnSerializer implements GenericColumnSerializer<Object>
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       CompressionStrategy compression,
+      int zstdLevel,
       CompressionFactory.LongEncodingStrategy encoding
   )
   {
-    return new LongColumnSerializer(columnName, segmentWriteOutMedium, filenameBase, IndexIO.BYTE_ORDER, compression, encoding);
+    return new LongColumnSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        IndexIO.BYTE_ORDER,
+        compression,
+        zstdLevel,
+        encoding
+    );
   }
 
   private final String columnName;
@@ -51,6 +60,7 @@ public class LongColumnSerializer implements GenericColumnSerializer<Object>
   private final String filenameBase;
   private final ByteOrder byteOrder;
   private final CompressionStrategy compression;
+  private final int zstdLevel;
   private final CompressionFactory.LongEncodingStrategy encoding;
   private ColumnarLongsSerializer writer;
 
@@ -60,6 +70,7 @@ public class LongColumnSerializer implements GenericColumnSerializer<Object>
       String filenameBase,
       ByteOrder byteOrder,
       CompressionStrategy compression,
+      int zstdLevel,
       CompressionFactory.LongEncodingStrategy encoding
   )
   {
@@ -68,6 +79,7 @@ public class LongColumnSerializer implements GenericColumnSerializer<Object>
     this.filenameBase = filenameBase;
     this.byteOrder = byteOrder;
     this.compression = compression;
+    this.zstdLevel = zstdLevel;
     this.encoding = encoding;
   }
 
@@ -80,7 +92,8 @@ public class LongColumnSerializer implements GenericColumnSerializer<Object>
         StringUtils.format("%s.long_column", filenameBase),
         byteOrder,
         encoding,
-        compression
+        compression,
+        zstdLevel
     );
     writer.open();
   }
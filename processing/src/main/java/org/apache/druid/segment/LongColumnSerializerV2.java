@@ -49,6 +49,7 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       CompressionStrategy compression,
+      int zstdLevel,
       CompressionFactory.LongEncodingStrategy encoding,
       BitmapSerdeFactory bitmapSerdeFactory
   )
@@ -59,6 +60,7 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
         filenameBase,
         IndexIO.BYTE_ORDER,
         compression,
+        zstdLevel,
         encoding,
         bitmapSerdeFactory
     );
@@ -69,6 +71,7 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   private final String filenameBase;
   private final ByteOrder byteOrder;
   private final CompressionStrategy compression;
+  private final int zstdLevel;
   private final CompressionFactory.LongEncodingStrategy encoding;
   private final BitmapSerdeFactory bitmapSerdeFactory;
 
@@ -83,6 +86,7 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
       String filenameBase,
       ByteOrder byteOrder,
       CompressionStrategy compression,
+      int zstdLevel,
       CompressionFactory.LongEncodingStrategy encoding,
       BitmapSerdeFactory bitmapSerdeFactory
   )
@@ -92,6 +96,7 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
     this.filenameBase = filenameBase;
     this.byteOrder = byteOrder;
     this.compression = compression;
+    this.zstdLevel = zstdLevel;
     this.encoding = encoding;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
   }
@@ -105,7 +110,8 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
         StringUtils.format("%s.long_column", filenameBase),
         byteOrder,
         encoding,
-        compression
+        compression,
+        zstdLevel
     );
     writer.open();
     nullValueBitmapWriter = new ByteBufferWriter<>(
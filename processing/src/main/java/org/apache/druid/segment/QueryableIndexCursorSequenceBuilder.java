@@ -30,6 +30,7 @@ import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.QueryCounters;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.column.BaseColumn;
@@ -111,6 +112,8 @@ public class QueryableIndexCursorSequenceBuilder
     final Closer closer = Closer.create();
     closer.register(timestamps);
 
+    final QueryCounters counters = QueryCounters.current();
+
     Iterable<Interval> iterable = gran.getIterable(interval);
     if (descending) {
       iterable = Lists.reverse(ImmutableList.copyOf(iterable));
@@ -144,7 +147,7 @@ public class QueryableIndexCursorSequenceBuilder
                   }
                 }
 
-                final Offset offset = descending ?
+                final TimestampCheckingOffset offset = descending ?
                                       new DescendingTimestampCheckingOffset(
                                           baseOffset,
                                           timestamps,
@@ -159,7 +162,7 @@ public class QueryableIndexCursorSequenceBuilder
                                       );
 
 
-                final Offset baseCursorOffset = offset.clone();
+                final TimestampCheckingOffset baseCursorOffset = (TimestampCheckingOffset) offset.clone();
                 final ColumnSelectorFactory columnSelectorFactory = new QueryableIndexColumnSelectorFactory(
                     index,
                     virtualColumns,
@@ -171,6 +174,12 @@ public class QueryableIndexCursorSequenceBuilder
                 final DateTime myBucket = gran.toDateTime(inputInterval.getStartMillis());
 
                 if (postFilter == null) {
+                  if (counters != null) {
+                    closer.register(() -> {
+                      final long numRows = baseCursorOffset.getNumVisitedRows();
+                      counters.addRows(numRows, numRows);
+                    });
+                  }
                   return new QueryableIndexCursor(baseCursorOffset, columnSelectorFactory, myBucket);
                 } else {
                   FilteredOffset filteredOffset = new FilteredOffset(
@@ -180,6 +189,11 @@ public class QueryableIndexCursorSequenceBuilder
                       postFilter,
                       bitmapIndexSelector
                   );
+                  if (counters != null) {
+                    closer.register(
+                        () -> counters.addRows(baseCursorOffset.getNumVisitedRows(), filteredOffset.getNumMatchedRows())
+                    );
+                  }
                   return new QueryableIndexCursor(filteredOffset, columnSelectorFactory, myBucket);
                 }
 
@@ -234,10 +248,16 @@ public class QueryableIndexCursorSequenceBuilder
         baseOffset,
         closer
     );
+    final QueryCounters counters = QueryCounters.current();
     if (postFilter == null) {
-      return new QueryableIndexVectorCursor(baseColumnSelectorFactory, baseOffset, vectorSize, closer);
+      final QueryableIndexVectorCursor cursor =
+          new QueryableIndexVectorCursor(baseColumnSelectorFactory, baseOffset, vectorSize, closer);
+      if (counters != null) {
+        closer.register(() -> counters.addRows(cursor.getNumRows(), cursor.getNumRows()));
+      }
+      return cursor;
     } else {
-      final VectorOffset filteredOffset = FilteredVectorOffset.create(
+      final FilteredVectorOffset filteredOffset = FilteredVectorOffset.create(
           baseOffset,
           baseColumnSelectorFactory,
           postFilter
@@ -257,7 +277,12 @@ public class QueryableIndexCursorSequenceBuilder
           filteredOffset,
           closer
       );
-      return new QueryableIndexVectorCursor(filteredColumnSelectorFactory, filteredOffset, vectorSize, closer);
+      final QueryableIndexVectorCursor cursor =
+          new QueryableIndexVectorCursor(filteredColumnSelectorFactory, filteredOffset, vectorSize, closer);
+      if (counters != null) {
+        closer.register(() -> counters.addRows(filteredOffset.getNumScannedRows(), cursor.getNumRows()));
+      }
+      return cursor;
     }
   }
 
@@ -334,6 +359,10 @@ public class QueryableIndexCursorSequenceBuilder
     private final int vectorSize;
     private final VectorOffset offset;
     private final VectorColumnSelectorFactory columnSelectorFactory;
+    /**
+     * Number of rows of the vectors advanced past, see {@link #getNumRows()}
+     */
+    private long numRowsAdvanced = 0;
 
     public QueryableIndexVectorCursor(
         final VectorColumnSelectorFactory vectorColumnSelectorFactory,
@@ -369,10 +398,19 @@ public class QueryableIndexCursorSequenceBuilder
     @Override
     public void advance()
     {
+      numRowsAdvanced += offset.getCurrentVectorSize();
       offset.advance();
       BaseQuery.checkInterrupted();
     }
 
+    /**
+     * Returns the number of rows of the vectors this cursor pointed to.
+     */
+    long getNumRows()
+    {
+      return offset.isDone() ? numRowsAdvanced : numRowsAdvanced + offset.getCurrentVectorSize();
+    }
+
     @Override
     public boolean isDone()
     {
@@ -472,6 +510,12 @@ public class QueryableIndexCursorSequenceBuilder
     final NumericColumn timestamps;
     final long timeLimit;
     final boolean allWithinThreshold;
+    /**
+     * Number of calls to {@link #increment()} since creation or the last reset, and number of rows visited before the
+     * last reset, to count the rows scanned by the cursor, see {@link #getNumVisitedRows()}
+     */
+    private long numIncrements = 0;
+    private long numVisitedRowsBeforeReset = 0;
 
     TimestampCheckingOffset(
         Offset baseOffset,
@@ -508,6 +552,8 @@ public class QueryableIndexCursorSequenceBuilder
     @Override
     public void reset()
     {
+      numVisitedRowsBeforeReset = getNumVisitedRows();
+      numIncrements = 0;
       baseOffset.reset();
     }
 
@@ -523,6 +569,16 @@ public class QueryableIndexCursorSequenceBuilder
     public void increment()
     {
       baseOffset.increment();
+      numIncrements++;
+    }
+
+    /**
+     * Returns the number of rows this offset pointed to. Each increment moves to a new row, except the one moving out
+     * of bounds, after which there are no more increments.
+     */
+    long getNumVisitedRows()
+    {
+      return numVisitedRowsBeforeReset + numIncrements + (withinBounds() ? 1 : 0);
     }
 
     @SuppressWarnings("MethodDoesntCallSuperMethod")
@@ -22,6 +22,8 @@ package org.apache.druid.segment;
 import org.apache.druid.timeline.SegmentId;
 import org.joda.time.Interval;
 
+import javax.annotation.Nullable;
+
 /**
  */
 public class QueryableIndexSegment implements Segment
@@ -61,6 +63,20 @@ public class QueryableIndexSegment implements Segment
     return storageAdapter;
   }
 
+  /**
+   * Also provides the index itself, for callers which need features of specific {@link QueryableIndex} types, such as
+   * {@link SimpleQueryableIndex#getColumnAccessCounts()}.
+   */
+  @Nullable
+  @Override
+  public <T> T as(Class<T> clazz)
+  {
+    if (clazz.isInstance(index)) {
+      return clazz.cast(index);
+    }
+    return Segment.super.as(clazz);
+  }
+
   @Override
   public void close()
   {
@@ -30,6 +30,7 @@ import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.DefaultBitmapResultFactory;
+import org.apache.druid.query.QueryCounters;
 import org.apache.druid.query.QueryMetrics;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.segment.column.BaseColumn;
@@ -212,7 +213,7 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
     if (filter != null) {
       final boolean filterCanVectorize =
           filter.shouldUseBitmapIndex(makeBitmapIndexSelector(virtualColumns))
-          || filter.canVectorizeMatcher();
+          || filter.canVectorizeMatcher(virtualColumns.wrapInspector(this));
 
       if (!filterCanVectorize) {
         return false;
@@ -438,6 +439,11 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
       }
     }
 
+    final QueryCounters counters = QueryCounters.current();
+    if (counters != null) {
+      counters.addFilters(preFilters.size(), postFilters.size());
+    }
+
     if (queryMetrics != null) {
       queryMetrics.preFilters(new ArrayList<>(preFilters));
       queryMetrics.postFilters(postFilters);
@@ -20,6 +20,8 @@
 package org.apache.druid.segment;
 
 import com.google.common.base.Preconditions;
+import org.apache.druid.java.util.common.guava.CloseQuietly;
+import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.timeline.Overshadowable;
 import org.apache.druid.timeline.SegmentId;
 import org.apache.druid.timeline.partition.ShardSpec;
@@ -167,9 +169,27 @@ public class ReferenceCountingSegment extends ReferenceCountingCloseableObject<S
     return atomicUpdateGroupSize;
   }
 
+  /**
+   * Also acquires a reference to the base segment if it tracks references itself, like segments that are loaded on
+   * demand and must not be unloaded while queries are using them.
+   */
   @Override
   public Optional<Closeable> acquireReferences()
   {
-    return incrementReferenceAndDecrementOnceCloseable();
+    final Optional<Closeable> reference = incrementReferenceAndDecrementOnceCloseable();
+    if (!reference.isPresent() || !(baseObject instanceof ReferenceCountedObject)) {
+      return reference;
+    }
+
+    final Optional<Closeable> baseReference = ((ReferenceCountedObject) baseObject).acquireReferences();
+    if (!baseReference.isPresent()) {
+      CloseQuietly.close(reference.get());
+      return Optional.empty();
+    }
+
+    final Closer closer = Closer.create();
+    closer.register(reference.get());
+    closer.register(baseReference.get());
+    return Optional.of(closer);
   }
 }
@@ -33,8 +33,12 @@ import org.apache.druid.segment.data.Indexed;
 import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  */
@@ -50,6 +54,11 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
   private final Metadata metadata;
   private final Supplier<Map<String, DimensionHandler>> dimensionHandlers;
 
+  /**
+   * Number of calls to {@link #getColumnHolder} for each column, which is how queries access columns.
+   */
+  private final Map<String, AtomicLong> columnAccessCounts;
+
   public SimpleQueryableIndex(
       Interval dataInterval,
       Indexed<String> dimNames,
@@ -74,12 +83,13 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
     this.columns = columns;
     this.fileMapper = fileMapper;
     this.metadata = metadata;
+    this.columnAccessCounts = makeColumnAccessCounts(columns);
 
     if (lazy) {
       this.dimensionHandlers = Suppliers.memoize(() -> {
             Map<String, DimensionHandler> dimensionHandlerMap = Maps.newLinkedHashMap();
             for (String dim : availableDimensions) {
-              ColumnCapabilities capabilities = getColumnHolder(dim).getCapabilities();
+              ColumnCapabilities capabilities = columns.get(dim).get().getCapabilities();
               DimensionHandler handler = DimensionHandlerUtils.getHandlerFromCapabilities(dim, capabilities, null);
               dimensionHandlerMap.put(dim, handler);
             }
@@ -89,7 +99,7 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
     } else {
       Map<String, DimensionHandler> dimensionHandlerMap = Maps.newLinkedHashMap();
       for (String dim : availableDimensions) {
-        ColumnCapabilities capabilities = getColumnHolder(dim).getCapabilities();
+        ColumnCapabilities capabilities = columns.get(dim).get().getCapabilities();
         DimensionHandler handler = DimensionHandlerUtils.getHandlerFromCapabilities(dim, capabilities, null);
         dimensionHandlerMap.put(dim, handler);
       }
@@ -117,6 +127,16 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
     this.fileMapper = fileMapper;
     this.metadata = metadata;
     this.dimensionHandlers = dimensionHandlers;
+    this.columnAccessCounts = makeColumnAccessCounts(columns);
+  }
+
+  private static Map<String, AtomicLong> makeColumnAccessCounts(Map<String, Supplier<ColumnHolder>> columns)
+  {
+    final Map<String, AtomicLong> columnAccessCounts = new HashMap<>();
+    for (String column : columns.keySet()) {
+      columnAccessCounts.put(column, new AtomicLong());
+    }
+    return columnAccessCounts;
   }
 
   @Override
@@ -160,7 +180,39 @@ public class SimpleQueryableIndex extends AbstractIndex implements QueryableInde
   public ColumnHolder getColumnHolder(String columnName)
   {
     Supplier<ColumnHolder> columnHolderSupplier = columns.get(columnName);
-    return columnHolderSupplier == null ? null : columnHolderSupplier.get();
+    if (columnHolderSupplier == null) {
+      return null;
+    }
+    columnAccessCounts.get(columnName).incrementAndGet();
+    return columnHolderSupplier.get();
+  }
+
+  /**
+   * Returns the number of times queries accessed each column of this index since it was loaded.
+   */
+  public Map<String, Long> getColumnAccessCounts()
+  {
+    final Map<String, Long> retVal = new HashMap<>();
+    columnAccessCounts.forEach((column, count) -> retVal.put(column, count.get()));
+    return retVal;
+  }
+
+  /**
+   * Reads the given columns into the page cache, see {@link SmooshedFileMapper#prefetch}. Only the main file of each
+   * column is read, which holds all of it unless the column was too large to fit in a single file. Columns which are
+   * not in this index are ignored.
+   *
+   * @return the number of bytes read
+   */
+  public long prefetchColumns(Collection<String> columnNames) throws IOException
+  {
+    long numBytes = 0;
+    for (String columnName : columnNames) {
+      if (columns.containsKey(columnName)) {
+        numBytes += fileMapper.prefetch(columnName);
+      }
+    }
+    return numBytes;
   }
 
   @VisibleForTesting
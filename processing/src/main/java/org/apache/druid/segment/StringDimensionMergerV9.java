@@ -48,7 +48,7 @@ import org.apache.druid.segment.data.ColumnarIntsSerializer;
 import org.apache.druid.segment.data.ColumnarMultiIntsSerializer;
 import org.apache.druid.segment.data.CompressedVSizeColumnarIntsSerializer;
 import org.apache.druid.segment.data.CompressionStrategy;
-import org.apache.druid.segment.data.GenericIndexed;
+import org.apache.druid.segment.data.DictionaryWriter;
 import org.apache.druid.segment.data.GenericIndexedWriter;
 import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
 import org.apache.druid.segment.data.Indexed;
@@ -103,7 +103,7 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
   @Nullable
   private ColumnarIntsSerializer encodedValueSerializer;
   @Nullable
-  private GenericIndexedWriter<String> dictionaryWriter;
+  private DictionaryWriter<String> dictionaryWriter;
   @Nullable
   private String firstDictionaryValue;
 
@@ -174,7 +174,8 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
     }
 
     String dictFilename = StringUtils.format("%s.dim_values", dimensionName);
-    dictionaryWriter = new GenericIndexedWriter<>(segmentWriteOutMedium, dictFilename, GenericIndexed.STRING_STRATEGY);
+    dictionaryWriter = indexSpec.getStringDictionaryEncoding(dimensionName)
+                                .makeDictionaryWriter(segmentWriteOutMedium, dictFilename);
     firstDictionaryValue = null;
     dictionarySize = 0;
     dictionaryWriter.open();
@@ -228,7 +229,8 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
             segmentWriteOutMedium,
             filenameBase,
             cardinality,
-            compressionStrategy
+            compressionStrategy,
+            indexSpec.getEffectiveZstdCompressionLevel()
         );
       } else {
         encodedValueSerializer =
@@ -241,7 +243,8 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
             segmentWriteOutMedium,
             filenameBase,
             cardinality,
-            compressionStrategy
+            compressionStrategy,
+            indexSpec.getEffectiveZstdCompressionLevel()
         );
       } else {
         encodedValueSerializer = new VSizeColumnarIntsSerializer(segmentWriteOutMedium, cardinality);
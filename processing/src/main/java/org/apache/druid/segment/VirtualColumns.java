@@ -407,6 +407,18 @@ public class VirtualColumns implements Cacheable
     }
   }
 
+  /**
+   * Returns a {@link ColumnInspector} that reports the capabilities of these virtual columns, and of the columns of
+   * the given inspector otherwise.
+   */
+  public ColumnInspector wrapInspector(final ColumnInspector inspector)
+  {
+    if (virtualColumns.isEmpty()) {
+      return inspector;
+    }
+    return columnName -> getColumnCapabilitiesWithFallback(inspector, columnName);
+  }
+
   @JsonValue
   public VirtualColumn[] getVirtualColumns()
   {
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.column;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.apache.druid.segment.data.DictionaryWriter;
+import org.apache.druid.segment.data.FrontCodedIndexed;
+import org.apache.druid.segment.data.FrontCodedIndexedWriter;
+import org.apache.druid.segment.data.GenericIndexed;
+import org.apache.druid.segment.data.GenericIndexedWriter;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+
+import javax.annotation.Nullable;
+
+/**
+ * Storage format of the value dictionary of string dimension columns, specified in
+ * {@link org.apache.druid.segment.IndexSpec}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", defaultImpl = StringEncodingStrategy.Utf8.class)
+@JsonSubTypes(value = {
+    @JsonSubTypes.Type(name = StringEncodingStrategy.UTF8, value = StringEncodingStrategy.Utf8.class),
+    @JsonSubTypes.Type(name = StringEncodingStrategy.FRONT_CODED, value = StringEncodingStrategy.FrontCoded.class)
+})
+public interface StringEncodingStrategy
+{
+  String UTF8 = "utf8";
+  String FRONT_CODED = "frontCoded";
+
+  StringEncodingStrategy DEFAULT = new Utf8();
+
+  DictionaryWriter<String> makeDictionaryWriter(SegmentWriteOutMedium segmentWriteOutMedium, String filenameBase);
+
+  /**
+   * Every value is stored in full in a {@link GenericIndexed}. This is the default, and the only format understood by
+   * older versions.
+   */
+  class Utf8 implements StringEncodingStrategy
+  {
+    @Override
+    public DictionaryWriter<String> makeDictionaryWriter(
+        SegmentWriteOutMedium segmentWriteOutMedium,
+        String filenameBase
+    )
+    {
+      return new GenericIndexedWriter<>(segmentWriteOutMedium, filenameBase, GenericIndexed.STRING_STRATEGY);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Utf8.class.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+      return "Utf8{}";
+    }
+  }
+
+  /**
+   * Values are stored in a {@link FrontCodedIndexed}, which shares prefixes between sorted values. Smaller than
+   * {@link Utf8} for dictionaries with long common prefixes, such as URLs, at the cost of decoding values on read.
+   */
+  class FrontCoded implements StringEncodingStrategy
+  {
+    private final int bucketSize;
+
+    @JsonCreator
+    public FrontCoded(@JsonProperty("bucketSize") @Nullable Integer bucketSize)
+    {
+      this.bucketSize = bucketSize == null ? FrontCodedIndexed.DEFAULT_BUCKET_SIZE : bucketSize;
+      FrontCodedIndexed.validateBucketSize(this.bucketSize);
+    }
+
+    @JsonProperty
+    public int getBucketSize()
+    {
+      return bucketSize;
+    }
+
+    @Override
+    public DictionaryWriter<String> makeDictionaryWriter(
+        SegmentWriteOutMedium segmentWriteOutMedium,
+        String filenameBase
+    )
+    {
+      return new FrontCodedIndexedWriter(segmentWriteOutMedium, bucketSize);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      FrontCoded that = (FrontCoded) o;
+      return bucketSize == that.bucketSize;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Integer.hashCode(bucketSize);
+    }
+
+    @Override
+    public String toString()
+    {
+      return "FrontCoded{" +
+             "bucketSize=" + bucketSize +
+             '}';
+    }
+  }
+}
@@ -56,7 +56,8 @@ public class BlockLayoutColumnarDoublesSerializer implements ColumnarDoublesSeri
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       ByteOrder byteOrder,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      int zstdLevel
   )
   {
     this.columnName = columnName;
@@ -64,6 +65,7 @@ public class BlockLayoutColumnarDoublesSerializer implements ColumnarDoublesSeri
         segmentWriteOutMedium,
         filenameBase,
         compression,
+        zstdLevel,
         CompressedPools.BUFFER_SIZE
     );
     this.compression = compression;
@@ -60,6 +60,27 @@ public class CompressedColumnarIntsSerializer extends SingleValueColumnarIntsSer
       final ByteOrder byteOrder,
       final CompressionStrategy compression
   )
+  {
+    this(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        chunkFactor,
+        byteOrder,
+        compression,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL
+    );
+  }
+
+  CompressedColumnarIntsSerializer(
+      final String columnName,
+      final SegmentWriteOutMedium segmentWriteOutMedium,
+      final String filenameBase,
+      final int chunkFactor,
+      final ByteOrder byteOrder,
+      final CompressionStrategy compression,
+      final int zstdLevel
+  )
   {
     this(
         columnName,
@@ -71,6 +92,7 @@ public class CompressedColumnarIntsSerializer extends SingleValueColumnarIntsSer
             segmentWriteOutMedium,
             filenameBase,
             compression,
+            zstdLevel,
             chunkFactor * Integer.BYTES
         )
     );
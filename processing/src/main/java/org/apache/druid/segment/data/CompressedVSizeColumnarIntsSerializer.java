@@ -53,6 +53,25 @@ public class CompressedVSizeColumnarIntsSerializer extends SingleValueColumnarIn
       final int maxValue,
       final CompressionStrategy compression
   )
+  {
+    return create(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        maxValue,
+        compression,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL
+    );
+  }
+
+  public static CompressedVSizeColumnarIntsSerializer create(
+      final String columnName,
+      final SegmentWriteOutMedium segmentWriteOutMedium,
+      final String filenameBase,
+      final int maxValue,
+      final CompressionStrategy compression,
+      final int zstdLevel
+  )
   {
     return new CompressedVSizeColumnarIntsSerializer(
         columnName,
@@ -61,7 +80,8 @@ public class CompressedVSizeColumnarIntsSerializer extends SingleValueColumnarIn
         maxValue,
         CompressedVSizeColumnarIntsSupplier.maxIntsInBufferForValue(maxValue),
         IndexIO.BYTE_ORDER,
-        compression
+        compression,
+        zstdLevel
     );
   }
 
@@ -86,6 +106,29 @@ public class CompressedVSizeColumnarIntsSerializer extends SingleValueColumnarIn
       final ByteOrder byteOrder,
       final CompressionStrategy compression
   )
+  {
+    this(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        maxValue,
+        chunkFactor,
+        byteOrder,
+        compression,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL
+    );
+  }
+
+  CompressedVSizeColumnarIntsSerializer(
+      final String columnName,
+      final SegmentWriteOutMedium segmentWriteOutMedium,
+      final String filenameBase,
+      final int maxValue,
+      final int chunkFactor,
+      final ByteOrder byteOrder,
+      final CompressionStrategy compression,
+      final int zstdLevel
+  )
   {
     this(
         columnName,
@@ -98,6 +141,7 @@ public class CompressedVSizeColumnarIntsSerializer extends SingleValueColumnarIn
             segmentWriteOutMedium,
             filenameBase,
             compression,
+            zstdLevel,
             sizePer(maxValue, chunkFactor)
         )
     );
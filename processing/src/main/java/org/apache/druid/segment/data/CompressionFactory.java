@@ -338,6 +338,30 @@ public class CompressionFactory
       LongEncodingStrategy encodingStrategy,
       CompressionStrategy compressionStrategy
   )
+  {
+    return getLongSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        order,
+        encodingStrategy,
+        compressionStrategy,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL
+    );
+  }
+
+  /**
+   * @param zstdLevel compression level used when compressionStrategy is {@link CompressionStrategy#ZSTD}
+   */
+  public static ColumnarLongsSerializer getLongSerializer(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ByteOrder order,
+      LongEncodingStrategy encodingStrategy,
+      CompressionStrategy compressionStrategy,
+      int zstdLevel
+  )
   {
     if (encodingStrategy == LongEncodingStrategy.AUTO) {
       return new IntermediateColumnarLongsSerializer(
@@ -345,7 +369,8 @@ public class CompressionFactory
           segmentWriteOutMedium,
           filenameBase,
           order,
-          compressionStrategy
+          compressionStrategy,
+          zstdLevel
       );
     } else if (encodingStrategy == LongEncodingStrategy.LONGS) {
       if (compressionStrategy == CompressionStrategy.NONE) {
@@ -361,7 +386,8 @@ public class CompressionFactory
             filenameBase,
             order,
             new LongsLongEncodingWriter(order),
-            compressionStrategy
+            compressionStrategy,
+            zstdLevel
         );
       }
     } else {
@@ -393,6 +419,25 @@ public class CompressionFactory
       ByteOrder order,
       CompressionStrategy compressionStrategy
   )
+  {
+    return getFloatSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        order,
+        compressionStrategy,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL
+    );
+  }
+
+  public static ColumnarFloatsSerializer getFloatSerializer(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ByteOrder order,
+      CompressionStrategy compressionStrategy,
+      int zstdLevel
+  )
   {
     if (compressionStrategy == CompressionStrategy.NONE) {
       return new EntireLayoutColumnarFloatsSerializer(columnName, segmentWriteOutMedium, order);
@@ -402,7 +447,8 @@ public class CompressionFactory
           segmentWriteOutMedium,
           filenameBase,
           order,
-          compressionStrategy
+          compressionStrategy,
+          zstdLevel
       );
     }
   }
@@ -431,6 +477,25 @@ public class CompressionFactory
       ByteOrder byteOrder,
       CompressionStrategy compression
   )
+  {
+    return getDoubleSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        byteOrder,
+        compression,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL
+    );
+  }
+
+  public static ColumnarDoublesSerializer getDoubleSerializer(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ByteOrder byteOrder,
+      CompressionStrategy compression,
+      int zstdLevel
+  )
   {
     if (compression == CompressionStrategy.NONE) {
       return new EntireLayoutColumnarDoublesSerializer(columnName, segmentWriteOutMedium, byteOrder);
@@ -440,7 +505,8 @@ public class CompressionFactory
           segmentWriteOutMedium,
           filenameBase,
           byteOrder,
-          compression
+          compression,
+          zstdLevel
       );
     }
   }
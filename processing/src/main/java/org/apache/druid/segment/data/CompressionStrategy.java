@@ -21,6 +21,7 @@ package org.apache.druid.segment.data;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.github.luben.zstd.Zstd;
 import com.ning.compress.BufferRecycler;
 import com.ning.compress.lzf.LZFDecoder;
 import com.ning.compress.lzf.LZFEncoder;
@@ -29,6 +30,7 @@ import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.druid.collections.ResourceHolder;
 import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.logger.Logger;
@@ -75,6 +77,33 @@ public enum CompressionStrategy
       return LZ4Compressor.DEFAULT_COMPRESSOR;
     }
   },
+  /**
+   * Better compression ratio than {@link #LZ4} at the cost of slower compression and decompression, for example for
+   * cold tiers. The compression level comes from {@link org.apache.druid.segment.IndexSpec#getZstdCompressionLevel()}
+   * when writing; reading does not depend on it.
+   */
+  ZSTD((byte) 0x2) {
+    @Override
+    public Decompressor getDecompressor()
+    {
+      return ZstdDecompressor.DEFAULT_DECOMPRESSOR;
+    }
+
+    @Override
+    public Compressor getCompressor()
+    {
+      return ZstdCompressor.DEFAULT_COMPRESSOR;
+    }
+
+    @Override
+    public Compressor getCompressor(int zstdLevel)
+    {
+      if (zstdLevel == ZstdCompressor.DEFAULT_LEVEL) {
+        return ZstdCompressor.DEFAULT_COMPRESSOR;
+      }
+      return new ZstdCompressor(zstdLevel);
+    }
+  },
   UNCOMPRESSED((byte) 0xFF) {
     @Override
     public Decompressor getDecompressor()
@@ -124,6 +153,15 @@ public enum CompressionStrategy
 
   public abstract Compressor getCompressor();
 
+  /**
+   * Returns a compressor that compresses at the given level. Only {@link #ZSTD} has levels, other strategies return
+   * {@link #getCompressor()}.
+   */
+  public Compressor getCompressor(int zstdLevel)
+  {
+    return getCompressor();
+  }
+
   public abstract Decompressor getDecompressor();
 
   @JsonValue
@@ -344,6 +382,129 @@ public enum CompressionStrategy
     }
   }
 
+  public static class ZstdDecompressor implements Decompressor
+  {
+    private static final ZstdDecompressor DEFAULT_DECOMPRESSOR = new ZstdDecompressor();
+
+    @Override
+    public void decompress(ByteBuffer in, int numBytes, ByteBuffer out)
+    {
+      final long numDecompressedBytes;
+      if (in.isDirect() && out.isDirect()) {
+        // Common case of a mapped segment file decompressed into a pooled direct buffer. Like lz4Safe.decompress,
+        // this does not modify buffer positions.
+        numDecompressedBytes = Zstd.decompressDirectByteBuffer(
+            out,
+            out.position(),
+            out.remaining(),
+            in,
+            in.position(),
+            numBytes
+        );
+      } else if (in.hasArray() && out.hasArray()) {
+        numDecompressedBytes = Zstd.decompressByteArray(
+            out.array(),
+            out.arrayOffset() + out.position(),
+            out.remaining(),
+            in.array(),
+            in.arrayOffset() + in.position(),
+            numBytes
+        );
+      } else {
+        numDecompressedBytes = decompressThroughPooledBytes(in, numBytes, out);
+      }
+      if (Zstd.isError(numDecompressedBytes)) {
+        throw new ISE("Failed to decompress zstd block: %s", Zstd.getErrorName(numDecompressedBytes));
+      }
+      in.position(in.position() + numBytes);
+      out.limit(out.position() + (int) numDecompressedBytes);
+    }
+
+    /**
+     * Handles buffers zstd-jni can't decompress between directly, i. e. a direct buffer on one side and a heap buffer
+     * on the other. A side backed by an array is used in place, the other one goes through a pooled array. Doesn't
+     * modify buffer positions.
+     */
+    private static long decompressThroughPooledBytes(ByteBuffer in, int numBytes, ByteBuffer out)
+    {
+      try (final ResourceHolder<byte[]> pooledBytesHolder = CompressedPools.getOutputBytes()) {
+        final byte[] pooledBytes = pooledBytesHolder.get();
+        final byte[] inBytes;
+        final int inOffset;
+        if (in.hasArray()) {
+          inBytes = in.array();
+          inOffset = in.arrayOffset() + in.position();
+        } else {
+          // A block compresses to more than BUFFER_SIZE bytes only if its data is incompressible.
+          inBytes = out.hasArray() && numBytes <= pooledBytes.length ? pooledBytes : new byte[numBytes];
+          inOffset = 0;
+          in.duplicate().get(inBytes, 0, numBytes);
+        }
+
+        if (out.hasArray()) {
+          return Zstd.decompressByteArray(
+              out.array(),
+              out.arrayOffset() + out.position(),
+              out.remaining(),
+              inBytes,
+              inOffset,
+              numBytes
+          );
+        }
+        final long numDecompressedBytes = Zstd.decompressByteArray(
+            pooledBytes,
+            0,
+            Math.min(pooledBytes.length, out.remaining()),
+            inBytes,
+            inOffset,
+            numBytes
+        );
+        if (!Zstd.isError(numDecompressedBytes)) {
+          out.duplicate().put(pooledBytes, 0, (int) numDecompressedBytes);
+        }
+        return numDecompressedBytes;
+      }
+    }
+  }
+
+  public static class ZstdCompressor extends Compressor
+  {
+    public static final int MIN_LEVEL = 1;
+    public static final int MAX_LEVEL = 22;
+    public static final int DEFAULT_LEVEL = 3;
+
+    private static final ZstdCompressor DEFAULT_COMPRESSOR = new ZstdCompressor(DEFAULT_LEVEL);
+
+    private final int level;
+
+    ZstdCompressor(int level)
+    {
+      this.level = level;
+    }
+
+    @Override
+    ByteBuffer allocateOutBuffer(int inputSize, Closer closer)
+    {
+      return ByteBuffer.allocate((int) Zstd.compressBound(inputSize));
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer in, ByteBuffer out)
+    {
+      final byte[] bytes = new byte[in.remaining()];
+      in.duplicate().get(bytes);
+
+      // "out" is always a heap buffer with a zero array offset, allocated by allocateOutBuffer.
+      final long encodedLen = Zstd.compress(out.array(), bytes, level);
+      if (Zstd.isError(encodedLen)) {
+        throw new ISE("Failed to compress zstd block: %s", Zstd.getErrorName(encodedLen));
+      }
+      out.clear();
+      out.limit((int) encodedLen);
+      return out;
+    }
+  }
+
   /**
    * Logs info relating to whether LZ4 is using native or pure Java implementations
    */
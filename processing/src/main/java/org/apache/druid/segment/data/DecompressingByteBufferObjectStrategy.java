@@ -20,6 +20,7 @@
 package org.apache.druid.segment.data;
 
 import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.query.QueryCounters;
 import org.apache.druid.segment.CompressedPools;
 
 import java.nio.ByteBuffer;
@@ -51,6 +52,10 @@ public class DecompressingByteBufferObjectStrategy implements ObjectStrategy<Res
     buf.clear();
 
     decompressor.decompress(buffer, numBytes, buf);
+    final QueryCounters counters = QueryCounters.current();
+    if (counters != null) {
+      counters.addBytesDecompressed(buf.remaining());
+    }
     // Needed, because if e. g. if this compressed buffer contains 3-byte integers, it should be possible to getInt()
     // from the buffer, including padding. See CompressedVSizeColumnarIntsSupplier.bufferPadding().
     buf.limit(buf.capacity());
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * Sorted, unique string dictionary stored with front coding (incremental prefix compression), written by
+ * {@link FrontCodedIndexedWriter}. Values are grouped in buckets of a fixed, power of two size. The first value of
+ * each bucket (the bucket "head") is stored in full, and every other value of the bucket is stored as the length of
+ * the prefix it shares with the head, followed by the remaining bytes. {@link #get} therefore decodes at most one
+ * bucket, and {@link #indexOf} is a binary search over bucket heads followed by a scan of a single bucket.
+ *
+ * The binary format is:
+ *
+ * byte 1: version (0)
+ * byte 2: bucket size
+ * byte 3: whether the dictionary contains null, in which case null is id 0 and is not stored
+ * bytes 4-7: number of non-null values, as an int
+ * bytes 8-11: number of bytes taken by the buckets, as an int
+ * next 4 * (number of buckets - 1) bytes: start offset of every bucket but the first, relative to the first bucket
+ * remaining bytes: buckets. Lengths are written as variable size ints, 7 bits per byte.
+ *
+ * Like {@link GenericIndexed}, {@link #get} and {@link #indexOf} are thread safe, and {@link #indexOf} returns
+ * (-(insertion point) - 1) for values that are not present.
+ */
+public final class FrontCodedIndexed implements Indexed<String>
+{
+  public static final byte VERSION = 0x0;
+  public static final int DEFAULT_BUCKET_SIZE = 4;
+  public static final int MAX_BUCKET_SIZE = 128;
+
+  public static FrontCodedIndexed read(ByteBuffer buffer)
+  {
+    final byte version = buffer.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown version[%d]", (int) version);
+    }
+
+    final int bucketSize = buffer.get() & 0xFF;
+    final boolean hasNull = buffer.get() == 1;
+    final int numValues = buffer.getInt();
+    final int valuesLength = buffer.getInt();
+    final int numBuckets = numBuckets(numValues, bucketSize);
+
+    final ByteBuffer offsetsBuffer = buffer.asReadOnlyBuffer();
+    offsetsBuffer.limit(offsetsBuffer.position() + Math.max(numBuckets - 1, 0) * Integer.BYTES);
+    buffer.position(offsetsBuffer.limit());
+
+    final ByteBuffer valuesBuffer = buffer.asReadOnlyBuffer();
+    valuesBuffer.limit(valuesBuffer.position() + valuesLength);
+    buffer.position(valuesBuffer.limit());
+
+    return new FrontCodedIndexed(offsetsBuffer.slice(), valuesBuffer.slice(), bucketSize, numValues, hasNull);
+  }
+
+  public static void validateBucketSize(int bucketSize)
+  {
+    if (bucketSize < 1 || bucketSize > MAX_BUCKET_SIZE || Integer.bitCount(bucketSize) != 1) {
+      throw new IAE("bucketSize[%d] must be a power of two between 1 and %d", bucketSize, MAX_BUCKET_SIZE);
+    }
+  }
+
+  static int numBuckets(int numValues, int bucketSize)
+  {
+    return (numValues + bucketSize - 1) / bucketSize;
+  }
+
+  static void writeVInt(WriteOutBytes out, int value) throws IOException
+  {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  static int readVInt(ByteBuffer buffer)
+  {
+    byte b = buffer.get();
+    int value = b & 0x7F;
+    for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+      b = buffer.get();
+      value |= (b & 0x7F) << shift;
+    }
+    return value;
+  }
+
+  /**
+   * Reads the UTF-8 bytes of the value at the given position of the bucket that starts at the current position of
+   * the buffer. Moves the buffer position.
+   */
+  static byte[] readBucketValue(ByteBuffer bucket, int offsetInBucket)
+  {
+    final int headLength = readVInt(bucket);
+    final int headPosition = bucket.position();
+    if (offsetInBucket == 0) {
+      final byte[] head = new byte[headLength];
+      bucket.get(head);
+      return head;
+    }
+
+    bucket.position(headPosition + headLength);
+    for (int i = 1; i < offsetInBucket; i++) {
+      readVInt(bucket);
+      final int suffixLength = readVInt(bucket);
+      bucket.position(bucket.position() + suffixLength);
+    }
+
+    final int prefixLength = readVInt(bucket);
+    final int suffixLength = readVInt(bucket);
+    final byte[] value = new byte[prefixLength + suffixLength];
+    bucket.get(value, prefixLength, suffixLength);
+    bucket.position(headPosition);
+    bucket.get(value, 0, prefixLength);
+    return value;
+  }
+
+  private final ByteBuffer offsetsBuffer;
+  private final ByteBuffer valuesBuffer;
+  private final int bucketSize;
+  private final int bucketShift;
+  private final int bucketMask;
+  private final int numValues;
+  private final int numBuckets;
+  private final boolean hasNull;
+  private final int adjustIndex;
+
+  private FrontCodedIndexed(
+      ByteBuffer offsetsBuffer,
+      ByteBuffer valuesBuffer,
+      int bucketSize,
+      int numValues,
+      boolean hasNull
+  )
+  {
+    validateBucketSize(bucketSize);
+    this.offsetsBuffer = offsetsBuffer;
+    this.valuesBuffer = valuesBuffer;
+    this.bucketSize = bucketSize;
+    this.bucketShift = Integer.numberOfTrailingZeros(bucketSize);
+    this.bucketMask = bucketSize - 1;
+    this.numValues = numValues;
+    this.numBuckets = numBuckets(numValues, bucketSize);
+    this.hasNull = hasNull;
+    this.adjustIndex = hasNull ? 1 : 0;
+  }
+
+  @Override
+  public int size()
+  {
+    return numValues + adjustIndex;
+  }
+
+  @Nullable
+  @Override
+  public String get(int index)
+  {
+    if (index < 0 || index >= size()) {
+      throw new IAE("Index[%d] >= size[%d]", index, size());
+    }
+    if (hasNull && index == 0) {
+      return null;
+    }
+
+    final int adjustedIndex = index - adjustIndex;
+    final ByteBuffer bucket = valuesBuffer.asReadOnlyBuffer();
+    bucket.position(getBucketStart(adjustedIndex >> bucketShift));
+    return NullHandling.emptyToNullIfNeeded(
+        StringUtils.fromUtf8(readBucketValue(bucket, adjustedIndex & bucketMask))
+    );
+  }
+
+  @Override
+  public int indexOf(@Nullable String value)
+  {
+    final String searchValue = NullHandling.emptyToNullIfNeeded(value);
+    if (searchValue == null) {
+      return hasNull ? 0 : -1;
+    }
+
+    final ByteBuffer bucket = valuesBuffer.asReadOnlyBuffer();
+
+    // Find the last bucket with a head that is not greater than the value.
+    int minBucket = 0;
+    int maxBucket = numBuckets - 1;
+    while (minBucket <= maxBucket) {
+      final int currBucket = (minBucket + maxBucket) >>> 1;
+      bucket.position(getBucketStart(currBucket));
+      final int comparison = StringUtils.fromUtf8(bucket, readVInt(bucket)).compareTo(searchValue);
+      if (comparison == 0) {
+        return (currBucket << bucketShift) + adjustIndex;
+      }
+
+      if (comparison < 0) {
+        minBucket = currBucket + 1;
+      } else {
+        maxBucket = currBucket - 1;
+      }
+    }
+
+    if (maxBucket < 0) {
+      // Smaller than every non-null value.
+      return -(adjustIndex + 1);
+    }
+
+    final int firstIndex = (maxBucket << bucketShift) + adjustIndex;
+    final int bucketNumValues = maxBucket == numBuckets - 1 ? numValues - (maxBucket << bucketShift) : bucketSize;
+
+    bucket.position(getBucketStart(maxBucket));
+    final byte[] head = new byte[readVInt(bucket)];
+    bucket.get(head);
+
+    for (int i = 1; i < bucketNumValues; i++) {
+      final int prefixLength = readVInt(bucket);
+      final int suffixLength = readVInt(bucket);
+      final byte[] bytes = new byte[prefixLength + suffixLength];
+      System.arraycopy(head, 0, bytes, 0, prefixLength);
+      bucket.get(bytes, prefixLength, suffixLength);
+
+      final int comparison = StringUtils.fromUtf8(bytes).compareTo(searchValue);
+      if (comparison == 0) {
+        return firstIndex + i;
+      }
+      if (comparison > 0) {
+        return -(firstIndex + i + 1);
+      }
+    }
+
+    return -(firstIndex + bucketNumValues + 1);
+  }
+
+  @Override
+  public Iterator<String> iterator()
+  {
+    return IndexedIterable.create(this).iterator();
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("valuesBuffer", valuesBuffer);
+  }
+
+  private int getBucketStart(int bucket)
+  {
+    return bucket == 0 ? 0 : offsetsBuffer.getInt((bucket - 1) * Integer.BYTES);
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.primitives.Ints;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.io.Channels;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams a sorted, unique set of strings out in the binary format described by {@link FrontCodedIndexed}. Values
+ * must be written in {@link String#compareTo} order, with null (if present) first.
+ */
+public class FrontCodedIndexedWriter implements DictionaryWriter<String>
+{
+  private static final MetaSerdeHelper<FrontCodedIndexedWriter> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((FrontCodedIndexedWriter x) -> FrontCodedIndexed.VERSION)
+      .writeByte(x -> (byte) x.bucketSize)
+      .writeByte(x -> x.hasNull ? (byte) 1 : (byte) 0)
+      .writeInt(x -> x.numWritten)
+      .writeInt(x -> Ints.checkedCast(x.valuesOut.size()));
+
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final int bucketSize;
+  private final int bucketShift;
+  private final int bucketMask;
+  private final byte[][] bucket;
+  private final IntArrayList bucketOffsets = new IntArrayList();
+  @Nullable
+  private WriteOutBytes valuesOut = null;
+  @Nullable
+  private String prevObject = null;
+  private boolean hasNull = false;
+  private int numWritten = 0;
+  private int numBuffered = 0;
+  private int numBucketsWritten = 0;
+  private boolean finished = false;
+
+  public FrontCodedIndexedWriter(SegmentWriteOutMedium segmentWriteOutMedium, int bucketSize)
+  {
+    FrontCodedIndexed.validateBucketSize(bucketSize);
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    this.bucketSize = bucketSize;
+    this.bucketShift = Integer.numberOfTrailingZeros(bucketSize);
+    this.bucketMask = bucketSize - 1;
+    this.bucket = new byte[bucketSize][];
+  }
+
+  @Override
+  public void open() throws IOException
+  {
+    valuesOut = segmentWriteOutMedium.makeWriteOutBytes();
+  }
+
+  @Override
+  public void write(@Nullable String objectToWrite) throws IOException
+  {
+    if (finished) {
+      throw new ISE("Cannot write to a dictionary that has already been serialized");
+    }
+
+    final String value = NullHandling.emptyToNullIfNeeded(objectToWrite);
+    if (value == null) {
+      if (hasNull || numWritten > 0) {
+        throw new ISE("Null must be written only once, before any other value");
+      }
+      hasNull = true;
+      return;
+    }
+
+    if (prevObject != null && prevObject.compareTo(value) >= 0) {
+      throw new ISE("Values must be sorted and unique, got [%s] after [%s]", value, prevObject);
+    }
+
+    bucket[numBuffered++] = StringUtils.toUtf8(value);
+    numWritten++;
+    prevObject = value;
+
+    if (numBuffered == bucketSize) {
+      flushBucket();
+    }
+  }
+
+  @Nullable
+  @Override
+  public String get(int index) throws IOException
+  {
+    final int adjustedIndex = hasNull ? index - 1 : index;
+    if (hasNull && index == 0) {
+      return null;
+    }
+    if (adjustedIndex < 0 || adjustedIndex >= numWritten) {
+      throw new IAE("Index[%d] >= size[%d]", index, numWritten + (hasNull ? 1 : 0));
+    }
+
+    final int bucketNumber = adjustedIndex >> bucketShift;
+    final int offsetInBucket = adjustedIndex & bucketMask;
+    if (bucketNumber == numBucketsWritten) {
+      return StringUtils.fromUtf8(bucket[offsetInBucket]);
+    }
+
+    final int startOffset = getBucketStart(bucketNumber);
+    final long endOffset = bucketNumber + 1 < numBucketsWritten ? getBucketStart(bucketNumber + 1) : valuesOut.size();
+    final ByteBuffer bucketBuffer = ByteBuffer.allocate(Ints.checkedCast(endOffset - startOffset));
+    valuesOut.readFully(startOffset, bucketBuffer);
+    bucketBuffer.clear();
+    return StringUtils.fromUtf8(FrontCodedIndexed.readBucketValue(bucketBuffer, offsetInBucket));
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    finish();
+    return META_SERDE_HELPER.size(this) + (long) bucketOffsets.size() * Integer.BYTES + valuesOut.size();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, @Nullable FileSmoosher smoosher) throws IOException
+  {
+    finish();
+    META_SERDE_HELPER.writeTo(channel, this);
+
+    final ByteBuffer offsets = ByteBuffer.allocate(bucketOffsets.size() * Integer.BYTES);
+    for (int i = 0; i < bucketOffsets.size(); i++) {
+      offsets.putInt(bucketOffsets.getInt(i));
+    }
+    offsets.flip();
+    Channels.writeFully(channel, offsets);
+
+    valuesOut.writeTo(channel);
+  }
+
+  /**
+   * Writes out the last, partially filled bucket. No more values can be written afterwards, since every bucket but
+   * the last must be full.
+   */
+  private void finish() throws IOException
+  {
+    if (!finished) {
+      if (numBuffered > 0) {
+        flushBucket();
+      }
+      finished = true;
+    }
+  }
+
+  private void flushBucket() throws IOException
+  {
+    if (numBucketsWritten > 0) {
+      bucketOffsets.add(Ints.checkedCast(valuesOut.size()));
+    }
+
+    final byte[] head = bucket[0];
+    FrontCodedIndexed.writeVInt(valuesOut, head.length);
+    valuesOut.write(head);
+
+    for (int i = 1; i < numBuffered; i++) {
+      final byte[] value = bucket[i];
+      final int prefixLength = commonPrefixLength(head, value);
+      FrontCodedIndexed.writeVInt(valuesOut, prefixLength);
+      FrontCodedIndexed.writeVInt(valuesOut, value.length - prefixLength);
+      valuesOut.write(value, prefixLength, value.length - prefixLength);
+    }
+
+    numBuffered = 0;
+    numBucketsWritten++;
+  }
+
+  private int getBucketStart(int bucketNumber)
+  {
+    return bucketNumber == 0 ? 0 : bucketOffsets.getInt(bucketNumber - 1);
+  }
+
+  private static int commonPrefixLength(byte[] lhs, byte[] rhs)
+  {
+    final int maxLength = Math.min(lhs.length, rhs.length);
+    int i = 0;
+    while (i < maxLength && lhs[i] == rhs[i]) {
+      i++;
+    }
+    return i;
+  }
+}
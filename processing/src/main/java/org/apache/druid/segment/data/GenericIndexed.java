@@ -164,7 +164,12 @@ public class GenericIndexed<T> implements CloseableIndexed<T>, Serializer
   {
     return fromIterableVersionOne(
         buffers,
-        GenericIndexedWriter.compressedByteBuffersWriteObjectStrategy(compression, bufferSize, closer),
+        GenericIndexedWriter.compressedByteBuffersWriteObjectStrategy(
+            compression,
+            CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL,
+            bufferSize,
+            closer
+        ),
         false,
         new DecompressingByteBufferObjectStrategy(order, compression)
     );
@@ -31,7 +31,6 @@ import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
 import org.apache.druid.java.util.common.io.smoosh.SmooshedWriter;
 import org.apache.druid.segment.serde.MetaSerdeHelper;
-import org.apache.druid.segment.serde.Serializer;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 import org.apache.druid.segment.writeout.WriteOutBytes;
 
@@ -47,7 +46,7 @@ import java.nio.channels.WritableByteChannel;
 /**
  * Streams arrays of objects out in the binary format described by {@link GenericIndexed}
  */
-public class GenericIndexedWriter<T> implements Serializer
+public class GenericIndexedWriter<T> implements DictionaryWriter<T>
 {
   private static final int PAGE_SIZE = 4096;
 
@@ -76,11 +75,33 @@ public class GenericIndexedWriter<T> implements Serializer
       final CompressionStrategy compressionStrategy,
       final int bufferSize
   )
+  {
+    return ofCompressedByteBuffers(
+        segmentWriteOutMedium,
+        filenameBase,
+        compressionStrategy,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL,
+        bufferSize
+    );
+  }
+
+  static GenericIndexedWriter<ByteBuffer> ofCompressedByteBuffers(
+      final SegmentWriteOutMedium segmentWriteOutMedium,
+      final String filenameBase,
+      final CompressionStrategy compressionStrategy,
+      final int zstdLevel,
+      final int bufferSize
+  )
   {
     GenericIndexedWriter<ByteBuffer> writer = new GenericIndexedWriter<>(
         segmentWriteOutMedium,
         filenameBase,
-        compressedByteBuffersWriteObjectStrategy(compressionStrategy, bufferSize, segmentWriteOutMedium.getCloser())
+        compressedByteBuffersWriteObjectStrategy(
+            compressionStrategy,
+            zstdLevel,
+            bufferSize,
+            segmentWriteOutMedium.getCloser()
+        )
     );
     writer.objectsSorted = false;
     return writer;
@@ -88,13 +109,14 @@ public class GenericIndexedWriter<T> implements Serializer
 
   static ObjectStrategy<ByteBuffer> compressedByteBuffersWriteObjectStrategy(
       final CompressionStrategy compressionStrategy,
+      final int zstdLevel,
       final int bufferSize,
       final Closer closer
   )
   {
     return new ObjectStrategy<ByteBuffer>()
     {
-      private final CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor();
+      private final CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor(zstdLevel);
       private final ByteBuffer compressedDataBuffer = compressor.allocateOutBuffer(bufferSize, closer);
 
       @Override
@@ -207,6 +229,7 @@ public class GenericIndexedWriter<T> implements Serializer
     }
   }
 
+  @Override
   public void open() throws IOException
   {
     headerOut = segmentWriteOutMedium.makeWriteOutBytes();
@@ -224,6 +247,7 @@ public class GenericIndexedWriter<T> implements Serializer
     this.intMaxForCasting = intMaxForCasting;
   }
 
+  @Override
   public void write(@Nullable T objectToWrite) throws IOException
   {
     if (objectsSorted && prevObject != null && strategy.compare(prevObject, objectToWrite) >= 0) {
@@ -265,6 +289,7 @@ public class GenericIndexedWriter<T> implements Serializer
   }
 
   @Nullable
+  @Override
   public T get(int index) throws IOException
   {
     long startOffset;
@@ -42,6 +42,25 @@ public class V3CompressedVSizeColumnarMultiIntsSerializer extends ColumnarMultiI
       final int maxValue,
       final CompressionStrategy compression
   )
+  {
+    return create(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        maxValue,
+        compression,
+        CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL
+    );
+  }
+
+  public static V3CompressedVSizeColumnarMultiIntsSerializer create(
+      final String columnName,
+      final SegmentWriteOutMedium segmentWriteOutMedium,
+      final String filenameBase,
+      final int maxValue,
+      final CompressionStrategy compression,
+      final int zstdLevel
+  )
   {
     return new V3CompressedVSizeColumnarMultiIntsSerializer(
         columnName,
@@ -51,7 +70,8 @@ public class V3CompressedVSizeColumnarMultiIntsSerializer extends ColumnarMultiI
             filenameBase,
             CompressedColumnarIntsSupplier.MAX_INTS_IN_BUFFER,
             IndexIO.BYTE_ORDER,
-            compression
+            compression,
+            zstdLevel
         ),
         new CompressedVSizeColumnarIntsSerializer(
             columnName,
@@ -60,7 +80,8 @@ public class V3CompressedVSizeColumnarMultiIntsSerializer extends ColumnarMultiI
             maxValue,
             CompressedVSizeColumnarIntsSupplier.maxIntsInBufferForValue(maxValue),
             IndexIO.BYTE_ORDER,
-            compression
+            compression,
+            zstdLevel
         )
     );
   }
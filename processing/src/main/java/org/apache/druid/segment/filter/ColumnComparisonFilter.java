@@ -25,18 +25,32 @@ import org.apache.druid.query.dimension.DimensionSpec;
 import org.apache.druid.query.filter.BitmapIndexSelector;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.filter.vector.BaseVectorValueMatcher;
+import org.apache.druid.query.filter.vector.BooleanVectorValueMatcher;
+import org.apache.druid.query.filter.vector.ReadableVectorMatch;
+import org.apache.druid.query.filter.vector.VectorMatch;
+import org.apache.druid.query.filter.vector.VectorValueMatcher;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.BaseDoubleColumnValueSelector;
 import org.apache.druid.segment.BaseFloatColumnValueSelector;
 import org.apache.druid.segment.BaseLongColumnValueSelector;
 import org.apache.druid.segment.BaseObjectColumnValueSelector;
 import org.apache.druid.segment.ColumnProcessorFactory;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnProcessors;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.VectorColumnProcessorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorSizeInspector;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -108,6 +122,83 @@ public class ColumnComparisonFilter implements Filter
     };
   }
 
+  @Override
+  public boolean canVectorizeMatcher(ColumnInspector inspector)
+  {
+    return dimensions.stream().allMatch(dimension -> {
+      final ColumnCapabilities capabilities = inspector.getColumnCapabilities(dimension.getDimension());
+      return dimension.canVectorize() && (capabilities == null || capabilities.getType() != ValueType.COMPLEX);
+    });
+  }
+
+  @Override
+  public VectorValueMatcher makeVectorMatcher(VectorColumnSelectorFactory factory)
+  {
+    final List<Supplier<String[][]>> vectorValueGetters = new ArrayList<>(dimensions.size());
+
+    for (final DimensionSpec dimension : dimensions) {
+      vectorValueGetters.add(
+          DimensionHandlerUtils.makeVectorProcessor(dimension, ColumnComparisonVectorReaderFactory.INSTANCE, factory)
+      );
+    }
+
+    return makeVectorValueMatcher(factory.getVectorSizeInspector(), vectorValueGetters);
+  }
+
+  /**
+   * Vectorized version of {@link #makeValueMatcher}. Each value getter returns the values of every row of the current
+   * vector, and rows are compared the same way.
+   */
+  public static VectorValueMatcher makeVectorValueMatcher(
+      final VectorSizeInspector vectorSizeInspector,
+      final List<Supplier<String[][]>> vectorValueGetters
+  )
+  {
+    if (vectorValueGetters.isEmpty()) {
+      return BooleanVectorValueMatcher.of(vectorSizeInspector, true);
+    }
+
+    return new BaseVectorValueMatcher(vectorSizeInspector)
+    {
+      final VectorMatch match = VectorMatch.wrap(new int[vectorSizeInspector.getMaxVectorSize()]);
+      final String[][][] values = new String[vectorValueGetters.size()][][];
+
+      @Override
+      public ReadableVectorMatch match(final ReadableVectorMatch mask)
+      {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = vectorValueGetters.get(i).get();
+        }
+
+        final int[] selection = match.getSelection();
+        int numRows = 0;
+
+        for (int i = 0; i < mask.getSelectionSize(); i++) {
+          final int rowNum = mask.getSelection()[i];
+          if (rowMatches(rowNum)) {
+            selection[numRows++] = rowNum;
+          }
+        }
+
+        match.setSelectionSize(numRows);
+        assert match.isValid(mask);
+        return match;
+      }
+
+      private boolean rowMatches(final int rowNum)
+      {
+        for (int i = 1; i < values.length; i++) {
+          for (int j = 0; j < i; j++) {
+            if (!overlap(values[i][rowNum], values[j][rowNum])) {
+              return false;
+            }
+          }
+        }
+        return true;
+      }
+    };
+  }
+
   /**
    * overlap returns true when: as and bs have one or more elements in common,
    * as and bs are both null, or as and bs are both empty.
@@ -251,4 +342,125 @@ public class ColumnComparisonFilter implements Filter
       return () -> NULL_VALUE;
     }
   }
+
+  /**
+   * Vectorized version of {@link ColumnComparisonReaderFactory}. The returned arrays are reused between vectors.
+   */
+  private static class ColumnComparisonVectorReaderFactory implements VectorColumnProcessorFactory<Supplier<String[][]>>
+  {
+    private static final ColumnComparisonVectorReaderFactory INSTANCE = new ColumnComparisonVectorReaderFactory();
+
+    @Override
+    public Supplier<String[][]> makeSingleValueDimensionProcessor(
+        ColumnCapabilities capabilities,
+        SingleValueDimensionVectorSelector selector
+    )
+    {
+      final String[][] values = new String[selector.getMaxVectorSize()][1];
+      return () -> {
+        final int[] vector = selector.getRowVector();
+        for (int i = 0; i < selector.getCurrentVectorSize(); i++) {
+          values[i][0] = selector.lookupName(vector[i]);
+        }
+        return values;
+      };
+    }
+
+    @Override
+    public Supplier<String[][]> makeMultiValueDimensionProcessor(
+        ColumnCapabilities capabilities,
+        MultiValueDimensionVectorSelector selector
+    )
+    {
+      final String[][] values = new String[selector.getMaxVectorSize()][];
+      return () -> {
+        final IndexedInts[] vector = selector.getRowVector();
+        for (int i = 0; i < selector.getCurrentVectorSize(); i++) {
+          final IndexedInts row = vector[i];
+          final int size = row.size();
+          if (size == 0) {
+            values[i] = ColumnComparisonReaderFactory.NULL_VALUE;
+          } else {
+            values[i] = new String[size];
+            for (int j = 0; j < size; ++j) {
+              values[i][j] = selector.lookupName(row.get(j));
+            }
+          }
+        }
+        return values;
+      };
+    }
+
+    @Override
+    public Supplier<String[][]> makeFloatProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      final NumericValues values = new NumericValues(selector.getMaxVectorSize());
+      return () -> {
+        final float[] vector = selector.getFloatVector();
+        final boolean[] nulls = selector.getNullVector();
+        for (int i = 0; i < selector.getCurrentVectorSize(); i++) {
+          values.set(i, nulls != null && nulls[i] ? null : Float.toString(vector[i]));
+        }
+        return values.get();
+      };
+    }
+
+    @Override
+    public Supplier<String[][]> makeDoubleProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      final NumericValues values = new NumericValues(selector.getMaxVectorSize());
+      return () -> {
+        final double[] vector = selector.getDoubleVector();
+        final boolean[] nulls = selector.getNullVector();
+        for (int i = 0; i < selector.getCurrentVectorSize(); i++) {
+          values.set(i, nulls != null && nulls[i] ? null : Double.toString(vector[i]));
+        }
+        return values.get();
+      };
+    }
+
+    @Override
+    public Supplier<String[][]> makeLongProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      final NumericValues values = new NumericValues(selector.getMaxVectorSize());
+      return () -> {
+        final long[] vector = selector.getLongVector();
+        final boolean[] nulls = selector.getNullVector();
+        for (int i = 0; i < selector.getCurrentVectorSize(); i++) {
+          values.set(i, nulls != null && nulls[i] ? null : Long.toString(vector[i]));
+        }
+        return values.get();
+      };
+    }
+  }
+
+  /**
+   * Holds the single-element value arrays of a numeric column, so they need not be allocated for every row.
+   */
+  private static class NumericValues
+  {
+    private final String[][] values;
+    private final String[][] holders;
+
+    NumericValues(final int maxVectorSize)
+    {
+      this.values = new String[maxVectorSize][];
+      this.holders = new String[maxVectorSize][1];
+    }
+
+    void set(final int row, @Nullable final String value)
+    {
+      if (value == null) {
+        values[row] = ColumnComparisonReaderFactory.NULL_VALUE;
+      } else {
+        holders[row][0] = value;
+        values[row] = holders[row];
+      }
+    }
+
+    String[][] get()
+    {
+      return values;
+    }
+  }
 }
@@ -32,11 +32,24 @@ import org.apache.druid.query.filter.BitmapIndexSelector;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.FilterTuning;
 import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.filter.vector.BaseVectorValueMatcher;
+import org.apache.druid.query.filter.vector.BooleanVectorValueMatcher;
+import org.apache.druid.query.filter.vector.ReadableVectorMatch;
+import org.apache.druid.query.filter.vector.VectorMatch;
+import org.apache.druid.query.filter.vector.VectorValueMatcher;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.segment.virtual.ExpressionPlan;
+import org.apache.druid.segment.virtual.ExpressionPlanner;
 import org.apache.druid.segment.virtual.ExpressionSelectors;
+import org.apache.druid.segment.virtual.ExpressionVectorRowBinding;
+import org.apache.druid.segment.virtual.ExpressionVectorSelectors;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -64,36 +77,7 @@ public class ExpressionFilter implements Filter
       @Override
       public boolean matches()
       {
-        final ExprEval eval = selector.getObject();
-
-        switch (eval.type()) {
-          case LONG_ARRAY:
-            final Long[] lResult = eval.asLongArray();
-            if (lResult == null) {
-              return false;
-            }
-
-            return Arrays.stream(lResult).anyMatch(Evals::asBoolean);
-
-          case STRING_ARRAY:
-            final String[] sResult = eval.asStringArray();
-            if (sResult == null) {
-              return false;
-            }
-
-            return Arrays.stream(sResult).anyMatch(Evals::asBoolean);
-
-          case DOUBLE_ARRAY:
-            final Double[] dResult = eval.asDoubleArray();
-            if (dResult == null) {
-              return false;
-            }
-
-            return Arrays.stream(dResult).anyMatch(Evals::asBoolean);
-
-          default:
-            return eval.asBoolean();
-        }
+        return ExpressionFilter.matches(selector.getObject());
       }
 
       @Override
@@ -104,6 +88,44 @@ public class ExpressionFilter implements Filter
     };
   }
 
+  @Override
+  public boolean canVectorizeMatcher(final ColumnInspector inspector)
+  {
+    final ExpressionPlan plan = ExpressionPlanner.plan(inspector, expr.get());
+    // Expressions that cannot be vectorized themselves are evaluated one row at a time within each vector, so that
+    // they do not prevent the rest of the query from vectorizing.
+    return plan.is(ExpressionPlan.Trait.VECTORIZABLE) || ExpressionVectorSelectors.canBindByRow(plan);
+  }
+
+  @Override
+  public VectorValueMatcher makeVectorMatcher(final VectorColumnSelectorFactory factory)
+  {
+    final ExpressionPlan plan = ExpressionPlanner.plan(factory, expr.get());
+
+    if (plan.isConstant()) {
+      return BooleanVectorValueMatcher.of(
+          factory.getVectorSizeInspector(),
+          matches(expr.get().eval(ExprUtils.nilBindings()))
+      );
+    }
+
+    if (plan.is(ExpressionPlan.Trait.VECTORIZABLE) && plan.getOutputType() != null) {
+      switch (plan.getOutputType()) {
+        case LONG:
+          return makeLongVectorMatcher(ExpressionVectorSelectors.makeVectorValueSelector(factory, expr.get()));
+        case DOUBLE:
+          return makeDoubleVectorMatcher(ExpressionVectorSelectors.makeVectorValueSelector(factory, expr.get()));
+        case STRING:
+          return makeStringVectorMatcher(ExpressionVectorSelectors.makeVectorObjectSelector(factory, expr.get()));
+        default:
+          // Evaluated row by row, below.
+          break;
+      }
+    }
+
+    return makeRowVectorMatcher(ExpressionVectorSelectors.makeRowBinding(factory, expr.get()), expr.get());
+  }
+
   @Override
   public boolean supportsBitmapIndex(final BitmapIndexSelector selector)
   {
@@ -190,6 +212,158 @@ public class ExpressionFilter implements Filter
     return false;
   }
 
+  /**
+   * Whether the result of evaluating the expression for a row is a match. Arrays match if any of their elements do.
+   */
+  private static boolean matches(final ExprEval eval)
+  {
+    switch (eval.type()) {
+      case LONG_ARRAY:
+        final Long[] lResult = eval.asLongArray();
+        if (lResult == null) {
+          return false;
+        }
+
+        return Arrays.stream(lResult).anyMatch(Evals::asBoolean);
+
+      case STRING_ARRAY:
+        final String[] sResult = eval.asStringArray();
+        if (sResult == null) {
+          return false;
+        }
+
+        return Arrays.stream(sResult).anyMatch(Evals::asBoolean);
+
+      case DOUBLE_ARRAY:
+        final Double[] dResult = eval.asDoubleArray();
+        if (dResult == null) {
+          return false;
+        }
+
+        return Arrays.stream(dResult).anyMatch(Evals::asBoolean);
+
+      default:
+        return eval.asBoolean();
+    }
+  }
+
+  private static VectorValueMatcher makeLongVectorMatcher(final VectorValueSelector selector)
+  {
+    return new BaseVectorValueMatcher(selector)
+    {
+      final VectorMatch match = VectorMatch.wrap(new int[selector.getMaxVectorSize()]);
+
+      @Override
+      public ReadableVectorMatch match(final ReadableVectorMatch mask)
+      {
+        final long[] vector = selector.getLongVector();
+        final boolean[] nulls = selector.getNullVector();
+        final int[] selection = match.getSelection();
+
+        int numRows = 0;
+
+        for (int i = 0; i < mask.getSelectionSize(); i++) {
+          final int rowNum = mask.getSelection()[i];
+          if ((nulls == null || !nulls[rowNum]) && Evals.asBoolean(vector[rowNum])) {
+            selection[numRows++] = rowNum;
+          }
+        }
+
+        match.setSelectionSize(numRows);
+        assert match.isValid(mask);
+        return match;
+      }
+    };
+  }
+
+  private static VectorValueMatcher makeDoubleVectorMatcher(final VectorValueSelector selector)
+  {
+    return new BaseVectorValueMatcher(selector)
+    {
+      final VectorMatch match = VectorMatch.wrap(new int[selector.getMaxVectorSize()]);
+
+      @Override
+      public ReadableVectorMatch match(final ReadableVectorMatch mask)
+      {
+        final double[] vector = selector.getDoubleVector();
+        final boolean[] nulls = selector.getNullVector();
+        final int[] selection = match.getSelection();
+
+        int numRows = 0;
+
+        for (int i = 0; i < mask.getSelectionSize(); i++) {
+          final int rowNum = mask.getSelection()[i];
+          if ((nulls == null || !nulls[rowNum]) && Evals.asBoolean(vector[rowNum])) {
+            selection[numRows++] = rowNum;
+          }
+        }
+
+        match.setSelectionSize(numRows);
+        assert match.isValid(mask);
+        return match;
+      }
+    };
+  }
+
+  private static VectorValueMatcher makeStringVectorMatcher(final VectorObjectSelector selector)
+  {
+    return new BaseVectorValueMatcher(selector)
+    {
+      final VectorMatch match = VectorMatch.wrap(new int[selector.getMaxVectorSize()]);
+
+      @Override
+      public ReadableVectorMatch match(final ReadableVectorMatch mask)
+      {
+        final Object[] vector = selector.getObjectVector();
+        final int[] selection = match.getSelection();
+
+        int numRows = 0;
+
+        for (int i = 0; i < mask.getSelectionSize(); i++) {
+          final int rowNum = mask.getSelection()[i];
+          if (Evals.asBoolean((String) vector[rowNum])) {
+            selection[numRows++] = rowNum;
+          }
+        }
+
+        match.setSelectionSize(numRows);
+        assert match.isValid(mask);
+        return match;
+      }
+    };
+  }
+
+  /**
+   * Evaluates the expression separately for each selected row of the vector, like {@link #makeMatcher} does.
+   */
+  private static VectorValueMatcher makeRowVectorMatcher(final ExpressionVectorRowBinding bindings, final Expr expr)
+  {
+    return new BaseVectorValueMatcher(bindings)
+    {
+      final VectorMatch match = VectorMatch.wrap(new int[bindings.getMaxVectorSize()]);
+
+      @Override
+      public ReadableVectorMatch match(final ReadableVectorMatch mask)
+      {
+        final int[] selection = match.getSelection();
+
+        int numRows = 0;
+
+        for (int i = 0; i < mask.getSelectionSize(); i++) {
+          final int rowNum = mask.getSelection()[i];
+          bindings.setRow(rowNum);
+          if (matches(expr.eval(bindings))) {
+            selection[numRows++] = rowNum;
+          }
+        }
+
+        match.setSelectionSize(numRows);
+        assert match.isValid(mask);
+        return match;
+      }
+    };
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -112,6 +112,11 @@ public final class IncrementalIndexRow
     this.rowIndex = rowIndex;
   }
 
+  long getDimsKeySize()
+  {
+    return dimsKeySize;
+  }
+
   /**
    * bytesInMemory estimates the size of IncrementalIndexRow key, it takes into account the timestamp(long),
    * dims(Object Array) and dimensionDescsList(List). Each of these are calculated as follows:
@@ -0,0 +1,596 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.incremental;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.UOE;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@link IncrementalIndex.FactsHolder} for rollup indexes that stores the encoded time-and-dims key of every row in
+ * off-heap memory instead of keeping an {@link IncrementalIndexRow} object per row in a
+ * {@link java.util.concurrent.ConcurrentSkipListMap}, like {@link IncrementalIndex.RollupFactsHolder} does.
+ *
+ * Keys are appended to direct memory chunks as [rowIndex, keyLength, dimsLength, timestamp, numDims, dims...] records,
+ * where the key starts at the timestamp, and dimsLength is the length of the dims array of the row before its trailing
+ * nulls were dropped from the key. Rows are looked up through an open-addressing hash table, also off-heap, whose slots
+ * hold an entry number and the key hash. Adding a row therefore costs a hash and a probe instead of O(log n) comparator
+ * calls. Sorting is deferred until the facts are iterated in time-and-dims order, which only happens at query and
+ * persist time; the sorted order is cached and rows added afterwards are merged into it on the next iteration.
+ *
+ * Writers, that is {@link #getPriorIndex} and {@link #putIfAbsent}, are serialized on this object, so adding rows from
+ * several threads at once ({@code concurrentEventAdd}) is not faster than from one. Readers only see entries published
+ * through {@link #size}, whose records and chunks are never modified or moved once written, so iteration can proceed
+ * concurrently with ingestion.
+ *
+ * The direct memory of the chunks and of the hash table, and the heap memory of the pointer blocks, are added to the
+ * bytesInMemory of the owning index as they are allocated, so that they count against maxBytesInMemory.
+ */
+class OffheapRollupFactsHolder implements IncrementalIndex.FactsHolder
+{
+  private static final int CHUNK_SIZE = 1 << 20;
+  private static final int BLOCK_SHIFT = 14;
+  private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+  private static final int INITIAL_TABLE_SLOTS = 1 << 12;
+  private static final int SLOT_SIZE = Integer.BYTES * 2;
+  private static final int RECORD_HEADER_SIZE = Integer.BYTES * 3;
+  private static final long POINTER_BLOCK_BYTES = (long) Long.BYTES * BLOCK_SIZE;
+
+  private static final byte TYPE_NULL = 0;
+  private static final byte TYPE_INTS = 1;
+  private static final byte TYPE_LONG = 2;
+  private static final byte TYPE_FLOAT = 3;
+  private static final byte TYPE_DOUBLE = 4;
+
+  private final boolean sortFacts;
+  private final Comparator<IncrementalIndexRow> incrementalIndexRowComparator;
+  private final List<IncrementalIndex.DimensionDesc> dimensionDescsList;
+  private final AtomicLong bytesInMemory;
+
+  @GuardedBy("this")
+  private ByteBuffer table;
+  @GuardedBy("this")
+  private int tableSlots;
+  @GuardedBy("this")
+  private ByteBuffer scratch = ByteBuffer.allocate(256);
+  @GuardedBy("this")
+  private int chunkPosition = 0;
+
+  // Written under "this", read by iterators after reading "size".
+  private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+  private volatile long[][] pointerBlocks = new long[0][];
+  private volatile int size = 0;
+  private volatile long minTimeMillis = Long.MAX_VALUE;
+  private volatile long maxTimeMillis = Long.MIN_VALUE;
+
+  private final Object sortLock = new Object();
+  @GuardedBy("sortLock")
+  private int[] sortedEntries = new int[0];
+
+  OffheapRollupFactsHolder(
+      boolean sortFacts,
+      Comparator<IncrementalIndexRow> incrementalIndexRowComparator,
+      List<IncrementalIndex.DimensionDesc> dimensionDescsList,
+      AtomicLong bytesInMemory
+  )
+  {
+    this.sortFacts = sortFacts;
+    this.incrementalIndexRowComparator = incrementalIndexRowComparator;
+    this.dimensionDescsList = dimensionDescsList;
+    this.bytesInMemory = bytesInMemory;
+    this.tableSlots = INITIAL_TABLE_SLOTS;
+    this.table = allocateDirect(tableSlots * SLOT_SIZE);
+  }
+
+  @Override
+  public synchronized int getPriorIndex(IncrementalIndexRow key)
+  {
+    final int keyLength = encode(key);
+    final int slot = findSlot(hash(keyLength), keyLength);
+    final int entry = table.getInt(slot * SLOT_SIZE) - 1;
+    return entry < 0 ? IncrementalIndexRow.EMPTY_ROW_INDEX : getRowIndex(entry);
+  }
+
+  @Override
+  public long getMinTimeMillis()
+  {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return minTimeMillis;
+  }
+
+  @Override
+  public long getMaxTimeMillis()
+  {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return maxTimeMillis;
+  }
+
+  @Override
+  public Iterator<IncrementalIndexRow> iterator(boolean descending)
+  {
+    if (sortFacts) {
+      final int[] entries = sortedEntries();
+      return rows(0, entries.length, descending, i -> entries[i]).iterator();
+    }
+    return rows(0, size, descending, IntUnaryOperator.identity()).iterator();
+  }
+
+  @Override
+  public Iterable<IncrementalIndexRow> timeRangeIterable(boolean descending, long timeStart, long timeEnd)
+  {
+    if (!sortFacts) {
+      throw new UnsupportedOperationException("can't get timeRange from unsorted facts data.");
+    }
+    final int[] entries = sortedEntries();
+    final int start = lowerBound(entries, timeStart);
+    final int end = lowerBound(entries, timeEnd);
+    return rows(start, Math.max(start, end), descending, i -> entries[i]);
+  }
+
+  @Override
+  public Iterable<IncrementalIndexRow> keySet()
+  {
+    return () -> iterator(false);
+  }
+
+  @Override
+  public Iterable<IncrementalIndexRow> persistIterable()
+  {
+    final int[] entries = sortedEntries();
+    return rows(0, entries.length, false, i -> entries[i]);
+  }
+
+  @Override
+  public synchronized int putIfAbsent(IncrementalIndexRow key, int rowIndex)
+  {
+    key.setRowIndex(rowIndex);
+
+    final int keyLength = encode(key);
+    final int hash = hash(keyLength);
+    final int slot = findSlot(hash, keyLength);
+    final int existing = table.getInt(slot * SLOT_SIZE) - 1;
+    if (existing >= 0) {
+      return getRowIndex(existing);
+    }
+
+    final int entry = size;
+    setPointer(entry, appendRecord(rowIndex, keyLength, key.getDims().length));
+    table.putInt(slot * SLOT_SIZE, entry + 1);
+    table.putInt(slot * SLOT_SIZE + Integer.BYTES, hash);
+
+    final long timestamp = key.getTimestamp();
+    if (timestamp < minTimeMillis) {
+      minTimeMillis = timestamp;
+    }
+    if (timestamp > maxTimeMillis) {
+      maxTimeMillis = timestamp;
+    }
+
+    // Publishes the record to readers.
+    size = entry + 1;
+
+    if (size > tableSlots - (tableSlots >> 2)) {
+      growTable();
+    }
+    return IncrementalIndexRow.EMPTY_ROW_INDEX;
+  }
+
+  @Override
+  public void clear()
+  {
+    synchronized (this) {
+      size = 0;
+      minTimeMillis = Long.MAX_VALUE;
+      maxTimeMillis = Long.MIN_VALUE;
+      for (ByteBuffer chunk : chunks) {
+        free(chunk);
+      }
+      chunks = new ByteBuffer[0];
+      bytesInMemory.addAndGet(-pointerBlocks.length * POINTER_BLOCK_BYTES);
+      pointerBlocks = new long[0][];
+      chunkPosition = 0;
+      free(table);
+      tableSlots = INITIAL_TABLE_SLOTS;
+      table = allocateDirect(tableSlots * SLOT_SIZE);
+    }
+    synchronized (sortLock) {
+      sortedEntries = new int[0];
+    }
+  }
+
+  /**
+   * Returns the entry numbers of all rows published so far, in {@link #incrementalIndexRowComparator} order. Entries
+   * are only ever appended and the relative order of existing keys never changes, so entries added since the last call
+   * are sorted on their own and merged into the previously sorted order.
+   */
+  private int[] sortedEntries()
+  {
+    final int numEntries = size;
+    synchronized (sortLock) {
+      if (sortedEntries.length < numEntries) {
+        sortedEntries = mergeNewEntries(sortedEntries, numEntries);
+      }
+      return sortedEntries;
+    }
+  }
+
+  private int[] mergeNewEntries(int[] sorted, int numEntries)
+  {
+    final int firstNew = sorted.length;
+    final IncrementalIndexRow[] newRows = new IncrementalIndexRow[numEntries - firstNew];
+    final int[] newEntries = new int[newRows.length];
+    for (int i = 0; i < newRows.length; i++) {
+      newEntries[i] = firstNew + i;
+      newRows[i] = decode(firstNew + i);
+    }
+    IntArrays.quickSort(
+        newEntries,
+        (lhs, rhs) -> incrementalIndexRowComparator.compare(newRows[lhs - firstNew], newRows[rhs - firstNew])
+    );
+
+    if (firstNew == 0) {
+      return newEntries;
+    }
+
+    final int[] merged = new int[numEntries];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    IncrementalIndexRow current = decode(sorted[0]);
+    while (i < sorted.length && j < newEntries.length) {
+      if (incrementalIndexRowComparator.compare(current, newRows[newEntries[j] - firstNew]) <= 0) {
+        merged[k++] = sorted[i++];
+        if (i < sorted.length) {
+          current = decode(sorted[i]);
+        }
+      } else {
+        merged[k++] = newEntries[j++];
+      }
+    }
+    System.arraycopy(sorted, i, merged, k, sorted.length - i);
+    System.arraycopy(newEntries, j, merged, k + sorted.length - i, newEntries.length - j);
+    return merged;
+  }
+
+  /**
+   * Returns the first position in sorted entries whose timestamp is not smaller than the given one.
+   */
+  private int lowerBound(int[] entries, long timestamp)
+  {
+    int low = 0;
+    int high = entries.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (getTimestamp(entries[mid]) < timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private Iterable<IncrementalIndexRow> rows(int start, int end, boolean descending, IntUnaryOperator entryAt)
+  {
+    return () -> new Iterator<IncrementalIndexRow>()
+    {
+      private int position = descending ? end - 1 : start;
+
+      @Override
+      public boolean hasNext()
+      {
+        return descending ? position >= start : position < end;
+      }
+
+      @Override
+      public IncrementalIndexRow next()
+      {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final IncrementalIndexRow row = decode(entryAt.applyAsInt(position));
+        position += descending ? -1 : 1;
+        return row;
+      }
+    };
+  }
+
+  /**
+   * Encodes the key into {@link #scratch}, dropping trailing null dims so that keys which
+   * {@link #incrementalIndexRowComparator} considers equal are also byte-wise equal.
+   *
+   * @return length of the encoded key
+   */
+  @GuardedBy("this")
+  private int encode(IncrementalIndexRow key)
+  {
+    final Object[] dims = key.getDims();
+    int numDims = dims.length;
+    while (numDims > 0 && dims[numDims - 1] == null) {
+      numDims--;
+    }
+
+    int keyLength = Long.BYTES + Integer.BYTES + numDims;
+    for (int i = 0; i < numDims; i++) {
+      final Object dim = dims[i];
+      if (dim instanceof int[]) {
+        keyLength += Integer.BYTES * (1 + ((int[]) dim).length);
+      } else if (dim instanceof Long || dim instanceof Double) {
+        keyLength += Long.BYTES;
+      } else if (dim instanceof Float) {
+        keyLength += Float.BYTES;
+      } else if (dim != null) {
+        throw new UOE("Cannot store dimension[%s] of type[%s] off-heap", i, dim.getClass().getName());
+      }
+    }
+
+    if (scratch.capacity() < keyLength) {
+      scratch = ByteBuffer.allocate(Math.max(keyLength, scratch.capacity() * 2));
+    }
+    scratch.clear();
+    scratch.putLong(key.getTimestamp());
+    scratch.putInt(numDims);
+    for (int i = 0; i < numDims; i++) {
+      final Object dim = dims[i];
+      if (dim == null) {
+        scratch.put(TYPE_NULL);
+      } else if (dim instanceof int[]) {
+        final int[] ids = (int[]) dim;
+        scratch.put(TYPE_INTS);
+        scratch.putInt(ids.length);
+        for (int id : ids) {
+          scratch.putInt(id);
+        }
+      } else if (dim instanceof Long) {
+        scratch.put(TYPE_LONG);
+        scratch.putLong((Long) dim);
+      } else if (dim instanceof Float) {
+        scratch.put(TYPE_FLOAT);
+        scratch.putFloat((Float) dim);
+      } else {
+        scratch.put(TYPE_DOUBLE);
+        scratch.putDouble((Double) dim);
+      }
+    }
+    return keyLength;
+  }
+
+  private IncrementalIndexRow decode(int entry)
+  {
+    final long pointer = getPointer(entry);
+    final ByteBuffer chunk = chunks[(int) (pointer >>> 32)];
+    final int recordStart = (int) pointer;
+    final int rowIndex = chunk.getInt(recordStart);
+    final Object[] dims = new Object[chunk.getInt(recordStart + Integer.BYTES * 2)];
+
+    int position = recordStart + RECORD_HEADER_SIZE;
+    final long timestamp = chunk.getLong(position);
+    position += Long.BYTES;
+    final int numDims = chunk.getInt(position);
+    position += Integer.BYTES;
+
+    for (int i = 0; i < numDims; i++) {
+      final byte type = chunk.get(position++);
+      switch (type) {
+        case TYPE_NULL:
+          break;
+        case TYPE_INTS: {
+          final int[] ids = new int[chunk.getInt(position)];
+          position += Integer.BYTES;
+          for (int j = 0; j < ids.length; j++) {
+            ids[j] = chunk.getInt(position);
+            position += Integer.BYTES;
+          }
+          dims[i] = ids;
+          break;
+        }
+        case TYPE_LONG:
+          dims[i] = chunk.getLong(position);
+          position += Long.BYTES;
+          break;
+        case TYPE_FLOAT:
+          dims[i] = chunk.getFloat(position);
+          position += Float.BYTES;
+          break;
+        case TYPE_DOUBLE:
+          dims[i] = chunk.getDouble(position);
+          position += Double.BYTES;
+          break;
+        default:
+          throw new UOE("Unknown dimension type[%s]", type);
+      }
+    }
+
+    return new IncrementalIndexRow(timestamp, dims, dimensionDescsList, rowIndex);
+  }
+
+  private long getTimestamp(int entry)
+  {
+    final long pointer = getPointer(entry);
+    return chunks[(int) (pointer >>> 32)].getLong((int) pointer + RECORD_HEADER_SIZE);
+  }
+
+  private int getRowIndex(int entry)
+  {
+    final long pointer = getPointer(entry);
+    return chunks[(int) (pointer >>> 32)].getInt((int) pointer);
+  }
+
+  private long getPointer(int entry)
+  {
+    return pointerBlocks[entry >>> BLOCK_SHIFT][entry & BLOCK_MASK];
+  }
+
+  @GuardedBy("this")
+  private void setPointer(int entry, long pointer)
+  {
+    final int block = entry >>> BLOCK_SHIFT;
+    if (block == pointerBlocks.length) {
+      final long[][] newBlocks = Arrays.copyOf(pointerBlocks, block + 1);
+      newBlocks[block] = new long[BLOCK_SIZE];
+      pointerBlocks = newBlocks;
+      bytesInMemory.addAndGet(POINTER_BLOCK_BYTES);
+    }
+    pointerBlocks[block][entry & BLOCK_MASK] = pointer;
+  }
+
+  /**
+   * Copies the key in {@link #scratch} to the end of the last chunk, allocating a new one if it does not fit.
+   *
+   * @return pointer to the record: chunk number in the upper 32 bits, offset in the chunk in the lower 32 bits
+   */
+  @GuardedBy("this")
+  private long appendRecord(int rowIndex, int keyLength, int dimsLength)
+  {
+    final int recordLength = RECORD_HEADER_SIZE + keyLength;
+    if (chunks.length == 0 || chunkPosition + recordLength > chunks[chunks.length - 1].capacity()) {
+      final ByteBuffer[] newChunks = Arrays.copyOf(chunks, chunks.length + 1);
+      newChunks[chunks.length] = allocateDirect(Math.max(CHUNK_SIZE, recordLength));
+      chunks = newChunks;
+      chunkPosition = 0;
+    }
+
+    final int chunkNumber = chunks.length - 1;
+    final ByteBuffer chunk = chunks[chunkNumber].duplicate();
+    final int recordStart = chunkPosition;
+    chunk.position(recordStart);
+    chunk.putInt(rowIndex);
+    chunk.putInt(keyLength);
+    chunk.putInt(dimsLength);
+    chunk.put(scratch.array(), 0, keyLength);
+    chunkPosition += recordLength;
+
+    return ((long) chunkNumber << 32) | recordStart;
+  }
+
+  /**
+   * Returns the slot holding the key in {@link #scratch}, or the empty slot where it should be inserted.
+   */
+  @GuardedBy("this")
+  private int findSlot(int hash, int keyLength)
+  {
+    final int mask = tableSlots - 1;
+    int slot = hash & mask;
+    while (true) {
+      final int entry = table.getInt(slot * SLOT_SIZE) - 1;
+      if (entry < 0
+          || (table.getInt(slot * SLOT_SIZE + Integer.BYTES) == hash && keyEquals(entry, keyLength))) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  @GuardedBy("this")
+  private boolean keyEquals(int entry, int keyLength)
+  {
+    final long pointer = getPointer(entry);
+    final ByteBuffer chunk = chunks[(int) (pointer >>> 32)];
+    final int recordStart = (int) pointer;
+    if (chunk.getInt(recordStart + Integer.BYTES) != keyLength) {
+      return false;
+    }
+
+    final int keyStart = recordStart + RECORD_HEADER_SIZE;
+    int i = 0;
+    for (; i + Long.BYTES <= keyLength; i += Long.BYTES) {
+      if (chunk.getLong(keyStart + i) != scratch.getLong(i)) {
+        return false;
+      }
+    }
+    for (; i < keyLength; i++) {
+      if (chunk.get(keyStart + i) != scratch.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @GuardedBy("this")
+  private int hash(int keyLength)
+  {
+    int hash = 1;
+    int i = 0;
+    for (; i + Integer.BYTES <= keyLength; i += Integer.BYTES) {
+      hash = 31 * hash + scratch.getInt(i);
+    }
+    for (; i < keyLength; i++) {
+      hash = 31 * hash + scratch.get(i);
+    }
+    // Spread the bits, since slots are picked from the lowest ones.
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    return hash;
+  }
+
+  @GuardedBy("this")
+  private void growTable()
+  {
+    final int newSlots = tableSlots * 2;
+    final int mask = newSlots - 1;
+    final ByteBuffer newTable = allocateDirect(newSlots * SLOT_SIZE);
+    for (int slot = 0; slot < tableSlots; slot++) {
+      final int entryPlusOne = table.getInt(slot * SLOT_SIZE);
+      if (entryPlusOne != 0) {
+        final int hash = table.getInt(slot * SLOT_SIZE + Integer.BYTES);
+        int newSlot = hash & mask;
+        while (newTable.getInt(newSlot * SLOT_SIZE) != 0) {
+          newSlot = (newSlot + 1) & mask;
+        }
+        newTable.putInt(newSlot * SLOT_SIZE, entryPlusOne);
+        newTable.putInt(newSlot * SLOT_SIZE + Integer.BYTES, hash);
+      }
+    }
+    free(table);
+    table = newTable;
+    tableSlots = newSlots;
+  }
+
+  @GuardedBy("this")
+  private ByteBuffer allocateDirect(int capacity)
+  {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+    bytesInMemory.addAndGet(capacity);
+    return buffer;
+  }
+
+  @GuardedBy("this")
+  private void free(ByteBuffer buffer)
+  {
+    bytesInMemory.addAndGet(-buffer.capacity());
+    ByteBufferUtils.free(buffer);
+  }
+}
@@ -76,12 +76,38 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
       int maxRowCount,
       long maxBytesInMemory
   )
+  {
+    this(
+        incrementalIndexSchema,
+        deserializeComplexMetrics,
+        concurrentEventAdd,
+        sortFacts,
+        maxRowCount,
+        maxBytesInMemory,
+        false
+    );
+  }
+
+  OnheapIncrementalIndex(
+      IncrementalIndexSchema incrementalIndexSchema,
+      boolean deserializeComplexMetrics,
+      boolean concurrentEventAdd,
+      boolean sortFacts,
+      int maxRowCount,
+      long maxBytesInMemory,
+      boolean offheapFacts
+  )
   {
     super(incrementalIndexSchema, deserializeComplexMetrics, concurrentEventAdd);
     this.maxRowCount = maxRowCount;
     this.maxBytesInMemory = maxBytesInMemory == 0 ? Long.MAX_VALUE : maxBytesInMemory;
-    this.facts = incrementalIndexSchema.isRollup() ? new RollupFactsHolder(sortFacts, dimsComparator(), getDimensions())
-                                                   : new PlainFactsHolder(sortFacts, dimsComparator());
+    if (!incrementalIndexSchema.isRollup()) {
+      this.facts = new PlainFactsHolder(sortFacts, dimsComparator());
+    } else if (offheapFacts) {
+      this.facts = new OffheapRollupFactsHolder(sortFacts, dimsComparator(), getDimensions(), getBytesInMemory());
+    } else {
+      this.facts = new RollupFactsHolder(sortFacts, dimsComparator(), getDimensions());
+    }
     maxBytesPerRowForAggregators = getMaxBytesPerRowForAggregators(incrementalIndexSchema);
   }
 
@@ -213,6 +239,10 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
    */
   private long estimateRowSizeInBytes(IncrementalIndexRow key, long maxBytesPerRowForAggregators)
   {
+    if (facts instanceof OffheapRollupFactsHolder) {
+      // The key is not kept on-heap; the facts holder accounts for the memory it allocates to store it.
+      return ROUGH_OVERHEAD_PER_MAP_ENTRY + key.getDimsKeySize() + maxBytesPerRowForAggregators;
+    }
     return ROUGH_OVERHEAD_PER_MAP_ENTRY + key.estimateBytesInMemory() + maxBytesPerRowForAggregators;
   }
 
@@ -438,6 +468,18 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
 
   public static class Builder extends AppendableIndexBuilder
   {
+    private boolean offheapFacts = false;
+
+    /**
+     * Whether rollup rows should be kept in an {@link OffheapRollupFactsHolder} instead of an on-heap sorted map.
+     * Has no effect on indexes without rollup.
+     */
+    public Builder setOffheapFacts(final boolean offheapFacts)
+    {
+      this.offheapFacts = offheapFacts;
+      return this;
+    }
+
     @Override
     protected OnheapIncrementalIndex buildInner()
     {
@@ -447,7 +489,8 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
           concurrentEventAdd,
           sortFacts,
           maxRowCount,
-          maxBytesInMemory
+          maxBytesInMemory,
+          offheapFacts
       );
     }
   }
@@ -483,4 +526,20 @@ public class OnheapIncrementalIndex extends IncrementalIndex<Aggregator>
       return Objects.hash(this.getClass());
     }
   }
+
+  /**
+   * Same as {@link Spec}, but keeps the time-and-dims keys of rollup rows off-heap in an
+   * {@link OffheapRollupFactsHolder}, which lowers the heap usage and the cost of adding a row. Aggregators are still
+   * on-heap.
+   */
+  public static class OffheapFactsSpec extends Spec
+  {
+    public static final String TYPE = "offheapFacts";
+
+    @Override
+    public AppendableIndexBuilder builder()
+    {
+      return new Builder().setOffheapFacts(true);
+    }
+  }
 }
@@ -39,9 +39,13 @@ import org.apache.druid.segment.data.ColumnarIntsSerializer;
 import org.apache.druid.segment.data.ColumnarMultiInts;
 import org.apache.druid.segment.data.CompressedVSizeColumnarIntsSupplier;
 import org.apache.druid.segment.data.CompressedVSizeColumnarMultiIntsSupplier;
+import org.apache.druid.segment.data.DictionaryWriter;
+import org.apache.druid.segment.data.FrontCodedIndexed;
+import org.apache.druid.segment.data.FrontCodedIndexedWriter;
 import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.data.GenericIndexedWriter;
 import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
+import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.V3CompressedVSizeColumnarMultiIntsSupplier;
 import org.apache.druid.segment.data.VSizeColumnarInts;
 import org.apache.druid.segment.data.VSizeColumnarMultiInts;
@@ -63,7 +67,8 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
   {
     MULTI_VALUE,
     MULTI_VALUE_V3,
-    NO_BITMAP_INDEX;
+    NO_BITMAP_INDEX,
+    FRONT_CODED_DICTIONARY;
 
     public boolean isSet(int flags)
     {
@@ -148,7 +153,7 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
     @Nullable
     private VERSION version = null;
     @Nullable
-    private GenericIndexedWriter<String> dictionaryWriter = null;
+    private DictionaryWriter<String> dictionaryWriter = null;
     @Nullable
     private ColumnarIntsSerializer valueWriter = null;
     @Nullable
@@ -160,8 +165,14 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
     @Nullable
     private ByteOrder byteOrder = null;
 
-    public SerializerBuilder withDictionary(GenericIndexedWriter<String> dictionaryWriter)
+    public SerializerBuilder withDictionary(DictionaryWriter<String> dictionaryWriter)
     {
+      if (dictionaryWriter instanceof FrontCodedIndexedWriter) {
+        flags |= Feature.FRONT_CODED_DICTIONARY.getMask();
+      } else {
+        flags &= ~Feature.FRONT_CODED_DICTIONARY.getMask();
+      }
+
       this.dictionaryWriter = dictionaryWriter;
       return this;
     }
@@ -303,11 +314,12 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
 
         final boolean hasMultipleValues = Feature.MULTI_VALUE.isSet(rFlags) || Feature.MULTI_VALUE_V3.isSet(rFlags);
 
-        final GenericIndexed<String> rDictionary = GenericIndexed.read(
-            buffer,
-            GenericIndexed.STRING_STRATEGY,
-            builder.getFileMapper()
-        );
+        final Indexed<String> rDictionary;
+        if (Feature.FRONT_CODED_DICTIONARY.isSet(rFlags)) {
+          rDictionary = FrontCodedIndexed.read(buffer);
+        } else {
+          rDictionary = GenericIndexed.read(buffer, GenericIndexed.STRING_STRATEGY, builder.getFileMapper());
+        }
         builder.setType(ValueType.STRING);
 
         final WritableSupplier<ColumnarInts> rSingleValuedColumn;
@@ -33,6 +33,10 @@ public class FilteredVectorOffset implements VectorOffset
   private final int[] offsets;
   private int currentVectorSize = 0;
   private boolean allTrue = false;
+  /**
+   * Number of rows on which {@link #filterMatcher} was evaluated, see {@link org.apache.druid.query.QueryCounters}
+   */
+  private long numScannedRows = 0;
 
   private FilteredVectorOffset(final VectorOffset baseOffset, final VectorValueMatcher filterMatcher)
   {
@@ -51,7 +55,7 @@ public class FilteredVectorOffset implements VectorOffset
     // This is not the same logic as the row-by-row FilteredOffset, which uses bitmaps whenever possible.
     // I am not convinced that approach is best in all cases (it's potentially too eager) and also have not implemented
     // it for vector matchers yet. So let's keep this method simple for now, and try to harmonize them in the future.
-    Preconditions.checkState(filter.canVectorizeMatcher(), "Cannot vectorize");
+    Preconditions.checkState(filter.canVectorizeMatcher(baseColumnSelectorFactory), "Cannot vectorize");
     final VectorValueMatcher filterMatcher = filter.makeVectorMatcher(baseColumnSelectorFactory);
     return new FilteredVectorOffset(baseOffset, filterMatcher);
   }
@@ -117,6 +121,11 @@ public class FilteredVectorOffset implements VectorOffset
     }
   }
 
+  public long getNumScannedRows()
+  {
+    return numScannedRows;
+  }
+
   private void advanceWhileVectorIsEmptyAndPopulateOffsets()
   {
     allTrue = false;
@@ -129,6 +138,7 @@ public class FilteredVectorOffset implements VectorOffset
         return;
       }
 
+      numScannedRows += baseOffset.getCurrentVectorSize();
       final ReadableVectorMatch match = filterMatcher.match(VectorMatch.allTrue(baseOffset.getCurrentVectorSize()));
 
       if (match.isAllTrue(baseOffset.getCurrentVectorSize())) {
@@ -137,6 +137,11 @@ public class ExpressionPlan
     return any(traits, flags);
   }
 
+  public boolean none(Trait... flags)
+  {
+    return none(traits, flags);
+  }
+
   @Nullable
   public ExprType getOutputType()
   {
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.virtual;
+
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprType;
+import org.apache.druid.segment.vector.VectorSizeInspector;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * {@link Expr.ObjectBinding} that supplies the values of a single row of the current vector of an
+ * {@link Expr.VectorInputBinding}. Used to evaluate expressions that cannot be vectorized against vectorized
+ * cursors, one row at a time. Values are supplied the same way {@link ExpressionSelectors} supplies them to
+ * non-vectorized selectors, so only expressions with single-valued inputs can be evaluated this way.
+ *
+ * @see ExpressionVectorSelectors#makeRowBinding
+ */
+public class ExpressionVectorRowBinding implements Expr.ObjectBinding, VectorSizeInspector
+{
+  private final Expr.VectorInputBinding vectorBinding;
+  private final Set<String> floatColumns;
+  private int row;
+
+  /**
+   * @param vectorBinding binding of the inputs of the expression
+   * @param floatColumns  inputs that are FLOAT columns, which the vector binding reads as doubles, but
+   *                      non-vectorized selectors supply as floats
+   */
+  ExpressionVectorRowBinding(Expr.VectorInputBinding vectorBinding, Set<String> floatColumns)
+  {
+    this.vectorBinding = vectorBinding;
+    this.floatColumns = floatColumns;
+  }
+
+  /**
+   * Sets the row of the current vector that subsequent calls to {@link #get} will read.
+   */
+  public void setRow(int row)
+  {
+    this.row = row;
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return vectorBinding.getMaxVectorSize();
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return vectorBinding.getCurrentVectorSize();
+  }
+
+  @Nullable
+  @Override
+  public Object get(String name)
+  {
+    final ExprType type = vectorBinding.getType(name);
+
+    if (type == null) {
+      // Nonexistent column.
+      return null;
+    }
+
+    switch (type) {
+      case LONG:
+        return isNull(name) ? null : vectorBinding.getLongVector(name)[row];
+      case DOUBLE:
+        if (isNull(name)) {
+          return null;
+        } else if (floatColumns.contains(name)) {
+          return (float) vectorBinding.getDoubleVector(name)[row];
+        } else {
+          return vectorBinding.getDoubleVector(name)[row];
+        }
+      default:
+        final Object value = vectorBinding.getObjectVector(name)[row];
+        // Same as ExpressionSelectors#supplierFromObjectSelector, anything other than strings and numbers is null.
+        return value instanceof String || value instanceof Number ? value : null;
+    }
+  }
+
+  private boolean isNull(String name)
+  {
+    final boolean[] nulls = vectorBinding.getNullVector(name);
+    return nulls != null && nulls[row];
+  }
+}
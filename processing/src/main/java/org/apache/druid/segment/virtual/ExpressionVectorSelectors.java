@@ -32,7 +32,9 @@ import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 import org.apache.druid.segment.vector.VectorObjectSelector;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class ExpressionVectorSelectors
 {
@@ -96,6 +98,42 @@ public class ExpressionVectorSelectors
     return new ExpressionVectorObjectSelector(processor, bindings);
   }
 
+  /**
+   * Creates a binding for evaluating an expression that cannot be vectorized one row at a time, against the current
+   * vector of the given factory. The expression must not have multi-valued inputs.
+   */
+  public static ExpressionVectorRowBinding makeRowBinding(
+      VectorColumnSelectorFactory factory,
+      Expr expression
+  )
+  {
+    final ExpressionPlan plan = ExpressionPlanner.plan(factory, expression);
+    Preconditions.checkArgument(canBindByRow(plan), "Cannot bind multi-valued inputs by row");
+
+    final Set<String> floatColumns = new HashSet<>();
+    for (String columnName : plan.getAnalysis().getRequiredBindings()) {
+      final ColumnCapabilities columnCapabilities = factory.getColumnCapabilities(columnName);
+      if (columnCapabilities != null && columnCapabilities.getType() == ValueType.FLOAT) {
+        floatColumns.add(columnName);
+      }
+    }
+
+    return new ExpressionVectorRowBinding(createVectorBindings(plan.getAnalysis(), factory), floatColumns);
+  }
+
+  /**
+   * Returns true if {@link #makeRowBinding} can be used for the planned expression, that is, if none of its inputs
+   * are, or might be, multi-valued.
+   */
+  public static boolean canBindByRow(ExpressionPlan plan)
+  {
+    return plan.none(
+        ExpressionPlan.Trait.INCOMPLETE_INPUTS,
+        ExpressionPlan.Trait.NEEDS_APPLIED,
+        ExpressionPlan.Trait.NON_SCALAR_INPUTS
+    );
+  }
+
   private static Expr.VectorInputBinding createVectorBindings(
       Expr.BindingAnalysis bindingAnalysis,
       VectorColumnSelectorFactory vectorColumnSelectorFactory
@@ -35,6 +35,14 @@ public final class OffHeapMemorySegmentWriteOutMedium implements SegmentWriteOut
     return writeOutBytes;
   }
 
+  @Override
+  public SegmentWriteOutMedium makeChildWriteOutMedium()
+  {
+    OffHeapMemorySegmentWriteOutMedium child = new OffHeapMemorySegmentWriteOutMedium();
+    closer.register(child);
+    return child;
+  }
+
   @Override
   public Closer getCloser()
   {
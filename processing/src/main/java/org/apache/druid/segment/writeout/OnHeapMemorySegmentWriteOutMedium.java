@@ -35,6 +35,14 @@ public final class OnHeapMemorySegmentWriteOutMedium implements SegmentWriteOutM
     return new HeapByteBufferWriteOutBytes();
   }
 
+  @Override
+  public SegmentWriteOutMedium makeChildWriteOutMedium()
+  {
+    OnHeapMemorySegmentWriteOutMedium child = new OnHeapMemorySegmentWriteOutMedium();
+    closer.register(child);
+    return child;
+  }
+
   @Override
   public Closer getCloser()
   {
@@ -39,6 +39,12 @@ public interface SegmentWriteOutMedium extends Closeable
    */
   WriteOutBytes makeWriteOutBytes() throws IOException;
 
+  /**
+   * Creates a new SegmentWriteOutMedium of the same kind, which is closed when this SegmentWriteOutMedium is closed.
+   * Different children may be used concurrently from different threads, unlike a single SegmentWriteOutMedium.
+   */
+  SegmentWriteOutMedium makeChildWriteOutMedium() throws IOException;
+
   /**
    * Returns a closer of this SegmentWriteOutMedium, which is closed in this SegmentWriteOutMedium's close() method.
    * Could be used to "attach" some random resources to this SegmentWriteOutMedium, to be closed at the same time.
@@ -54,6 +54,14 @@ public final class TmpFileSegmentWriteOutMedium implements SegmentWriteOutMedium
     return new FileWriteOutBytes(file, ch);
   }
 
+  @Override
+  public SegmentWriteOutMedium makeChildWriteOutMedium() throws IOException
+  {
+    TmpFileSegmentWriteOutMedium child = new TmpFileSegmentWriteOutMedium(dir);
+    closer.register(child);
+    return child;
+  }
+
   @Override
   public Closer getCloser()
   {
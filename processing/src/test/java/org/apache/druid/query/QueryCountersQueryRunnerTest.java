@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.emitter.core.Event;
+import org.apache.druid.java.util.metrics.StubServiceEmitter;
+import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.timeseries.TimeseriesQueryQueryToolChest;
+import org.apache.druid.query.timeseries.TimeseriesResultValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class QueryCountersQueryRunnerTest
+{
+  private static final List<Result<TimeseriesResultValue>> RESULTS = Collections.singletonList(
+      new Result<>(DateTimes.of("2000-01-01"), new TimeseriesResultValue(ImmutableMap.of("x", "y")))
+  );
+
+  @Test
+  public void testSum()
+  {
+    final QueryCounters counters1 = new QueryCounters();
+    counters1.addRows(10, 5);
+    counters1.addFilters(1, 0);
+    final QueryCounters counters2 = new QueryCounters();
+    counters2.addRows(3, 1);
+    counters2.addBytesDecompressed(100);
+    counters2.addMergeBufferBytes(1000);
+
+    final QueryCounters sum = QueryCounters.sum(counters1, counters2);
+    Assert.assertEquals(13, sum.getRowsScanned());
+    Assert.assertEquals(6, sum.getRowsMatched());
+    Assert.assertEquals(1, sum.getBitmapFilters());
+    Assert.assertEquals(0, sum.getMatcherFilters());
+    Assert.assertEquals(100, sum.getBytesDecompressed());
+    Assert.assertEquals(1000, sum.getMergeBufferBytes());
+    Assert.assertEquals(10, counters1.getRowsScanned());
+    Assert.assertTrue(new QueryCounters().isEmpty());
+    Assert.assertFalse(sum.isEmpty());
+  }
+
+  @Test
+  public void testCountersOfSegmentsAreReported()
+  {
+    final StubServiceEmitter emitter = new StubServiceEmitter("s", "h");
+
+    // Counts while running and while the sequence is consumed, like cursors do.
+    final QueryRunner<Result<TimeseriesResultValue>> segmentRunner = (queryPlus, responseContext) -> {
+      QueryCounters.current().addFilters(1, 1);
+      return Sequences.map(
+          Sequences.simple(RESULTS),
+          result -> {
+            QueryCounters.current().addRows(10, 4);
+            return result;
+          }
+      );
+    };
+
+    final QueryRunner<Result<TimeseriesResultValue>> runner = QueryCountersQueryRunner.forQuery(
+        (queryPlus, responseContext) -> Sequences.concat(
+            QueryCountersQueryRunner.forSegment(segmentRunner).run(queryPlus, responseContext),
+            QueryCountersQueryRunner.forSegment(segmentRunner).run(queryPlus, responseContext)
+        ),
+        new TimeseriesQueryQueryToolChest(),
+        emitter
+    );
+
+    final ResponseContext responseContext = ResponseContext.createEmpty();
+    final Sequence<Result<TimeseriesResultValue>> results = runner.run(
+        QueryPlus.wrap(
+            Druids.newTimeseriesQueryBuilder()
+                  .dataSource("foo")
+                  .intervals("2000/2001")
+                  .build()
+        ),
+        responseContext
+    );
+
+    Assert.assertEquals(2, results.toList().size());
+    Assert.assertNull(QueryCounters.current());
+
+    final QueryCounters counters = (QueryCounters) responseContext.get(ResponseContext.Key.QUERY_COUNTERS);
+    Assert.assertEquals(20, counters.getRowsScanned());
+    Assert.assertEquals(8, counters.getRowsMatched());
+
+    final Map<String, Object> metrics = new HashMap<>();
+    for (Event event : emitter.getEvents()) {
+      metrics.put((String) event.toMap().get("metric"), event.toMap().get("value"));
+    }
+    Assert.assertEquals(
+        ImmutableMap.of(
+            "query/rows/scanned", 20L,
+            "query/rows/matched", 8L,
+            "query/filters/bitmap", 2L,
+            "query/filters/matcher", 2L
+        ),
+        metrics
+    );
+  }
+
+  @Test
+  public void testNothingReportedWithoutCounters()
+  {
+    final StubServiceEmitter emitter = new StubServiceEmitter("s", "h");
+    final QueryRunner<Result<TimeseriesResultValue>> runner = QueryCountersQueryRunner.forQuery(
+        QueryCountersQueryRunner.forSegment((queryPlus, responseContext) -> Sequences.simple(RESULTS)),
+        new TimeseriesQueryQueryToolChest(),
+        emitter
+    );
+
+    final ResponseContext responseContext = ResponseContext.createEmpty();
+    Assert.assertEquals(
+        RESULTS,
+        runner.run(
+            QueryPlus.wrap(Druids.newTimeseriesQueryBuilder().dataSource("foo").intervals("2000/2001").build()),
+            responseContext
+        ).toList()
+    );
+    Assert.assertNull(responseContext.get(ResponseContext.Key.QUERY_COUNTERS));
+    Assert.assertEquals(0, emitter.getEvents().size());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.druid.query.aggregation.first;
+
+import org.apache.druid.collections.SerializablePair;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LongFirstVectorAggregatorTest extends InitializedNullHandlingTest
+{
+  private static final long[] TIMES = new long[]{3L, 1L, 5L, 2L, 4L};
+  private static final long[] VALUES = new long[]{7L, 11L, -892587293L, 60L, 123L};
+  private static final boolean[] NULLS = new boolean[]{false, false, false, true, false};
+
+  private ByteBuffer buf;
+  @Mock
+  private VectorValueSelector timeSelector;
+  @Mock
+  private VectorValueSelector valueSelector;
+
+  private LongFirstVectorAggregator target;
+
+  @Before
+  public void setUp()
+  {
+    buf = ByteBuffer.allocate(128);
+    Mockito.doReturn(TIMES).when(timeSelector).getLongVector();
+    target = new LongFirstVectorAggregator(timeSelector, valueSelector);
+  }
+
+  @Test
+  public void aggregateRangeShouldKeepEarliestRow()
+  {
+    Mockito.doReturn(VALUES).when(valueSelector).getLongVector();
+    target.init(buf, 0);
+    Assert.assertEquals(Long.MAX_VALUE, buf.getLong(0));
+    target.aggregate(buf, 0, 0, TIMES.length);
+    Assert.assertEquals(new SerializablePair<>(1L, 11L), target.get(buf, 0));
+  }
+
+  @Test
+  public void aggregateRangeShouldNotReplaceEarlierValue()
+  {
+    Mockito.doReturn(VALUES).when(valueSelector).getLongVector();
+    target.init(buf, 0);
+    target.aggregate(buf, 0, 0, 2);
+    target.aggregate(buf, 0, 2, TIMES.length);
+    Assert.assertEquals(new SerializablePair<>(1L, 11L), target.get(buf, 0));
+  }
+
+  @Test
+  public void aggregateRangeWithNullShouldRespectNullHandling()
+  {
+    Mockito.doReturn(NULLS).when(valueSelector).getNullVector();
+    if (NullHandling.replaceWithDefault()) {
+      Mockito.doReturn(VALUES).when(valueSelector).getLongVector();
+    }
+    target.init(buf, 0);
+    target.aggregate(buf, 0, 2, TIMES.length);
+    final SerializablePair<Long, Long> result = (SerializablePair<Long, Long>) target.get(buf, 0);
+    Assert.assertEquals(2L, (long) result.lhs);
+    Assert.assertEquals(NullHandling.replaceWithDefault() ? (Long) VALUES[3] : null, result.rhs);
+  }
+
+  @Test
+  public void aggregatePositionsShouldKeepEarliestRowPerPosition()
+  {
+    final int[] positions = new int[]{0, 32, 0, 32};
+    final int[] rows = new int[]{0, 2, 1, 4};
+    Mockito.doReturn(VALUES).when(valueSelector).getLongVector();
+    target.init(buf, 0);
+    target.init(buf, 32);
+    target.aggregate(buf, positions.length, positions, rows, 0);
+    Assert.assertEquals(new SerializablePair<>(1L, 11L), target.get(buf, 0));
+    Assert.assertEquals(new SerializablePair<>(4L, 123L), target.get(buf, 32));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.druid.query.aggregation.first;
+
+import org.apache.druid.query.aggregation.SerializablePairLongString;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StringFirstVectorAggregatorTest extends InitializedNullHandlingTest
+{
+  private static final int MAX_STRING_BYTES = 32;
+  private static final long[] TIMES = new long[]{3L, 1L, 5L, 2L, 4L};
+  private static final Object[] VALUES = new Object[]{"a", "b", "c", 2L, null};
+  private static final Object[] PAIRS = new Object[]{
+      new SerializablePairLongString(3L, "a"),
+      new SerializablePairLongString(0L, "x"),
+      null,
+      new SerializablePairLongString(9L, "y"),
+      "z"
+  };
+
+  private ByteBuffer buf;
+  @Mock
+  private VectorValueSelector timeSelector;
+  @Mock
+  private VectorObjectSelector valueSelector;
+
+  @Before
+  public void setUp()
+  {
+    buf = ByteBuffer.allocate(256);
+    Mockito.doReturn(TIMES).when(timeSelector).getLongVector();
+  }
+
+  @Test
+  public void aggregateRangeShouldKeepFirstRow()
+  {
+    Mockito.doReturn(VALUES).when(valueSelector).getObjectVector();
+    final StringFirstVectorAggregator target = makeAggregator(false);
+    target.init(buf, 0);
+    target.aggregate(buf, 0, 0, TIMES.length);
+    Assert.assertEquals(new SerializablePairLongString(1L, "b"), target.get(buf, 0));
+  }
+
+  @Test
+  public void aggregateRangeShouldFoldPairs()
+  {
+    Mockito.doReturn(PAIRS).when(valueSelector).getObjectVector();
+    final StringFirstVectorAggregator target = makeAggregator(true);
+    target.init(buf, 0);
+    target.aggregate(buf, 0, 0, TIMES.length);
+    Assert.assertEquals(new SerializablePairLongString(0L, "x"), target.get(buf, 0));
+  }
+
+  @Test
+  public void aggregatePositionsShouldKeepFirstRowPerPosition()
+  {
+    final int[] positions = new int[]{0, 128, 0, 128};
+    final int[] rows = new int[]{0, 2, 1, 4};
+    Mockito.doReturn(VALUES).when(valueSelector).getObjectVector();
+    final StringFirstVectorAggregator target = makeAggregator(false);
+    target.init(buf, 0);
+    target.init(buf, 128);
+    target.aggregate(buf, positions.length, positions, rows, 0);
+    Assert.assertEquals(new SerializablePairLongString(1L, "b"), target.get(buf, 0));
+    Assert.assertEquals(new SerializablePairLongString(4L, null), target.get(buf, 128));
+  }
+
+  private StringFirstVectorAggregator makeAggregator(boolean needsFoldCheck)
+  {
+    return new StringFirstVectorAggregator(timeSelector, valueSelector, MAX_STRING_BYTES, needsFoldCheck);
+  }
+}
@@ -923,6 +923,151 @@ public class ScanQueryRunnerTest extends InitializedNullHandlingTest
     }
   }
 
+  @Test
+  public void testVectorizedMatchesNonVectorized()
+  {
+    for (ScanQuery.ResultFormat resultFormat : ImmutableList.of(
+        ScanQuery.ResultFormat.RESULT_FORMAT_LIST,
+        ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST
+    )) {
+      // Batch size and vector size are chosen so that batches and vectors straddle each other.
+      assertVectorizedMatchesNonVectorized(
+          newTestQuery()
+              .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+              .filters(new SelectorDimFilter(QueryRunnerTestHelper.MARKET_DIMENSION, "spot", null))
+              .resultFormat(resultFormat)
+              .batchSize(7)
+              .limit(100)
+      );
+    }
+  }
+
+  @Test
+  public void testVectorizedMatchesNonVectorizedWithoutFilter()
+  {
+    assertVectorizedMatchesNonVectorized(
+        newTestQuery()
+            .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+            .batchSize(11)
+            .limit(1500)
+    );
+  }
+
+  @Test
+  public void testVectorizedMatchesNonVectorizedWithMultiValueAndComplexColumns()
+  {
+    assertVectorizedMatchesNonVectorized(
+        newTestQuery()
+            .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+            .columns(
+                QueryRunnerTestHelper.PLACEMENTISH_DIMENSION,
+                "quality_uniques",
+                QueryRunnerTestHelper.PARTIAL_NULL_DIMENSION,
+                "nonexistent"
+            )
+            .batchSize(7)
+            .limit(100)
+    );
+  }
+
+  @Test
+  public void testVectorizedMatchesNonVectorizedWithLimitAndOffset()
+  {
+    for (int offset : new int[]{0, 1, 6, 13}) {
+      for (int limit : new int[]{1, 5, 12, 40}) {
+        assertVectorizedMatchesNonVectorized(
+            newTestQuery()
+                .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+                .filters(new SelectorDimFilter(QueryRunnerTestHelper.MARKET_DIMENSION, "spot", null))
+                .columns(QueryRunnerTestHelper.QUALITY_DIMENSION, QueryRunnerTestHelper.INDEX_METRIC)
+                .batchSize(4)
+                .offset(offset)
+                .limit(limit)
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testDescendingScanFallsBackUnderVectorizeTrue()
+  {
+    final Druids.ScanQueryBuilder builder = newTestQuery()
+        .intervals(I_0112_0114)
+        .columns(
+            QueryRunnerTestHelper.TIME_DIMENSION,
+            QueryRunnerTestHelper.QUALITY_DIMENSION,
+            QueryRunnerTestHelper.INDEX_METRIC
+        )
+        .order(ScanQuery.Order.DESCENDING)
+        .limit(20);
+
+    final List<ScanResultValue> nonVectorized = runner.run(
+        QueryPlus.wrap(builder.context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "false")).build())
+    ).toList();
+
+    final List<ScanResultValue> vectorized = runner.run(
+        QueryPlus.wrap(builder.context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "true")).build())
+    ).toList();
+
+    Assert.assertEquals(nonVectorized, vectorized);
+  }
+
+  @Test
+  public void testDescendingScanFailsUnderVectorizeForce()
+  {
+    final ScanQuery query = newTestQuery()
+        .intervals(I_0112_0114)
+        .columns(QueryRunnerTestHelper.TIME_DIMENSION, QueryRunnerTestHelper.QUALITY_DIMENSION)
+        .order(ScanQuery.Order.DESCENDING)
+        .context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "force"))
+        .build();
+
+    assertCannotVectorize(query);
+  }
+
+  /**
+   * Runs the query with vectorization disabled, enabled and forced, and checks that all three agree. Forcing
+   * vectorization must fail on segments that cannot be vectorized, like it does for timeseries and groupBy.
+   */
+  private void assertVectorizedMatchesNonVectorized(final Druids.ScanQueryBuilder builder)
+  {
+    final List<ScanResultValue> nonVectorized = runner.run(
+        QueryPlus.wrap(builder.context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "false")).build())
+    ).toList();
+
+    final List<ScanResultValue> vectorized = runner.run(
+        QueryPlus.wrap(
+            builder.context(
+                ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "true", QueryContexts.VECTOR_SIZE_KEY, 5)
+            ).build()
+        )
+    ).toList();
+
+    final String message = builder.build().toString();
+    Assert.assertEquals(message, nonVectorized, vectorized);
+
+    final ScanQuery forced = builder.context(
+        ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "force", QueryContexts.VECTOR_SIZE_KEY, 5)
+    ).build();
+
+    if (QueryRunnerTestHelper.isTestRunnerVectorizable(runner)) {
+      Assert.assertEquals(message, nonVectorized, runner.run(QueryPlus.wrap(forced)).toList());
+    } else {
+      assertCannotVectorize(forced);
+    }
+  }
+
+  private void assertCannotVectorize(final ScanQuery query)
+  {
+    try {
+      runner.run(QueryPlus.wrap(query)).toList();
+      Assert.fail("Expected query to fail: " + query);
+    }
+    catch (RuntimeException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("Cannot vectorize!"));
+    }
+  }
+
   private List<List<Map<String, Object>>> toFullEvents(final String[]... valueSet)
   {
     return toEvents(
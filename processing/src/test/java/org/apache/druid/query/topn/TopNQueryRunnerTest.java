@@ -42,6 +42,7 @@ import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.query.BySegmentResultValue;
 import org.apache.druid.query.BySegmentResultValueClass;
 import org.apache.druid.query.FinalizeResultsQueryRunner;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerTestHelper;
@@ -304,6 +305,91 @@ public class TopNQueryRunnerTest extends InitializedNullHandlingTest
     assertExpectedResults(expectedResults, query);
   }
 
+  @Test
+  public void testVectorizedMatchesNonVectorized()
+  {
+    final TopNQueryBuilder builder = new TopNQueryBuilder()
+        .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .granularity(QueryRunnerTestHelper.ALL_GRAN)
+        .dimension(QueryRunnerTestHelper.QUALITY_DIMENSION)
+        .metric(QueryRunnerTestHelper.INDEX_METRIC)
+        .threshold(4)
+        .filters(QueryRunnerTestHelper.MARKET_DIMENSION, "spot", "upfront")
+        .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .aggregators(
+            Lists.newArrayList(
+                Iterables.concat(
+                    commonAggregators,
+                    Lists.newArrayList(
+                        new DoubleMaxAggregatorFactory("maxIndex", "index"),
+                        new DoubleMinAggregatorFactory("minIndex", "index")
+                    )
+                )
+            )
+        )
+        .postAggregators(QueryRunnerTestHelper.ADD_ROWS_INDEX_CONSTANT);
+
+    final List<Result<TopNResultValue>> nonVectorized =
+        runWithMerge(builder.context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "false")).build()).toList();
+
+    final List<Result<TopNResultValue>> vectorized = runWithMerge(
+        builder.context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "true", QueryContexts.VECTOR_SIZE_KEY, 7))
+               .build()
+    ).toList();
+
+    Assert.assertEquals(4, Iterables.getOnlyElement(nonVectorized).getValue().getValue().size());
+    TestHelper.assertExpectedResults(nonVectorized, vectorized);
+
+    final TopNQuery forced =
+        builder.context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "force", QueryContexts.VECTOR_SIZE_KEY, 7))
+               .build();
+
+    if (!QueryRunnerTestHelper.isTestRunnerVectorizable(runner)) {
+      expectedException.expect(RuntimeException.class);
+      expectedException.expectMessage("Cannot vectorize!");
+    }
+
+    TestHelper.assertExpectedResults(nonVectorized, runWithMerge(forced).toList());
+  }
+
+  @Test
+  public void testVectorizeForceFailsWithDayGranularity()
+  {
+    final TopNQuery query = new TopNQueryBuilder()
+        .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .granularity(QueryRunnerTestHelper.DAY_GRAN)
+        .dimension(QueryRunnerTestHelper.QUALITY_DIMENSION)
+        .metric(QueryRunnerTestHelper.INDEX_METRIC)
+        .threshold(4)
+        .intervals(QueryRunnerTestHelper.FIRST_TO_THIRD)
+        .aggregators(commonAggregators)
+        .context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "force"))
+        .build();
+
+    expectedException.expect(RuntimeException.class);
+    expectedException.expectMessage("Cannot vectorize!");
+    runWithMerge(query).toList();
+  }
+
+  @Test
+  public void testVectorizeForceFailsOnMultiValueDimension()
+  {
+    final TopNQuery query = new TopNQueryBuilder()
+        .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .granularity(QueryRunnerTestHelper.ALL_GRAN)
+        .dimension(QueryRunnerTestHelper.PLACEMENTISH_DIMENSION)
+        .metric(QueryRunnerTestHelper.INDEX_METRIC)
+        .threshold(4)
+        .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .aggregators(commonAggregators)
+        .context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "force"))
+        .build();
+
+    expectedException.expect(RuntimeException.class);
+    expectedException.expectMessage("Cannot vectorize!");
+    runWithMerge(query).toList();
+  }
+
   @Test
   public void testFullOnTopN()
   {
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.incremental.IndexSizeExceededException;
+import org.apache.druid.segment.incremental.OnheapIncrementalIndex;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
+import org.apache.druid.segment.writeout.SegmentWriteOutMediumFactory;
+import org.apache.druid.segment.writeout.TmpFileSegmentWriteOutMediumFactory;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(Parameterized.class)
+public class IndexMergerV9ColumnMergeThreadsTest extends InitializedNullHandlingTest
+{
+  private static final int NUM_DIMS = 30;
+  private static final AggregatorFactory[] METRICS = new AggregatorFactory[]{new CountAggregatorFactory("count")};
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<?> constructorFeeder()
+  {
+    return ImmutableList.of(
+        new Object[]{TmpFileSegmentWriteOutMediumFactory.instance()},
+        new Object[]{OffHeapMemorySegmentWriteOutMediumFactory.instance()}
+    );
+  }
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final IndexIO indexIO = TestHelper.getTestIndexIO();
+  private final IndexMergerV9 merger;
+
+  public IndexMergerV9ColumnMergeThreadsTest(SegmentWriteOutMediumFactory segmentWriteOutMediumFactory)
+  {
+    this.merger = new IndexMergerV9(TestHelper.makeJsonMapper(), indexIO, segmentWriteOutMediumFactory);
+  }
+
+  @Test
+  public void testSameSegmentAsSingleThread() throws Exception
+  {
+    final List<QueryableIndex> indexes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final IncrementalIndex<?> index = makeIncrementalIndex(new Random(i));
+      indexes.add(indexIO.loadIndex(merger.persist(index, temporaryFolder.newFolder(), new IndexSpec(), null)));
+      index.close();
+    }
+
+    for (boolean rollup : new boolean[]{false, true}) {
+      final CountingProgressIndicator serialProgress = new CountingProgressIndicator();
+      final File serialDir = merger.mergeQueryableIndex(
+          indexes,
+          rollup,
+          METRICS,
+          temporaryFolder.newFolder(),
+          makeIndexSpec(1),
+          serialProgress,
+          null
+      );
+
+      final CountingProgressIndicator concurrentProgress = new CountingProgressIndicator();
+      final File concurrentDir = merger.mergeQueryableIndex(
+          indexes,
+          rollup,
+          METRICS,
+          temporaryFolder.newFolder(),
+          makeIndexSpec(4),
+          concurrentProgress,
+          null
+      );
+
+      assertSameFiles(serialDir, concurrentDir);
+      Assert.assertEquals(serialProgress.count.get(), concurrentProgress.count.get());
+    }
+
+    for (QueryableIndex index : indexes) {
+      index.close();
+    }
+  }
+
+  @Test
+  public void testPersist() throws Exception
+  {
+    final IncrementalIndex<?> index = makeIncrementalIndex(new Random(42));
+    final File serialDir = merger.persist(index, temporaryFolder.newFolder(), makeIndexSpec(1), null);
+    final File concurrentDir = merger.persist(index, temporaryFolder.newFolder(), makeIndexSpec(3), null);
+    index.close();
+
+    assertSameFiles(serialDir, concurrentDir);
+    try (QueryableIndex queryableIndex = indexIO.loadIndex(concurrentDir)) {
+      Assert.assertEquals(NUM_DIMS, queryableIndex.getAvailableDimensions().size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidNumThreads()
+  {
+    makeIndexSpec(0);
+  }
+
+  private static IndexSpec makeIndexSpec(int numColumnMergeThreads)
+  {
+    return new IndexSpec(null, null, null, null, null, null, null, null, numColumnMergeThreads);
+  }
+
+  private static IncrementalIndex<?> makeIncrementalIndex(Random random) throws IndexSizeExceededException
+  {
+    final List<String> dims = new ArrayList<>();
+    for (int i = 0; i < NUM_DIMS; i++) {
+      dims.add("d" + i);
+    }
+
+    final IncrementalIndex<?> index = new OnheapIncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(METRICS)
+        .setMaxRowCount(10_000)
+        .build();
+    for (int row = 0; row < 1_000; row++) {
+      final Map<String, Object> event = new HashMap<>();
+      for (int i = 0; i < NUM_DIMS; i++) {
+        if (random.nextInt(10) == 0) {
+          continue;
+        }
+        if (i % 5 == 0) {
+          event.put(dims.get(i), Arrays.asList("a" + random.nextInt(10), "b" + random.nextInt(10)));
+        } else {
+          event.put(dims.get(i), "v" + random.nextInt(i * 20 + 1));
+        }
+      }
+      index.add(new MapBasedInputRow(1_000_000L + random.nextInt(100), dims, event));
+    }
+    return index;
+  }
+
+  private static void assertSameFiles(File expectedDir, File actualDir) throws IOException
+  {
+    final String[] expectedFiles = expectedDir.list();
+    final String[] actualFiles = actualDir.list();
+    Assert.assertNotNull(expectedFiles);
+    Assert.assertNotNull(actualFiles);
+    Arrays.sort(expectedFiles);
+    Arrays.sort(actualFiles);
+    Assert.assertArrayEquals(expectedFiles, actualFiles);
+
+    for (String file : expectedFiles) {
+      Assert.assertArrayEquals(
+          file,
+          Files.readAllBytes(new File(expectedDir, file).toPath()),
+          Files.readAllBytes(new File(actualDir, file).toPath())
+      );
+    }
+  }
+
+  private static class CountingProgressIndicator extends BaseProgressIndicator
+  {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public void progress()
+    {
+      count.incrementAndGet();
+    }
+  }
+}
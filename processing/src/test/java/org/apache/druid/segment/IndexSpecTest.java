@@ -22,6 +22,7 @@ package org.apache.druid.segment;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.segment.column.StringEncodingStrategy;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionFactory.LongEncodingStrategy;
@@ -48,7 +49,20 @@ public class IndexSpecTest
     Assert.assertEquals(CompressionStrategy.LZF, spec.getMetricCompression());
     Assert.assertEquals(CompressionFactory.LongEncodingStrategy.AUTO, spec.getLongEncoding());
 
-    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+    Assert.assertEquals(
+        Integer.valueOf(4),
+        objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class).getNumColumnMergeThreads()
+    );
+  }
+
+  @Test
+  public void testNumColumnMergeThreadsNotPartOfSegmentFormat()
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final IndexSpec spec = new IndexSpec(null, null, null, null, null, null, null, null, 4);
+    Assert.assertEquals(new IndexSpec(), spec);
+    Assert.assertEquals(new IndexSpec().hashCode(), spec.hashCode());
+    Assert.assertEquals(new IndexSpec().asMap(objectMapper), spec.asMap(objectMapper));
   }
 
   @Test
@@ -63,6 +77,49 @@ public class IndexSpecTest
     Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
   }
 
+  @Test
+  public void testSerdeStringDictionaryEncoding() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"stringDictionaryEncoding\" : { \"type\" : \"frontCoded\", \"bucketSize\" : 16 }"
+                        + ", \"dimensionStringDictionaryEncoding\" : { \"dim\" : { \"type\" : \"utf8\" } } }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+    Assert.assertEquals(new StringEncodingStrategy.FrontCoded(16), spec.getStringDictionaryEncoding());
+    Assert.assertEquals(new StringEncodingStrategy.FrontCoded(16), spec.getStringDictionaryEncoding("other"));
+    Assert.assertEquals(StringEncodingStrategy.DEFAULT, spec.getStringDictionaryEncoding("dim"));
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeZstdCompressionLevel() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"dimensionCompression\" : \"zstd\", \"zstdCompressionLevel\" : 9 }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+    Assert.assertEquals(CompressionStrategy.ZSTD, spec.getDimensionCompression());
+    Assert.assertEquals(Integer.valueOf(9), spec.getZstdCompressionLevel());
+    Assert.assertEquals(9, spec.getEffectiveZstdCompressionLevel());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidZstdCompressionLevel()
+  {
+    new IndexSpec(null, CompressionStrategy.ZSTD, null, null, null, null, null, 23, null);
+  }
+
+  @Test
+  public void testSerdeNumColumnMergeThreads() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final IndexSpec spec = objectMapper.readValue("{ \"numColumnMergeThreads\" : 4 }", IndexSpec.class);
+    Assert.assertEquals(Integer.valueOf(4), spec.getNumColumnMergeThreads());
+    Assert.assertEquals(4, spec.getEffectiveNumColumnMergeThreads());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
   @Test
   public void testDefaults()
   {
@@ -70,6 +127,10 @@ public class IndexSpecTest
     Assert.assertEquals(CompressionStrategy.LZ4, spec.getDimensionCompression());
     Assert.assertEquals(CompressionStrategy.LZ4, spec.getMetricCompression());
     Assert.assertEquals(CompressionFactory.LongEncodingStrategy.LONGS, spec.getLongEncoding());
+    Assert.assertEquals(StringEncodingStrategy.DEFAULT, spec.getStringDictionaryEncoding("dim"));
+    Assert.assertNull(spec.getZstdCompressionLevel());
+    Assert.assertEquals(CompressionStrategy.ZstdCompressor.DEFAULT_LEVEL, spec.getEffectiveZstdCompressionLevel());
+    Assert.assertEquals(1, spec.getEffectiveNumColumnMergeThreads());
   }
 
   @Test
@@ -94,6 +155,10 @@ public class IndexSpecTest
         spec.getLongEncoding(),
         objectMapper.convertValue(map.get("longEncoding"), LongEncodingStrategy.class)
     );
+    Assert.assertFalse(map.containsKey("stringDictionaryEncoding"));
+    Assert.assertFalse(map.containsKey("dimensionStringDictionaryEncoding"));
+    Assert.assertFalse(map.containsKey("zstdCompressionLevel"));
+    Assert.assertFalse(map.containsKey("numColumnMergeThreads"));
   }
 
   @Test
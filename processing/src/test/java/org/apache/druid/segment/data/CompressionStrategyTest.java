@@ -119,6 +119,36 @@ public class CompressionStrategyTest
     Assert.assertArrayEquals("Uncompressed data does not match", originalData, checkArray);
   }
 
+  @Test
+  public void testDirectMemoryInputAndOutput()
+  {
+    ByteBuffer compressionOut = compressionStrategy.getCompressor().allocateOutBuffer(originalData.length, closer);
+    ByteBuffer compressed = compressionStrategy.getCompressor().compress(ByteBuffer.wrap(originalData), compressionOut);
+    ByteBuffer directCompressed = ByteBuffer.allocateDirect(compressed.remaining());
+    directCompressed.put(compressed.duplicate()).flip();
+    ByteBuffer output = ByteBuffer.allocateDirect(originalData.length);
+    compressionStrategy.getDecompressor().decompress(directCompressed, directCompressed.remaining(), output);
+    byte[] checkArray = new byte[DATA_SIZER];
+    output.get(checkArray);
+    Assert.assertArrayEquals("Uncompressed data does not match", originalData, checkArray);
+  }
+
+  @Test
+  public void testCompressionLevels()
+  {
+    final int[] levels = {CompressionStrategy.ZstdCompressor.MIN_LEVEL, CompressionStrategy.ZstdCompressor.MAX_LEVEL};
+    for (int level : levels) {
+      CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor(level);
+      ByteBuffer compressionOut = compressor.allocateOutBuffer(originalData.length, closer);
+      ByteBuffer compressed = compressor.compress(ByteBuffer.wrap(originalData), compressionOut);
+      ByteBuffer output = ByteBuffer.allocate(originalData.length);
+      compressionStrategy.getDecompressor().decompress(compressed, compressed.remaining(), output);
+      byte[] checkArray = new byte[DATA_SIZER];
+      output.get(checkArray);
+      Assert.assertArrayEquals("Uncompressed data does not match at level " + level, originalData, checkArray);
+    }
+  }
+
   @Test(timeout = 60_000L)
   public void testConcurrency() throws Exception
   {
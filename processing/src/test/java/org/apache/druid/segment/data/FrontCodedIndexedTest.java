@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+@RunWith(Parameterized.class)
+public class FrontCodedIndexedTest extends InitializedNullHandlingTest
+{
+  @Parameterized.Parameters(name = "bucketSize={0}")
+  public static Collection<Object[]> constructorFeeder()
+  {
+    return Arrays.asList(new Object[]{1}, new Object[]{4}, new Object[]{16}, new Object[]{128});
+  }
+
+  private final int bucketSize;
+
+  public FrontCodedIndexedTest(int bucketSize)
+  {
+    this.bucketSize = bucketSize;
+  }
+
+  @Test
+  public void testGetAndIndexOf() throws IOException
+  {
+    final List<String> values = new ArrayList<>();
+    values.add(null);
+    values.addAll(makeSortedValues(1000));
+
+    final FrontCodedIndexed indexed = writeAndRead(values);
+    assertSameAsGenericIndexed(values, indexed);
+  }
+
+  @Test
+  public void testGetAndIndexOfWithoutNull() throws IOException
+  {
+    final List<String> values = makeSortedValues(1001);
+
+    final FrontCodedIndexed indexed = writeAndRead(values);
+    assertSameAsGenericIndexed(values, indexed);
+    Assert.assertEquals(-1, indexed.indexOf(null));
+  }
+
+  @Test
+  public void testMissingValues() throws IOException
+  {
+    final List<String> values = ImmutableList.of("apple", "apricot", "banana", "blueberry", "cherry");
+    final FrontCodedIndexed indexed = writeAndRead(values);
+    final GenericIndexed<String> expected = GenericIndexed.fromIterable(values, GenericIndexed.STRING_STRATEGY);
+
+    for (String missing : ImmutableList.of("a", "apples", "ap", "b", "bz", "c", "cherryz", "z")) {
+      Assert.assertEquals(missing, expected.indexOf(missing), indexed.indexOf(missing));
+    }
+  }
+
+  @Test
+  public void testOnlyNull() throws IOException
+  {
+    final List<String> values = new ArrayList<>();
+    values.add(null);
+
+    final FrontCodedIndexed indexed = writeAndRead(values);
+    Assert.assertEquals(1, indexed.size());
+    Assert.assertNull(indexed.get(0));
+    Assert.assertEquals(0, indexed.indexOf(null));
+    Assert.assertEquals(-2, indexed.indexOf("foo"));
+  }
+
+  @Test
+  public void testMultiByteCharacters() throws IOException
+  {
+    final List<String> values = new ArrayList<>(new TreeSet<>(
+        ImmutableList.of("été", "étés", "était", "中文", "中文字", "z")
+    ));
+
+    final FrontCodedIndexed indexed = writeAndRead(values);
+    assertSameAsGenericIndexed(values, indexed);
+  }
+
+  @Test
+  public void testWriterGet() throws IOException
+  {
+    final List<String> values = new ArrayList<>();
+    values.add(null);
+    values.addAll(makeSortedValues(100));
+
+    final FrontCodedIndexedWriter writer = new FrontCodedIndexedWriter(
+        new OnHeapMemorySegmentWriteOutMedium(),
+        bucketSize
+    );
+    writer.open();
+    for (String value : values) {
+      writer.write(value);
+    }
+
+    for (int i = 0; i < values.size(); i++) {
+      Assert.assertEquals(values.get(i), writer.get(i));
+    }
+  }
+
+  @Test
+  public void testReadAdvancesBuffer() throws IOException
+  {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final WritableByteChannel channel = Channels.newChannel(baos);
+    writeTo(makeSortedValues(10), channel);
+    channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+
+    final ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    FrontCodedIndexed.read(buffer);
+    Assert.assertEquals(3, buffer.remaining());
+    Assert.assertEquals(1, buffer.get());
+  }
+
+  @Test(expected = ISE.class)
+  public void testUnsortedValues() throws IOException
+  {
+    writeAndRead(ImmutableList.of("b", "a"));
+  }
+
+  @Test(expected = ISE.class)
+  public void testDuplicateValues() throws IOException
+  {
+    writeAndRead(ImmutableList.of("a", "a"));
+  }
+
+  private void assertSameAsGenericIndexed(List<String> values, FrontCodedIndexed indexed)
+  {
+    final GenericIndexed<String> expected = GenericIndexed.fromIterable(values, GenericIndexed.STRING_STRATEGY);
+
+    Assert.assertEquals(values.size(), indexed.size());
+    for (int i = 0; i < values.size(); i++) {
+      Assert.assertEquals(values.get(i), indexed.get(i));
+      Assert.assertEquals(i, indexed.indexOf(values.get(i)));
+
+      if (values.get(i) != null) {
+        final String missing = values.get(i) + "_";
+        Assert.assertEquals(missing, expected.indexOf(missing), indexed.indexOf(missing));
+      }
+    }
+
+    Assert.assertEquals(values, copyOf(indexed));
+  }
+
+  private static List<String> copyOf(Indexed<String> indexed)
+  {
+    final List<String> list = new ArrayList<>();
+    indexed.forEach(list::add);
+    return list;
+  }
+
+  private static List<String> makeSortedValues(int count)
+  {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final TreeSet<String> values = new TreeSet<>();
+    while (values.size() < count) {
+      values.add(
+          StringUtils.format("http://example.com/%s/page-%d", random.nextBoolean() ? "a" : "bb", random.nextInt(100_000))
+      );
+    }
+    return new ArrayList<>(values);
+  }
+
+  private FrontCodedIndexed writeAndRead(List<String> values) throws IOException
+  {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final long size = writeTo(values, Channels.newChannel(baos));
+    Assert.assertEquals(size, baos.size());
+    return FrontCodedIndexed.read(ByteBuffer.wrap(baos.toByteArray()));
+  }
+
+  private long writeTo(List<String> values, WritableByteChannel channel) throws IOException
+  {
+    final FrontCodedIndexedWriter writer = new FrontCodedIndexedWriter(
+        new OnHeapMemorySegmentWriteOutMedium(),
+        bucketSize
+    );
+    writer.open();
+    for (String value : values) {
+      writer.write(value);
+    }
+    final long size = writer.getSerializedSize();
+    writer.writeTo(channel, null);
+    return size;
+  }
+}
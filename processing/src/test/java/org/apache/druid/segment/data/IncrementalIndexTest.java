@@ -138,6 +138,15 @@ public class IncrementalIndexTest extends InitializedNullHandlingTest
                 .build()
         }
     );
+    params.add(
+        new Object[] {
+            (IndexCreator) factories -> new OnheapIncrementalIndex.Builder()
+                .setOffheapFacts(true)
+                .setSimpleTestingIndexSchema(factories)
+                .setMaxRowCount(1000000)
+                .build()
+        }
+    );
     params.add(new Object[] {(IndexCreator) IncrementalIndexTest::createNoRollupIndex});
     final CloseableStupidPool<ByteBuffer> pool2 = new CloseableStupidPool<>(
         "OffheapIncrementalIndex-bufferPool",
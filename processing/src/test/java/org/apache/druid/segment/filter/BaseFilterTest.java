@@ -57,6 +57,7 @@ import org.apache.druid.query.filter.DimFilter;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.ValueMatcher;
 import org.apache.druid.query.filter.vector.VectorValueMatcher;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.Cursor;
@@ -71,8 +72,8 @@ import org.apache.druid.segment.RowBasedStorageAdapter;
 import org.apache.druid.segment.StorageAdapter;
 import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.RowSignature;
+import org.apache.druid.segment.column.StringEncodingStrategy;
 import org.apache.druid.segment.column.ValueType;
-import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.ConciseBitmapSerdeFactory;
 import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
@@ -276,9 +277,19 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
   {
     final List<Object[]> constructors = new ArrayList<>();
 
-    final Map<String, BitmapSerdeFactory> bitmapSerdeFactories = ImmutableMap.of(
-        "concise", new ConciseBitmapSerdeFactory(),
-        "roaring", new RoaringBitmapSerdeFactory(true)
+    final Map<String, IndexSpec> indexSpecs = ImmutableMap.of(
+        "concise", new IndexSpec(new ConciseBitmapSerdeFactory(), null, null, null),
+        "roaring", new IndexSpec(new RoaringBitmapSerdeFactory(true), null, null, null),
+        "roaring, front-coded dictionaries",
+        new IndexSpec(
+            new RoaringBitmapSerdeFactory(true),
+            null,
+            null,
+            null,
+            null,
+            new StringEncodingStrategy.FrontCoded(4),
+            null
+        )
     );
 
     final Map<String, SegmentWriteOutMediumFactory> segmentWriteOutMediumFactories = ImmutableMap.of(
@@ -319,7 +330,7 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
             )
             .build();
 
-    for (Map.Entry<String, BitmapSerdeFactory> bitmapSerdeFactoryEntry : bitmapSerdeFactories.entrySet()) {
+    for (Map.Entry<String, IndexSpec> indexSpecEntry : indexSpecs.entrySet()) {
       for (Map.Entry<String, SegmentWriteOutMediumFactory> segmentWriteOutMediumFactoryEntry :
           segmentWriteOutMediumFactories.entrySet()) {
         for (Map.Entry<String, Function<IndexBuilder, Pair<StorageAdapter, Closeable>>> finisherEntry :
@@ -328,7 +339,7 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
             for (boolean optimize : ImmutableList.of(false, true)) {
               final String testName = StringUtils.format(
                   "bitmaps[%s], indexMerger[%s], finisher[%s], cnf[%s], optimize[%s]",
-                  bitmapSerdeFactoryEntry.getKey(),
+                  indexSpecEntry.getKey(),
                   segmentWriteOutMediumFactoryEntry.getKey(),
                   finisherEntry.getKey(),
                   cnf,
@@ -337,7 +348,7 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
               final IndexBuilder indexBuilder = IndexBuilder
                   .create()
                   .schema(DEFAULT_INDEX_SCHEMA)
-                  .indexSpec(new IndexSpec(bitmapSerdeFactoryEntry.getValue(), null, null, null))
+                  .indexSpec(indexSpecEntry.getValue())
                   .segmentWriteOutMediumFactory(segmentWriteOutMediumFactoryEntry.getValue());
               constructors.add(new Object[]{testName, indexBuilder, finisherEntry.getValue(), cnf, optimize});
             }
@@ -445,7 +456,11 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
 
   private long selectCountUsingVectorizedFilteredAggregator(final DimFilter dimFilter)
   {
-    Preconditions.checkState(makeFilter(dimFilter).canVectorizeMatcher(), "Cannot vectorize filter: %s", dimFilter);
+    Preconditions.checkState(
+        makeFilter(dimFilter).canVectorizeMatcher(VIRTUAL_COLUMNS.wrapInspector(adapter)),
+        "Cannot vectorize filter: %s",
+        dimFilter
+    );
 
     try (final VectorCursor cursor = makeVectorCursor(null)) {
       final FilteredAggregatorFactory aggregatorFactory = new FilteredAggregatorFactory(
@@ -597,9 +612,9 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
       }
 
       @Override
-      public boolean canVectorizeMatcher()
+      public boolean canVectorizeMatcher(ColumnInspector inspector)
       {
-        return theFilter.canVectorizeMatcher();
+        return theFilter.canVectorizeMatcher(inspector);
       }
 
       @Override
@@ -99,19 +99,19 @@ public class ColumnComparisonFilterTest extends BaseFilterTest
   @Test
   public void testColumnsWithoutNulls()
   {
-    assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+    assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
         DefaultDimensionSpec.of("dim0"),
         DefaultDimensionSpec.of("dim1")
     )), ImmutableList.of("2", "5", "8"));
-    assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+    assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
         DefaultDimensionSpec.of("dim0"),
         DefaultDimensionSpec.of("dim2")
     )), ImmutableList.of("3", "4", "5"));
-    assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+    assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
         DefaultDimensionSpec.of("dim1"),
         DefaultDimensionSpec.of("dim2")
     )), ImmutableList.of("5", "9"));
-    assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+    assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
         DefaultDimensionSpec.of("dim0"),
         DefaultDimensionSpec.of("dim1"),
         DefaultDimensionSpec.of("dim2")
@@ -121,31 +121,31 @@ public class ColumnComparisonFilterTest extends BaseFilterTest
   @Test
   public void testMissingColumnNotSpecifiedInDimensionList()
   {
-    assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+    assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
         DefaultDimensionSpec.of("dim6"),
         DefaultDimensionSpec.of("dim7")
     )), ImmutableList.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"));
 
     if (NullHandling.replaceWithDefault()) {
       // "" is equivalent to null which is equivalent to a missing dimension
-      assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+      assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
           DefaultDimensionSpec.of("dim1"),
           DefaultDimensionSpec.of("dim6")
       )), ImmutableList.of("0"));
 
-      assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+      assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
           DefaultDimensionSpec.of("dim2"),
           DefaultDimensionSpec.of("dim6")
       )), ImmutableList.of("1", "2", "6", "7", "8"));
 
-      assertFilterMatchesSkipVectorize(
+      assertFilterMatches(
           new ColumnComparisonDimFilter(
               ImmutableList.of(DefaultDimensionSpec.of("dim1"), DefaultDimensionSpec.of("dim6"))
           ),
           ImmutableList.of("0")
       );
 
-      assertFilterMatchesSkipVectorize(
+      assertFilterMatches(
           new ColumnComparisonDimFilter(
               ImmutableList.of(DefaultDimensionSpec.of("dim2"), DefaultDimensionSpec.of("dim6"))
           ),
@@ -153,24 +153,24 @@ public class ColumnComparisonFilterTest extends BaseFilterTest
       );
     } else {
       // "" is not equivalent to a missing dimension
-      assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+      assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
           DefaultDimensionSpec.of("dim1"),
           DefaultDimensionSpec.of("dim6")
       )), Collections.emptyList());
 
-      assertFilterMatchesSkipVectorize(new ColumnComparisonDimFilter(ImmutableList.of(
+      assertFilterMatches(new ColumnComparisonDimFilter(ImmutableList.of(
           DefaultDimensionSpec.of("dim2"),
           DefaultDimensionSpec.of("dim6")
       )), ImmutableList.of("1", "6", "7", "8"));
 
-      assertFilterMatchesSkipVectorize(
+      assertFilterMatches(
           new ColumnComparisonDimFilter(
               ImmutableList.of(DefaultDimensionSpec.of("dim1"), DefaultDimensionSpec.of("dim6"))
           ),
           ImmutableList.of()
       );
 
-      assertFilterMatchesSkipVectorize(
+      assertFilterMatches(
           new ColumnComparisonDimFilter(
               ImmutableList.of(DefaultDimensionSpec.of("dim2"), DefaultDimensionSpec.of("dim6"))
           ),
@@ -128,6 +128,25 @@ public class IncrementalIndexTest extends InitializedNullHandlingTest
               Closer.create()
           }
       );
+      constructors.add(
+          new Object[]{
+              new IndexCreator()
+              {
+                @Override
+                public IncrementalIndex createIndex()
+                {
+                  return new OnheapIncrementalIndex.Builder()
+                      .setOffheapFacts(true)
+                      .setIndexSchema(schema)
+                      .setDeserializeComplexMetrics(false)
+                      .setSortFacts(sortFacts)
+                      .setMaxRowCount(1000)
+                      .build();
+                }
+              },
+              Closer.create()
+          }
+      );
       final Closer poolCloser = Closer.create();
       final CloseableStupidPool<ByteBuffer> stupidPool = new CloseableStupidPool<>(
           "OffheapIncrementalIndex-bufferPool",
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.incremental;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.data.input.Row;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.data.input.impl.LongDimensionSchema;
+import org.apache.druid.data.input.impl.StringDimensionSchema;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class OffheapRollupFactsHolderTest extends InitializedNullHandlingTest
+{
+  private static final long START = 1_000_000L;
+
+  private IncrementalIndex<?> onheapFactsIndex;
+  private IncrementalIndex<?> offheapFactsIndex;
+
+  @Before
+  public void setUp()
+  {
+    onheapFactsIndex = makeIndex(false);
+    offheapFactsIndex = makeIndex(true);
+  }
+
+  @After
+  public void tearDown()
+  {
+    onheapFactsIndex.close();
+    offheapFactsIndex.close();
+  }
+
+  @Test
+  public void testSameRowsAsOnheapFacts() throws IndexSizeExceededException
+  {
+    final Random random = new Random(42);
+
+    // Enough distinct keys to grow the hash table a few times.
+    for (int i = 0; i < 20_000; i++) {
+      final InputRow row = makeRow(random);
+      onheapFactsIndex.add(row);
+      offheapFactsIndex.add(row);
+
+      if (i == 5_000) {
+        // Sorts the rows seen so far, so that the remaining ones have to be merged into the cached order.
+        assertSameRows();
+      }
+    }
+
+    Assert.assertEquals(onheapFactsIndex.size(), offheapFactsIndex.size());
+    assertSameRows();
+    Assert.assertEquals(
+        onheapFactsIndex.getFacts().getMinTimeMillis(),
+        offheapFactsIndex.getFacts().getMinTimeMillis()
+    );
+    Assert.assertEquals(
+        onheapFactsIndex.getFacts().getMaxTimeMillis(),
+        offheapFactsIndex.getFacts().getMaxTimeMillis()
+    );
+  }
+
+  @Test
+  public void testTimeRangeIterable() throws IndexSizeExceededException
+  {
+    final Random random = new Random(7);
+    for (int i = 0; i < 1_000; i++) {
+      final InputRow row = makeRow(random);
+      onheapFactsIndex.add(row);
+      offheapFactsIndex.add(row);
+    }
+
+    for (boolean descending : new boolean[]{false, true}) {
+      Assert.assertEquals(
+          rowIndexes(onheapFactsIndex.getFacts().timeRangeIterable(descending, START + 10, START + 20)),
+          rowIndexes(offheapFactsIndex.getFacts().timeRangeIterable(descending, START + 10, START + 20))
+      );
+      Assert.assertEquals(
+          rowIndexes(() -> onheapFactsIndex.getFacts().iterator(descending)),
+          rowIndexes(() -> offheapFactsIndex.getFacts().iterator(descending))
+      );
+    }
+    Assert.assertFalse(
+        offheapFactsIndex.getFacts().timeRangeIterable(false, START + 20, START + 10).iterator().hasNext()
+    );
+  }
+
+  @Test
+  public void testTrailingNullDimsRollUp() throws IndexSizeExceededException
+  {
+    final IncrementalIndex<?> index = new OnheapIncrementalIndex.Builder()
+        .setOffheapFacts(true)
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("count"))
+        .setMaxRowCount(1000)
+        .build();
+
+    final Map<String, Object> event = new HashMap<>();
+    event.put("s1", "a");
+    index.add(new MapBasedInputRow(START, ImmutableList.of("s1"), event));
+
+    index.add(new MapBasedInputRow(START + 1, ImmutableList.of("s1", "s2"), ImmutableMap.of("s1", "b", "s2", "c")));
+
+    // The index now has two dimensions, so this key ends with a null "s2" that the key of the first row does not have.
+    index.add(new MapBasedInputRow(START, ImmutableList.of("s1"), event));
+
+    Assert.assertEquals(2, index.size());
+    index.close();
+  }
+
+  @Test
+  public void testClear() throws IndexSizeExceededException
+  {
+    offheapFactsIndex.add(makeRow(new Random(1)));
+    offheapFactsIndex.getFacts().clear();
+
+    Assert.assertFalse(offheapFactsIndex.getFacts().keySet().iterator().hasNext());
+    Assert.assertEquals(
+        IncrementalIndexRow.EMPTY_ROW_INDEX,
+        offheapFactsIndex.getFacts().putIfAbsent(
+            offheapFactsIndex.toIncrementalIndexRow(makeRow(new Random(1))).getIncrementalIndexRow(),
+            0
+        )
+    );
+  }
+
+  @Test
+  public void testMemoryCountsTowardsBytesInMemory() throws IndexSizeExceededException
+  {
+    // The hash table is allocated upfront.
+    final long initialBytes = offheapFactsIndex.getBytesInMemory().get();
+    Assert.assertTrue(initialBytes > 0);
+
+    // The first row allocates the first chunk and the first pointer block.
+    offheapFactsIndex.add(makeRow(new Random(1)));
+    final long chunkAndPointerBlockBytes = (1 << 20) + Long.BYTES * (1 << 14);
+    final long bytesAfterAdd = offheapFactsIndex.getBytesInMemory().get();
+    Assert.assertTrue(bytesAfterAdd > initialBytes + chunkAndPointerBlockBytes);
+
+    // Clearing releases them, while the estimate of the on-heap part of the row stays.
+    offheapFactsIndex.getFacts().clear();
+    Assert.assertEquals(bytesAfterAdd - chunkAndPointerBlockBytes, offheapFactsIndex.getBytesInMemory().get());
+  }
+
+  private void assertSameRows()
+  {
+    final List<Row> expected = Lists.newArrayList(onheapFactsIndex);
+    final List<Row> actual = Lists.newArrayList(offheapFactsIndex);
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(
+        rowIndexes(onheapFactsIndex.getFacts().persistIterable()),
+        rowIndexes(offheapFactsIndex.getFacts().persistIterable())
+    );
+  }
+
+  private static List<Integer> rowIndexes(Iterable<IncrementalIndexRow> rows)
+  {
+    final List<Integer> rowIndexes = new ArrayList<>();
+    for (IncrementalIndexRow row : rows) {
+      rowIndexes.add(row.getRowIndex());
+    }
+    return rowIndexes;
+  }
+
+  private static InputRow makeRow(Random random)
+  {
+    final Map<String, Object> event = new HashMap<>();
+    event.put("s1", "v" + random.nextInt(50));
+    if (random.nextBoolean()) {
+      event.put("s2", ImmutableList.of("a" + random.nextInt(5), "b" + random.nextInt(5)));
+    }
+    if (random.nextInt(4) > 0) {
+      event.put("l", (long) random.nextInt(20));
+    }
+    event.put("met", 1L);
+    return new MapBasedInputRow(START + random.nextInt(30), ImmutableList.of("s1", "s2", "l"), event);
+  }
+
+  private static IncrementalIndex<?> makeIndex(boolean offheapFacts)
+  {
+    return new OnheapIncrementalIndex.Builder()
+        .setOffheapFacts(offheapFacts)
+        .setIndexSchema(
+            new IncrementalIndexSchema.Builder()
+                .withQueryGranularity(Granularities.NONE)
+                .withDimensionsSpec(
+                    new DimensionsSpec(
+                        ImmutableList.of(
+                            new StringDimensionSchema("s1"),
+                            new StringDimensionSchema("s2"),
+                            new LongDimensionSchema("l")
+                        ),
+                        null,
+                        null
+                    )
+                )
+                .withMetrics(new CountAggregatorFactory("count"), new LongSumAggregatorFactory("met", "met"))
+                .build()
+        )
+        .setMaxRowCount(1_000_000)
+        .build();
+  }
+}
@@ -27,12 +27,15 @@ import org.apache.druid.client.selector.QueryableDruidServer;
 import org.apache.druid.client.selector.ServerSelector;
 import org.apache.druid.client.selector.TierSelectorStrategy;
 import org.apache.druid.guice.ManageLifecycle;
+import org.apache.druid.guice.annotations.Client;
 import org.apache.druid.guice.annotations.EscalatedClient;
 import org.apache.druid.guice.annotations.Smile;
+import org.apache.druid.guice.http.DruidHttpClientConfig;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.Pair;
 import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.lifecycle.LifecycleStart;
+import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.java.util.http.client.HttpClient;
@@ -83,6 +86,7 @@ public class BrokerServerView implements TimelineServerView
   private final TierSelectorStrategy tierSelectorStrategy;
   private final ServiceEmitter emitter;
   private final BrokerSegmentWatcherConfig segmentWatcherConfig;
+  private final QueuedBytesBudget queuedBytesBudget;
   private final Predicate<Pair<DruidServerMetadata, DataSegment>> segmentFilter;
 
   private final CountDownLatch initialized = new CountDownLatch(1);
@@ -96,7 +100,8 @@ public class BrokerServerView implements TimelineServerView
       final FilteredServerInventoryView baseView,
       final TierSelectorStrategy tierSelectorStrategy,
       final ServiceEmitter emitter,
-      final BrokerSegmentWatcherConfig segmentWatcherConfig
+      final BrokerSegmentWatcherConfig segmentWatcherConfig,
+      final @Client DruidHttpClientConfig httpClientConfig
   )
   {
     this.warehouse = warehouse;
@@ -107,6 +112,7 @@ public class BrokerServerView implements TimelineServerView
     this.tierSelectorStrategy = tierSelectorStrategy;
     this.emitter = emitter;
     this.segmentWatcherConfig = segmentWatcherConfig;
+    this.queuedBytesBudget = new QueuedBytesBudget(httpClientConfig.getMaxQueuedBytesTotal());
     this.clients = new ConcurrentHashMap<>();
     this.selectors = new HashMap<>();
     this.timelines = new HashMap<>();
@@ -174,6 +180,12 @@ public class BrokerServerView implements TimelineServerView
     }
   }
 
+  @LifecycleStop
+  public void stop()
+  {
+    queuedBytesBudget.stop();
+  }
+
   public boolean isInitialized()
   {
     return initialized.getCount() == 0;
@@ -204,7 +216,8 @@ public class BrokerServerView implements TimelineServerView
         httpClient,
         server.getScheme(),
         server.getHost(),
-        emitter
+        emitter,
+        queuedBytesBudget
     );
   }
 
@@ -67,6 +67,7 @@ import org.apache.druid.query.QuerySegmentWalker;
 import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.query.QueryToolChestWarehouse;
 import org.apache.druid.query.Result;
+import org.apache.druid.query.ResultLevelCachingQueryRunner;
 import org.apache.druid.query.SegmentDescriptor;
 import org.apache.druid.query.aggregation.MetricManipulatorFns;
 import org.apache.druid.query.context.ResponseContext;
@@ -373,6 +374,10 @@ public class CachingClusteredClient implements QuerySegmentWalker
         if (currentEtag != null && currentEtag.equals(prevEtag)) {
           return new ClusterQueryResult<>(Sequences.empty(), 0);
         }
+        if (query.getContextBoolean(ResultLevelCachingQueryRunner.ETAG_ONLY_CONTEXT_KEY, false)) {
+          // Only the ETag is needed, to check whether results cached per bucket are still valid.
+          return new ClusterQueryResult<>(Sequences.empty(), 0);
+        }
       }
 
       final List<Pair<Interval, byte[]>> alreadyCachedResults =
@@ -381,11 +386,13 @@ public class CachingClusteredClient implements QuerySegmentWalker
       query = scheduler.prioritizeAndLaneQuery(queryPlus, segmentServers);
       queryPlus = queryPlus.withQuery(query);
 
-      final SortedMap<DruidServer, List<SegmentDescriptor>> segmentsByServer = groupSegmentsByServer(segmentServers);
+      final Map<DruidServer, HedgeCandidates> hedgeCandidatesByServer = new HashMap<>();
+      final SortedMap<DruidServer, List<SegmentDescriptor>> segmentsByServer =
+          groupSegmentsByServer(segmentServers, hedgeCandidatesByServer);
       LazySequence<T> mergedResultSequence = new LazySequence<>(() -> {
         List<Sequence<T>> sequencesByInterval = new ArrayList<>(alreadyCachedResults.size() + segmentsByServer.size());
         addSequencesFromCache(sequencesByInterval, alreadyCachedResults);
-        addSequencesFromServer(sequencesByInterval, segmentsByServer);
+        addSequencesFromServer(sequencesByInterval, segmentsByServer, hedgeCandidatesByServer);
         return merge(sequencesByInterval);
       });
 
@@ -584,7 +591,13 @@ public class CachingClusteredClient implements QuerySegmentWalker
       return cachePopulatorKeyMap.get(StringUtils.format("%s_%s", segmentId, segmentInterval));
     }
 
-    private SortedMap<DruidServer, List<SegmentDescriptor>> groupSegmentsByServer(Set<SegmentServerSelector> segments)
+    /**
+     * @param hedgeCandidatesByServer filled with the servers to which the query sent to each server can be hedged
+     */
+    private SortedMap<DruidServer, List<SegmentDescriptor>> groupSegmentsByServer(
+        Set<SegmentServerSelector> segments,
+        Map<DruidServer, HedgeCandidates> hedgeCandidatesByServer
+    )
     {
       final SortedMap<DruidServer, List<SegmentDescriptor>> serverSegments = new TreeMap<>();
       for (SegmentServerSelector segmentServer : segments) {
@@ -599,6 +612,9 @@ public class CachingClusteredClient implements QuerySegmentWalker
         } else {
           final DruidServer server = queryableDruidServer.getServer();
           serverSegments.computeIfAbsent(server, s -> new ArrayList<>()).add(segmentServer.getSegmentDescriptor());
+          hedgeCandidatesByServer
+              .computeIfAbsent(server, s -> new HedgeCandidates(queryableDruidServer, segmentServer.getServer()))
+              .retainServersOf(segmentServer.getServer());
         }
       }
       return serverSegments;
@@ -654,11 +670,12 @@ public class CachingClusteredClient implements QuerySegmentWalker
      */
     private void addSequencesFromServer(
         final List<Sequence<T>> listOfSequences,
-        final SortedMap<DruidServer, List<SegmentDescriptor>> segmentsByServer
+        final SortedMap<DruidServer, List<SegmentDescriptor>> segmentsByServer,
+        final Map<DruidServer, HedgeCandidates> hedgeCandidatesByServer
     )
     {
       segmentsByServer.forEach((server, segmentsOfServer) -> {
-        final QueryRunner serverRunner = serverView.getQueryRunner(server);
+        final QueryRunner serverRunner = getServerRunner(server, hedgeCandidatesByServer.get(server));
 
         if (serverRunner == null) {
           log.error("Server[%s] doesn't have a query runner", server.getName());
@@ -681,6 +698,28 @@ public class CachingClusteredClient implements QuerySegmentWalker
       });
     }
 
+    /**
+     * Returns the runner of the server, which hedges queries to another server serving the same segments if the server
+     * selector strategy asks for it.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private QueryRunner getServerRunner(DruidServer server, @Nullable HedgeCandidates hedgeCandidates)
+    {
+      final QueryRunner serverRunner = serverView.getQueryRunner(server);
+      if (hedgeCandidates == null || !(serverRunner instanceof DirectDruidClient)) {
+        return serverRunner;
+      }
+      final QueryableDruidServer hedgeServer = hedgeCandidates.pick();
+      if (hedgeServer == null || !(hedgeServer.getQueryRunner() instanceof DirectDruidClient)) {
+        return serverRunner;
+      }
+      return ((DirectDruidClient) serverRunner).withHedge(
+          (DirectDruidClient) hedgeServer.getQueryRunner(),
+          hedgeCandidates.getDelayMillis()
+      );
+    }
+
     @SuppressWarnings("unchecked")
     private Sequence<T> getBySegmentServerResults(
         final QueryRunner serverRunner,
@@ -757,6 +796,52 @@ public class CachingClusteredClient implements QuerySegmentWalker
     }
   }
 
+  /**
+   * Servers serving all the segments queried from one server, to which the query sent to that server can be hedged.
+   */
+  private static class HedgeCandidates
+  {
+    private final QueryableDruidServer server;
+    private final ServerSelector selector;
+    private final long delayMillis;
+    @Nullable
+    private Set<QueryableDruidServer> candidates = null;
+
+    private HedgeCandidates(QueryableDruidServer server, ServerSelector selector)
+    {
+      this.server = server;
+      this.selector = selector;
+      this.delayMillis = selector.getHedgeDelayMillis(server);
+      if (delayMillis < 0) {
+        candidates = Collections.emptySet();
+      }
+    }
+
+    private void retainServersOf(ServerSelector segmentSelector)
+    {
+      if (candidates == null) {
+        candidates = segmentSelector.getAllQueryableServers();
+        candidates.removeIf(
+            candidate -> candidate.equals(server)
+                         || candidate.getServer().getType() != server.getServer().getType()
+        );
+      } else if (!candidates.isEmpty()) {
+        candidates.retainAll(segmentSelector.getAllQueryableServers());
+      }
+    }
+
+    private long getDelayMillis()
+    {
+      return delayMillis;
+    }
+
+    @Nullable
+    private QueryableDruidServer pick()
+    {
+      return candidates == null || candidates.isEmpty() ? null : selector.pickHedge(candidates);
+    }
+  }
+
   /**
    * An inner class that is used solely for computing cache keys. Its a separate class to allow extensive unit testing
    * of cache key generation.
@@ -34,6 +34,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * An immutable snapshot of metadata information about used segments and overshadowed segments, coming from
@@ -97,6 +98,81 @@ public class DataSourcesSnapshot
     this.overshadowedSegments = ImmutableSet.copyOf(determineOvershadowedSegments());
   }
 
+  private DataSourcesSnapshot(
+      Map<String, ImmutableDruidDataSource> dataSourcesWithAllUsedSegments,
+      Map<String, VersionedIntervalTimeline<String, DataSegment>> usedSegmentsTimelinesPerDataSource,
+      ImmutableSet<SegmentId> overshadowedSegments
+  )
+  {
+    this.dataSourcesWithAllUsedSegments = dataSourcesWithAllUsedSegments;
+    this.usedSegmentsTimelinesPerDataSource = usedSegmentsTimelinesPerDataSource;
+    this.overshadowedSegments = overshadowedSegments;
+  }
+
+  /**
+   * Returns a snapshot with the given changes applied to this one: the given used segments are added, or replace the
+   * segments with the same ids, and the segments with the given ids are removed. The data sources without changes are
+   * shared with this snapshot, along with their timelines and overshadowed segments, so the cost of this method
+   * depends on the number of segments in the changed data sources rather than in all data sources.
+   *
+   * @return this snapshot if nothing changed
+   */
+  public DataSourcesSnapshot withChangedSegments(
+      Iterable<DataSegment> usedSegments,
+      Iterable<SegmentId> unusedSegmentIds,
+      ImmutableMap<String, String> dataSourceProperties
+  )
+  {
+    final Map<String, DruidDataSource> changedDataSources = new HashMap<>();
+    final Function<String, DruidDataSource> copyDataSource = dataSourceName -> {
+      final DruidDataSource dataSource = new DruidDataSource(dataSourceName, dataSourceProperties);
+      final ImmutableDruidDataSource existingDataSource = dataSourcesWithAllUsedSegments.get(dataSourceName);
+      if (existingDataSource != null) {
+        existingDataSource.getSegments().forEach(dataSource::addSegment);
+      }
+      return dataSource;
+    };
+
+    for (SegmentId segmentId : unusedSegmentIds) {
+      final ImmutableDruidDataSource existingDataSource = dataSourcesWithAllUsedSegments.get(segmentId.getDataSource());
+      if (existingDataSource != null && existingDataSource.getSegment(segmentId) != null) {
+        changedDataSources.computeIfAbsent(segmentId.getDataSource(), copyDataSource).removeSegment(segmentId);
+      }
+    }
+    for (DataSegment segment : usedSegments) {
+      changedDataSources.computeIfAbsent(segment.getDataSource(), copyDataSource).addSegment(segment);
+    }
+    if (changedDataSources.isEmpty()) {
+      return this;
+    }
+
+    final Map<String, ImmutableDruidDataSource> newDataSources = new HashMap<>(dataSourcesWithAllUsedSegments);
+    final Map<String, VersionedIntervalTimeline<String, DataSegment>> newTimelines =
+        new HashMap<>(usedSegmentsTimelinesPerDataSource);
+    final ImmutableSet.Builder<SegmentId> newOvershadowedSegments = ImmutableSet.builder();
+    for (SegmentId segmentId : overshadowedSegments) {
+      if (!changedDataSources.containsKey(segmentId.getDataSource())) {
+        newOvershadowedSegments.add(segmentId);
+      }
+    }
+    changedDataSources.forEach(
+        (dataSourceName, dataSource) -> {
+          if (dataSource.isEmpty()) {
+            newDataSources.remove(dataSourceName);
+            newTimelines.remove(dataSourceName);
+          } else {
+            final ImmutableDruidDataSource immutableDataSource = dataSource.toImmutableDruidDataSource();
+            final VersionedIntervalTimeline<String, DataSegment> timeline =
+                VersionedIntervalTimeline.forSegments(immutableDataSource.getSegments());
+            newDataSources.put(dataSourceName, immutableDataSource);
+            newTimelines.put(dataSourceName, timeline);
+            newOvershadowedSegments.addAll(determineOvershadowedSegments(immutableDataSource, timeline));
+          }
+        }
+    );
+    return new DataSourcesSnapshot(newDataSources, newTimelines, newOvershadowedSegments.build());
+  }
+
   public Collection<ImmutableDruidDataSource> getDataSourcesWithAllUsedSegments()
   {
     return dataSourcesWithAllUsedSegments.values();
@@ -159,12 +235,22 @@ public class DataSourcesSnapshot
     // so building this collection shouldn't generate a lot of garbage.
     final List<SegmentId> overshadowedSegments = new ArrayList<>();
     for (ImmutableDruidDataSource dataSource : dataSourcesWithAllUsedSegments.values()) {
-      VersionedIntervalTimeline<String, DataSegment> usedSegmentsTimeline =
-          usedSegmentsTimelinesPerDataSource.get(dataSource.getName());
-      for (DataSegment segment : dataSource.getSegments()) {
-        if (usedSegmentsTimeline.isOvershadowed(segment.getInterval(), segment.getVersion(), segment)) {
-          overshadowedSegments.add(segment.getId());
-        }
+      overshadowedSegments.addAll(
+          determineOvershadowedSegments(dataSource, usedSegmentsTimelinesPerDataSource.get(dataSource.getName()))
+      );
+    }
+    return overshadowedSegments;
+  }
+
+  private static List<SegmentId> determineOvershadowedSegments(
+      ImmutableDruidDataSource dataSource,
+      VersionedIntervalTimeline<String, DataSegment> usedSegmentsTimeline
+  )
+  {
+    final List<SegmentId> overshadowedSegments = new ArrayList<>();
+    for (DataSegment segment : dataSource.getSegments()) {
+      if (usedSegmentsTimeline.isOvershadowed(segment.getInterval(), segment.getVersion(), segment)) {
+        overshadowedSegments.add(segment.getId());
       }
     }
     return overshadowedSegments;
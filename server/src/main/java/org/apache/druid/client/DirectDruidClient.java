@@ -53,6 +53,7 @@ import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.query.QueryToolChestWarehouse;
 import org.apache.druid.query.QueryWatcher;
 import org.apache.druid.query.aggregation.MetricManipulatorFns;
+import org.apache.druid.query.columnar.ColumnarResultFormat;
 import org.apache.druid.query.context.ConcurrentResponseContext;
 import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.query.context.ResponseContext.Key;
@@ -65,12 +66,17 @@ import org.jboss.netty.handler.codec.http.HttpMethod;
 import org.jboss.netty.handler.codec.http.HttpResponse;
 import org.joda.time.Duration;
 
+import javax.annotation.Nullable;
 import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -99,24 +105,30 @@ public class DirectDruidClient<T> implements QueryRunner<T>
   private final String scheme;
   private final String host;
   private final ServiceEmitter emitter;
+  private final QueuedBytesBudget queuedBytesBudget;
 
   private final AtomicInteger openConnections;
   private final boolean isSmile;
   private final ScheduledExecutorService queryCancellationExecutor;
+  private final ServerLatencyStats latencyStats = new ServerLatencyStats();
 
   /**
-   * Removes the magical fields added by {@link #makeResponseContextForQuery()}.
+   * Removes the magical fields added by {@link #makeResponseContextForQuery()}, and the fields only meaningful to the
+   * server processing the query.
    */
   public static void removeMagicResponseContextFields(ResponseContext responseContext)
   {
     responseContext.remove(ResponseContext.Key.QUERY_TOTAL_BYTES_GATHERED);
+    responseContext.remove(ResponseContext.Key.QUERY_BACK_PRESSURE_NANOS);
     responseContext.remove(ResponseContext.Key.REMAINING_RESPONSES_FROM_QUERY_SERVERS);
+    responseContext.remove(ResponseContext.Key.QUERY_COUNTERS);
   }
 
   public static ResponseContext makeResponseContextForQuery()
   {
     final ResponseContext responseContext = ConcurrentResponseContext.createEmpty();
     responseContext.put(ResponseContext.Key.QUERY_TOTAL_BYTES_GATHERED, new AtomicLong());
+    responseContext.put(ResponseContext.Key.QUERY_BACK_PRESSURE_NANOS, new AtomicLong());
     responseContext.put(Key.REMAINING_RESPONSES_FROM_QUERY_SERVERS, new ConcurrentHashMap<>());
     return responseContext;
   }
@@ -130,6 +142,23 @@ public class DirectDruidClient<T> implements QueryRunner<T>
       String host,
       ServiceEmitter emitter
   )
+  {
+    this(warehouse, queryWatcher, objectMapper, httpClient, scheme, host, emitter, QueuedBytesBudget.unlimited());
+  }
+
+  /**
+   * @param queuedBytesBudget limit on the bytes queued by this client and the clients of the other data servers
+   */
+  public DirectDruidClient(
+      QueryToolChestWarehouse warehouse,
+      QueryWatcher queryWatcher,
+      ObjectMapper objectMapper,
+      HttpClient httpClient,
+      String scheme,
+      String host,
+      ServiceEmitter emitter,
+      QueuedBytesBudget queuedBytesBudget
+  )
   {
     this.warehouse = warehouse;
     this.queryWatcher = queryWatcher;
@@ -138,6 +167,7 @@ public class DirectDruidClient<T> implements QueryRunner<T>
     this.scheme = scheme;
     this.host = host;
     this.emitter = emitter;
+    this.queuedBytesBudget = queuedBytesBudget;
 
     this.isSmile = this.objectMapper.getFactory() instanceof SmileFactory;
     this.openConnections = new AtomicInteger();
@@ -149,20 +179,65 @@ public class DirectDruidClient<T> implements QueryRunner<T>
     return openConnections.get();
   }
 
+  public ServerLatencyStats getLatencyStats()
+  {
+    return latencyStats;
+  }
+
+  String getHost()
+  {
+    return host;
+  }
+
   @Override
   public Sequence<T> run(final QueryPlus<T> queryPlus, final ResponseContext context)
   {
     final Query<T> query = queryPlus.getQuery();
+    return makeResultSequence(query, sendRequest(queryPlus, context, null, query.getId()));
+  }
+
+  /**
+   * Returns a runner which sends queries to this server, and sends them again to {@code hedgeClient}, the client of
+   * another server serving the same segments, if this server did not start answering after {@code hedgeDelayMillis}.
+   * Results are read from the first server to answer, and the query sent to the other server is cancelled.
+   */
+  public QueryRunner<T> withHedge(DirectDruidClient<T> hedgeClient, long hedgeDelayMillis)
+  {
+    return (queryPlus, context) -> makeResultSequence(
+        queryPlus.getQuery(),
+        new HedgedRequest<>(this, hedgeClient, queryPlus, context).send(hedgeDelayMillis, queryCancellationExecutor)
+    );
+  }
+
+  /**
+   * Sends the query to the server.
+   *
+   * @param responseClaim  if not null, shared by the requests of a {@link HedgedRequest}: only the response of the
+   *                       first server to answer, which sets it to its host, is read, the others are dropped
+   * @param requestQueryId id of the query sent to the server, which is only different from the id of the query for
+   *                       hedged requests, so that they can be cancelled without cancelling the other requests of the
+   *                       query to the same server
+   *
+   * @return future of the stream of the response, set as soon as the server starts answering
+   */
+  ListenableFuture<InputStream> sendRequest(
+      final QueryPlus<T> queryPlus,
+      final ResponseContext context,
+      @Nullable final AtomicReference<String> responseClaim,
+      final String requestQueryId
+  )
+  {
+    final Query<T> query = queryPlus.getQuery();
+    final Query<T> requestQuery = Objects.equals(requestQueryId, query.getId()) ? query : query.withId(requestQueryId);
     QueryToolChest<T, Query<T>> toolChest = warehouse.getToolChest(query);
-    boolean isBySegment = QueryContexts.isBySegment(query);
-    final JavaType queryResultType = isBySegment ? toolChest.getBySegmentResultType() : toolChest.getBaseResultType();
+    final boolean requestColumnar = ColumnarResultFormat.isRequested(query);
 
     final ListenableFuture<InputStream> future;
     final String url = StringUtils.format("%s://%s/druid/v2/", scheme, host);
-    final String cancelUrl = StringUtils.format("%s://%s/druid/v2/%s", scheme, host, query.getId());
+    final String cancelUrl = StringUtils.format("%s://%s/druid/v2/%s", scheme, host, requestQueryId);
 
     try {
-      log.debug("Querying queryId[%s] url[%s]", query.getId(), url);
+      log.debug("Querying queryId[%s] url[%s]", requestQueryId, url);
 
       final long requestStartTimeNs = System.nanoTime();
       final long timeoutAt = query.getContextValue(QUERY_FAIL_TIME);
@@ -170,8 +245,12 @@ public class DirectDruidClient<T> implements QueryRunner<T>
       final AtomicLong totalBytesGathered = (AtomicLong) context.get(ResponseContext.Key.QUERY_TOTAL_BYTES_GATHERED);
       final long maxQueuedBytes = QueryContexts.getMaxQueuedBytes(query, 0);
       final boolean usingBackpressure = maxQueuedBytes > 0;
+      final boolean usingQueuedBytesBudget = queuedBytesBudget.isLimited();
+      // Time during which reads were suspended, summed over all the data servers of the query. May be absent if the
+      // context was not made by makeResponseContextForQuery().
+      final AtomicLong queryBackPressureNanos = (AtomicLong) context.get(ResponseContext.Key.QUERY_BACK_PRESSURE_NANOS);
 
-      final HttpResponseHandler<InputStream, InputStream> responseHandler = new HttpResponseHandler<InputStream, InputStream>()
+      class ResponseHandler implements HttpResponseHandler<InputStream, InputStream>
       {
         private final AtomicLong totalByteCount = new AtomicLong(0);
         private final AtomicLong queuedByteCount = new AtomicLong(0);
@@ -180,9 +259,13 @@ public class DirectDruidClient<T> implements QueryRunner<T>
         private final AtomicBoolean done = new AtomicBoolean(false);
         private final AtomicReference<String> fail = new AtomicReference<>();
         private final AtomicReference<TrafficCop> trafficCopRef = new AtomicReference<>();
+        private final Runnable releaseOnTimeout =
+            () -> abandon(StringUtils.format("Query[%s] url[%s] timed out.", query.getId(), url));
 
         private QueryMetrics<? super Query<T>> queryMetrics;
         private long responseStartTimeNs;
+        // Set if another server answered the hedged request first, then the response of this server is dropped.
+        private boolean dropped = false;
 
         private QueryMetrics<? super Query<T>> acquireResponseMetrics()
         {
@@ -198,28 +281,50 @@ public class DirectDruidClient<T> implements QueryRunner<T>
          */
         private boolean enqueue(ChannelBuffer buffer, long chunkNum) throws InterruptedException
         {
-          // Increment queuedByteCount before queueing the object, so queuedByteCount is at least as high as
-          // the actual number of queued bytes at any particular time.
           final InputStreamHolder holder = InputStreamHolder.fromChannelBuffer(buffer, chunkNum);
-          final long currentQueuedByteCount = queuedByteCount.addAndGet(holder.getLength());
-          queue.put(holder);
+          final long currentQueuedByteCount;
+          final boolean withinQueuedBytesBudget;
+
+          // Synchronized with setupResponseReadFailure(), so that bytes queued after a failure, which are never
+          // dequeued, are not reserved from the budget shared with other queries.
+          synchronized (queue) {
+            if (fail.get() != null) {
+              return true;
+            }
+
+            // Increment queuedByteCount before queueing the object, so queuedByteCount is at least as high as
+            // the actual number of queued bytes at any particular time.
+            currentQueuedByteCount = queuedByteCount.addAndGet(holder.getLength());
+            withinQueuedBytesBudget = queuedBytesBudget.reserve(holder.getLength());
+            queue.put(holder);
+          }
 
           // True if we should keep reading.
-          return !usingBackpressure || currentQueuedByteCount < maxQueuedBytes;
+          return (!usingBackpressure || currentQueuedByteCount < maxQueuedBytes) && withinQueuedBytesBudget;
         }
 
         private InputStream dequeue() throws InterruptedException
         {
           final InputStreamHolder holder = queue.poll(checkQueryTimeout(), TimeUnit.MILLISECONDS);
           if (holder == null) {
-            throw new QueryTimeoutException(StringUtils.nonStrictFormat("Query[%s] url[%s] timed out.", query.getId(), url));
+            final String msg = StringUtils.nonStrictFormat("Query[%s] url[%s] timed out.", query.getId(), url);
+            setupResponseReadFailure(msg, null);
+            throw new QueryTimeoutException(msg);
           }
 
           final long currentQueuedByteCount = queuedByteCount.addAndGet(-holder.getLength());
-          if (usingBackpressure && currentQueuedByteCount < maxQueuedBytes) {
+          queuedBytesBudget.release(holder.getLength());
+
+          // Reads suspended because of the budget shared with other queries are resumed once all the chunks queued
+          // by this client have been consumed: the TrafficCop ignores resumes for chunks older than the one that
+          // suspended reads.
+          if ((usingBackpressure && currentQueuedByteCount < maxQueuedBytes) || usingQueuedBytesBudget) {
             long backPressureTime = Preconditions.checkNotNull(trafficCopRef.get(), "No TrafficCop, how can this be?")
                                                  .resume(holder.getChunkNum());
             channelSuspendedTime.addAndGet(backPressureTime);
+            if (queryBackPressureNanos != null) {
+              queryBackPressureNanos.addAndGet(backPressureTime);
+            }
           }
 
           return holder.getStream();
@@ -230,10 +335,24 @@ public class DirectDruidClient<T> implements QueryRunner<T>
         {
           trafficCopRef.set(trafficCop);
           checkQueryTimeout();
+
+          if (responseClaim != null && !responseClaim.compareAndSet(null, host)) {
+            log.debug("Dropping response from url[%s] for hedged queryId[%s]", url, query.getId());
+            dropped = true;
+            latencyStats.recordTimeToFirstByte(System.nanoTime() - requestStartTimeNs);
+            cancelQuery(requestQuery, cancelUrl);
+            return ClientResponse.finished(new ByteArrayInputStream(new byte[0]));
+          }
+
           checkTotalBytesLimit(response.getContent().readableBytes());
 
+          if (usingQueuedBytesBudget) {
+            queuedBytesBudget.registerRelease(releaseOnTimeout, timeoutAt);
+          }
+
           log.debug("Initial response from url[%s] for queryId[%s]", url, query.getId());
           responseStartTimeNs = System.nanoTime();
+          latencyStats.recordTimeToFirstByte(responseStartTimeNs - requestStartTimeNs);
           acquireResponseMetrics().reportNodeTimeToFirstByte(responseStartTimeNs - requestStartTimeNs).emit(emitter);
 
           final boolean continueReading;
@@ -251,7 +370,13 @@ public class DirectDruidClient<T> implements QueryRunner<T>
             );
             // context may be null in case of error or query timeout
             if (responseContext != null) {
-              context.merge(ResponseContext.deserialize(responseContext, objectMapper));
+              final ResponseContext serverContext = ResponseContext.deserialize(responseContext, objectMapper);
+              // The queue time is only meaningful for this server, so it is not merged into the query's context.
+              final Object queueTimeNs = serverContext.remove(ResponseContext.Key.QUERY_WAIT_NANOS);
+              if (queueTimeNs != null) {
+                latencyStats.recordQueueTime(((Number) queueTimeNs).longValue());
+              }
+              context.merge(serverContext);
             }
             continueReading = enqueue(response.getContent(), 0L);
           }
@@ -309,7 +434,19 @@ public class DirectDruidClient<T> implements QueryRunner<T>
                       }
                     }
                   }
-              ),
+              )
+              {
+                @Override
+                public void close() throws IOException
+                {
+                  try {
+                    super.close();
+                  }
+                  finally {
+                    abandon(StringUtils.format("Query[%s] url[%s] response closed.", query.getId(), url));
+                  }
+                }
+              },
               continueReading
           );
         }
@@ -321,6 +458,10 @@ public class DirectDruidClient<T> implements QueryRunner<T>
             long chunkNum
         )
         {
+          if (dropped) {
+            return ClientResponse.finished(clientResponse.getObj());
+          }
+
           checkQueryTimeout();
 
           final ChannelBuffer channelBuffer = chunk.getContent();
@@ -347,8 +488,13 @@ public class DirectDruidClient<T> implements QueryRunner<T>
         @Override
         public ClientResponse<InputStream> done(ClientResponse<InputStream> clientResponse)
         {
+          if (dropped) {
+            return ClientResponse.finished(clientResponse.getObj());
+          }
+
           long stopTimeNs = System.nanoTime();
           long nodeTimeNs = stopTimeNs - requestStartTimeNs;
+          latencyStats.recordResponseTime(nodeTimeNs);
           final long nodeTimeMs = TimeUnit.NANOSECONDS.toMillis(nodeTimeNs);
           log.debug(
               "Completed queryId[%s] request to url[%s] with %,d bytes returned in %,d millis [%,f b/s].",
@@ -363,7 +509,7 @@ public class DirectDruidClient<T> implements QueryRunner<T>
           responseMetrics.reportNodeTime(nodeTimeNs);
           responseMetrics.reportNodeBytes(totalByteCount.get());
 
-          if (usingBackpressure) {
+          if (usingBackpressure || usingQueuedBytesBudget) {
             responseMetrics.reportBackPressureTime(channelSuspendedTime.get());
           }
 
@@ -398,28 +544,57 @@ public class DirectDruidClient<T> implements QueryRunner<T>
           setupResponseReadFailure(msg, e);
         }
 
+        /**
+         * Fails the response, unless it already failed, once it isn't going to be consumed anymore, so that the bytes
+         * it queued, and the ones it would queue next, are given back to the budget shared with other queries.
+         */
+        private void abandon(String msg)
+        {
+          synchronized (queue) {
+            if (fail.get() == null) {
+              setupResponseReadFailure(msg, null);
+            }
+          }
+        }
+
         private void setupResponseReadFailure(String msg, Throwable th)
         {
-          fail.set(msg);
-          queue.clear();
-          queue.offer(
-              InputStreamHolder.fromStream(
-                  new InputStream()
-                  {
-                    @Override
-                    public int read() throws IOException
+          queuedBytesBudget.unregisterRelease(releaseOnTimeout);
+          synchronized (queue) {
+            fail.set(msg);
+            releaseQueued();
+            queue.offer(
+                InputStreamHolder.fromStream(
+                    new InputStream()
                     {
-                      if (th != null) {
-                        throw new IOException(msg, th);
-                      } else {
-                        throw new IOException(msg);
+                      @Override
+                      public int read() throws IOException
+                      {
+                        if (th != null) {
+                          throw new IOException(msg, th);
+                        } else {
+                          throw new IOException(msg);
+                        }
                       }
-                    }
-                  },
-                  -1,
-                  0
-              )
-          );
+                    },
+                    -1,
+                    0
+                )
+            );
+          }
+        }
+
+        /**
+         * Discards the queued buffers, giving their bytes back to the budget shared with other queries.
+         */
+        private void releaseQueued()
+        {
+          final List<InputStreamHolder> discarded = new ArrayList<>();
+          queue.drainTo(discarded);
+          for (InputStreamHolder holder : discarded) {
+            queuedByteCount.addAndGet(-holder.getLength());
+            queuedBytesBudget.release(holder.getLength());
+          }
         }
 
         // Returns remaining timeout or throws exception if timeout already elapsed.
@@ -447,7 +622,8 @@ public class DirectDruidClient<T> implements QueryRunner<T>
             throw new RE(msg);
           }
         }
-      };
+      }
+      final ResponseHandler responseHandler = new ResponseHandler();
 
       long timeLeft = timeoutAt - System.currentTimeMillis();
 
@@ -455,15 +631,20 @@ public class DirectDruidClient<T> implements QueryRunner<T>
         throw new QueryTimeoutException(StringUtils.nonStrictFormat("Query[%s] url[%s] timed out.", query.getId(), url));
       }
 
+      final Request request = new Request(
+          HttpMethod.POST,
+          new URL(url)
+      ).setContent(objectMapper.writeValueAsBytes(QueryContexts.withTimeout(requestQuery, timeLeft)))
+       .setHeader(
+           HttpHeaders.Names.CONTENT_TYPE,
+           isSmile ? SmileMediaTypes.APPLICATION_JACKSON_SMILE : MediaType.APPLICATION_JSON
+       );
+      if (requestColumnar) {
+        request.setHeader(HttpHeaders.Names.ACCEPT, ColumnarResultFormat.MEDIA_TYPE);
+      }
+
       future = httpClient.go(
-          new Request(
-              HttpMethod.POST,
-              new URL(url)
-          ).setContent(objectMapper.writeValueAsBytes(QueryContexts.withTimeout(query, timeLeft)))
-           .setHeader(
-               HttpHeaders.Names.CONTENT_TYPE,
-               isSmile ? SmileMediaTypes.APPLICATION_JACKSON_SMILE : MediaType.APPLICATION_JSON
-           ),
+          request,
           responseHandler,
           Duration.millis(timeLeft)
       );
@@ -485,8 +666,9 @@ public class DirectDruidClient<T> implements QueryRunner<T>
             public void onFailure(Throwable t)
             {
               openConnections.getAndDecrement();
+              responseHandler.abandon(StringUtils.format("Query[%s] url[%s] failed.", query.getId(), url));
               if (future.isCancelled()) {
-                cancelQuery(query, cancelUrl);
+                cancelQuery(requestQuery, cancelUrl);
               }
             }
           },
@@ -498,6 +680,17 @@ public class DirectDruidClient<T> implements QueryRunner<T>
       throw new RuntimeException(e);
     }
 
+    return future;
+  }
+
+  private Sequence<T> makeResultSequence(final Query<T> query, final ListenableFuture<InputStream> future)
+  {
+    QueryToolChest<T, Query<T>> toolChest = warehouse.getToolChest(query);
+    boolean isBySegment = QueryContexts.isBySegment(query);
+    final JavaType queryResultType = isBySegment ? toolChest.getBySegmentResultType() : toolChest.getBaseResultType();
+    final boolean requestColumnar = ColumnarResultFormat.isRequested(query);
+    final String url = StringUtils.format("%s://%s/druid/v2/", scheme, host);
+
     Sequence<T> retVal = new BaseSequence<>(
         new BaseSequence.IteratorMaker<T, JsonParserIterator<T>>()
         {
@@ -510,7 +703,8 @@ public class DirectDruidClient<T> implements QueryRunner<T>
                 url,
                 query,
                 host,
-                toolChest.decorateObjectMapper(objectMapper, query)
+                toolChest.decorateObjectMapper(objectMapper, query),
+                requestColumnar
             );
           }
 
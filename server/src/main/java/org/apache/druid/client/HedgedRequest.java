@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.context.ResponseContext;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A query sent to a data server, and sent again to another server serving the same segments if the first server did
+ * not start answering after a delay. The response of the first server to answer is read, and the query sent to the
+ * other server is cancelled. The query fails only if all the servers it was sent to failed.
+ */
+class HedgedRequest<T>
+{
+  private static final Logger log = new Logger(HedgedRequest.class);
+
+  private final DirectDruidClient<T> client;
+  private final DirectDruidClient<T> hedgeClient;
+  private final QueryPlus<T> queryPlus;
+  private final ResponseContext context;
+
+  private final SettableFuture<InputStream> response = SettableFuture.create();
+  private final AtomicReference<String> responseClaim = new AtomicReference<>();
+
+  private final Object lock = new Object();
+  @GuardedBy("lock")
+  private final List<ListenableFuture<InputStream>> requests = new ArrayList<>(2);
+  @GuardedBy("lock")
+  private int numFailedRequests = 0;
+  @GuardedBy("lock")
+  private boolean hedgeSent = false;
+  @Nullable
+  @GuardedBy("lock")
+  private ScheduledFuture<?> scheduledHedge = null;
+
+  HedgedRequest(
+      DirectDruidClient<T> client,
+      DirectDruidClient<T> hedgeClient,
+      QueryPlus<T> queryPlus,
+      ResponseContext context
+  )
+  {
+    this.client = client;
+    this.hedgeClient = hedgeClient;
+    this.queryPlus = queryPlus;
+    this.context = context;
+  }
+
+  /**
+   * @return future of the stream of the response of the first server to answer
+   */
+  ListenableFuture<InputStream> send(long hedgeDelayMillis, ScheduledExecutorService exec)
+  {
+    response.addListener(
+        () -> {
+          if (response.isCancelled()) {
+            cancelRequests(null);
+          }
+        },
+        Execs.directExecutor()
+    );
+
+    synchronized (lock) {
+      addRequest(client, queryPlus.getQuery().getId());
+      if (!response.isDone()) {
+        scheduledHedge = exec.schedule(this::sendHedge, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+    return response;
+  }
+
+  private void sendHedge()
+  {
+    synchronized (lock) {
+      if (hedgeSent || response.isDone() || responseClaim.get() != null) {
+        return;
+      }
+      hedgeSent = true;
+      log.debug(
+          "Server[%s] did not answer query[%s] yet, sending it to server[%s].",
+          client.getHost(),
+          queryPlus.getQuery().getId(),
+          hedgeClient.getHost()
+      );
+      try {
+        addRequest(
+            hedgeClient,
+            StringUtils.format("%s-hedge-%s", queryPlus.getQuery().getId(), client.getHost())
+        );
+      }
+      catch (Exception e) {
+        // The query sent to the first server is still running.
+        log.warn(e, "Failed to send query[%s] to server[%s]", queryPlus.getQuery().getId(), hedgeClient.getHost());
+      }
+    }
+  }
+
+  @GuardedBy("lock")
+  private void addRequest(DirectDruidClient<T> requestClient, String requestQueryId)
+  {
+    final ListenableFuture<InputStream> request =
+        requestClient.sendRequest(queryPlus, context, responseClaim, requestQueryId);
+    requests.add(request);
+    Futures.addCallback(
+        request,
+        new FutureCallback<InputStream>()
+        {
+          @Override
+          public void onSuccess(InputStream result)
+          {
+            // Responses of the other servers are dropped by their clients.
+            if (requestClient.getHost().equals(responseClaim.get())) {
+              response.set(result);
+              cancelRequests(request);
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t)
+          {
+            synchronized (lock) {
+              numFailedRequests++;
+              if (numFailedRequests == requests.size() && !response.isDone()) {
+                // No other request is running, don't send one anymore.
+                hedgeSent = true;
+                if (scheduledHedge != null) {
+                  scheduledHedge.cancel(false);
+                }
+                response.setException(t);
+              }
+            }
+          }
+        },
+        Execs.directExecutor()
+    );
+  }
+
+  /**
+   * Cancels the requests other than the given one, which cancels the queries on their servers.
+   */
+  private void cancelRequests(@Nullable ListenableFuture<InputStream> except)
+  {
+    synchronized (lock) {
+      hedgeSent = true;
+      if (scheduledHedge != null) {
+        scheduledHedge.cancel(false);
+      }
+      for (ListenableFuture<InputStream> request : requests) {
+        if (request != except) {
+          request.cancel(true);
+        }
+      }
+    }
+  }
+}
@@ -32,11 +32,14 @@ import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryInterruptedException;
 import org.apache.druid.query.QueryTimeoutException;
 import org.apache.druid.query.ResourceLimitExceededException;
+import org.apache.druid.query.columnar.ColumnarResultFormat;
+import org.apache.druid.query.columnar.ColumnarResultReader;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.Iterator;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
@@ -50,6 +53,8 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
 
   private JsonParser jp;
   private ObjectCodec objectCodec;
+  @Nullable
+  private ColumnarResultReader<T> columnarReader;
   private final JavaType typeRef;
   private final Future<InputStream> future;
   private final String url;
@@ -58,6 +63,9 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
   private final boolean hasTimeout;
   private final long timeoutAt;
   private final String queryId;
+  @Nullable
+  private final Query<T> query;
+  private final boolean acceptColumnar;
 
   public JsonParserIterator(
       JavaType typeRef,
@@ -67,6 +75,23 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
       String host,
       ObjectMapper objectMapper
   )
+  {
+    this(typeRef, future, url, query, host, objectMapper, false);
+  }
+
+  /**
+   * @param acceptColumnar whether the response may be in the {@link ColumnarResultFormat}, in which case the stream is
+   *                       read as such if it starts with the columnar header, and as JSON or Smile otherwise
+   */
+  public JsonParserIterator(
+      JavaType typeRef,
+      Future<InputStream> future,
+      String url,
+      @Nullable Query<T> query,
+      String host,
+      ObjectMapper objectMapper,
+      boolean acceptColumnar
+  )
   {
     this.typeRef = typeRef;
     this.future = future;
@@ -82,6 +107,8 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
     this.host = host;
     this.objectMapper = objectMapper;
     this.hasTimeout = timeoutAt > -1;
+    this.query = query;
+    this.acceptColumnar = acceptColumnar && query != null;
   }
 
   @Override
@@ -89,6 +116,15 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
   {
     init();
 
+    if (columnarReader != null) {
+      try {
+        return columnarReader.hasNext();
+      }
+      catch (IOException e) {
+        throw convertException(e);
+      }
+    }
+
     if (jp.isClosed()) {
       return false;
     }
@@ -106,19 +142,27 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
     init();
 
     try {
+      if (columnarReader != null) {
+        return columnarReader.next();
+      }
       final T retVal = objectCodec.readValue(jp, typeRef);
       jp.nextToken();
       return retVal;
     }
     catch (IOException e) {
-      // check for timeout, a failure here might be related to a timeout, so lets just attribute it
-      if (checkTimeout()) {
-        QueryTimeoutException timeoutException = timeoutQuery();
-        timeoutException.addSuppressed(e);
-        throw timeoutException;
-      } else {
-        throw interruptQuery(e);
-      }
+      throw convertException(e);
+    }
+  }
+
+  private RuntimeException convertException(IOException e)
+  {
+    // check for timeout, a failure here might be related to a timeout, so lets just attribute it
+    if (checkTimeout()) {
+      QueryTimeoutException timeoutException = timeoutQuery();
+      timeoutException.addSuppressed(e);
+      return timeoutException;
+    } else {
+      return interruptQuery(e);
     }
   }
 
@@ -134,6 +178,9 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
     if (jp != null) {
       jp.close();
     }
+    if (columnarReader != null) {
+      columnarReader.close();
+    }
   }
 
   private boolean checkTimeout()
@@ -152,7 +199,7 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
 
   private void init()
   {
-    if (jp == null) {
+    if (jp == null && columnarReader == null) {
       try {
         long timeLeftMillis = timeoutAt - System.currentTimeMillis();
         if (checkTimeout(timeLeftMillis)) {
@@ -160,6 +207,15 @@ public class JsonParserIterator<T> implements Iterator<T>, Closeable
         }
         InputStream is = hasTimeout ? future.get(timeLeftMillis, TimeUnit.MILLISECONDS) : future.get();
 
+        if (is != null && acceptColumnar) {
+          final PushbackInputStream pushbackStream = ColumnarResultFormat.pushbackStream(is);
+          if (ColumnarResultFormat.readHeader(pushbackStream)) {
+            columnarReader = ColumnarResultFormat.newReader(query, pushbackStream, objectMapper);
+            return;
+          }
+          is = pushbackStream;
+        }
+
         if (is != null) {
           jp = objectMapper.getFactory().createParser(is);
         } else if (checkTimeout()) {
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client;
+
+import com.google.common.base.Preconditions;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.logger.Logger;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on the bytes of query results received by the Broker from data servers and not consumed yet by the merge of
+ * the results, shared by the {@link DirectDruidClient}s of all the data servers.
+ *
+ * Reserving bytes never blocks: once the budget is exhausted, a {@link DirectDruidClient} stops reading from its
+ * connection after the chunk it just received, and resumes once all the chunks it queued have been consumed. So a
+ * merge waiting for results from one data server is never blocked by results queued for other data servers, and the
+ * number of queued bytes can exceed the limit by at most one chunk per connection.
+ *
+ * A limited budget also runs a single periodic sweep, shared by all the clients, which gives back the bytes queued by
+ * responses whose query timed out, see {@link #registerRelease}.
+ */
+public class QueuedBytesBudget
+{
+  private static final Logger log = new Logger(QueuedBytesBudget.class);
+  private static final QueuedBytesBudget UNLIMITED = new QueuedBytesBudget(0);
+  private static final long RELEASE_TIMED_OUT_RESPONSES_PERIOD_MILLIS = 1000;
+
+  private final long maxQueuedBytes;
+  private final AtomicLong queuedBytes = new AtomicLong(0);
+  // Releases of the bytes queued by the responses not consumed yet, with the time their queries time out, see
+  // releaseTimedOutResponses().
+  private final ConcurrentMap<Runnable, Long> releases = new ConcurrentHashMap<>();
+  @Nullable
+  private final ScheduledExecutorService releaseExec;
+
+  /**
+   * @param maxQueuedBytes limit on queued bytes, 0 for no limit
+   */
+  public QueuedBytesBudget(long maxQueuedBytes)
+  {
+    Preconditions.checkArgument(maxQueuedBytes >= 0, "maxQueuedBytes must be non-negative");
+    this.maxQueuedBytes = maxQueuedBytes;
+    if (isLimited()) {
+      this.releaseExec = Execs.scheduledSingleThreaded("QueuedBytesBudget-release");
+      releaseExec.scheduleWithFixedDelay(
+          this::releaseTimedOutResponses,
+          RELEASE_TIMED_OUT_RESPONSES_PERIOD_MILLIS,
+          RELEASE_TIMED_OUT_RESPONSES_PERIOD_MILLIS,
+          TimeUnit.MILLISECONDS
+      );
+    } else {
+      this.releaseExec = null;
+    }
+  }
+
+  public static QueuedBytesBudget unlimited()
+  {
+    return UNLIMITED;
+  }
+
+  public boolean isLimited()
+  {
+    return maxQueuedBytes > 0;
+  }
+
+  /**
+   * Accounts for bytes being queued. The bytes are always reserved, even if the limit is exceeded.
+   *
+   * @return true if the bytes queued by all clients are still under the limit
+   */
+  public boolean reserve(long bytes)
+  {
+    if (!isLimited()) {
+      return true;
+    }
+    return queuedBytes.addAndGet(bytes) < maxQueuedBytes;
+  }
+
+  /**
+   * Accounts for queued bytes being consumed or discarded.
+   */
+  public void release(long bytes)
+  {
+    if (isLimited()) {
+      queuedBytes.addAndGet(-bytes);
+    }
+  }
+
+  /**
+   * Registers the release of the bytes queued by a response, to be run once its query timed out, unless it is
+   * unregistered first by {@link #unregisterRelease}.
+   */
+  public void registerRelease(Runnable release, long timeoutAt)
+  {
+    if (isLimited()) {
+      releases.put(release, timeoutAt);
+    }
+  }
+
+  public void unregisterRelease(Runnable release)
+  {
+    releases.remove(release);
+  }
+
+  /**
+   * Stops the sweep of the responses whose query timed out. The budget must not be used anymore afterwards.
+   */
+  public void stop()
+  {
+    if (releaseExec != null) {
+      releaseExec.shutdownNow();
+    }
+  }
+
+  public long getQueuedBytes()
+  {
+    return queuedBytes.get();
+  }
+
+  public long getMaxQueuedBytes()
+  {
+    return maxQueuedBytes;
+  }
+
+  /**
+   * Fails the responses whose query timed out, giving the bytes they queued back to the budget. Otherwise, a response
+   * received in full before its query timed out or was cancelled, and never consumed, would keep them reserved
+   * forever, as nothing would read from it or close it.
+   */
+  private void releaseTimedOutResponses()
+  {
+    try {
+      final long now = System.currentTimeMillis();
+      releases.forEach(
+          (release, timeoutAt) -> {
+            if (timeoutAt <= now) {
+              release.run();
+            }
+          }
+      );
+    }
+    catch (Throwable t) {
+      log.error(t, "Error releasing the queued bytes of timed out queries");
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Latency of the responses of a data server to the queries of this Broker, measured by its {@link DirectDruidClient}.
+ *
+ * Three times are tracked, as exponentially weighted moving averages: the time to the first byte of the response, the
+ * time to the whole response, and the queue time, which is the longest time a segment of the query waited for a
+ * processing thread on the data server, as reported by the data server. The most recent times to first byte are also
+ * kept, to compute their percentiles.
+ */
+public class ServerLatencyStats
+{
+  /**
+   * Weight of a new sample in the moving averages.
+   */
+  static final double ALPHA = 0.2;
+
+  /**
+   * Number of most recent times to first byte used to compute percentiles.
+   */
+  static final int NUM_SAMPLES = 128;
+
+  /**
+   * Minimum number of times to first byte needed to compute percentiles.
+   */
+  static final int MIN_SAMPLES_FOR_PERCENTILE = 16;
+
+  private final long[] timeToFirstByteSamples = new long[NUM_SAMPLES];
+  private int numSamples = 0;
+  private int nextSample = 0;
+
+  private double averageTimeToFirstByteNs = 0;
+  private double averageResponseTimeNs = 0;
+  private boolean hasResponseTime = false;
+  private double averageQueueTimeNs = 0;
+  private boolean hasQueueTime = false;
+
+  public synchronized void recordTimeToFirstByte(long timeNs)
+  {
+    averageTimeToFirstByteNs = numSamples == 0 ? timeNs : movingAverage(averageTimeToFirstByteNs, timeNs);
+    timeToFirstByteSamples[nextSample] = timeNs;
+    nextSample = (nextSample + 1) % NUM_SAMPLES;
+    numSamples = Math.min(numSamples + 1, NUM_SAMPLES);
+  }
+
+  public synchronized void recordResponseTime(long timeNs)
+  {
+    averageResponseTimeNs = hasResponseTime ? movingAverage(averageResponseTimeNs, timeNs) : timeNs;
+    hasResponseTime = true;
+  }
+
+  public synchronized void recordQueueTime(long timeNs)
+  {
+    averageQueueTimeNs = hasQueueTime ? movingAverage(averageQueueTimeNs, timeNs) : timeNs;
+    hasQueueTime = true;
+  }
+
+  /**
+   * Returns the expected time for the server to answer a query, or 0 if nothing has been measured yet, so that servers
+   * which were not queried yet are tried.
+   */
+  public synchronized double getExpectedResponseTimeNs()
+  {
+    return hasResponseTime ? Math.max(averageResponseTimeNs, averageTimeToFirstByteNs) : averageTimeToFirstByteNs;
+  }
+
+  public synchronized double getAverageTimeToFirstByteNs()
+  {
+    return averageTimeToFirstByteNs;
+  }
+
+  /**
+   * Returns the average queue time of queries on the server, or 0 if the server did not report any.
+   */
+  public synchronized double getAverageQueueTimeNs()
+  {
+    return averageQueueTimeNs;
+  }
+
+  /**
+   * Returns the given percentile of the most recent times to first byte, or -1 if too few were measured.
+   *
+   * @param percentile percentile between 0 and 1
+   */
+  public long getTimeToFirstBytePercentileNs(double percentile)
+  {
+    Preconditions.checkArgument(percentile >= 0 && percentile <= 1, "percentile must be between 0 and 1");
+    final long[] samples;
+    synchronized (this) {
+      if (numSamples < MIN_SAMPLES_FOR_PERCENTILE) {
+        return -1;
+      }
+      samples = Arrays.copyOf(timeToFirstByteSamples, numSamples);
+    }
+    Arrays.sort(samples);
+    final int index = (int) Math.ceil(percentile * samples.length) - 1;
+    return samples[Math.max(0, Math.min(samples.length - 1, index))];
+  }
+
+  private static double movingAverage(double average, long sample)
+  {
+    return average + ALPHA * (sample - average);
+  }
+}
@@ -60,6 +60,13 @@ public class CacheConfig
   @JsonProperty
   private int resultLevelCacheLimit = Integer.MAX_VALUE;
 
+  @JsonProperty
+  private boolean incrementalResultLevelCache = false;
+
+  @JsonProperty
+  @Min(1)
+  private int incrementalResultLevelCacheMaxBuckets = 200;
+
   public boolean isPopulateCache()
   {
     return populateCache;
@@ -100,6 +107,16 @@ public class CacheConfig
     return resultLevelCacheLimit;
   }
 
+  public boolean isIncrementalResultLevelCache()
+  {
+    return incrementalResultLevelCache;
+  }
+
+  public int getIncrementalResultLevelCacheMaxBuckets()
+  {
+    return incrementalResultLevelCacheMaxBuckets;
+  }
+
   public boolean isQueryCacheable(Query query)
   {
     return isQueryCacheable(query.getType());
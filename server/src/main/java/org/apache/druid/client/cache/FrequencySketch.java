@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+/**
+ * Count-min sketch of the access frequencies of cache keys, with 4-bit counters packed 16 per long, used by
+ * {@link OffHeapCache} to decide whether an entry is worth evicting others. All the counters are halved after a number
+ * of increments proportional to the width of the sketch, so that the frequencies of keys which are not accessed
+ * anymore decay.
+ *
+ * Not thread safe.
+ */
+class FrequencySketch
+{
+  static final int MAX_FREQUENCY = 15;
+
+  private static final int MIN_WIDTH = 64;
+  private static final int MAX_WIDTH = 1 << 20;
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L,
+      0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL,
+      0xcbf29ce484222325L
+  };
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int numIncrements = 0;
+
+  /**
+   * @param expectedNumKeys maximum number of keys expected in the cache, which sizes the sketch
+   */
+  FrequencySketch(long expectedNumKeys)
+  {
+    final int width = Integer.highestOneBit((int) Math.max(MIN_WIDTH, Math.min(MAX_WIDTH, expectedNumKeys)) - 1) << 1;
+    this.table = new long[width];
+    this.tableMask = width - 1;
+    this.sampleSize = 10 * width;
+  }
+
+  /**
+   * Returns the estimated number of accesses to the key with the given hash, at most {@link #MAX_FREQUENCY}.
+   */
+  int frequency(int hash)
+  {
+    int frequency = MAX_FREQUENCY;
+    for (int i = 0; i < SEEDS.length; i++) {
+      final long h = rehash(hash, i);
+      frequency = Math.min(frequency, (int) ((table[index(h)] >>> offset(h)) & 0xfL));
+    }
+    return frequency;
+  }
+
+  /**
+   * Increments the counters of the key with the given hash. Only the counters at the current estimate are incremented,
+   * the others already count accesses to other keys, which keeps the keys accessed once from adding up to the
+   * estimates of the keys they share counters with.
+   */
+  void increment(int hash)
+  {
+    final int frequency = frequency(hash);
+    if (frequency == MAX_FREQUENCY) {
+      return;
+    }
+
+    for (int i = 0; i < SEEDS.length; i++) {
+      final long h = rehash(hash, i);
+      final int index = index(h);
+      final int offset = offset(h);
+      if (((table[index] >>> offset) & 0xfL) == frequency) {
+        table[index] += 1L << offset;
+      }
+    }
+
+    if (++numIncrements >= sampleSize) {
+      reset();
+    }
+  }
+
+  private void reset()
+  {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    numIncrements /= 2;
+  }
+
+  private int index(long h)
+  {
+    return (int) h & tableMask;
+  }
+
+  private static int offset(long h)
+  {
+    // The high bits pick one of the 16 counters of the long, the low bits pick the long.
+    return (int) (h >>> 60) << 2;
+  }
+
+  private static long rehash(int hash, int i)
+  {
+    long h = (hash ^ SEEDS[i]) * 0x9e3779b97f4a7c15L;
+    h ^= h >>> 29;
+    h *= 0xbf58476d1ce4e5b9L;
+    return h ^ (h >>> 32);
+  }
+}
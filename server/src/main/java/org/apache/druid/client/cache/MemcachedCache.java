@@ -41,9 +41,11 @@ import net.spy.memcached.metrics.MetricCollector;
 import net.spy.memcached.metrics.MetricType;
 import net.spy.memcached.ops.LinkedOperationQueueFactory;
 import net.spy.memcached.ops.OperationQueueFactory;
+import net.spy.memcached.transcoders.SerializingTranscoder;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.druid.collections.ResourceHolder;
 import org.apache.druid.collections.StupidResourceHolder;
+import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
 import org.apache.druid.java.util.common.logger.Logger;
@@ -148,7 +150,17 @@ public class MemcachedCache implements Cache
           }
         };
     try {
-      LZ4Transcoder transcoder = new LZ4Transcoder(config.getMaxObjectSize());
+      final SerializingTranscoder transcoder;
+      switch (StringUtils.toLowerCase(config.getCompression())) {
+        case "lz4":
+          transcoder = new LZ4Transcoder(config.getMaxObjectSize());
+          break;
+        case "zstd":
+          transcoder = new ZstdTranscoder(config.getMaxObjectSize(), config.getCompressionLevel());
+          break;
+        default:
+          throw new IAE("Unknown compression[%s], must be one of [lz4, zstd]", config.getCompression());
+      }
 
       // always use compression
       transcoder.setCompressionThreshold(0);
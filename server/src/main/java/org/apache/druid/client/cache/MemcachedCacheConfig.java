@@ -63,6 +63,14 @@ public class MemcachedCacheConfig
   @JsonProperty
   private String locator = "consistent";
 
+  // compression of cached values, "lz4" or "zstd"
+  @JsonProperty
+  private String compression = "lz4";
+
+  // zstd compression level, only used if compression is "zstd"
+  @JsonProperty
+  private int compressionLevel = 3;
+
   public int getExpiration()
   {
     return expiration;
@@ -112,4 +120,14 @@ public class MemcachedCacheConfig
   {
     return locator;
   }
+
+  public String getCompression()
+  {
+    return compression;
+  }
+
+  public int getCompressionLevel()
+  {
+    return compressionLevel;
+  }
 }
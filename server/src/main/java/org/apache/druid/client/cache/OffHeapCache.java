@@ -0,0 +1,651 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.github.luben.zstd.Zstd;
+import com.google.common.annotations.VisibleForTesting;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.utils.JvmUtils;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache which stores values in off-heap memory, so that large cached results don't churn the heap.
+ *
+ * The off-heap memory is allocated in slabs as the cache fills up, and divided in blocks of
+ * {@link OffHeapCacheConfig#getBlockSize()} bytes. A value is stored in as many blocks as needed, which don't have to
+ * be contiguous, so the memory never gets fragmented. Entries are charged for the blocks they occupy.
+ *
+ * Entries are evicted with the W-TinyLFU policy: new entries go to a small LRU window, and when they leave the window
+ * they are only admitted in the main part of the cache if their access frequency, estimated by a
+ * {@link FrequencySketch}, is higher than the combined frequency of the entries they would replace. Entries accessed
+ * once, like the results of one-off scans, therefore don't evict the entries which are accessed repeatedly. The main
+ * part is a segmented LRU, where entries accessed again move from the probation segment to the protected segment.
+ *
+ * Values are compressed and decompressed outside of the lock which guards the entries, only the copies from and to the
+ * off-heap memory are done while holding it.
+ */
+public class OffHeapCache implements Cache
+{
+  private static final Logger log = new Logger(OffHeapCache.class);
+  private static final long MAX_DEFAULT_BYTES = 1024 * 1024 * 1024;
+  private static final double WINDOW_FRACTION = 0.01;
+  private static final double PROTECTED_FRACTION = 0.8;
+  private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+  private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4_FACTORY.fastDecompressor();
+  private static final LZ4Compressor LZ4_COMPRESSOR = LZ4_FACTORY.fastCompressor();
+
+  private enum Compression
+  {
+    NONE,
+    LZ4,
+    ZSTD
+  }
+
+  private final OffHeapCacheConfig config;
+  private final Compression compression;
+  private final int blockSize;
+  private final int blocksPerSlab;
+  private final int maxNumBlocks;
+  private final long windowMaxBytes;
+  private final long mainMaxBytes;
+  private final long protectedMaxBytes;
+
+  @GuardedBy("this")
+  private final Map<NamedKey, Entry> entries = new HashMap<>();
+  @GuardedBy("this")
+  private final EntryList window = new EntryList();
+  @GuardedBy("this")
+  private final EntryList probation = new EntryList();
+  @GuardedBy("this")
+  private final EntryList protectedList = new EntryList();
+  @GuardedBy("this")
+  private final FrequencySketch sketch;
+  @GuardedBy("this")
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+  @GuardedBy("this")
+  private final IntArrayList freeBlocks = new IntArrayList();
+  @GuardedBy("this")
+  private boolean closed = false;
+
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong missCount = new AtomicLong(0);
+  private final AtomicLong evictionCount = new AtomicLong(0);
+  private final AtomicLong rejectionCount = new AtomicLong(0);
+  private final AtomicLong errorCount = new AtomicLong(0);
+  private final AtomicLong priorRejectionCount = new AtomicLong(0);
+
+  public static OffHeapCache create(final OffHeapCacheConfig config)
+  {
+    long sizeInBytes = config.getSizeInBytes();
+    if (sizeInBytes < 0) {
+      try {
+        sizeInBytes = Math.min(MAX_DEFAULT_BYTES, JvmUtils.getRuntimeInfo().getDirectMemorySizeBytes() / 10);
+      }
+      catch (UnsupportedOperationException e) {
+        sizeInBytes = MAX_DEFAULT_BYTES;
+      }
+    }
+    return new OffHeapCache(config, sizeInBytes);
+  }
+
+  @VisibleForTesting
+  OffHeapCache(final OffHeapCacheConfig config, final long sizeInBytes)
+  {
+    this.config = config;
+    this.blockSize = config.getBlockSize();
+    if (blockSize <= 0) {
+      throw new IAE("blockSize[%,d] must be positive", blockSize);
+    }
+    if (config.getSlabSizeInBytes() < blockSize || config.getSlabSizeInBytes() > Integer.MAX_VALUE) {
+      throw new IAE(
+          "slabSizeInBytes[%,d] must be between blockSize[%,d] and %,d",
+          config.getSlabSizeInBytes(),
+          blockSize,
+          Integer.MAX_VALUE
+      );
+    }
+    if (sizeInBytes / blockSize > Integer.MAX_VALUE) {
+      throw new IAE("sizeInBytes[%,d] is too large for blockSize[%,d]", sizeInBytes, blockSize);
+    }
+
+    switch (StringUtils.toLowerCase(config.getCompression())) {
+      case "none":
+        this.compression = Compression.NONE;
+        break;
+      case "lz4":
+        this.compression = Compression.LZ4;
+        break;
+      case "zstd":
+        this.compression = Compression.ZSTD;
+        break;
+      default:
+        throw new IAE("Unknown compression[%s], must be one of [none, lz4, zstd]", config.getCompression());
+    }
+
+    this.blocksPerSlab = (int) (config.getSlabSizeInBytes() / blockSize);
+    this.maxNumBlocks = (int) (sizeInBytes / blockSize);
+    final long maxBytes = (long) maxNumBlocks * blockSize;
+    this.windowMaxBytes = Math.min(maxBytes, Math.max(blockSize, (long) (maxBytes * WINDOW_FRACTION)));
+    this.mainMaxBytes = maxBytes - windowMaxBytes;
+    this.protectedMaxBytes = (long) (mainMaxBytes * PROTECTED_FRACTION);
+    // Each entry occupies at least one block.
+    this.sketch = new FrequencySketch(maxNumBlocks);
+  }
+
+  @Nullable
+  @Override
+  public byte[] get(NamedKey key)
+  {
+    final byte[] stored;
+    synchronized (this) {
+      stored = getStored(key);
+    }
+    return deserialize(stored);
+  }
+
+  @Override
+  public Map<NamedKey, byte[]> getBulk(Iterable<NamedKey> keys)
+  {
+    // Takes the lock once for all the keys, values are decompressed after releasing it.
+    final Map<NamedKey, byte[]> storedValues = new HashMap<>();
+    synchronized (this) {
+      for (NamedKey key : keys) {
+        final byte[] stored = getStored(key);
+        if (stored != null) {
+          storedValues.put(key, stored);
+        }
+      }
+    }
+
+    final Map<NamedKey, byte[]> retVal = new HashMap<>();
+    for (Map.Entry<NamedKey, byte[]> entry : storedValues.entrySet()) {
+      final byte[] value = deserialize(entry.getValue());
+      if (value != null) {
+        retVal.put(entry.getKey(), value);
+      }
+    }
+    return retVal;
+  }
+
+  @Override
+  public void put(NamedKey key, byte[] value)
+  {
+    final byte[] stored = serialize(value);
+    final long weight = Math.max(1, ((long) stored.length + blockSize - 1) / blockSize) * blockSize;
+
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      sketch.increment(key.hashCode());
+
+      final Entry existing = entries.remove(key);
+      if (existing != null) {
+        existing.list.remove(existing);
+        release(existing);
+      }
+
+      if (weight > mainMaxBytes) {
+        // Would evict most of the cache.
+        rejectionCount.incrementAndGet();
+        return;
+      }
+
+      final Entry entry = new Entry(key, stored.length, weight);
+      entries.put(key, entry);
+      window.addLast(entry);
+      evictFromWindow();
+
+      // The new entry is only evicted from the window if it is larger than the window.
+      if (entry.list != null) {
+        entry.blocks = allocate((int) (weight / blockSize));
+        write(entry.blocks, stored);
+      }
+    }
+  }
+
+  @Override
+  public void close(String namespace)
+  {
+    if (!config.isEvictOnClose()) {
+      return;
+    }
+    synchronized (this) {
+      final Iterator<Entry> iterator = entries.values().iterator();
+      while (iterator.hasNext()) {
+        final Entry entry = iterator.next();
+        if (entry.key.namespace.equals(namespace)) {
+          iterator.remove();
+          entry.list.remove(entry);
+          release(entry);
+        }
+      }
+    }
+  }
+
+  @Override
+  @LifecycleStop
+  public void close()
+  {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      entries.clear();
+      window.clear();
+      probation.clear();
+      protectedList.clear();
+      freeBlocks.clear();
+      for (ByteBuffer slab : slabs) {
+        ByteBufferUtils.free(slab);
+      }
+      slabs.clear();
+    }
+  }
+
+  @Override
+  public CacheStats getStats()
+  {
+    final long numEntries;
+    final long sizeInBytes;
+    synchronized (this) {
+      numEntries = entries.size();
+      sizeInBytes = window.bytes + probation.bytes + protectedList.bytes;
+    }
+    return new CacheStats(
+        hitCount.get(),
+        missCount.get(),
+        numEntries,
+        sizeInBytes,
+        evictionCount.get(),
+        0,
+        errorCount.get()
+    );
+  }
+
+  @Override
+  public boolean isLocal()
+  {
+    return true;
+  }
+
+  @Override
+  public void doMonitor(ServiceEmitter emitter)
+  {
+    final long rejections = rejectionCount.get();
+    final long priorRejections = priorRejectionCount.getAndSet(rejections);
+    final long allocatedBytes;
+    synchronized (this) {
+      allocatedBytes = slabs.stream().mapToLong(ByteBuffer::capacity).sum();
+    }
+
+    final ServiceMetricEvent.Builder builder = ServiceMetricEvent.builder();
+    emitter.emit(builder.build("query/cache/offheap/delta/rejections", rejections - priorRejections));
+    emitter.emit(builder.build("query/cache/offheap/total/rejections", rejections));
+    emitter.emit(builder.build("query/cache/offheap/total/allocatedBytes", allocatedBytes));
+  }
+
+  @VisibleForTesting
+  long getRejectionCount()
+  {
+    return rejectionCount.get();
+  }
+
+  @VisibleForTesting
+  synchronized int getNumSlabs()
+  {
+    return slabs.size();
+  }
+
+  /**
+   * Returns the stored, possibly compressed, value of the given key, and records the access.
+   */
+  @GuardedBy("this")
+  @Nullable
+  private byte[] getStored(NamedKey key)
+  {
+    if (closed) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    sketch.increment(key.hashCode());
+
+    final Entry entry = entries.get(key);
+    if (entry == null || entry.blocks == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    onAccess(entry);
+    return read(entry);
+  }
+
+  @GuardedBy("this")
+  private void onAccess(Entry entry)
+  {
+    if (entry.list == probation) {
+      probation.remove(entry);
+      protectedList.addLast(entry);
+      while (protectedList.bytes > protectedMaxBytes) {
+        final Entry demoted = protectedList.head;
+        protectedList.remove(demoted);
+        probation.addLast(demoted);
+      }
+    } else {
+      entry.list.moveToLast(entry);
+    }
+  }
+
+  /**
+   * Moves the least recently used entries of the window to the main part of the cache, or evicts them, until the
+   * window fits in its share of the cache.
+   */
+  @GuardedBy("this")
+  private void evictFromWindow()
+  {
+    while (window.bytes > windowMaxBytes) {
+      final Entry candidate = window.head;
+      window.remove(candidate);
+      admitOrEvict(candidate);
+    }
+  }
+
+  @GuardedBy("this")
+  private void admitOrEvict(Entry candidate)
+  {
+    long bytesToFree = probation.bytes + protectedList.bytes + candidate.weight - mainMaxBytes;
+    if (bytesToFree <= 0) {
+      probation.addLast(candidate);
+      return;
+    }
+
+    // The candidate must be accessed more often than all the entries it would replace combined, so that a large entry
+    // doesn't evict many smaller entries which are accessed more often overall.
+    final int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+    final List<Entry> victims = new ArrayList<>();
+    int victimsFrequency = 0;
+    for (EntryList list : new EntryList[]{probation, protectedList}) {
+      for (Entry victim = list.head;
+           victim != null && bytesToFree > 0 && victimsFrequency < candidateFrequency;
+           victim = victim.next) {
+        victims.add(victim);
+        victimsFrequency += sketch.frequency(victim.key.hashCode());
+        bytesToFree -= victim.weight;
+      }
+    }
+
+    if (bytesToFree > 0 || victimsFrequency >= candidateFrequency) {
+      rejectionCount.incrementAndGet();
+      evict(candidate);
+    } else {
+      for (Entry victim : victims) {
+        victim.list.remove(victim);
+        evict(victim);
+      }
+      probation.addLast(candidate);
+    }
+  }
+
+  /**
+   * Evicts an entry which was already removed from its list.
+   */
+  @GuardedBy("this")
+  private void evict(Entry entry)
+  {
+    entries.remove(entry.key);
+    release(entry);
+    evictionCount.incrementAndGet();
+  }
+
+  @GuardedBy("this")
+  private int[] allocate(int numBlocks)
+  {
+    final int[] blocks = new int[numBlocks];
+    for (int i = 0; i < numBlocks; i++) {
+      if (freeBlocks.isEmpty()) {
+        allocateSlab();
+      }
+      blocks[i] = freeBlocks.popInt();
+    }
+    return blocks;
+  }
+
+  @GuardedBy("this")
+  private void allocateSlab()
+  {
+    final int firstBlock = slabs.size() * blocksPerSlab;
+    final int numBlocks = Math.min(blocksPerSlab, maxNumBlocks - firstBlock);
+    if (numBlocks <= 0) {
+      // Entries are never charged more than the size of the cache.
+      throw new ISE("No free block left in cache of %,d blocks", maxNumBlocks);
+    }
+    log.debug("Allocating slab of %,d bytes, %,d slabs allocated so far.", numBlocks * blockSize, slabs.size());
+    slabs.add(ByteBuffer.allocateDirect(numBlocks * blockSize));
+    // Pushed in reverse order so that the blocks are used in memory order.
+    for (int block = firstBlock + numBlocks - 1; block >= firstBlock; block--) {
+      freeBlocks.add(block);
+    }
+  }
+
+  @GuardedBy("this")
+  private void release(Entry entry)
+  {
+    if (entry.blocks != null) {
+      freeBlocks.addElements(freeBlocks.size(), entry.blocks);
+      entry.blocks = null;
+    }
+  }
+
+  @GuardedBy("this")
+  private void write(int[] blocks, byte[] bytes)
+  {
+    for (int i = 0; i < blocks.length; i++) {
+      final int offset = i * blockSize;
+      final ByteBuffer slab = slab(blocks[i]);
+      slab.put(bytes, offset, Math.min(blockSize, bytes.length - offset));
+    }
+  }
+
+  @GuardedBy("this")
+  private byte[] read(Entry entry)
+  {
+    final byte[] bytes = new byte[entry.length];
+    for (int i = 0; i < entry.blocks.length; i++) {
+      final int offset = i * blockSize;
+      final ByteBuffer slab = slab(entry.blocks[i]);
+      slab.get(bytes, offset, Math.min(blockSize, bytes.length - offset));
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the slab of the given block, positioned at the start of the block.
+   */
+  @GuardedBy("this")
+  private ByteBuffer slab(int block)
+  {
+    final ByteBuffer slab = slabs.get(block / blocksPerSlab);
+    slab.position((block % blocksPerSlab) * blockSize);
+    return slab;
+  }
+
+  private byte[] serialize(byte[] value)
+  {
+    switch (compression) {
+      case LZ4: {
+        final byte[] out = new byte[LZ4_COMPRESSOR.maxCompressedLength(value.length)];
+        final int compressedSize = LZ4_COMPRESSOR.compress(value, 0, value.length, out, 0);
+        return ByteBuffer.allocate(Integer.BYTES + compressedSize)
+                         .putInt(value.length)
+                         .put(out, 0, compressedSize)
+                         .array();
+      }
+      case ZSTD: {
+        final byte[] out = new byte[(int) Zstd.compressBound(value.length)];
+        final long compressedSize = Zstd.compress(out, value, config.getCompressionLevel());
+        if (Zstd.isError(compressedSize)) {
+          throw new ISE("Failed to compress: %s", Zstd.getErrorName(compressedSize));
+        }
+        return ByteBuffer.allocate(Integer.BYTES + (int) compressedSize)
+                         .putInt(value.length)
+                         .put(out, 0, (int) compressedSize)
+                         .array();
+      }
+      default:
+        return value;
+    }
+  }
+
+  @Nullable
+  private byte[] deserialize(@Nullable byte[] stored)
+  {
+    if (stored == null || compression == Compression.NONE) {
+      return stored;
+    }
+
+    try {
+      final byte[] out = new byte[ByteBuffer.wrap(stored).getInt()];
+      if (compression == Compression.LZ4) {
+        LZ4_DECOMPRESSOR.decompress(stored, Integer.BYTES, out, 0, out.length);
+      } else {
+        final long decompressedSize = Zstd.decompress(out, Arrays.copyOfRange(stored, Integer.BYTES, stored.length));
+        if (Zstd.isError(decompressedSize) || decompressedSize != out.length) {
+          throw new ISE("Failed to decompress %,d bytes", stored.length);
+        }
+      }
+      return out;
+    }
+    catch (RuntimeException e) {
+      // Should not happen, the values are only written by this cache. Treated as a miss.
+      log.warn(e, "Failed to decompress cached value, ignoring it");
+      errorCount.incrementAndGet();
+      return null;
+    }
+  }
+
+  private static class Entry
+  {
+    private final NamedKey key;
+    // number of stored bytes, after compression
+    private final int length;
+    // bytes charged to the cache, the size of the blocks needed to store the value
+    private final long weight;
+
+    // null before the value is written, and after the entry is evicted
+    @Nullable
+    private int[] blocks;
+
+    // list the entry is in, null if it is not in the cache anymore
+    @Nullable
+    private EntryList list;
+    @Nullable
+    private Entry prev;
+    @Nullable
+    private Entry next;
+
+    private Entry(NamedKey key, int length, long weight)
+    {
+      this.key = key;
+      this.length = length;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * Doubly linked list of entries, from the least recently used to the most recently used.
+   */
+  private static class EntryList
+  {
+    @Nullable
+    private Entry head;
+    @Nullable
+    private Entry tail;
+    private long bytes;
+
+    private void addLast(Entry entry)
+    {
+      entry.list = this;
+      entry.prev = tail;
+      entry.next = null;
+      if (tail == null) {
+        head = entry;
+      } else {
+        tail.next = entry;
+      }
+      tail = entry;
+      bytes += entry.weight;
+    }
+
+    private void remove(Entry entry)
+    {
+      if (entry.prev == null) {
+        head = entry.next;
+      } else {
+        entry.prev.next = entry.next;
+      }
+      if (entry.next == null) {
+        tail = entry.prev;
+      } else {
+        entry.next.prev = entry.prev;
+      }
+      entry.list = null;
+      entry.prev = null;
+      entry.next = null;
+      bytes -= entry.weight;
+    }
+
+    private void moveToLast(Entry entry)
+    {
+      if (entry != tail) {
+        remove(entry);
+        addLast(entry);
+      }
+    }
+
+    private void clear()
+    {
+      head = null;
+      tail = null;
+      bytes = 0;
+    }
+  }
+}
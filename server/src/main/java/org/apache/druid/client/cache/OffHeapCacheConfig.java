@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.druid.java.util.common.HumanReadableBytes;
+
+import javax.validation.constraints.Min;
+
+public class OffHeapCacheConfig
+{
+  @JsonProperty
+  private HumanReadableBytes sizeInBytes = HumanReadableBytes.valueOf(-1);
+
+  // entries are stored in blocks of this size, and charged for the blocks they occupy
+  @JsonProperty
+  @Min(1)
+  private int blockSize = 512;
+
+  // off-heap memory is allocated in slabs of this size, when the cache fills up
+  @JsonProperty
+  private HumanReadableBytes slabSizeInBytes = HumanReadableBytes.valueOf(64 * 1024 * 1024);
+
+  // compression of cached values, "none", "lz4" or "zstd"
+  @JsonProperty
+  private String compression = "lz4";
+
+  // zstd compression level, only used if compression is "zstd"
+  @JsonProperty
+  private int compressionLevel = 3;
+
+  @JsonProperty
+  private boolean evictOnClose = false;
+
+  public long getSizeInBytes()
+  {
+    return sizeInBytes.getBytes();
+  }
+
+  public int getBlockSize()
+  {
+    return blockSize;
+  }
+
+  public long getSlabSizeInBytes()
+  {
+    return slabSizeInBytes.getBytes();
+  }
+
+  public String getCompression()
+  {
+    return compression;
+  }
+
+  public int getCompressionLevel()
+  {
+    return compressionLevel;
+  }
+
+  public boolean isEvictOnClose()
+  {
+    return evictOnClose;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.github.luben.zstd.Zstd;
+import net.spy.memcached.transcoders.SerializingTranscoder;
+import org.apache.druid.java.util.common.ISE;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Same as {@link LZ4Transcoder}, but compresses values with zstd: slower, but smaller, which allows memcached to
+ * hold more entries.
+ */
+public class ZstdTranscoder extends SerializingTranscoder
+{
+  private final int level;
+
+  public ZstdTranscoder(int max, int level)
+  {
+    super(max);
+    this.level = level;
+  }
+
+  @Override
+  protected byte[] compress(byte[] in)
+  {
+    if (in == null) {
+      throw new NullPointerException("Can't compress null");
+    }
+
+    final byte[] out = new byte[(int) Zstd.compressBound(in.length)];
+    final long compressedLength = Zstd.compress(out, in, level);
+    if (Zstd.isError(compressedLength)) {
+      throw new ISE("Failed to compress: %s", Zstd.getErrorName(compressedLength));
+    }
+
+    getLogger().debug("Compressed %d bytes to %d", in.length, compressedLength);
+
+    return ByteBuffer.allocate(Integer.BYTES + (int) compressedLength)
+                     .putInt(in.length)
+                     .put(out, 0, (int) compressedLength)
+                     .array();
+  }
+
+  @Override
+  protected byte[] decompress(byte[] in)
+  {
+    if (in == null) {
+      return null;
+    }
+
+    // Values that fail to decompress were most likely written with another compression, for example before
+    // "compression" was changed. They are treated as misses.
+    final int size = ByteBuffer.wrap(in).getInt();
+    if (size < 0 || size > getMaxSize()) {
+      getLogger().warn("Invalid decompressed size %d, ignoring value", size);
+      return null;
+    }
+
+    final byte[] out = new byte[size];
+    final long decompressedLength = Zstd.decompress(out, Arrays.copyOfRange(in, Integer.BYTES, in.length));
+    if (Zstd.isError(decompressedLength) || decompressedLength != size) {
+      getLogger().warn("Failed to decompress %d bytes, ignoring value", in.length);
+      return null;
+    }
+    return out;
+  }
+}
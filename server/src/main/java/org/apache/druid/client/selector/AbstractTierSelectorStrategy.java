@@ -65,4 +65,17 @@ public abstract class AbstractTierSelectorStrategy implements TierSelectorStrate
     }
     return result;
   }
+
+  @Override
+  public long getHedgeDelayMillis(QueryableDruidServer server)
+  {
+    return serverSelectorStrategy.getHedgeDelayMillis(server);
+  }
+
+  @Nullable
+  @Override
+  public QueryableDruidServer pickHedge(Set<QueryableDruidServer> candidates, DataSegment segment)
+  {
+    return candidates.isEmpty() ? null : serverSelectorStrategy.pick(candidates, segment);
+  }
 }
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.selector;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Ordering;
+import org.apache.druid.client.DirectDruidClient;
+import org.apache.druid.client.ServerLatencyStats;
+import org.apache.druid.timeline.DataSegment;
+
+import javax.annotation.Nullable;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the servers with the least expected completion time: the moving average of their response time, measured by
+ * their {@link DirectDruidClient}, multiplied by their number of open connections plus one, plus the moving average of
+ * the queue time they report. The open connections only count the queries of this Broker, while the queue time also
+ * grows with the load put on the server by other Brokers and by its own work. A single server is picked
+ * by comparing two servers picked at random ("power of two choices"), so that the servers which just got the lowest
+ * expected completion time are not all picked at once.
+ *
+ * If {@code hedgePercentile} is set, a query which a server did not start answering after this percentile of its
+ * recent times to first byte is sent again to another server serving the same segments, see
+ * {@link #getHedgeDelayMillis}.
+ */
+public class LatencyAwareServerSelectorStrategy implements ServerSelectorStrategy
+{
+  private static final long DEFAULT_MIN_HEDGE_DELAY_MILLIS = 10;
+
+  private static final Comparator<QueryableDruidServer> COMPARATOR =
+      Comparator.comparingDouble(LatencyAwareServerSelectorStrategy::getExpectedCompletionTimeNs);
+
+  @Nullable
+  private final Double hedgePercentile;
+  private final long minHedgeDelayMillis;
+
+  @JsonCreator
+  public LatencyAwareServerSelectorStrategy(
+      @JsonProperty("hedgePercentile") @Nullable Double hedgePercentile,
+      @JsonProperty("minHedgeDelayMillis") @Nullable Long minHedgeDelayMillis
+  )
+  {
+    Preconditions.checkArgument(
+        hedgePercentile == null || (hedgePercentile > 0 && hedgePercentile < 1),
+        "hedgePercentile must be between 0 and 1"
+    );
+    this.hedgePercentile = hedgePercentile;
+    this.minHedgeDelayMillis = minHedgeDelayMillis == null ? DEFAULT_MIN_HEDGE_DELAY_MILLIS : minHedgeDelayMillis;
+  }
+
+  @JsonProperty
+  @Nullable
+  public Double getHedgePercentile()
+  {
+    return hedgePercentile;
+  }
+
+  @JsonProperty
+  public long getMinHedgeDelayMillis()
+  {
+    return minHedgeDelayMillis;
+  }
+
+  @Override
+  public QueryableDruidServer pick(Set<QueryableDruidServer> servers, DataSegment segment)
+  {
+    if (servers.size() == 1) {
+      return Iterators.getOnlyElement(servers.iterator());
+    }
+
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final int first = random.nextInt(servers.size());
+    // Pick another server, uniformly among the others.
+    int second = random.nextInt(servers.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+    final QueryableDruidServer firstServer = Iterators.get(servers.iterator(), first);
+    final QueryableDruidServer secondServer = Iterators.get(servers.iterator(), second);
+    return COMPARATOR.compare(firstServer, secondServer) <= 0 ? firstServer : secondServer;
+  }
+
+  @Override
+  public List<QueryableDruidServer> pick(Set<QueryableDruidServer> servers, DataSegment segment, int numServersToPick)
+  {
+    if (servers.size() <= numServersToPick) {
+      return ImmutableList.copyOf(servers);
+    }
+    if (numServersToPick == 1) {
+      return ImmutableList.of(pick(servers, segment));
+    }
+    return Ordering.from(COMPARATOR).leastOf(servers, numServersToPick);
+  }
+
+  /**
+   * Returns the {@code hedgePercentile} of the recent times to first byte of the server, and at least
+   * {@code minHedgeDelayMillis}, or -1 if hedging is disabled or too few queries were sent to the server to know.
+   */
+  @Override
+  public long getHedgeDelayMillis(QueryableDruidServer server)
+  {
+    if (hedgePercentile == null || !(server.getQueryRunner() instanceof DirectDruidClient)) {
+      return -1;
+    }
+    final DirectDruidClient client = (DirectDruidClient) server.getQueryRunner();
+    final long percentileNs = client.getLatencyStats().getTimeToFirstBytePercentileNs(hedgePercentile);
+    if (percentileNs < 0) {
+      return -1;
+    }
+    return Math.max(minHedgeDelayMillis, TimeUnit.NANOSECONDS.toMillis(percentileNs));
+  }
+
+  private static double getExpectedCompletionTimeNs(QueryableDruidServer server)
+  {
+    if (!(server.getQueryRunner() instanceof DirectDruidClient)) {
+      return 0;
+    }
+    final DirectDruidClient client = (DirectDruidClient) server.getQueryRunner();
+    final ServerLatencyStats stats = client.getLatencyStats();
+    return stats.getExpectedResponseTimeNs() * (client.getNumOpenConnections() + 1) + stats.getAverageQueueTimeNs();
+  }
+}
@@ -159,6 +159,36 @@ public class ServerSelector implements DiscoverySelector<QueryableDruidServer>,
     return servers;
   }
 
+  /**
+   * Returns all the servers serving the segment.
+   */
+  public Set<QueryableDruidServer> getAllQueryableServers()
+  {
+    final Set<QueryableDruidServer> servers = new HashSet<>();
+    synchronized (this) {
+      historicalServers.values().forEach(servers::addAll);
+      realtimeServers.values().forEach(servers::addAll);
+    }
+    return servers;
+  }
+
+  /**
+   * See {@link ServerSelectorStrategy#getHedgeDelayMillis}.
+   */
+  public long getHedgeDelayMillis(QueryableDruidServer server)
+  {
+    return strategy.getHedgeDelayMillis(server);
+  }
+
+  /**
+   * Picks the server to send a hedged query to among the given servers, which should serve the segment.
+   */
+  @Nullable
+  public QueryableDruidServer pickHedge(Set<QueryableDruidServer> candidates)
+  {
+    return strategy.pickHedge(candidates, segment.get());
+  }
+
   @Nullable
   @Override
   public QueryableDruidServer pick()
@@ -29,11 +29,22 @@ import java.util.Set;
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", defaultImpl = RandomServerSelectorStrategy.class)
 @JsonSubTypes(value = {
     @JsonSubTypes.Type(name = "random", value = RandomServerSelectorStrategy.class),
-    @JsonSubTypes.Type(name = "connectionCount", value = ConnectionCountServerSelectorStrategy.class)
+    @JsonSubTypes.Type(name = "connectionCount", value = ConnectionCountServerSelectorStrategy.class),
+    @JsonSubTypes.Type(name = "latencyAware", value = LatencyAwareServerSelectorStrategy.class)
 })
 public interface ServerSelectorStrategy
 {
   QueryableDruidServer pick(Set<QueryableDruidServer> servers, DataSegment segment);
 
   List<QueryableDruidServer> pick(Set<QueryableDruidServer> servers, DataSegment segment, int numServersToPick);
+
+  /**
+   * Returns how long to wait for a server to start answering a query before sending the query to another server
+   * serving the same segments, picked with {@link #pick(Set, DataSegment)}, or -1 if queries sent to the server should
+   * not be hedged.
+   */
+  default long getHedgeDelayMillis(QueryableDruidServer server)
+  {
+    return -1;
+  }
 }
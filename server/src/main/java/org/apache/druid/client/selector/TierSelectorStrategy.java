@@ -49,4 +49,22 @@ public interface TierSelectorStrategy
       DataSegment segment,
       int numServersToPick
   );
+
+  /**
+   * See {@link ServerSelectorStrategy#getHedgeDelayMillis}.
+   */
+  default long getHedgeDelayMillis(QueryableDruidServer server)
+  {
+    return -1;
+  }
+
+  /**
+   * Picks the server to send a hedged query to, among servers serving the segment. See
+   * {@link ServerSelectorStrategy#getHedgeDelayMillis}.
+   */
+  @Nullable
+  default QueryableDruidServer pickHedge(Set<QueryableDruidServer> candidates, DataSegment segment)
+  {
+    return null;
+  }
 }
@@ -36,6 +36,7 @@ import org.apache.druid.segment.loading.LocalFileTimestampVersionFinder;
 import org.apache.druid.segment.loading.LocalLoadSpec;
 import org.apache.druid.segment.loading.SegmentLoader;
 import org.apache.druid.segment.loading.SegmentLoaderLocalCacheManager;
+import org.apache.druid.segment.loading.VirtualSegmentStats;
 
 import java.util.List;
 
@@ -49,6 +50,7 @@ public class LocalDataStorageDruidModule implements DruidModule
   public void configure(Binder binder)
   {
     binder.bind(SegmentLoader.class).to(SegmentLoaderLocalCacheManager.class).in(LazySingleton.class);
+    binder.bind(VirtualSegmentStats.class).in(LazySingleton.class);
 
     bindDeepStorageLocal(binder);
 
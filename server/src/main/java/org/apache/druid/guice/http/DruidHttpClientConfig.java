@@ -67,6 +67,13 @@ public class DruidHttpClientConfig
   @JsonProperty
   private HumanReadableBytes maxQueuedBytes = HumanReadableBytes.ZERO;
 
+  /**
+   * Maximum number of bytes queued by all queries together before exerting backpressure, see
+   * {@link org.apache.druid.client.QueuedBytesBudget}. Not always used; currently, it's only respected by the Broker.
+   */
+  @JsonProperty
+  private HumanReadableBytes maxQueuedBytesTotal = HumanReadableBytes.ZERO;
+
   public int getNumConnections()
   {
     return numConnections;
@@ -115,4 +122,9 @@ public class DruidHttpClientConfig
   {
     return maxQueuedBytes.getBytes();
   }
+
+  public long getMaxQueuedBytesTotal()
+  {
+    return maxQueuedBytesTotal.getBytes();
+  }
 }
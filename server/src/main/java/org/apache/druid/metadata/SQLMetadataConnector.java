@@ -44,9 +44,12 @@ import org.skife.jdbi.v2.util.IntegerMapper;
 
 import javax.annotation.Nullable;
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLRecoverableException;
 import java.sql.SQLTransientException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -205,6 +208,57 @@ public abstract class SQLMetadataConnector implements MetadataStorageConnector
     }
   }
 
+  /**
+   * Runs the given statements on the given table if it exists but doesn't have the given column, to upgrade tables
+   * created by older versions of Druid.
+   */
+  public void alterTable(final String tableName, final String columnName, final Iterable<String> sql)
+  {
+    try {
+      retryWithHandle(
+          new HandleCallback<Void>()
+          {
+            @Override
+            public Void withHandle(Handle handle) throws SQLException
+            {
+              if (tableExists(handle, tableName) && !tableHasColumn(handle, tableName, columnName)) {
+                log.info("Adding column[%s] to table[%s]", columnName, tableName);
+                final Batch batch = handle.createBatch();
+                for (String s : sql) {
+                  batch.add(s);
+                }
+                batch.execute();
+              }
+              return null;
+            }
+          }
+      );
+    }
+    catch (Exception e) {
+      log.warn(e, "Exception altering table");
+    }
+  }
+
+  /**
+   * Checks the columns of the given table from the metadata of an empty result set, which works the same way with
+   * all databases, whatever the case they use to store unquoted names.
+   */
+  protected boolean tableHasColumn(Handle handle, String tableName, String columnName) throws SQLException
+  {
+    try (
+        Statement statement = handle.getConnection().createStatement();
+        ResultSet resultSet = statement.executeQuery(StringUtils.format("SELECT * FROM %s WHERE 1 = 0", tableName))
+    ) {
+      final ResultSetMetaData metaData = resultSet.getMetaData();
+      for (int i = 1; i <= metaData.getColumnCount(); i++) {
+        if (columnName.equalsIgnoreCase(metaData.getColumnName(i))) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   public void createPendingSegmentsTable(final String tableName)
   {
     createTable(
@@ -274,6 +328,7 @@ public abstract class SQLMetadataConnector implements MetadataStorageConnector
                 + "  version VARCHAR(255) NOT NULL,\n"
                 + "  used BOOLEAN NOT NULL,\n"
                 + "  payload %2$s NOT NULL,\n"
+                + "  used_status_last_updated VARCHAR(255),\n"
                 + "  PRIMARY KEY (id)\n"
                 + ")",
                 tableName, getPayloadType(), getQuoteString(), getCollation()
@@ -283,11 +338,29 @@ public abstract class SQLMetadataConnector implements MetadataStorageConnector
                 "CREATE INDEX idx_%1$s_datasource_used_end ON %1$s(dataSource, used, %2$send%2$s)",
                 tableName,
                 getQuoteString()
-            )
+            ),
+            createUsedStatusLastUpdatedIndex(tableName)
+        )
+    );
+    // Segment tables created by older versions don't have the column tracking changes of segments.
+    alterTable(
+        tableName,
+        "used_status_last_updated",
+        ImmutableList.of(
+            StringUtils.format("ALTER TABLE %1$s ADD used_status_last_updated VARCHAR(255)", tableName),
+            createUsedStatusLastUpdatedIndex(tableName)
         )
     );
   }
 
+  private static String createUsedStatusLastUpdatedIndex(final String tableName)
+  {
+    return StringUtils.format(
+        "CREATE INDEX idx_%1$s_used_status_last_updated ON %1$s(used_status_last_updated)",
+        tableName
+    );
+  }
+
   public void createRulesTable(final String tableName)
   {
     createTable(
@@ -29,6 +29,26 @@ public class SegmentsMetadataManagerConfig
   @JsonProperty
   private Period pollDuration = new Period("PT1M");
 
+  /**
+   * If true, polls only fetch the segments which changed since the previous poll, see
+   * {@link SqlSegmentsMetadataManager#poll()}.
+   */
+  @JsonProperty
+  private boolean incrementalPoll = false;
+
+  /**
+   * Period between full polls when {@link #incrementalPoll} is enabled.
+   */
+  @JsonProperty
+  private Period fullPollPeriod = new Period("PT30M");
+
+  /**
+   * How far before the start of the previous poll incremental polls look for changes, to tolerate clock differences
+   * between the processes updating the segments table and transactions committed after they updated it.
+   */
+  @JsonProperty
+  private Period incrementalPollLookback = new Period("PT5M");
+
   public Period getPollDuration()
   {
     return pollDuration;
@@ -38,4 +58,34 @@ public class SegmentsMetadataManagerConfig
   {
     this.pollDuration = pollDuration;
   }
+
+  public boolean isIncrementalPoll()
+  {
+    return incrementalPoll;
+  }
+
+  public void setIncrementalPoll(boolean incrementalPoll)
+  {
+    this.incrementalPoll = incrementalPoll;
+  }
+
+  public Period getFullPollPeriod()
+  {
+    return fullPollPeriod;
+  }
+
+  public void setFullPollPeriod(Period fullPollPeriod)
+  {
+    this.fullPollPeriod = fullPollPeriod;
+  }
+
+  public Period getIncrementalPollLookback()
+  {
+    return incrementalPollLookback;
+  }
+
+  public void setIncrementalPollLookback(Period incrementalPollLookback)
+  {
+    this.incrementalPollLookback = incrementalPollLookback;
+  }
 }
@@ -69,6 +69,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -151,9 +152,30 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
 
   private final ObjectMapper jsonMapper;
   private final Duration periodicPollDelay;
+  private final boolean incrementalPoll;
+  private final Duration fullPollPeriod;
+  private final Duration incrementalPollLookback;
   private final Supplier<MetadataStorageTablesConfig> dbTables;
   private final SQLMetadataConnector connector;
 
+  /**
+   * Start time of the latest full {@link #poll()}, and of the latest poll, full or incremental. Incremental polls
+   * fetch the segments changed since the start of the previous poll, minus {@link #incrementalPollLookback}. See
+   * {@link #doIncrementalPoll}.
+   */
+  @GuardedBy("pollLock")
+  private @Nullable DateTime latestFullPollStartTime = null;
+  @GuardedBy("pollLock")
+  private @Nullable DateTime latestPollStartTime = null;
+
+  /**
+   * Changes applied by the incremental polls which may be fetched again by the next incremental poll, because they
+   * happened within the lookback: the used flag and the last update time of the segments, by segment id. Allows to
+   * not rebuild the data sources of these segments again.
+   */
+  @GuardedBy("pollLock")
+  private final Map<String, Pair<Boolean, String>> recentlyAppliedChanges = new HashMap<>();
+
   /**
    * This field is made volatile to avoid "ghost secondary reads" that may result in NPE, see
    * https://github.com/code-review-checklists/java-concurrency#safe-local-dcl (note that dataSourcesSnapshot resembles
@@ -240,6 +262,9 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
   {
     this.jsonMapper = jsonMapper;
     this.periodicPollDelay = config.get().getPollDuration().toStandardDuration();
+    this.incrementalPoll = config.get().isIncrementalPoll();
+    this.fullPollPeriod = config.get().getFullPollPeriod().toStandardDuration();
+    this.incrementalPollLookback = config.get().getIncrementalPollLookback().toStandardDuration();
     this.dbTables = dbTables;
     this.connector = connector;
   }
@@ -521,8 +546,14 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
     try {
       int numUpdatedDatabaseEntries = connector.getDBI().withHandle(
           (Handle handle) -> handle
-              .createStatement(StringUtils.format("UPDATE %s SET used=true WHERE id = :id", getSegmentsTable()))
+              .createStatement(
+                  StringUtils.format(
+                      "UPDATE %s SET used=true, used_status_last_updated = :used_status_last_updated WHERE id = :id",
+                      getSegmentsTable()
+                  )
+              )
               .bind("id", segmentId)
+              .bind("used_status_last_updated", DateTimes.nowUtc().toString())
               .execute()
       );
       // Unlike bulk markAsUsed methods: markAsUsedAllNonOvershadowedSegmentsInDataSource(),
@@ -758,10 +789,16 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
       return 0;
     }
 
+    final String now = DateTimes.nowUtc().toString();
     return connector.getDBI().withHandle(handle -> {
       Batch batch = handle.createBatch();
       segmentIds.forEach(segmentId -> batch.add(
-          StringUtils.format("UPDATE %s SET used=true WHERE id = '%s'", getSegmentsTable(), segmentId)
+          StringUtils.format(
+              "UPDATE %s SET used=true, used_status_last_updated = '%s' WHERE id = '%s'",
+              getSegmentsTable(),
+              now,
+              segmentId
+          )
       ));
       int[] segmentChanges = batch.execute();
       return computeNumChangedSegments(segmentIds, segmentChanges);
@@ -775,9 +812,14 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
       final int numUpdatedDatabaseEntries = connector.getDBI().withHandle(
           (Handle handle) -> handle
               .createStatement(
-                  StringUtils.format("UPDATE %s SET used=false WHERE dataSource = :dataSource", getSegmentsTable())
+                  StringUtils.format(
+                      "UPDATE %s SET used=false, used_status_last_updated = :used_status_last_updated "
+                      + "WHERE dataSource = :dataSource",
+                      getSegmentsTable()
+                  )
               )
               .bind("dataSource", dataSource)
+              .bind("used_status_last_updated", DateTimes.nowUtc().toString())
               .execute()
       );
 
@@ -790,7 +832,7 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
   }
 
   /**
-   * This method does not update {@link #dataSourcesSnapshot}, see the comments in {@link #doPoll()} about
+   * This method does not update {@link #dataSourcesSnapshot}, see the comments in {@link #doFullPoll()} about
    * snapshot update. The update of the segment's state will be reflected after the next {@link DatabasePoll}.
    */
   @Override
@@ -812,13 +854,15 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
       return 0;
     }
     final List<String> segmentIdList = new ArrayList<>(segmentIds);
+    final String now = DateTimes.nowUtc().toString();
     try {
       return connector.getDBI().withHandle(handle -> {
         Batch batch = handle.createBatch();
         segmentIdList.forEach(segmentId -> batch.add(
             StringUtils.format(
-                "UPDATE %s SET used=false WHERE datasource = '%s' AND id = '%s'",
+                "UPDATE %s SET used=false, used_status_last_updated = '%s' WHERE datasource = '%s' AND id = '%s'",
                 getSegmentsTable(),
+                now,
                 dataSourceName,
                 segmentId
             )
@@ -841,12 +885,13 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
               .createStatement(
                   StringUtils
                       .format(
-                          "UPDATE %s SET used=false WHERE datasource = :datasource "
-                          + "AND start >= :start AND %2$send%2$s <= :end",
+                          "UPDATE %s SET used=false, used_status_last_updated = :used_status_last_updated "
+                          + "WHERE datasource = :datasource AND start >= :start AND %2$send%2$s <= :end",
                           getSegmentsTable(),
                           connector.getQuoteString()
                       ))
               .bind("datasource", dataSourceName)
+              .bind("used_status_last_updated", DateTimes.nowUtc().toString())
               .bind("start", interval.getStart().toString())
               .bind("end", interval.getEnd().toString())
               .execute()
@@ -862,8 +907,15 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
   {
     final int numUpdatedRows = connector.getDBI().withHandle(
         handle -> handle
-            .createStatement(StringUtils.format("UPDATE %s SET used=false WHERE id = :segmentID", getSegmentsTable()))
+            .createStatement(
+                StringUtils.format(
+                    "UPDATE %s SET used=false, used_status_last_updated = :used_status_last_updated "
+                    + "WHERE id = :segmentID",
+                    getSegmentsTable()
+                )
+            )
             .bind("segmentID", segmentId)
+            .bind("used_status_last_updated", DateTimes.nowUtc().toString())
             .execute()
     );
     if (numUpdatedRows < 0) {
@@ -998,9 +1050,105 @@ public class SqlSegmentsMetadataManager implements SegmentsMetadataManager
     }
   }
 
-  /** This method is extracted from {@link #poll()} solely to reduce code nesting. */
+  /**
+   * Polls all used segments, unless incremental polls are enabled, in which case only the segments changed since the
+   * previous poll are polled, except every {@link #fullPollPeriod}.
+   */
   @GuardedBy("pollLock")
   private void doPoll()
+  {
+    final DateTime pollStartTime = DateTimes.nowUtc();
+    if (incrementalPoll
+        && dataSourcesSnapshot != null
+        && latestFullPollStartTime != null
+        && latestPollStartTime != null
+        && pollStartTime.isBefore(latestFullPollStartTime.plus(fullPollPeriod))) {
+      doIncrementalPoll(latestPollStartTime.minus(incrementalPollLookback));
+    } else {
+      doFullPoll();
+      latestFullPollStartTime = pollStartTime;
+      recentlyAppliedChanges.clear();
+    }
+    latestPollStartTime = pollStartTime;
+  }
+
+  /**
+   * Fetches the segments which were marked as used or unused, inserted, or which payload was updated since the given
+   * time, according to the used_status_last_updated column, and applies them to {@link #dataSourcesSnapshot}.
+   *
+   * Segments deleted from the table, or updated by processes not setting used_status_last_updated (such as processes
+   * of older versions during a rolling update), are only taken into account by the next full poll.
+   */
+  @GuardedBy("pollLock")
+  private void doIncrementalPoll(DateTime since)
+  {
+    log.debug("Starting incremental polling of segment table since [%s]", since);
+
+    final String sinceString = since.toString();
+    recentlyAppliedChanges.values().removeIf(change -> change.rhs.compareTo(sinceString) < 0);
+
+    final List<DataSegment> usedSegments = new ArrayList<>();
+    final List<SegmentId> unusedSegmentIds = new ArrayList<>();
+    final Map<String, Pair<Boolean, String>> changes = connector.inReadOnlyTransaction(
+        (handle, status) -> handle
+            .createQuery(
+                StringUtils.format(
+                    "SELECT id, dataSource, used, payload, used_status_last_updated FROM %s "
+                    + "WHERE used_status_last_updated >= :since",
+                    getSegmentsTable()
+                )
+            )
+            .setFetchSize(connector.getStreamingFetchSize())
+            .bind("since", sinceString)
+            .fold(
+                new HashMap<>(),
+                (Map<String, Pair<Boolean, String>> accumulator, ResultSet r, StatementContext ctx) -> {
+                  final String id = r.getString("id");
+                  final Pair<Boolean, String> change =
+                      new Pair<>(r.getBoolean("used"), r.getString("used_status_last_updated"));
+                  if (change.equals(recentlyAppliedChanges.get(id))) {
+                    return accumulator;
+                  }
+                  if (change.lhs) {
+                    try {
+                      usedSegments.add(jsonMapper.readValue(r.getBytes("payload"), DataSegment.class));
+                    }
+                    catch (IOException e) {
+                      // Like in doFullPoll(), a corrupted entry shouldn't prevent the poll.
+                      log.makeAlert(e, "Failed to read segment from db.").emit();
+                      return accumulator;
+                    }
+                  } else {
+                    final SegmentId segmentId = SegmentId.tryParse(r.getString("dataSource"), id);
+                    if (segmentId == null) {
+                      log.warn("Failed to parse segment id [%s], ignoring it until the next full poll", id);
+                      return accumulator;
+                    }
+                    unusedSegmentIds.add(segmentId);
+                  }
+                  accumulator.put(id, change);
+                  return accumulator;
+                }
+            )
+    );
+
+    final DataSourcesSnapshot newSnapshot = dataSourcesSnapshot.withChangedSegments(
+        usedSegments,
+        unusedSegmentIds,
+        createDefaultDataSourceProperties()
+    );
+    recentlyAppliedChanges.putAll(changes);
+    log.info(
+        "Polled %,d used and %,d unused segments changed since [%s] in the database",
+        usedSegments.size(),
+        unusedSegmentIds.size(),
+        since
+    );
+    dataSourcesSnapshot = newSnapshot;
+  }
+
+  @GuardedBy("pollLock")
+  private void doFullPoll()
   {
     log.debug("Starting polling of segment table");
 
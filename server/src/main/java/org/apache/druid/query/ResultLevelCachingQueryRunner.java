@@ -24,28 +24,61 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.apache.druid.client.CacheUtil;
+import org.apache.druid.client.DirectDruidClient;
 import org.apache.druid.client.cache.Cache;
 import org.apache.druid.client.cache.CacheConfig;
 import org.apache.druid.java.util.common.RE;
 import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.java.util.common.guava.Comparators;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.SequenceWrapper;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.spec.MultipleIntervalSegmentSpec;
 import org.apache.druid.server.QueryResource;
+import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class ResultLevelCachingQueryRunner<T> implements QueryRunner<T>
 {
   private static final Logger log = new Logger(ResultLevelCachingQueryRunner.class);
+  /**
+   * Query context key of the queries {@link #runByBucket} sends to compute the ETag of each bucket, which makes them
+   * return no results, without querying the data servers.
+   */
+  public static final String ETAG_ONLY_CONTEXT_KEY = "resultLevelCacheEtagOnly";
+  /**
+   * Keys of the response context of the queries on the buckets, see {@link #runByBucket}, which are added to the
+   * response context of the query. The others are specific to the buckets, like their ETags, which are combined
+   * instead.
+   */
+  private static final List<ResponseContext.Key> BUCKET_RESPONSE_CONTEXT_KEYS = ImmutableList.of(
+      ResponseContext.Key.UNCOVERED_INTERVALS,
+      ResponseContext.Key.UNCOVERED_INTERVALS_OVERFLOWED,
+      ResponseContext.Key.MISSING_SEGMENTS,
+      ResponseContext.Key.NUM_SCANNED_ROWS,
+      ResponseContext.Key.CPU_CONSUMED_NANOS
+  );
   private final QueryRunner baseRunner;
   private ObjectMapper objectMapper;
   private final Cache cache;
@@ -86,80 +119,348 @@ public class ResultLevelCachingQueryRunner<T> implements QueryRunner<T>
     if (useResultCache || populateResultCache) {
 
       final String cacheKeyStr = StringUtils.fromUtf8(strategy.computeResultLevelCacheKey(query));
-      final byte[] cachedResultSet = fetchResultsFromResultLevelCache(cacheKeyStr);
-      String existingResultSetId = extractEtagFromResults(cachedResultSet);
+      @Nullable
+      final SortedMap<Interval, List<Interval>> intervalsByBucket = computeIntervalsByBucket();
+      if (intervalsByBucket != null) {
+        return runByBucket(cacheKeyStr, intervalsByBucket, responseContext);
+      }
+      return runWithResultLevelCache(query, cacheKeyStr, responseContext);
+    } else {
+      return baseRunner.run(
+          queryPlus,
+          responseContext
+      );
+    }
+  }
 
-      existingResultSetId = existingResultSetId == null ? "" : existingResultSetId;
-      query = query.withOverriddenContext(
-          ImmutableMap.of(QueryResource.HEADER_IF_NONE_MATCH, existingResultSetId));
+  private Sequence<T> runWithResultLevelCache(
+      final Query<T> queryToRun,
+      final String cacheKeyStr,
+      final ResponseContext responseContext
+  )
+  {
+    final byte[] cachedResultSet = fetchResultsFromResultLevelCache(cacheKeyStr);
+    String existingResultSetId = extractEtagFromResults(cachedResultSet);
 
-      Sequence<T> resultFromClient = baseRunner.run(
-          QueryPlus.wrap(query),
-          responseContext
+    existingResultSetId = existingResultSetId == null ? "" : existingResultSetId;
+    final Query<T> queryWithEtag = queryToRun.withOverriddenContext(
+        ImmutableMap.of(QueryResource.HEADER_IF_NONE_MATCH, existingResultSetId));
+
+    Sequence<T> resultFromClient = baseRunner.run(
+        QueryPlus.wrap(queryWithEtag),
+        responseContext
+    );
+    String newResultSetId = (String) responseContext.get(ResponseContext.Key.ETAG);
+
+    if (useResultCache && newResultSetId != null && newResultSetId.equals(existingResultSetId)) {
+      log.debug("Return cached result set as there is no change in identifiers for query %s ", query.getId());
+      return deserializeResults(cachedResultSet, strategy, existingResultSetId);
+    } else {
+      @Nullable
+      ResultLevelCachePopulator resultLevelCachePopulator = createResultLevelCachePopulator(
+          cacheKeyStr,
+          newResultSetId
+      );
+      if (resultLevelCachePopulator == null) {
+        return resultFromClient;
+      }
+      final Function<T, Object> cacheFn = strategy.prepareForCache(true);
+
+      return Sequences.wrap(
+          Sequences.map(
+              resultFromClient,
+              new Function<T, T>()
+              {
+                @Override
+                public T apply(T input)
+                {
+                  if (resultLevelCachePopulator.isShouldPopulate()) {
+                    resultLevelCachePopulator.cacheResultEntry(input, cacheFn);
+                  }
+                  return input;
+                }
+              }
+          ),
+          new SequenceWrapper()
+          {
+            @Override
+            public void after(boolean isDone, Throwable thrown)
+            {
+              Preconditions.checkNotNull(
+                  resultLevelCachePopulator,
+                  "ResultLevelCachePopulator cannot be null during cache population"
+              );
+              if (thrown != null) {
+                log.error(
+                    thrown,
+                    "Error while preparing for result level caching for query %s with error %s ",
+                    query.getId(),
+                    thrown.getMessage()
+                );
+              } else if (resultLevelCachePopulator.isShouldPopulate()) {
+                // The resultset identifier and its length is cached along with the resultset
+                resultLevelCachePopulator.populateResults();
+                log.debug("Cache population complete for query %s", query.getId());
+              }
+              resultLevelCachePopulator.stopPopulating();
+            }
+          }
       );
-      String newResultSetId = (String) responseContext.get(ResponseContext.Key.ETAG);
+    }
+  }
+
+  /**
+   * Returns the intervals of the query in each of its granularity buckets, if its results are cached per bucket, see
+   * {@link CacheConfig#isIncrementalResultLevelCache()}. Returns null if they are cached as a whole.
+   */
+  @Nullable
+  private SortedMap<Interval, List<Interval>> computeIntervalsByBucket()
+  {
+    final Granularity granularity = query.getGranularity();
+    if (!QueryContexts.isIncrementalResultLevelCache(query, cacheConfig.isIncrementalResultLevelCache())
+        || Granularities.ALL.equals(granularity)
+        || !(query.getDataSource() instanceof TableDataSource)
+        || !strategy.isResultLevelCacheableByBucket(query)) {
+      return null;
+    }
+
+    final SortedMap<Interval, List<Interval>> intervalsByBucket = new TreeMap<>(Comparators.intervalsByStartThenEnd());
+    for (Interval interval : query.getIntervals()) {
+      for (Interval bucket : granularity.getIterable(interval)) {
+        intervalsByBucket.computeIfAbsent(bucket, b -> new ArrayList<>()).add(bucket.overlap(interval));
+        if (intervalsByBucket.size() > cacheConfig.getIncrementalResultLevelCacheMaxBuckets()) {
+          log.debug("Too many buckets to cache the results of query %s per bucket", query.getId());
+          return null;
+        }
+      }
+    }
+    return intervalsByBucket;
+  }
 
-      if (useResultCache && newResultSetId != null && newResultSetId.equals(existingResultSetId)) {
-        log.debug("Return cached result set as there is no change in identifiers for query %s ", query.getId());
-        return deserializeResults(cachedResultSet, strategy, existingResultSetId);
+  /**
+   * Runs the query on each granularity bucket separately, so that the cached results of the buckets whose segments
+   * didn't change are reused, while the results of the other buckets, for example the ones with realtime segments,
+   * are computed. The ETag of each bucket is computed first, without querying the data servers, to find the buckets
+   * whose cached results are stale or missing. Each run of consecutive such buckets is then computed by a single query
+   * on their intervals, whose results are split back per bucket to populate the cache, so that a query on many cold
+   * buckets doesn't query the data servers once per bucket. The queries go through the base runner, which merges their
+   * results with the query toolchest.
+   *
+   * The ETag of the query is a hash of the ETags of the buckets, in bucket order, so that clients sending
+   * If-None-Match get the same validation as when results are cached as a whole. It is only set if every bucket has
+   * an ETag.
+   */
+  private Sequence<T> runByBucket(
+      final String cacheKeyStr,
+      final SortedMap<Interval, List<Interval>> intervalsByBucket,
+      final ResponseContext responseContext
+  )
+  {
+    final List<Bucket> buckets = new ArrayList<>(intervalsByBucket.size());
+    final Hasher etagHasher = Hashing.sha1().newHasher();
+    boolean allBucketsHaveEtag = true;
+    for (Map.Entry<Interval, List<Interval>> entry : intervalsByBucket.entrySet()) {
+      final Bucket bucket = computeBucket(
+          entry.getKey(),
+          entry.getValue(),
+          cacheKeyStr + entry.getKey(),
+          responseContext
+      );
+      buckets.add(bucket);
+      if (bucket.etag == null) {
+        allBucketsHaveEtag = false;
       } else {
-        @Nullable
-        ResultLevelCachePopulator resultLevelCachePopulator = createResultLevelCachePopulator(
-            cacheKeyStr,
-            newResultSetId
+        etagHasher.putString(bucket.etag, StandardCharsets.UTF_8);
+      }
+    }
+
+    final List<Sequence<T>> sequences = new ArrayList<>();
+    int numStaleRuns = 0;
+    for (int start = 0; start < buckets.size(); ) {
+      final Bucket bucket = buckets.get(start);
+      if (bucket.hasValidCachedResults()) {
+        sequences.add(
+            addBucketResponseContext(
+                deserializeResults(bucket.cachedResults, strategy, bucket.etag),
+                bucket.responseContext,
+                responseContext
+            )
         );
-        if (resultLevelCachePopulator == null) {
-          return resultFromClient;
+        start++;
+      } else {
+        int end = start + 1;
+        while (end < buckets.size() && !buckets.get(end).hasValidCachedResults()) {
+          end++;
         }
-        final Function<T, Object> cacheFn = strategy.prepareForCache(true);
+        sequences.add(runStaleBuckets(buckets.subList(start, end), responseContext));
+        numStaleRuns++;
+        start = end;
+      }
+    }
+    log.debug(
+        "Querying %d runs of stale buckets out of %d buckets for query %s",
+        numStaleRuns,
+        buckets.size(),
+        query.getId()
+    );
 
-        return Sequences.wrap(
-            Sequences.map(
-                resultFromClient,
-                new Function<T, T>()
-                {
-                  @Override
-                  public T apply(T input)
-                  {
-                    if (resultLevelCachePopulator.isShouldPopulate()) {
-                      resultLevelCachePopulator.cacheResultEntry(input, cacheFn);
-                    }
-                    return input;
-                  }
-                }
-            ),
-            new SequenceWrapper()
+    if (allBucketsHaveEtag) {
+      responseContext.put(ResponseContext.Key.ETAG, StringUtils.encodeBase64String(etagHasher.hash().asBytes()));
+    }
+    if (query.isDescending()) {
+      Collections.reverse(sequences);
+    }
+    return Sequences.concat(sequences);
+  }
+
+  /**
+   * Fetches the cached results of the given bucket and computes its current ETag. The query sent to the base runner
+   * for the ETag returns no results and doesn't query the data servers, see {@link #ETAG_ONLY_CONTEXT_KEY}.
+   */
+  private Bucket computeBucket(
+      final Interval interval,
+      final List<Interval> intervals,
+      final String cacheKey,
+      final ResponseContext responseContext
+  )
+  {
+    final byte[] cachedResults = fetchResultsFromResultLevelCache(cacheKey);
+    final String cachedEtag = extractEtagFromResults(cachedResults);
+    final Query<T> etagQuery = query
+        .withQuerySegmentSpec(new MultipleIntervalSegmentSpec(intervals))
+        .withOverriddenContext(
+            ImmutableMap.<String, Object>of(
+                QueryResource.HEADER_IF_NONE_MATCH, cachedEtag == null ? "" : cachedEtag,
+                ETAG_ONLY_CONTEXT_KEY, true
+            )
+        );
+    final ResponseContext bucketResponseContext = makeBucketResponseContext(responseContext);
+    baseRunner.run(QueryPlus.wrap(etagQuery), bucketResponseContext);
+    return new Bucket(
+        interval,
+        intervals,
+        cacheKey,
+        cachedResults,
+        cachedEtag,
+        (String) bucketResponseContext.get(ResponseContext.Key.ETAG),
+        bucketResponseContext
+    );
+  }
+
+  /**
+   * Runs the query on the given consecutive buckets at once, and populates the cache of each bucket with its results,
+   * told apart by their timestamps.
+   */
+  private Sequence<T> runStaleBuckets(final List<Bucket> staleBuckets, final ResponseContext responseContext)
+  {
+    final List<Interval> intervals = new ArrayList<>();
+    final TreeMap<Long, Bucket> bucketsByStart = new TreeMap<>();
+    for (Bucket bucket : staleBuckets) {
+      intervals.addAll(bucket.intervals);
+      bucketsByStart.put(bucket.interval.getStartMillis(), bucket);
+      bucket.cachePopulator = createResultLevelCachePopulator(bucket.cacheKey, bucket.etag);
+    }
+
+    final Query<T> staleBucketsQuery = query.withQuerySegmentSpec(new MultipleIntervalSegmentSpec(intervals));
+    final ResponseContext staleBucketsResponseContext = makeBucketResponseContext(responseContext);
+    final Sequence<T> results = baseRunner.run(QueryPlus.wrap(staleBucketsQuery), staleBucketsResponseContext);
+    if (staleBuckets.stream().allMatch(bucket -> bucket.cachePopulator == null)) {
+      return addBucketResponseContext(results, staleBucketsResponseContext, responseContext);
+    }
+
+    final Function<T, Object> cacheFn = strategy.prepareForCache(true);
+    final Sequence<T> populatingResults = Sequences.wrap(
+        Sequences.map(
+            results,
+            new Function<T, T>()
             {
               @Override
-              public void after(boolean isDone, Throwable thrown)
+              public T apply(T input)
               {
-                Preconditions.checkNotNull(
-                    resultLevelCachePopulator,
-                    "ResultLevelCachePopulator cannot be null during cache population"
-                );
-                if (thrown != null) {
-                  log.error(
-                      thrown,
-                      "Error while preparing for result level caching for query %s with error %s ",
-                      query.getId(),
-                      thrown.getMessage()
-                  );
-                } else if (resultLevelCachePopulator.isShouldPopulate()) {
-                  // The resultset identifier and its length is cached along with the resultset
-                  resultLevelCachePopulator.populateResults();
-                  log.debug("Cache population complete for query %s", query.getId());
+                final long timestamp = strategy.getResultTimestampMillis(input);
+                final Map.Entry<Long, Bucket> entry = bucketsByStart.floorEntry(timestamp);
+                if (entry != null && entry.getValue().interval.contains(timestamp)) {
+                  final ResultLevelCachePopulator cachePopulator = entry.getValue().cachePopulator;
+                  if (cachePopulator != null && cachePopulator.isShouldPopulate()) {
+                    cachePopulator.cacheResultEntry(input, cacheFn);
+                  }
+                } else {
+                  log.warn("Result at %s out of the buckets of query %s, not caching them", timestamp, query.getId());
+                  staleBuckets.forEach(Bucket::stopPopulating);
                 }
-                resultLevelCachePopulator.stopPopulating();
+                return input;
               }
             }
-        );
+        ),
+        new SequenceWrapper()
+        {
+          @Override
+          public void after(boolean isDone, Throwable thrown)
+          {
+            if (thrown != null) {
+              log.error(
+                  thrown,
+                  "Error while preparing for result level caching for query %s with error %s ",
+                  query.getId(),
+                  thrown.getMessage()
+              );
+            } else {
+              for (Bucket bucket : staleBuckets) {
+                if (bucket.cachePopulator != null && bucket.cachePopulator.isShouldPopulate()) {
+                  bucket.cachePopulator.populateResults();
+                }
+              }
+              log.debug("Cache population complete for query %s", query.getId());
+            }
+            staleBuckets.forEach(Bucket::stopPopulating);
+          }
+        }
+    );
+    return addBucketResponseContext(populatingResults, staleBucketsResponseContext, responseContext);
+  }
+
+  /**
+   * Adds the response context of a query on some of the buckets to the response context of the query, once its
+   * results are consumed, see {@link #BUCKET_RESPONSE_CONTEXT_KEYS}.
+   */
+  private static <T> Sequence<T> addBucketResponseContext(
+      final Sequence<T> bucketResults,
+      final ResponseContext bucketResponseContext,
+      final ResponseContext responseContext
+  )
+  {
+    return Sequences.wrap(
+        bucketResults,
+        new SequenceWrapper()
+        {
+          @Override
+          public void after(boolean isDone, Throwable thrown)
+          {
+            for (ResponseContext.Key key : BUCKET_RESPONSE_CONTEXT_KEYS) {
+              final Object value = bucketResponseContext.get(key);
+              if (value != null) {
+                responseContext.add(key, value);
+              }
+            }
+          }
+        }
+    );
+  }
+
+  private static ResponseContext makeBucketResponseContext(ResponseContext responseContext)
+  {
+    final ResponseContext bucketResponseContext = DirectDruidClient.makeResponseContextForQuery();
+    // Buckets share the limit of bytes gathered from data servers, and the backpressure time of the query.
+    for (ResponseContext.Key key : new ResponseContext.Key[]{
+        ResponseContext.Key.QUERY_TOTAL_BYTES_GATHERED,
+        ResponseContext.Key.QUERY_BACK_PRESSURE_NANOS
+    }) {
+      final Object value = responseContext.get(key);
+      if (value != null) {
+        bucketResponseContext.put(key, value);
       }
-    } else {
-      return baseRunner.run(
-          queryPlus,
-          responseContext
-      );
     }
+    return bucketResponseContext;
   }
 
   @Nullable
@@ -243,6 +544,56 @@ public class ResultLevelCachingQueryRunner<T> implements QueryRunner<T>
     }
   }
 
+  /**
+   * A granularity bucket of the query, see {@link #runByBucket}.
+   */
+  private class Bucket
+  {
+    private final Interval interval;
+    private final List<Interval> intervals;
+    private final String cacheKey;
+    @Nullable
+    private final byte[] cachedResults;
+    @Nullable
+    private final String cachedEtag;
+    @Nullable
+    private final String etag;
+    private final ResponseContext responseContext;
+    @Nullable
+    private ResultLevelCachePopulator cachePopulator;
+
+    private Bucket(
+        Interval interval,
+        List<Interval> intervals,
+        String cacheKey,
+        @Nullable byte[] cachedResults,
+        @Nullable String cachedEtag,
+        @Nullable String etag,
+        ResponseContext responseContext
+    )
+    {
+      this.interval = interval;
+      this.intervals = intervals;
+      this.cacheKey = cacheKey;
+      this.cachedResults = cachedResults;
+      this.cachedEtag = cachedEtag;
+      this.etag = etag;
+      this.responseContext = responseContext;
+    }
+
+    private boolean hasValidCachedResults()
+    {
+      return useResultCache && etag != null && etag.equals(cachedEtag);
+    }
+
+    private void stopPopulating()
+    {
+      if (cachePopulator != null) {
+        cachePopulator.stopPopulating();
+      }
+    }
+  }
+
   private class ResultLevelCachePopulator
   {
     private final Cache cache;
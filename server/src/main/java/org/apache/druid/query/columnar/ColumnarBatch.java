@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.druid.java.util.common.StringUtils;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One decoded batch of a columnar result stream. Columns are decoded as a whole into primitive arrays, and the strings
+ * of string columns are shared by all the rows referring to the same dictionary entry.
+ */
+final class ColumnarBatch
+{
+  @Nullable
+  private final String tag;
+  private final List<String> columnNames;
+  private final int numRows;
+  private final Column[] columns;
+
+  private ColumnarBatch(@Nullable String tag, List<String> columnNames, int numRows, Column[] columns)
+  {
+    this.tag = tag;
+    this.columnNames = columnNames;
+    this.numRows = numRows;
+    this.columns = columns;
+  }
+
+  /**
+   * Reads the next batch of the stream, or returns null if the end of the results has been reached.
+   */
+  @Nullable
+  static ColumnarBatch read(DataInputStream in, ObjectMapper objectMapper) throws IOException
+  {
+    final int numRows = in.readInt();
+    if (numRows == ColumnarResultFormat.END_OF_RESULTS) {
+      return null;
+    }
+    if (numRows < 0) {
+      throw new IOException(StringUtils.format("Invalid number of rows[%d] in columnar batch", numRows));
+    }
+
+    final String tag = readString(in);
+    final int numColumnNames = in.readInt();
+    final List<String> columnNames = new ArrayList<>(numColumnNames);
+    for (int i = 0; i < numColumnNames; i++) {
+      columnNames.add(readString(in));
+    }
+
+    final Column[] columns = new Column[in.readInt()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = readColumn(in, numRows, objectMapper);
+    }
+    return new ColumnarBatch(tag, columnNames, numRows, columns);
+  }
+
+  @Nullable
+  String getTag()
+  {
+    return tag;
+  }
+
+  List<String> getColumnNames()
+  {
+    return columnNames;
+  }
+
+  int getNumRows()
+  {
+    return numRows;
+  }
+
+  int getNumColumns()
+  {
+    return columns.length;
+  }
+
+  boolean isNull(int column, int row)
+  {
+    return columns[column].isNull(row);
+  }
+
+  /**
+   * Returns the value of a long column, which must not be null.
+   */
+  long getLong(int column, int row)
+  {
+    return columns[column].getLong(row);
+  }
+
+  @Nullable
+  Object get(int column, int row)
+  {
+    return columns[column].isNull(row) ? null : columns[column].get(row);
+  }
+
+  private static Column readColumn(DataInputStream in, int numRows, ObjectMapper objectMapper) throws IOException
+  {
+    final byte type = in.readByte();
+    if (type == ColumnarResultFormat.TYPE_NULL) {
+      return NullColumn.INSTANCE;
+    }
+
+    final byte[] nulls = in.readBoolean() ? readBytes(in, (numRows + 7) >>> 3) : null;
+    switch (type) {
+      case ColumnarResultFormat.TYPE_LONG: {
+        final long[] values = new long[numRows];
+        ByteBuffer.wrap(readBytes(in, numRows * Long.BYTES)).asLongBuffer().get(values);
+        return new LongColumn(nulls, values);
+      }
+      case ColumnarResultFormat.TYPE_FLOAT: {
+        final float[] values = new float[numRows];
+        ByteBuffer.wrap(readBytes(in, numRows * Float.BYTES)).asFloatBuffer().get(values);
+        return new FloatColumn(nulls, values);
+      }
+      case ColumnarResultFormat.TYPE_DOUBLE: {
+        final double[] values = new double[numRows];
+        ByteBuffer.wrap(readBytes(in, numRows * Double.BYTES)).asDoubleBuffer().get(values);
+        return new DoubleColumn(nulls, values);
+      }
+      case ColumnarResultFormat.TYPE_STRING: {
+        final String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+          dictionary[i] = readString(in);
+        }
+        final int width = ColumnarBatchBuilder.dictionaryIdWidth(dictionary.length);
+        final ByteBuffer buffer = ByteBuffer.wrap(readBytes(in, numRows * width));
+        final int[] ids = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+          if (width == Byte.BYTES) {
+            ids[i] = buffer.get() & 0xFF;
+          } else if (width == Short.BYTES) {
+            ids[i] = buffer.getShort() & 0xFFFF;
+          } else {
+            ids[i] = buffer.getInt();
+          }
+        }
+        return new StringColumn(nulls, dictionary, ids);
+      }
+      case ColumnarResultFormat.TYPE_OBJECT: {
+        final Object[] values = new Object[numRows];
+        for (int i = 0; i < numRows; i++) {
+          final int length = in.readInt();
+          if (length >= 0) {
+            values[i] = objectMapper.readValue(readBytes(in, length), Object.class);
+          }
+        }
+        return new ObjectColumn(nulls, values);
+      }
+      default:
+        throw new IOException(StringUtils.format("Unknown columnar column type[%d]", type));
+    }
+  }
+
+  @Nullable
+  private static String readString(DataInputStream in) throws IOException
+  {
+    final int length = in.readInt();
+    return length < 0 ? null : StringUtils.fromUtf8(readBytes(in, length));
+  }
+
+  private static byte[] readBytes(DataInputStream in, int length) throws IOException
+  {
+    final byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private abstract static class Column
+  {
+    @Nullable
+    private final byte[] nulls;
+
+    Column(@Nullable byte[] nulls)
+    {
+      this.nulls = nulls;
+    }
+
+    boolean isNull(int row)
+    {
+      return nulls != null && (nulls[row >>> 3] & (1 << (row & 7))) != 0;
+    }
+
+    long getLong(int row)
+    {
+      return ((Number) get(row)).longValue();
+    }
+
+    abstract Object get(int row);
+  }
+
+  private static class NullColumn extends Column
+  {
+    private static final NullColumn INSTANCE = new NullColumn();
+
+    private NullColumn()
+    {
+      super(null);
+    }
+
+    @Override
+    boolean isNull(int row)
+    {
+      return true;
+    }
+
+    @Override
+    @Nullable
+    Object get(int row)
+    {
+      return null;
+    }
+  }
+
+  private static class LongColumn extends Column
+  {
+    private final long[] values;
+
+    LongColumn(@Nullable byte[] nulls, long[] values)
+    {
+      super(nulls);
+      this.values = values;
+    }
+
+    @Override
+    long getLong(int row)
+    {
+      return values[row];
+    }
+
+    @Override
+    Object get(int row)
+    {
+      return values[row];
+    }
+  }
+
+  private static class FloatColumn extends Column
+  {
+    private final float[] values;
+
+    FloatColumn(@Nullable byte[] nulls, float[] values)
+    {
+      super(nulls);
+      this.values = values;
+    }
+
+    @Override
+    Object get(int row)
+    {
+      return values[row];
+    }
+  }
+
+  private static class DoubleColumn extends Column
+  {
+    private final double[] values;
+
+    DoubleColumn(@Nullable byte[] nulls, double[] values)
+    {
+      super(nulls);
+      this.values = values;
+    }
+
+    @Override
+    Object get(int row)
+    {
+      return values[row];
+    }
+  }
+
+  private static class StringColumn extends Column
+  {
+    private final String[] dictionary;
+    private final int[] ids;
+
+    StringColumn(@Nullable byte[] nulls, String[] dictionary, int[] ids)
+    {
+      super(nulls);
+      this.dictionary = dictionary;
+      this.ids = ids;
+    }
+
+    @Override
+    Object get(int row)
+    {
+      return dictionary[ids[row]];
+    }
+  }
+
+  private static class ObjectColumn extends Column
+  {
+    private final Object[] values;
+
+    ObjectColumn(@Nullable byte[] nulls, Object[] values)
+    {
+      super(nulls);
+      this.values = values;
+    }
+
+    @Override
+    Object get(int row)
+    {
+      return values[row];
+    }
+  }
+}
@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.apache.druid.java.util.common.StringUtils;
+
+import javax.annotation.Nullable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Accumulates the rows of one batch, column by column, and writes them as typed column blocks. The type of every
+ * column is decided when the batch is written, from the values it got: a column is only written as longs, floats,
+ * doubles or strings if all its non-null values are of that type. Other columns, including the ones mixing these
+ * types, are written value by value as JSON. Builders are reused from batch to batch, see {@link #reset()}.
+ *
+ * The types the reader gets back are not always the ones JSON deserialization would give:
+ * <ul>
+ *   <li>Byte, Short, Integer and Long values of a long column come back as Long. JSON gives Integer for the values
+ *   fitting in an int.</li>
+ *   <li>Float values of a float column come back as Float. JSON gives Double.</li>
+ *   <li>Double and String values come back as Double and String, as with JSON.</li>
+ *   <li>Values of the other columns are read back from JSON, so they get the types JSON gives.</li>
+ * </ul>
+ */
+final class ColumnarBatchBuilder
+{
+  private final ObjectWriter objectWriter;
+
+  private boolean started = false;
+  @Nullable
+  private String tag = null;
+  private List<String> columnNames = Collections.emptyList();
+  private int numColumns = 0;
+  private int numRows = 0;
+  private ColumnBuilder[] columns = new ColumnBuilder[0];
+
+  ColumnarBatchBuilder(ObjectWriter objectWriter)
+  {
+    this.objectWriter = objectWriter;
+  }
+
+  /**
+   * @param tag         value attached to the whole batch, such as the segment id of scan results
+   * @param columnNames names of the columns, may be empty if the columns are positional
+   * @param numColumns  number of values of every row
+   */
+  void start(@Nullable String tag, List<String> columnNames, int numColumns)
+  {
+    this.started = true;
+    this.tag = tag;
+    this.columnNames = columnNames;
+    this.numColumns = numColumns;
+    if (columns.length < numColumns) {
+      final int oldLength = columns.length;
+      columns = Arrays.copyOf(columns, numColumns);
+      for (int i = oldLength; i < numColumns; i++) {
+        columns[i] = new ColumnBuilder();
+      }
+    }
+  }
+
+  boolean isStarted()
+  {
+    return started;
+  }
+
+  @Nullable
+  String getTag()
+  {
+    return tag;
+  }
+
+  List<String> getColumnNames()
+  {
+    return columnNames;
+  }
+
+  int getNumColumns()
+  {
+    return numColumns;
+  }
+
+  int getNumRows()
+  {
+    return numRows;
+  }
+
+  /**
+   * Sets the value of a column of the current row. Every column must be set once per row, before {@link #endRow()}.
+   */
+  void set(int column, @Nullable Object value) throws IOException
+  {
+    columns[column].set(numRows, value, objectWriter);
+  }
+
+  void endRow()
+  {
+    numRows++;
+  }
+
+  void writeTo(DataOutputStream out) throws IOException
+  {
+    out.writeInt(numRows);
+    writeString(out, tag);
+    out.writeInt(columnNames.size());
+    for (String columnName : columnNames) {
+      writeString(out, columnName);
+    }
+    out.writeInt(numColumns);
+    for (int i = 0; i < numColumns; i++) {
+      columns[i].writeTo(out, numRows, objectWriter);
+    }
+  }
+
+  void reset()
+  {
+    for (int i = 0; i < numColumns; i++) {
+      columns[i].reset(numRows);
+    }
+    started = false;
+    tag = null;
+    columnNames = Collections.emptyList();
+    numColumns = 0;
+    numRows = 0;
+  }
+
+  static void writeString(DataOutputStream out, @Nullable String value) throws IOException
+  {
+    if (value == null) {
+      out.writeInt(-1);
+    } else {
+      final byte[] bytes = StringUtils.toUtf8(value);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * Number of bytes used to write the dictionary ids of a string column, shared with {@link ColumnarBatch}.
+   */
+  static int dictionaryIdWidth(int dictionarySize)
+  {
+    if (dictionarySize <= 1 << Byte.SIZE) {
+      return Byte.BYTES;
+    } else if (dictionarySize <= 1 << Short.SIZE) {
+      return Short.BYTES;
+    } else {
+      return Integer.BYTES;
+    }
+  }
+
+  private static class ColumnBuilder
+  {
+    private static final int SAW_LONG = 1;
+    private static final int SAW_FLOAT = 1 << 1;
+    private static final int SAW_DOUBLE = 1 << 2;
+    private static final int SAW_STRING = 1 << 3;
+    private static final int SAW_OBJECT = 1 << 4;
+
+    private final Object2IntOpenHashMap<String> dictionary = new Object2IntOpenHashMap<>();
+    private final List<String> dictionaryValues = new ArrayList<>();
+    private Object[] values = new Object[16];
+    private int seenTypes = 0;
+    private boolean hasNulls = false;
+
+    ColumnBuilder()
+    {
+      dictionary.defaultReturnValue(-1);
+    }
+
+    void set(int row, @Nullable Object value, ObjectWriter objectWriter) throws IOException
+    {
+      if (row >= values.length) {
+        values = Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+      }
+
+      if (value == null) {
+        hasNulls = true;
+        values[row] = null;
+        return;
+      }
+
+      if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+        seenTypes |= SAW_LONG;
+        values[row] = value;
+      } else if (value instanceof Float) {
+        seenTypes |= SAW_FLOAT;
+        values[row] = value;
+      } else if (value instanceof Double) {
+        seenTypes |= SAW_DOUBLE;
+        values[row] = value;
+      } else if (value instanceof String) {
+        seenTypes |= SAW_STRING;
+        values[row] = value;
+      } else {
+        // Other values may be mutable, serialize them right away.
+        seenTypes |= SAW_OBJECT;
+        values[row] = new SerializedValue(objectWriter.writeValueAsBytes(value));
+      }
+    }
+
+    void writeTo(DataOutputStream out, int numRows, ObjectWriter objectWriter) throws IOException
+    {
+      final byte type = getType();
+      out.writeByte(type);
+      if (type == ColumnarResultFormat.TYPE_NULL) {
+        return;
+      }
+
+      out.writeBoolean(hasNulls);
+      if (hasNulls) {
+        final byte[] nulls = new byte[(numRows + 7) >>> 3];
+        for (int i = 0; i < numRows; i++) {
+          if (values[i] == null) {
+            nulls[i >>> 3] |= 1 << (i & 7);
+          }
+        }
+        out.write(nulls);
+      }
+
+      switch (type) {
+        case ColumnarResultFormat.TYPE_LONG: {
+          final ByteBuffer buffer = ByteBuffer.allocate(numRows * Long.BYTES);
+          for (int i = 0; i < numRows; i++) {
+            buffer.putLong(values[i] == null ? 0L : ((Number) values[i]).longValue());
+          }
+          out.write(buffer.array());
+          break;
+        }
+        case ColumnarResultFormat.TYPE_FLOAT: {
+          final ByteBuffer buffer = ByteBuffer.allocate(numRows * Float.BYTES);
+          for (int i = 0; i < numRows; i++) {
+            buffer.putFloat(values[i] == null ? 0f : (Float) values[i]);
+          }
+          out.write(buffer.array());
+          break;
+        }
+        case ColumnarResultFormat.TYPE_DOUBLE: {
+          final ByteBuffer buffer = ByteBuffer.allocate(numRows * Double.BYTES);
+          for (int i = 0; i < numRows; i++) {
+            buffer.putDouble(values[i] == null ? 0d : (Double) values[i]);
+          }
+          out.write(buffer.array());
+          break;
+        }
+        case ColumnarResultFormat.TYPE_STRING:
+          writeStrings(out, numRows);
+          break;
+        default:
+          for (int i = 0; i < numRows; i++) {
+            final Object value = values[i];
+            if (value == null) {
+              out.writeInt(-1);
+            } else {
+              final byte[] bytes = value instanceof SerializedValue
+                                   ? ((SerializedValue) value).bytes
+                                   : objectWriter.writeValueAsBytes(value);
+              out.writeInt(bytes.length);
+              out.write(bytes);
+            }
+          }
+      }
+    }
+
+    private void writeStrings(DataOutputStream out, int numRows) throws IOException
+    {
+      final int[] ids = new int[numRows];
+      for (int i = 0; i < numRows; i++) {
+        final String value = (String) values[i];
+        if (value != null) {
+          int id = dictionary.getInt(value);
+          if (id < 0) {
+            id = dictionaryValues.size();
+            dictionary.put(value, id);
+            dictionaryValues.add(value);
+          }
+          ids[i] = id;
+        }
+      }
+
+      out.writeInt(dictionaryValues.size());
+      for (String value : dictionaryValues) {
+        writeString(out, value);
+      }
+
+      final int width = dictionaryIdWidth(dictionaryValues.size());
+      final ByteBuffer buffer = ByteBuffer.allocate(numRows * width);
+      for (int id : ids) {
+        if (width == Byte.BYTES) {
+          buffer.put((byte) id);
+        } else if (width == Short.BYTES) {
+          buffer.putShort((short) id);
+        } else {
+          buffer.putInt(id);
+        }
+      }
+      out.write(buffer.array());
+    }
+
+    private byte getType()
+    {
+      switch (seenTypes) {
+        case 0:
+          return ColumnarResultFormat.TYPE_NULL;
+        case SAW_LONG:
+          return ColumnarResultFormat.TYPE_LONG;
+        case SAW_FLOAT:
+          return ColumnarResultFormat.TYPE_FLOAT;
+        case SAW_DOUBLE:
+          return ColumnarResultFormat.TYPE_DOUBLE;
+        case SAW_STRING:
+          return ColumnarResultFormat.TYPE_STRING;
+        default:
+          // Mixed types, written one by one so that every value keeps its own type.
+          return ColumnarResultFormat.TYPE_OBJECT;
+      }
+    }
+
+    void reset(int numRows)
+    {
+      Arrays.fill(values, 0, Math.min(numRows, values.length), null);
+      dictionary.clear();
+      dictionaryValues.clear();
+      seenTypes = 0;
+      hasNulls = false;
+    }
+  }
+
+  private static class SerializedValue
+  {
+    private final byte[] bytes;
+
+    private SerializedValue(byte[] bytes)
+    {
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.groupby.GroupByQuery;
+import org.apache.druid.query.scan.ScanQuery;
+import org.apache.druid.query.timeseries.TimeseriesQuery;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+
+/**
+ * Binary columnar format for the results sent by data servers to the Broker. Instead of one JSON or Smile object per
+ * result row, results are sent in batches of rows, and every batch is made of one typed block per column: longs,
+ * floats and doubles are written as fixed width values, strings are dictionary encoded per batch, and any other value
+ * is written with the regular object mapper of the request. The Broker decodes whole column blocks at once, without
+ * going through the Jackson token stream for every value.
+ *
+ * The format is negotiated: the Broker asks for it with an "Accept: {@link #MEDIA_TYPE}" request header, when the
+ * "columnarResultTransport" query context flag is set, and the data server only uses it for the queries it
+ * {@link #isSupported supports}, answering with the format of the request content type otherwise. Readers tell both
+ * apart by the {@link #MAGIC} header of columnar responses.
+ *
+ * Layout: header, then batches, then the end marker.
+ * <pre>
+ *   header:  MAGIC, VERSION
+ *   batch:   int numRows, string tag, int numColumnNames, string columnName*, int numColumns, column*
+ *   column:  byte type, [byte hasNulls, [null bitmap]], values (absent for TYPE_NULL)
+ *   end:     int -1
+ * </pre>
+ */
+public final class ColumnarResultFormat
+{
+  public static final String MEDIA_TYPE = "application/x-druid-columnar";
+
+  static final byte[] MAGIC = {(byte) 0xDC, 'C', 'O', 'L'};
+  static final byte VERSION = 1;
+  static final int HEADER_SIZE = MAGIC.length + 1;
+  static final int END_OF_RESULTS = -1;
+
+  static final byte TYPE_NULL = 0;
+  static final byte TYPE_LONG = 1;
+  static final byte TYPE_FLOAT = 2;
+  static final byte TYPE_DOUBLE = 3;
+  static final byte TYPE_STRING = 4;
+  static final byte TYPE_OBJECT = 5;
+
+  public static final int DEFAULT_BATCH_SIZE = 4096;
+
+  private ColumnarResultFormat()
+  {
+  }
+
+  /**
+   * Returns true if the Broker should ask data servers for columnar results for this query.
+   */
+  public static boolean isRequested(Query<?> query)
+  {
+    return QueryContexts.isColumnarResultTransport(query, false) && isSupported(query);
+  }
+
+  /**
+   * Returns true if results of this query can be written in the columnar format.
+   */
+  public static boolean isSupported(Query<?> query)
+  {
+    return !QueryContexts.isBySegment(query) && createAdapter(query) != null;
+  }
+
+  /**
+   * @param objectWriter writer of the request content type, used to write values that are not longs, floats, doubles
+   *                     or strings
+   */
+  public static <T> ColumnarResultWriter<T> newWriter(Query<T> query, ObjectWriter objectWriter)
+  {
+    return newWriter(query, objectWriter, DEFAULT_BATCH_SIZE);
+  }
+
+  static <T> ColumnarResultWriter<T> newWriter(Query<T> query, ObjectWriter objectWriter, int batchSize)
+  {
+    return new ColumnarResultWriter<>(getAdapter(query), objectWriter, batchSize);
+  }
+
+  /**
+   * Reads the columnar header from the stream, if there is one. If there is none, nothing is consumed from the stream,
+   * which can then be read as JSON or Smile.
+   *
+   * @param in stream able to push back at least {@link #HEADER_SIZE} bytes
+   *
+   * @return true if the stream is a columnar result stream, positioned after its header
+   */
+  public static boolean readHeader(PushbackInputStream in) throws IOException
+  {
+    final byte[] header = new byte[HEADER_SIZE];
+    int numRead = 0;
+    while (numRead < header.length) {
+      final int n = in.read(header, numRead, header.length - numRead);
+      if (n < 0) {
+        break;
+      }
+      numRead += n;
+    }
+
+    if (numRead == header.length && Arrays.equals(MAGIC, Arrays.copyOf(header, MAGIC.length))) {
+      if (header[MAGIC.length] != VERSION) {
+        throw new IOException(StringUtils.format("Unknown columnar result version[%d]", header[MAGIC.length]));
+      }
+      return true;
+    }
+
+    in.unread(header, 0, numRead);
+    return false;
+  }
+
+  public static PushbackInputStream pushbackStream(InputStream in)
+  {
+    return new PushbackInputStream(in, HEADER_SIZE);
+  }
+
+  /**
+   * Creates a reader of the batches of a stream on which {@link #readHeader} returned true.
+   *
+   * @param objectMapper mapper of the request content type, used to read values that are not longs, floats, doubles
+   *                     or strings
+   */
+  public static <T> ColumnarResultReader<T> newReader(Query<T> query, InputStream in, ObjectMapper objectMapper)
+  {
+    return new ColumnarResultReader<>(getAdapter(query), in, objectMapper);
+  }
+
+  private static <T> ColumnarRowAdapter<T> getAdapter(Query<T> query)
+  {
+    final ColumnarRowAdapter<T> adapter = createAdapter(query);
+    if (adapter == null) {
+      throw new IAE("Columnar results are not supported for query type[%s]", query.getType());
+    }
+    return adapter;
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private static <T> ColumnarRowAdapter<T> createAdapter(Query<T> query)
+  {
+    if (query instanceof GroupByQuery) {
+      return (ColumnarRowAdapter<T>) new GroupByColumnarRowAdapter();
+    } else if (query instanceof TimeseriesQuery) {
+      return (ColumnarRowAdapter<T>) new TimeseriesColumnarRowAdapter();
+    } else if (query instanceof ScanQuery) {
+      final ScanQuery.ResultFormat resultFormat = ((ScanQuery) query).getResultFormat();
+      if (resultFormat == ScanQuery.ResultFormat.RESULT_FORMAT_LIST
+          || resultFormat == ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST) {
+        return (ColumnarRowAdapter<T>) new ScanColumnarRowAdapter(resultFormat);
+      }
+    }
+    return null;
+  }
+}
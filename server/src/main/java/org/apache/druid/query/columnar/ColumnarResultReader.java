@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads query results in the {@link ColumnarResultFormat}, one batch at a time. Results are only created from the
+ * decoded columns of a batch when they are asked for. A stream which ends before the end marker, such as the response
+ * of a data server which failed while writing results, is reported as an {@link IOException}.
+ */
+public class ColumnarResultReader<T> implements Closeable
+{
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ColumnarRowAdapter<T> adapter;
+  private final DataInputStream in;
+  private final ObjectMapper objectMapper;
+
+  @Nullable
+  private ColumnarBatch batch = null;
+  private int numResults = 0;
+  private int index = 0;
+  private boolean done = false;
+
+  ColumnarResultReader(ColumnarRowAdapter<T> adapter, InputStream in, ObjectMapper objectMapper)
+  {
+    this.adapter = adapter;
+    this.in = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+    this.objectMapper = objectMapper;
+  }
+
+  public boolean hasNext() throws IOException
+  {
+    while (!done && index >= numResults) {
+      batch = ColumnarBatch.read(in, objectMapper);
+      if (batch == null) {
+        done = true;
+      } else {
+        numResults = adapter.numResults(batch);
+        index = 0;
+      }
+    }
+    return !done;
+  }
+
+  public T next() throws IOException
+  {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return adapter.get(batch, index++);
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    in.close();
+  }
+}
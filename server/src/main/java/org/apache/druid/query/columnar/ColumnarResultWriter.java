@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Yielder;
+import org.apache.druid.java.util.common.guava.Yielders;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes query results in the {@link ColumnarResultFormat}.
+ */
+public class ColumnarResultWriter<T>
+{
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ColumnarRowAdapter<T> adapter;
+  private final ObjectWriter objectWriter;
+  private final int batchSize;
+
+  ColumnarResultWriter(ColumnarRowAdapter<T> adapter, ObjectWriter objectWriter, int batchSize)
+  {
+    this.adapter = adapter;
+    this.objectWriter = objectWriter;
+    this.batchSize = batchSize;
+  }
+
+  public void write(Sequence<T> results, OutputStream out) throws IOException
+  {
+    write(Yielders.each(results), out);
+  }
+
+  /**
+   * Writes all the results of the yielder, and closes it. The stream is flushed but not closed.
+   */
+  public void write(Yielder<T> yielder, OutputStream out) throws IOException
+  {
+    final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+    final ColumnarBatchBuilder batch = new ColumnarBatchBuilder(objectWriter);
+
+    Yielder<T> current = yielder;
+    try {
+      dataOut.write(ColumnarResultFormat.MAGIC);
+      dataOut.writeByte(ColumnarResultFormat.VERSION);
+
+      while (!current.isDone()) {
+        final T result = current.get();
+        if (batch.isStarted() && batch.getNumRows() >= batchSize) {
+          flush(batch, dataOut);
+        }
+        if (!adapter.append(result, batch)) {
+          flush(batch, dataOut);
+          if (!adapter.append(result, batch)) {
+            throw new ISE("Result does not fit in an empty columnar batch");
+          }
+        }
+        current = current.next(null);
+      }
+
+      if (batch.isStarted()) {
+        flush(batch, dataOut);
+      }
+      dataOut.writeInt(ColumnarResultFormat.END_OF_RESULTS);
+      dataOut.flush();
+    }
+    finally {
+      current.close();
+    }
+  }
+
+  private static void flush(ColumnarBatchBuilder batch, DataOutputStream out) throws IOException
+  {
+    batch.writeTo(out);
+    batch.reset();
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import java.io.IOException;
+
+/**
+ * Maps the results of one query type to and from the rows of columnar batches.
+ */
+interface ColumnarRowAdapter<T>
+{
+  /**
+   * Adds the rows of a result to the batch being built, starting the batch if it has not been started yet.
+   *
+   * @return false, without adding anything, if the batch has been started and the result does not fit its columns
+   */
+  boolean append(T result, ColumnarBatchBuilder batch) throws IOException;
+
+  int numResults(ColumnarBatch batch);
+
+  T get(ColumnarBatch batch, int index);
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import org.apache.druid.query.groupby.ResultRow;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Writes every groupBy result row as one row of positional columns.
+ */
+class GroupByColumnarRowAdapter implements ColumnarRowAdapter<ResultRow>
+{
+  @Override
+  public boolean append(ResultRow row, ColumnarBatchBuilder batch) throws IOException
+  {
+    final int numColumns = row.length();
+    if (!batch.isStarted()) {
+      batch.start(null, Collections.emptyList(), numColumns);
+    } else if (batch.getNumColumns() != numColumns) {
+      return false;
+    }
+
+    for (int i = 0; i < numColumns; i++) {
+      batch.set(i, row.get(i));
+    }
+    batch.endRow();
+    return true;
+  }
+
+  @Override
+  public int numResults(ColumnarBatch batch)
+  {
+    return batch.getNumRows();
+  }
+
+  @Override
+  public ResultRow get(ColumnarBatch batch, int index)
+  {
+    final Object[] values = new Object[batch.getNumColumns()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = batch.get(i, index);
+    }
+    return ResultRow.of(values);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.query.scan.ScanQuery;
+import org.apache.druid.query.scan.ScanResultValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes every scan result value, which is already a batch of events, as one batch tagged with its segment id. Events
+ * in the "list" format are written by column name and read back as maps of all the columns.
+ */
+class ScanColumnarRowAdapter implements ColumnarRowAdapter<ScanResultValue>
+{
+  private final ScanQuery.ResultFormat resultFormat;
+
+  ScanColumnarRowAdapter(ScanQuery.ResultFormat resultFormat)
+  {
+    this.resultFormat = resultFormat;
+  }
+
+  @Override
+  public boolean append(ScanResultValue value, ColumnarBatchBuilder batch) throws IOException
+  {
+    if (batch.isStarted()) {
+      return false;
+    }
+
+    final List<String> columns = value.getColumns();
+    batch.start(value.getSegmentId(), columns, columns.size());
+    for (Object event : (List<?>) value.getEvents()) {
+      if (resultFormat == ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST) {
+        final List<?> row = (List<?>) event;
+        if (row.size() != columns.size()) {
+          throw new ISE("Scan event has [%d] values, expected [%d]", row.size(), columns.size());
+        }
+        for (int i = 0; i < columns.size(); i++) {
+          batch.set(i, row.get(i));
+        }
+      } else {
+        final Map<?, ?> row = (Map<?, ?>) event;
+        if (row.size() > columns.size()) {
+          throw new ISE("Scan event has columns other than %s", columns);
+        }
+        for (int i = 0; i < columns.size(); i++) {
+          batch.set(i, row.get(columns.get(i)));
+        }
+      }
+      batch.endRow();
+    }
+    return true;
+  }
+
+  @Override
+  public int numResults(ColumnarBatch batch)
+  {
+    return 1;
+  }
+
+  @Override
+  public ScanResultValue get(ColumnarBatch batch, int index)
+  {
+    final List<String> columns = batch.getColumnNames();
+    final List<Object> events = new ArrayList<>(batch.getNumRows());
+    for (int row = 0; row < batch.getNumRows(); row++) {
+      if (resultFormat == ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST) {
+        final List<Object> event = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+          event.add(batch.get(i, row));
+        }
+        events.add(event);
+      } else {
+        final Map<String, Object> event = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+          event.put(columns.get(i), batch.get(i, row));
+        }
+        events.add(event);
+      }
+    }
+    return new ScanResultValue(batch.getTag(), columns, events);
+  }
+}
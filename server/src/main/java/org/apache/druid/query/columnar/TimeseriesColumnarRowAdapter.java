@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.timeseries.TimeseriesResultValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes every timeseries result as one row, with the timestamp in the first column and the values in the others.
+ * Consecutive results with the same value names share a batch.
+ */
+class TimeseriesColumnarRowAdapter implements ColumnarRowAdapter<Result<TimeseriesResultValue>>
+{
+  @Override
+  public boolean append(Result<TimeseriesResultValue> result, ColumnarBatchBuilder batch) throws IOException
+  {
+    final Map<String, Object> values = result.getValue().getBaseObject();
+    if (!batch.isStarted()) {
+      batch.start(null, new ArrayList<>(values.keySet()), values.size() + 1);
+    } else if (!hasNames(values, batch.getColumnNames())) {
+      return false;
+    }
+
+    batch.set(0, result.getTimestamp() == null ? null : result.getTimestamp().getMillis());
+    int column = 1;
+    for (Object value : values.values()) {
+      batch.set(column++, value);
+    }
+    batch.endRow();
+    return true;
+  }
+
+  @Override
+  public int numResults(ColumnarBatch batch)
+  {
+    return batch.getNumRows();
+  }
+
+  @Override
+  public Result<TimeseriesResultValue> get(ColumnarBatch batch, int index)
+  {
+    final List<String> names = batch.getColumnNames();
+    final Map<String, Object> values = new LinkedHashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      values.put(names.get(i), batch.get(i + 1, index));
+    }
+    return new Result<>(
+        batch.isNull(0, index) ? null : DateTimes.utc(batch.getLong(0, index)),
+        new TimeseriesResultValue(values)
+    );
+  }
+
+  private static boolean hasNames(Map<String, Object> values, List<String> names)
+  {
+    if (values.size() != names.size()) {
+      return false;
+    }
+    final Iterator<String> keys = values.keySet().iterator();
+    for (String name : names) {
+      if (!name.equals(keys.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
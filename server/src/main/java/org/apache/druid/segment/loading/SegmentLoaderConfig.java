@@ -55,6 +55,9 @@ public class SegmentLoaderConfig
   @JsonProperty("numBootstrapThreads")
   private Integer numBootstrapThreads = null;
 
+  @JsonProperty("numDownloadThreads")
+  private int numDownloadThreads = 0;
+
   @JsonProperty("locationSelectorStrategy")
   private StorageLocationSelectorStrategy locationSelectorStrategy;
 
@@ -64,6 +67,18 @@ public class SegmentLoaderConfig
   @JsonProperty
   private int statusQueueMaxSize = 100;
 
+  @JsonProperty("virtualStorage")
+  private boolean virtualStorage = false;
+
+  @JsonProperty("prioritizedBootstrap")
+  private boolean prioritizedBootstrap = false;
+
+  @JsonProperty("prefetchHotColumns")
+  private boolean prefetchHotColumns = false;
+
+  @JsonProperty("numPrefetchColumns")
+  private int numPrefetchColumns = 10;
+
   private long combinedMaxSize = 0;
 
   public List<StorageLocationConfig> getLocations()
@@ -101,6 +116,16 @@ public class SegmentLoaderConfig
     return numBootstrapThreads == null ? numLoadingThreads : numBootstrapThreads;
   }
 
+  /**
+   * Number of threads downloading the segments assigned to the server from deep storage, before they are loaded by
+   * one of the {@link #getNumLoadingThreads()} loading threads, so that downloads overlap with the loading of the
+   * segments already downloaded. If 0, segments are downloaded by the loading threads. Ignored in virtual storage mode.
+   */
+  public int getNumDownloadThreads()
+  {
+    return numDownloadThreads;
+  }
+
   public StorageLocationSelectorStrategy getStorageLocationSelectorStrategy(List<StorageLocation> storageLocations)
   {
     if (locationSelectorStrategy == null) {
@@ -123,6 +148,43 @@ public class SegmentLoaderConfig
     return statusQueueMaxSize;
   }
 
+  /**
+   * If true, segments are announced as soon as they are assigned, and only fetched from deep storage the first time a
+   * query needs them. {@link #getLocations()} then bound a cache of the segments fetched so far, rather than the
+   * segments that can be assigned.
+   */
+  public boolean isVirtualStorage()
+  {
+    return virtualStorage;
+  }
+
+  /**
+   * If true, the segments of the local cache are loaded in the background on startup, after the server is announced,
+   * and each segment is announced as soon as it is loaded. The segments of the dataSources which were queried the most
+   * before the restart are loaded first, and then the newest segments first.
+   */
+  public boolean isPrioritizedBootstrap()
+  {
+    return prioritizedBootstrap;
+  }
+
+  /**
+   * If true, the columns most frequently accessed by queries are read into the page cache when segments are loaded,
+   * so that the first queries on a segment don't wait for random reads from disk. Ignored in virtual storage mode.
+   */
+  public boolean isPrefetchHotColumns()
+  {
+    return prefetchHotColumns;
+  }
+
+  /**
+   * Maximum number of columns of each dataSource to prefetch, see {@link #isPrefetchHotColumns()}.
+   */
+  public int getNumPrefetchColumns()
+  {
+    return numPrefetchColumns;
+  }
+
   public long getCombinedMaxSize()
   {
     if (combinedMaxSize == 0) {
@@ -147,6 +209,13 @@ public class SegmentLoaderConfig
     return this;
   }
 
+  @VisibleForTesting
+  SegmentLoaderConfig withVirtualStorage(boolean virtualStorage)
+  {
+    this.virtualStorage = virtualStorage;
+    return this;
+  }
+
   @Override
   public String toString()
   {
@@ -156,6 +225,11 @@ public class SegmentLoaderConfig
            ", dropSegmentDelayMillis=" + dropSegmentDelayMillis +
            ", locationSelectorStrategy=" + locationSelectorStrategy +
            ", infoDir=" + infoDir +
+           ", virtualStorage=" + virtualStorage +
+           ", prioritizedBootstrap=" + prioritizedBootstrap +
+           ", prefetchHotColumns=" + prefetchHotColumns +
+           ", numPrefetchColumns=" + numPrefetchColumns +
+           ", numDownloadThreads=" + numDownloadThreads +
            '}';
   }
 }
@@ -30,10 +30,12 @@ import org.apache.druid.segment.IndexIO;
 import org.apache.druid.segment.Segment;
 import org.apache.druid.timeline.DataSegment;
 
+import javax.annotation.concurrent.GuardedBy;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -76,6 +78,28 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
 
   private final StorageLocationSelectorStrategy strategy;
 
+  private final VirtualSegmentStats virtualSegmentStats;
+
+  /**
+   * Segments loaded on demand in virtual storage mode, from the least to the most recently used one. Only segments
+   * whose files are available locally are in this map.
+   *
+   * Lock ordering: {@link #virtualSegmentsLock} may be held while acquiring a lock of {@link #segmentLocks}, or the
+   * monitor of a {@link VirtualSegment}, but never the other way around.
+   */
+  @GuardedBy("virtualSegmentsLock")
+  private final LinkedHashMap<DataSegment, VirtualSegment> loadedVirtualSegments = new LinkedHashMap<>(16, 0.75f, true);
+  private final Object virtualSegmentsLock = new Object();
+
+  public SegmentLoaderLocalCacheManager(
+      IndexIO indexIO,
+      SegmentLoaderConfig config,
+      @Json ObjectMapper mapper
+  )
+  {
+    this(indexIO, config, mapper, new VirtualSegmentStats());
+  }
+
   // Note that we only create this via injection in historical and realtime nodes. Peons create these
   // objects via SegmentLoaderFactory objects, so that they can store segments in task-specific
   // directories rather than statically configured directories.
@@ -83,12 +107,14 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
   public SegmentLoaderLocalCacheManager(
       IndexIO indexIO,
       SegmentLoaderConfig config,
-      @Json ObjectMapper mapper
+      @Json ObjectMapper mapper,
+      VirtualSegmentStats virtualSegmentStats
   )
   {
     this.indexIO = indexIO;
     this.config = config;
     this.jsonMapper = mapper;
+    this.virtualSegmentStats = virtualSegmentStats;
     this.locations = new ArrayList<>();
     for (StorageLocationConfig locationConfig : config.getLocations()) {
       locations.add(
@@ -122,6 +148,10 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
   @Override
   public Segment getSegment(DataSegment segment, boolean lazy) throws SegmentLoadingException
   {
+    if (config.isVirtualStorage()) {
+      return new VirtualSegment(segment, lazy, this);
+    }
+
     final ReferenceCountingLock lock = createOrGetLock(segment);
     final File segmentFiles;
     synchronized (lock) {
@@ -132,6 +162,11 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
         unlock(segment, lock);
       }
     }
+    return factorize(segment, segmentFiles, lazy);
+  }
+
+  private Segment factorize(DataSegment segment, File segmentFiles, boolean lazy) throws SegmentLoadingException
+  {
     File factoryJson = new File(segmentFiles, "factory.json");
     final SegmentizerFactory factory;
 
@@ -160,6 +195,10 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
 
         if (loc == null) {
           loc = loadSegmentWithRetry(segment, storageDir);
+        } else if (config.isVirtualStorage()) {
+          // Files left by a previous run are only accounted for once they are used again, so that they can be evicted
+          // along with the segments fetched since. This is a no-op if they already are.
+          loc.reserve(storageDir, segment);
         }
         return new File(loc.getPath(), storageDir);
       }
@@ -249,6 +288,109 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
     }
   }
 
+  /**
+   * Fetches the files of a {@link VirtualSegment} if they are not available locally, evicting the least recently used
+   * segments that no query is using if there isn't enough space for them.
+   */
+  Segment loadVirtualSegment(DataSegment segment, boolean lazy) throws SegmentLoadingException
+  {
+    while (true) {
+      final boolean cached = isSegmentLoaded(segment);
+      if (!cached) {
+        synchronized (virtualSegmentsLock) {
+          // Evicts until the segment fits, or until every loaded segment is in use.
+          while (!hasSpaceFor(segment)) {
+            if (!evictLeastRecentlyUsedVirtualSegment()) {
+              break;
+            }
+          }
+        }
+      }
+
+      final long startTime = System.currentTimeMillis();
+      final File segmentFiles;
+      try {
+        segmentFiles = getSegmentFiles(segment);
+      }
+      catch (SegmentLoadingException e) {
+        synchronized (virtualSegmentsLock) {
+          // Space may have been taken by another segment loaded concurrently. Other failures are not retried.
+          if (hasSpaceFor(segment) || !evictLeastRecentlyUsedVirtualSegment()) {
+            throw e;
+          }
+        }
+        continue;
+      }
+
+      if (cached) {
+        virtualSegmentStats.incrementHit();
+      } else {
+        virtualSegmentStats.recordFetch(System.currentTimeMillis() - startTime, segment.getSize());
+      }
+      return factorize(segment, segmentFiles, lazy);
+    }
+  }
+
+  void addVirtualSegment(VirtualSegment virtualSegment)
+  {
+    synchronized (virtualSegmentsLock) {
+      loadedVirtualSegments.put(virtualSegment.getDataSegment(), virtualSegment);
+    }
+  }
+
+  /**
+   * Records that a query is using the given segment, which is already loaded.
+   */
+  void markVirtualSegmentUsed(VirtualSegment virtualSegment)
+  {
+    virtualSegmentStats.incrementHit();
+    synchronized (virtualSegmentsLock) {
+      // Moves it to the end of the access order.
+      loadedVirtualSegments.get(virtualSegment.getDataSegment());
+    }
+  }
+
+  void removeVirtualSegment(VirtualSegment virtualSegment)
+  {
+    synchronized (virtualSegmentsLock) {
+      loadedVirtualSegments.remove(virtualSegment.getDataSegment(), virtualSegment);
+    }
+  }
+
+  @GuardedBy("virtualSegmentsLock")
+  private boolean hasSpaceFor(DataSegment segment)
+  {
+    for (StorageLocation location : locations) {
+      if (location.availableSizeBytes() >= segment.getSize()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Unloads the least recently used segment that no query is using, and deletes its files.
+   *
+   * @return false if there was no such segment
+   */
+  @GuardedBy("virtualSegmentsLock")
+  private boolean evictLeastRecentlyUsedVirtualSegment()
+  {
+    final Iterator<VirtualSegment> iterator = loadedVirtualSegments.values().iterator();
+    while (iterator.hasNext()) {
+      final VirtualSegment candidate = iterator.next();
+      if (candidate.unloadIfUnused()) {
+        iterator.remove();
+        final DataSegment segment = candidate.getDataSegment();
+        log.debug("Evicting segment[%s] from the local cache.", segment.getId());
+        deleteSegmentFiles(segment);
+        virtualSegmentStats.recordEviction(segment.getSize());
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void cleanup(DataSegment segment)
   {
@@ -256,6 +398,11 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
       return;
     }
 
+    deleteSegmentFiles(segment);
+  }
+
+  private void deleteSegmentFiles(DataSegment segment)
+  {
     final ReferenceCountingLock lock = createOrGetLock(segment);
     synchronized (lock) {
       try {
@@ -376,4 +523,10 @@ public class SegmentLoaderLocalCacheManager implements SegmentLoader
   {
     return locations;
   }
+
+  @VisibleForTesting
+  public VirtualSegmentStats getVirtualSegmentStats()
+  {
+    return virtualSegmentStats;
+  }
 }
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.loading;
+
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.RE;
+import org.apache.druid.java.util.common.guava.CloseQuietly;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.Segment;
+import org.apache.druid.segment.SegmentReference;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.SegmentId;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Segment} returned by {@link SegmentLoaderLocalCacheManager} in virtual storage mode, see
+ * {@link SegmentLoaderConfig#isVirtualStorage()}. Its files are only fetched from deep storage the first time a query
+ * needs them, and may be evicted again by {@link SegmentLoaderLocalCacheManager} whenever no query holds a reference
+ * acquired through {@link #acquireReferences()}.
+ *
+ * Locking: the monitor of this object only guards its state, and is never held while calling
+ * {@link SegmentLoaderLocalCacheManager}, which may call {@link #unloadIfUnused()} while holding its own locks.
+ */
+class VirtualSegment implements SegmentReference
+{
+  private final DataSegment dataSegment;
+  private final boolean lazy;
+  private final SegmentLoaderLocalCacheManager cacheManager;
+
+  /**
+   * Held while fetching and opening the segment, so that concurrent queries wait for a single load.
+   */
+  private final Object loadLock = new Object();
+
+  @GuardedBy("this")
+  @Nullable
+  private Segment loadedSegment = null;
+
+  @GuardedBy("this")
+  private int numReferences = 0;
+
+  @GuardedBy("this")
+  private boolean closed = false;
+
+  VirtualSegment(DataSegment dataSegment, boolean lazy, SegmentLoaderLocalCacheManager cacheManager)
+  {
+    this.dataSegment = dataSegment;
+    this.lazy = lazy;
+    this.cacheManager = cacheManager;
+  }
+
+  DataSegment getDataSegment()
+  {
+    return dataSegment;
+  }
+
+  @Override
+  public SegmentId getId()
+  {
+    return dataSegment.getId();
+  }
+
+  @Override
+  public Interval getDataInterval()
+  {
+    return dataSegment.getInterval();
+  }
+
+  @Nullable
+  @Override
+  public QueryableIndex asQueryableIndex()
+  {
+    return getLoadedSegment().asQueryableIndex();
+  }
+
+  @Override
+  public StorageAdapter asStorageAdapter()
+  {
+    return getLoadedSegment().asStorageAdapter();
+  }
+
+  /**
+   * Interfaces other than {@link QueryableIndex} and {@link StorageAdapter} are only provided by the loaded segment,
+   * so that requesting them doesn't fetch it.
+   */
+  @Nullable
+  @Override
+  public <T> T as(Class<T> clazz)
+  {
+    if (clazz.equals(QueryableIndex.class) || clazz.equals(StorageAdapter.class)) {
+      return SegmentReference.super.as(clazz);
+    }
+    final Segment segment;
+    synchronized (this) {
+      segment = loadedSegment;
+    }
+    return segment == null ? null : segment.as(clazz);
+  }
+
+  @Override
+  public Optional<Closeable> acquireReferences()
+  {
+    final boolean loaded;
+    synchronized (this) {
+      if (closed) {
+        return Optional.empty();
+      }
+      numReferences++;
+      loaded = loadedSegment != null;
+    }
+
+    if (loaded) {
+      cacheManager.markVirtualSegmentUsed(this);
+    }
+
+    final AtomicBoolean released = new AtomicBoolean(false);
+    return Optional.of(
+        () -> {
+          if (released.compareAndSet(false, true)) {
+            synchronized (this) {
+              numReferences--;
+            }
+          }
+        }
+    );
+  }
+
+  /**
+   * Closes the loaded segment, unless a query holds a reference to it. Returns whether it was closed, in which case
+   * its files may be deleted.
+   */
+  synchronized boolean unloadIfUnused()
+  {
+    if (numReferences > 0 || loadedSegment == null) {
+      return false;
+    }
+    CloseQuietly.close(loadedSegment);
+    loadedSegment = null;
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    final Segment toClose;
+    synchronized (this) {
+      closed = true;
+      toClose = loadedSegment;
+      loadedSegment = null;
+    }
+
+    cacheManager.removeVirtualSegment(this);
+    if (toClose != null) {
+      toClose.close();
+    }
+  }
+
+  private Segment getLoadedSegment()
+  {
+    synchronized (this) {
+      if (loadedSegment != null) {
+        return loadedSegment;
+      }
+    }
+
+    synchronized (loadLock) {
+      synchronized (this) {
+        if (closed) {
+          throw new ISE("Segment[%s] is closed", dataSegment.getId());
+        }
+        if (loadedSegment != null) {
+          return loadedSegment;
+        }
+      }
+
+      final Segment segment;
+      try {
+        segment = cacheManager.loadVirtualSegment(dataSegment, lazy);
+      }
+      catch (SegmentLoadingException e) {
+        throw new RE(e, "Failed to load segment[%s] on demand", dataSegment.getId());
+      }
+
+      synchronized (this) {
+        if (closed) {
+          CloseQuietly.close(segment);
+          throw new ISE("Segment[%s] is closed", dataSegment.getId());
+        }
+        loadedSegment = segment;
+      }
+
+      cacheManager.addVirtualSegment(this);
+      return segment;
+    }
+  }
+}
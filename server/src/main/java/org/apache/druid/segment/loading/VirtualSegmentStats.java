@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.loading;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe collector of the statistics of the segments loaded on demand by {@link SegmentLoaderLocalCacheManager}
+ * in virtual storage mode, see {@link SegmentLoaderConfig#isVirtualStorage()}. Used as a singleton, and emitted by
+ * {@link org.apache.druid.server.metrics.VirtualSegmentCacheMonitor}.
+ */
+public class VirtualSegmentStats
+{
+  private final AtomicLong hitCounter = new AtomicLong();
+  private final AtomicLong missCounter = new AtomicLong();
+  private final AtomicLong fetchTimeMillisCounter = new AtomicLong();
+  private final AtomicLong fetchedBytesCounter = new AtomicLong();
+  private final AtomicLong evictionCounter = new AtomicLong();
+  private final AtomicLong evictedBytesCounter = new AtomicLong();
+
+  /**
+   * Called when a query uses a segment which is already available locally.
+   */
+  public void incrementHit()
+  {
+    hitCounter.incrementAndGet();
+  }
+
+  /**
+   * Called when a query uses a segment which had to be fetched from deep storage first.
+   */
+  public void recordFetch(long fetchTimeMillis, long fetchedBytes)
+  {
+    missCounter.incrementAndGet();
+    fetchTimeMillisCounter.addAndGet(fetchTimeMillis);
+    fetchedBytesCounter.addAndGet(fetchedBytes);
+  }
+
+  public void recordEviction(long evictedBytes)
+  {
+    evictionCounter.incrementAndGet();
+    evictedBytesCounter.addAndGet(evictedBytes);
+  }
+
+  public Snapshot snapshot()
+  {
+    return new Snapshot(
+        hitCounter.get(),
+        missCounter.get(),
+        fetchTimeMillisCounter.get(),
+        fetchedBytesCounter.get(),
+        evictionCounter.get(),
+        evictedBytesCounter.get()
+    );
+  }
+
+  public static class Snapshot
+  {
+    private final long numHits;
+    private final long numMisses;
+    private final long fetchTimeMillis;
+    private final long fetchedBytes;
+    private final long numEvictions;
+    private final long evictedBytes;
+
+    Snapshot(
+        long numHits,
+        long numMisses,
+        long fetchTimeMillis,
+        long fetchedBytes,
+        long numEvictions,
+        long evictedBytes
+    )
+    {
+      this.numHits = numHits;
+      this.numMisses = numMisses;
+      this.fetchTimeMillis = fetchTimeMillis;
+      this.fetchedBytes = fetchedBytes;
+      this.numEvictions = numEvictions;
+      this.evictedBytes = evictedBytes;
+    }
+
+    public long getNumHits()
+    {
+      return numHits;
+    }
+
+    public long getNumMisses()
+    {
+      return numMisses;
+    }
+
+    public long getFetchTimeMillis()
+    {
+      return fetchTimeMillis;
+    }
+
+    public long getFetchedBytes()
+    {
+      return fetchedBytes;
+    }
+
+    public long getNumEvictions()
+    {
+      return numEvictions;
+    }
+
+    public long getEvictedBytes()
+    {
+      return evictedBytes;
+    }
+
+    public double hitRate()
+    {
+      long lookups = numHits + numMisses;
+      return lookups == 0 ? 0 : numHits / (double) lookups;
+    }
+
+    /**
+     * Average time spent fetching a segment from deep storage, in milliseconds.
+     */
+    public double averageFetchTimeMillis()
+    {
+      return numMisses == 0 ? 0 : fetchTimeMillis / (double) numMisses;
+    }
+
+    public Snapshot delta(Snapshot oldSnapshot)
+    {
+      if (oldSnapshot == null) {
+        return this;
+      } else {
+        return new Snapshot(
+            numHits - oldSnapshot.numHits,
+            numMisses - oldSnapshot.numMisses,
+            fetchTimeMillis - oldSnapshot.fetchTimeMillis,
+            fetchedBytes - oldSnapshot.fetchedBytes,
+            numEvictions - oldSnapshot.numEvictions,
+            evictedBytes - oldSnapshot.evictedBytes
+        );
+      }
+    }
+  }
+}
@@ -40,6 +40,7 @@ public class FireDepartmentMetrics
   private final AtomicLong failedHandoffs = new AtomicLong(0);
   private final AtomicLong mergeTimeMillis = new AtomicLong(0);
   private final AtomicLong mergeCpuTime = new AtomicLong(0);
+  private final AtomicLong pushTimeMillis = new AtomicLong(0);
   private final AtomicLong persistCpuTime = new AtomicLong(0);
   private final AtomicLong handOffCount = new AtomicLong(0);
   private final AtomicLong sinkCount = new AtomicLong(0);
@@ -111,6 +112,11 @@ public class FireDepartmentMetrics
     mergeCpuTime.addAndGet(mergeTime);
   }
 
+  public void incrementPushTimeMillis(long millis)
+  {
+    pushTimeMillis.addAndGet(millis);
+  }
+
   public void incrementPersistCpuTime(long persistTime)
   {
     persistCpuTime.addAndGet(persistTime);
@@ -196,6 +202,11 @@ public class FireDepartmentMetrics
     return mergeCpuTime.get();
   }
 
+  public long pushTimeMillis()
+  {
+    return pushTimeMillis.get();
+  }
+
   public long persistCpuTime()
   {
     return persistCpuTime.get();
@@ -237,6 +248,7 @@ public class FireDepartmentMetrics
     retVal.failedHandoffs.set(failedHandoffs.get());
     retVal.mergeTimeMillis.set(mergeTimeMillis.get());
     retVal.mergeCpuTime.set(mergeCpuTime.get());
+    retVal.pushTimeMillis.set(pushTimeMillis.get());
     retVal.persistCpuTime.set(persistCpuTime.get());
     retVal.handOffCount.set(handOffCount.get());
     retVal.sinkCount.set(sinkCount.get());
@@ -267,6 +279,7 @@ public class FireDepartmentMetrics
     failedHandoffs.addAndGet(otherSnapshot.failedHandoffs());
     mergeTimeMillis.addAndGet(otherSnapshot.mergeTimeMillis());
     mergeCpuTime.addAndGet(otherSnapshot.mergeCpuTime());
+    pushTimeMillis.addAndGet(otherSnapshot.pushTimeMillis());
     persistCpuTime.addAndGet(otherSnapshot.persistCpuTime());
     handOffCount.addAndGet(otherSnapshot.handOffCount());
     sinkCount.addAndGet(otherSnapshot.sinkCount());
@@ -39,6 +39,33 @@ public interface AppenderatorConfig extends TuningConfig
 
   int getMaxPendingPersists();
 
+  /**
+   * Number of threads used to persist hydrants of different sinks concurrently. Hydrants of the same sink are always
+   * persisted one after the other.
+   */
+  default int getNumPersistThreads()
+  {
+    return 1;
+  }
+
+  /**
+   * Number of sinks merged and pushed concurrently when handing off segments.
+   */
+  default int getNumMergeThreads()
+  {
+    return 1;
+  }
+
+  /**
+   * Upper bound on the total size of the intermediate persists being merged concurrently, in bytes. A merge that is
+   * larger than the whole budget is still allowed to run, alone. Zero means that only {@link #getNumMergeThreads()}
+   * limits concurrent merges.
+   */
+  default long getMaxMergeMemoryBytes()
+  {
+    return 0;
+  }
+
   /**
    * Maximum number of rows in a single segment before pushing to deep storage
    */
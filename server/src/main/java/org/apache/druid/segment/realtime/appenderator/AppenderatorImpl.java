@@ -26,6 +26,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -37,6 +38,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.druid.client.cache.Cache;
+import org.apache.druid.common.guava.GuavaUtils;
 import org.apache.druid.data.input.Committer;
 import org.apache.druid.data.input.InputRow;
 import org.apache.druid.java.util.common.DateTimes;
@@ -84,6 +86,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -145,6 +148,12 @@ public class AppenderatorImpl implements Appenderator
   // where persist and push Executor try to put tasks in each other queues
   // thus creating circular dependency
   private volatile ListeningExecutorService intermediateTempExecutor = null;
+  // Only used if tuningConfig allows more than one persist or merge thread, see initializeExecutors()
+  @Nullable
+  private volatile ListeningExecutorService persistHydrantExecutor = null;
+  @Nullable
+  private volatile ListeningExecutorService mergeExecutor = null;
+  private final MergeMemoryBudget mergeMemoryBudget;
   private volatile long nextFlush;
   private volatile FileLock basePersistDirLock = null;
   private volatile FileChannel basePersistDirLockChannel = null;
@@ -199,6 +208,7 @@ public class AppenderatorImpl implements Appenderator
     }
 
     maxBytesTuningConfig = tuningConfig.getMaxBytesInMemoryOrDefault();
+    mergeMemoryBudget = new MergeMemoryBudget(tuningConfig.getMaxMergeMemoryBytes());
   }
 
   @Override
@@ -543,9 +553,7 @@ public class AppenderatorImpl implements Appenderator
           public Object call() throws IOException
           {
             try {
-              for (Pair<FireHydrant, SegmentIdWithShardSpec> pair : indexesToPersist) {
-                metrics.incrementRowOutputCount(persistHydrant(pair.lhs, pair.rhs));
-              }
+              persistHydrants(indexesToPersist);
 
               if (committer != null) {
                 log.debug(
@@ -644,32 +652,12 @@ public class AppenderatorImpl implements Appenderator
         // segments.
         persistAll(committer),
         (Function<Object, SegmentsAndCommitMetadata>) commitMetadata -> {
-          final List<DataSegment> dataSegments = new ArrayList<>();
-
           log.debug(
               "Building and pushing segments: %s",
               theSinks.keySet().stream().map(SegmentIdWithShardSpec::toString).collect(Collectors.joining(", "))
           );
 
-          for (Map.Entry<SegmentIdWithShardSpec, Sink> entry : theSinks.entrySet()) {
-            if (droppingSinks.contains(entry.getKey())) {
-              log.warn("Skipping push of currently-dropping sink[%s]", entry.getKey());
-              continue;
-            }
-
-            final DataSegment dataSegment = mergeAndPush(
-                entry.getKey(),
-                entry.getValue(),
-                useUniquePath
-            );
-            if (dataSegment != null) {
-              dataSegments.add(dataSegment);
-            } else {
-              log.warn("mergeAndPush[%s] returned null, skipping.", entry.getKey());
-            }
-          }
-
-          return new SegmentsAndCommitMetadata(dataSegments, commitMetadata);
+          return new SegmentsAndCommitMetadata(mergeAndPushAll(theSinks, useUniquePath), commitMetadata);
         },
         pushExecutor
     );
@@ -687,9 +675,81 @@ public class AppenderatorImpl implements Appenderator
     );
   }
 
+  /**
+   * Calls {@link #mergeAndPush} for each of the given sinks, concurrently if
+   * {@link AppenderatorConfig#getNumMergeThreads()} allows it. Must only be run in the single-threaded pushExecutor.
+   *
+   * @return segment descriptors of the sinks that were still valid
+   */
+  private List<DataSegment> mergeAndPushAll(
+      final Map<SegmentIdWithShardSpec, Sink> theSinks,
+      final boolean useUniquePath
+  )
+  {
+    final List<SegmentIdWithShardSpec> identifiers = new ArrayList<>();
+    final List<ListenableFuture<DataSegment>> futures = new ArrayList<>();
+    final List<DataSegment> dataSegments = new ArrayList<>();
+
+    for (Map.Entry<SegmentIdWithShardSpec, Sink> entry : theSinks.entrySet()) {
+      if (droppingSinks.contains(entry.getKey())) {
+        log.warn("Skipping push of currently-dropping sink[%s]", entry.getKey());
+        continue;
+      }
+
+      if (mergeExecutor == null) {
+        final DataSegment dataSegment = mergeAndPush(entry.getKey(), entry.getValue(), useUniquePath);
+        if (dataSegment != null) {
+          dataSegments.add(dataSegment);
+        } else {
+          log.warn("mergeAndPush[%s] returned null, skipping.", entry.getKey());
+        }
+      } else {
+        identifiers.add(entry.getKey());
+        futures.add(
+            mergeExecutor.submit(() -> mergeAndPushWithinBudget(entry.getKey(), entry.getValue(), useUniquePath))
+        );
+      }
+    }
+
+    final List<DataSegment> results = getAll(futures);
+    for (int i = 0; i < results.size(); i++) {
+      if (results.get(i) != null) {
+        dataSegments.add(results.get(i));
+      } else {
+        log.warn("mergeAndPush[%s] returned null, skipping.", identifiers.get(i));
+      }
+    }
+
+    return dataSegments;
+  }
+
+  /**
+   * Same as {@link #mergeAndPush}, but first waits until the persisted hydrants of the sink fit in the
+   * {@link #mergeMemoryBudget}, along with the ones of the other sinks being merged.
+   */
+  @Nullable
+  private DataSegment mergeAndPushWithinBudget(
+      final SegmentIdWithShardSpec identifier,
+      final Sink sink,
+      final boolean useUniquePath
+  ) throws InterruptedException
+  {
+    final File persistDir = computePersistDir(identifier);
+    final long reservedBytes = mergeMemoryBudget.acquire(
+        persistDir.exists() ? org.apache.commons.io.FileUtils.sizeOfDirectory(persistDir) : 0
+    );
+    try {
+      return mergeAndPush(identifier, sink, useUniquePath);
+    }
+    finally {
+      mergeMemoryBudget.release(reservedBytes);
+    }
+  }
+
   /**
    * Merge segment, push to deep storage. Should only be used on segments that have been fully persisted. Must only
-   * be run in the single-threaded pushExecutor.
+   * be run in the single-threaded pushExecutor, or in the mergeExecutor on behalf of it; different sinks may be
+   * merged concurrently.
    *
    * @param identifier    sink identifier
    * @param sink          sink to push
@@ -776,6 +836,7 @@ public class AppenderatorImpl implements Appenderator
         );
 
         mergeFinishTime = System.nanoTime();
+        metrics.incrementMergeTimeMillis((mergeFinishTime - startTime) / 1000000);
 
         log.debug("Segment[%s] built in %,dms.", identifier, (mergeFinishTime - startTime) / 1000000);
       }
@@ -801,6 +862,7 @@ public class AppenderatorImpl implements Appenderator
       );
 
       final long pushFinishTime = System.nanoTime();
+      metrics.incrementPushTimeMillis((pushFinishTime - mergeFinishTime) / 1000000);
 
       objectMapper.writeValue(descriptorFile, segment);
 
@@ -985,6 +1047,20 @@ public class AppenderatorImpl implements Appenderator
           Execs.newBlockingSingleThreaded("[" + myId + "]-appenderator-abandon", 0)
       );
     }
+
+    // Tasks are only ever submitted to these two from persistExecutor and pushExecutor, which wait for them, so they
+    // don't need to be bounded: their queues never hold more than the number of sinks of a single persist or push.
+    if (persistHydrantExecutor == null && tuningConfig.getNumPersistThreads() > 1) {
+      persistHydrantExecutor = MoreExecutors.listeningDecorator(
+          Execs.multiThreaded(tuningConfig.getNumPersistThreads(), "[" + myId + "]-appenderator-persist-%d")
+      );
+    }
+
+    if (mergeExecutor == null && tuningConfig.getNumMergeThreads() > 1) {
+      mergeExecutor = MoreExecutors.listeningDecorator(
+          Execs.multiThreaded(tuningConfig.getNumMergeThreads(), "[" + myId + "]-appenderator-merge-%d")
+      );
+    }
   }
 
   private void shutdownExecutors()
@@ -1000,6 +1076,14 @@ public class AppenderatorImpl implements Appenderator
     if (intermediateTempExecutor != null) {
       intermediateTempExecutor.shutdownNow();
     }
+
+    if (persistHydrantExecutor != null) {
+      persistHydrantExecutor.shutdownNow();
+    }
+
+    if (mergeExecutor != null) {
+      mergeExecutor.shutdownNow();
+    }
   }
 
   private void resetNextFlush()
@@ -1303,8 +1387,61 @@ public class AppenderatorImpl implements Appenderator
   }
 
   /**
-   * Persists the given hydrant and returns the number of rows persisted. Must only be called in the single-threaded
-   * persistExecutor.
+   * Persists the given hydrants. Hydrants of different sinks are persisted concurrently if
+   * {@link AppenderatorConfig#getNumPersistThreads()} allows it, while hydrants of the same sink are always persisted
+   * in order. Must only be called in the single-threaded persistExecutor.
+   */
+  private void persistHydrants(List<Pair<FireHydrant, SegmentIdWithShardSpec>> indexesToPersist)
+  {
+    if (persistHydrantExecutor == null) {
+      for (Pair<FireHydrant, SegmentIdWithShardSpec> pair : indexesToPersist) {
+        metrics.incrementRowOutputCount(persistHydrant(pair.lhs, pair.rhs));
+      }
+      return;
+    }
+
+    final Map<SegmentIdWithShardSpec, List<FireHydrant>> hydrantsPerSink = new LinkedHashMap<>();
+    for (Pair<FireHydrant, SegmentIdWithShardSpec> pair : indexesToPersist) {
+      hydrantsPerSink.computeIfAbsent(pair.rhs, identifier -> new ArrayList<>()).add(pair.lhs);
+    }
+
+    final List<ListenableFuture<Object>> futures = new ArrayList<>();
+    for (Map.Entry<SegmentIdWithShardSpec, List<FireHydrant>> entry : hydrantsPerSink.entrySet()) {
+      futures.add(
+          persistHydrantExecutor.submit(
+              () -> {
+                for (FireHydrant hydrant : entry.getValue()) {
+                  metrics.incrementRowOutputCount(persistHydrant(hydrant, entry.getKey()));
+                }
+                return null;
+              }
+          )
+      );
+    }
+    getAll(futures);
+  }
+
+  /**
+   * Unchecked version of {@link GuavaUtils#getAll}.
+   */
+  private static <T> List<T> getAll(List<ListenableFuture<T>> futures)
+  {
+    try {
+      return GuavaUtils.getAll(futures);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Persists the given hydrant and returns the number of rows persisted. Must only be called from
+   * {@link #persistHydrants}.
    *
    * @param indexToPersist hydrant to persist
    * @param identifier     the segment this hydrant is going to be part of
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.realtime.appenderator;
+
+import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Bounds the total estimated size of the merges run concurrently by {@link AppenderatorImpl}. Requests larger than
+ * the whole budget are capped to it, so that they can still run once every other merge has finished.
+ */
+class MergeMemoryBudget
+{
+  private final long maxBytes;
+
+  @GuardedBy("this")
+  private long usedBytes = 0;
+
+  /**
+   * @param maxBytes size of the budget, or zero for an unlimited one
+   */
+  MergeMemoryBudget(long maxBytes)
+  {
+    Preconditions.checkArgument(maxBytes >= 0, "maxBytes[%s] must be non-negative", maxBytes);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Blocks until the requested amount fits in the budget.
+   *
+   * @return the amount actually reserved, to be passed to {@link #release}
+   */
+  synchronized long acquire(long bytes) throws InterruptedException
+  {
+    if (maxBytes == 0) {
+      return 0;
+    }
+
+    final long toAcquire = Math.min(Math.max(bytes, 0), maxBytes);
+    while (usedBytes + toAcquire > maxBytes) {
+      wait();
+    }
+    usedBytes += toAcquire;
+    return toAcquire;
+  }
+
+  synchronized void release(long bytes)
+  {
+    usedBytes -= bytes;
+    notifyAll();
+  }
+
+  synchronized long getUsedBytes()
+  {
+    return usedBytes;
+  }
+}
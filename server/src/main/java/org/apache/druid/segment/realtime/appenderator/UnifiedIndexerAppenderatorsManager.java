@@ -308,7 +308,8 @@ public class UnifiedIndexerAppenderatorsManager implements AppenderatorsManager
   private AppenderatorConfig rewriteAppenderatorConfigMemoryLimits(AppenderatorConfig baseConfig)
   {
     long perWorkerLimit = workerConfig.getGlobalIngestionHeapLimitBytes() / workerConfig.getCapacity();
-    return new MemoryParameterOverridingAppenderatorConfig(baseConfig, perWorkerLimit);
+    int perWorkerMergeThreads = Math.max(1, workerConfig.getNumConcurrentMerges() / workerConfig.getCapacity());
+    return new MemoryParameterOverridingAppenderatorConfig(baseConfig, perWorkerLimit, perWorkerMergeThreads);
   }
 
   @VisibleForTesting
@@ -362,19 +363,25 @@ public class UnifiedIndexerAppenderatorsManager implements AppenderatorsManager
    *
    * Row-based limits are disabled by setting maxRowsInMemory to an essentially unlimited value.
    * maxBytesInMemory is overridden with the provided value. These overrides replace whatever the user has specified.
+   *
+   * numPersistThreads and numMergeThreads are capped at the share of each task of the shared merge pool, since
+   * persists and merges of all tasks run on that pool anyway. More threads would only wait for it.
    */
   private static class MemoryParameterOverridingAppenderatorConfig implements AppenderatorConfig
   {
     private final AppenderatorConfig baseConfig;
     private final long newMaxBytesInMemory;
+    private final int maxMergeThreads;
 
     public MemoryParameterOverridingAppenderatorConfig(
         AppenderatorConfig baseConfig,
-        long newMaxBytesInMemory
+        long newMaxBytesInMemory,
+        int maxMergeThreads
     )
     {
       this.baseConfig = baseConfig;
       this.newMaxBytesInMemory = newMaxBytesInMemory;
+      this.maxMergeThreads = maxMergeThreads;
     }
 
     @Override
@@ -407,6 +414,24 @@ public class UnifiedIndexerAppenderatorsManager implements AppenderatorsManager
       return baseConfig.getMaxPendingPersists();
     }
 
+    @Override
+    public int getNumPersistThreads()
+    {
+      return Math.min(baseConfig.getNumPersistThreads(), maxMergeThreads);
+    }
+
+    @Override
+    public int getNumMergeThreads()
+    {
+      return Math.min(baseConfig.getNumMergeThreads(), maxMergeThreads);
+    }
+
+    @Override
+    public long getMaxMergeMemoryBytes()
+    {
+      return baseConfig.getMaxMergeMemoryBytes();
+    }
+
     @Nullable
     @Override
     public Integer getMaxRowsPerSegment()
@@ -38,6 +38,12 @@ public class QueryCapacityExceededException extends QueryException
       "Too many concurrent queries, total query capacity of %s exceeded. Please try your query again later.";
   private static final String LANE_ERROR_MESSAGE_TEMPLATE =
       "Too many concurrent queries for lane '%s', query capacity of %s exceeded. Please try your query again later.";
+  private static final String COST_ERROR_MESSAGE_TEMPLATE =
+      "Query cost of %s exceeds the query cost capacity of %s for lane '%s'. "
+      + "Please query fewer segments or a shorter interval.";
+  private static final String REMAINING_COST_ERROR_MESSAGE_TEMPLATE =
+      "Too many expensive concurrent queries for lane '%s', query cost of %s exceeds the remaining query cost "
+      + "capacity of %s out of %s. Please try your query again later.";
   private static final String ERROR_CLASS = QueryCapacityExceededException.class.getName();
   public static final String ERROR_CODE = "Query capacity exceeded";
   public static final int STATUS_CODE = 429;
@@ -52,6 +58,24 @@ public class QueryCapacityExceededException extends QueryException
     super(ERROR_CODE, makeLaneErrorMessage(lane, capacity), ERROR_CLASS, null);
   }
 
+  /**
+   * For a query which would exceed the cost capacity of a lane even if no other query was running, see
+   * {@link QueryCostLimiter}
+   */
+  public QueryCapacityExceededException(String lane, long cost, long capacity)
+  {
+    super(ERROR_CODE, makeCostErrorMessage(lane, cost, capacity), ERROR_CLASS, null);
+  }
+
+  /**
+   * For a query which would exceed the cost capacity of a lane left by the queries already running, see
+   * {@link QueryCostLimiter}
+   */
+  public QueryCapacityExceededException(String lane, long cost, long remainingCapacity, long capacity)
+  {
+    super(ERROR_CODE, makeRemainingCostErrorMessage(lane, cost, remainingCapacity, capacity), ERROR_CLASS, null);
+  }
+
   @JsonCreator
   public QueryCapacityExceededException(
       @JsonProperty("error") String errorCode,
@@ -72,4 +96,16 @@ public class QueryCapacityExceededException extends QueryException
   {
     return StringUtils.format(LANE_ERROR_MESSAGE_TEMPLATE, lane, capacity);
   }
+
+  @VisibleForTesting
+  public static String makeCostErrorMessage(String lane, long cost, long capacity)
+  {
+    return StringUtils.format(COST_ERROR_MESSAGE_TEMPLATE, cost, capacity, lane);
+  }
+
+  @VisibleForTesting
+  public static String makeRemainingCostErrorMessage(String lane, long cost, long remainingCapacity, long capacity)
+  {
+    return StringUtils.format(REMAINING_COST_ERROR_MESSAGE_TEMPLATE, lane, cost, remainingCapacity, capacity);
+  }
 }
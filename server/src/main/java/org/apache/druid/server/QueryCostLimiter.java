@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.server;
+
+import com.google.common.base.Preconditions;
+import org.apache.druid.query.QueryInterruptedException;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on the total estimated cost of the queries concurrently running in a lane, see
+ * {@link QueryLaningStrategy#getLaneCostLimits} and {@link QueryLaningStrategy#computeCost}. Unlike the
+ * {@link io.github.resilience4j.bulkhead.Bulkhead} limiting the number of concurrent queries of a lane, a query takes
+ * as many units of capacity as its cost, and may wait for enough capacity to be released by other queries.
+ *
+ * Also keeps the cumulative cost of the queries admitted in the lane and the time they waited to be admitted, which
+ * are reported by {@link org.apache.druid.server.metrics.QuerySchedulerStatsMonitor}.
+ */
+public class QueryCostLimiter
+{
+  private final String lane;
+  private final long capacity;
+
+  private final Object lock = new Object();
+  @GuardedBy("lock")
+  private long usedCapacity = 0;
+
+  private final AtomicLong admittedCost = new AtomicLong(0);
+  private final AtomicLong admittedCount = new AtomicLong(0);
+  private final AtomicLong waitTimeNs = new AtomicLong(0);
+
+  QueryCostLimiter(String lane, long capacity)
+  {
+    Preconditions.checkArgument(capacity > 0, "cost capacity of lane[%s] must be greater than 0", lane);
+    this.lane = lane;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Takes the given cost from the capacity of the lane, waiting at most maxWaitMillis for other queries to release
+   * enough of it.
+   *
+   * @throws QueryCapacityExceededException if not enough capacity was available in time
+   */
+  void acquire(long cost, long maxWaitMillis)
+  {
+    if (cost > capacity) {
+      throw new QueryCapacityExceededException(lane, cost, capacity);
+    }
+    final long startNs = System.nanoTime();
+    final long deadlineNs = startNs + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    synchronized (lock) {
+      try {
+        while (usedCapacity + cost > capacity) {
+          final long remainingNs = deadlineNs - System.nanoTime();
+          if (remainingNs <= 0) {
+            throw new QueryCapacityExceededException(lane, cost, capacity - usedCapacity, capacity);
+          }
+          TimeUnit.NANOSECONDS.timedWait(lock, remainingNs);
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new QueryInterruptedException(e);
+      }
+      usedCapacity += cost;
+    }
+    waitTimeNs.addAndGet(System.nanoTime() - startNs);
+    admittedCost.addAndGet(cost);
+    admittedCount.incrementAndGet();
+  }
+
+  void release(long cost)
+  {
+    synchronized (lock) {
+      usedCapacity -= cost;
+      lock.notifyAll();
+    }
+  }
+
+  public String getLane()
+  {
+    return lane;
+  }
+
+  public long getCapacity()
+  {
+    return capacity;
+  }
+
+  public long getAvailableCapacity()
+  {
+    synchronized (lock) {
+      return capacity - usedCapacity;
+    }
+  }
+
+  /**
+   * Cumulative estimated cost of the queries admitted in the lane
+   */
+  public long getAdmittedCost()
+  {
+    return admittedCost.get();
+  }
+
+  /**
+   * Cumulative number of queries admitted in the lane
+   */
+  public long getAdmittedCount()
+  {
+    return admittedCount.get();
+  }
+
+  /**
+   * Cumulative time the queries admitted in the lane waited for capacity
+   */
+  public long getWaitTimeNs()
+  {
+    return waitTimeNs.get();
+  }
+}
@@ -23,8 +23,11 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.google.common.primitives.Ints;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
 import org.apache.druid.client.SegmentServerSelector;
 import org.apache.druid.query.QueryPlus;
+import org.apache.druid.server.scheduling.CostBasedQueryLaningStrategy;
 import org.apache.druid.server.scheduling.HiLoQueryLaningStrategy;
 import org.apache.druid.server.scheduling.ManualQueryLaningStrategy;
 import org.apache.druid.server.scheduling.NoQueryLaningStrategy;
@@ -37,7 +40,8 @@ import java.util.Set;
 @JsonSubTypes(value = {
     @JsonSubTypes.Type(name = "none", value = NoQueryLaningStrategy.class),
     @JsonSubTypes.Type(name = "hilo", value = HiLoQueryLaningStrategy.class),
-    @JsonSubTypes.Type(name = "manual", value = ManualQueryLaningStrategy.class)
+    @JsonSubTypes.Type(name = "manual", value = ManualQueryLaningStrategy.class),
+    @JsonSubTypes.Type(name = "cost", value = CostBasedQueryLaningStrategy.class)
 })
 public interface QueryLaningStrategy
 {
@@ -54,6 +58,36 @@ public interface QueryLaningStrategy
    */
   <T> Optional<String> computeLane(QueryPlus<T> query, Set<SegmentServerSelector> segments);
 
+  /**
+   * Provide a map of lane names to the limit on the total estimated cost of the queries concurrently running in that
+   * lane, as computed by {@link #computeCost}. A limit for {@link QueryScheduler#TOTAL} applies to all queries. Queries
+   * are not weighted by cost if this map is empty, which is the default.
+   */
+  default Object2LongMap<String> getLaneCostLimits()
+  {
+    return Object2LongMaps.emptyMap();
+  }
+
+  /**
+   * For a given {@link QueryPlus} and set of {@link SegmentServerSelector}, estimate the cost of running the query,
+   * before its lane is computed. Only called if {@link #getLaneCostLimits} is not empty.
+   *
+   * This method must be thread safe
+   */
+  default <T> long computeCost(QueryPlus<T> query, Set<SegmentServerSelector> segments)
+  {
+    return 0;
+  }
+
+  /**
+   * Maximum time a query waits for enough cost capacity of its lane to be released by running queries, before it is
+   * rejected
+   */
+  default long getMaxCostWaitMillis()
+  {
+    return 0;
+  }
+
   default int computeLimitFromPercent(int totalLimit, int value)
   {
     return Ints.checkedCast((long) Math.ceil(totalLimit * ((double) value / 100)));
@@ -56,6 +56,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class that helps a Druid server (broker, historical, etc) manage the lifecycle of a query that it is handling. It
@@ -88,6 +89,8 @@ public class QueryLifecycle
   private AuthenticationResult authenticationResult;
   private QueryToolChest toolChest;
   private Query baseQuery;
+  @Nullable
+  private AtomicLong queryBackPressureNanos;
 
   public QueryLifecycle(
       final QueryToolChestWarehouse warehouse,
@@ -263,6 +266,8 @@ public class QueryLifecycle
     transition(State.AUTHORIZED, State.EXECUTING);
 
     final ResponseContext responseContext = DirectDruidClient.makeResponseContextForQuery();
+    // Kept aside, since the magic fields of the context are removed before the results are fully iterated.
+    queryBackPressureNanos = (AtomicLong) responseContext.get(ResponseContext.Key.QUERY_BACK_PRESSURE_NANOS);
 
     final Sequence res = QueryPlus.wrap(baseQuery)
                                   .withIdentity(authenticationResult.getIdentity())
@@ -314,6 +319,10 @@ public class QueryLifecycle
         queryMetrics.reportQueryBytes(bytesWritten);
       }
 
+      if (queryBackPressureNanos != null && queryBackPressureNanos.get() > 0) {
+        queryMetrics.reportQueryBackPressureTime(queryBackPressureNanos.get());
+      }
+
       if (authenticationResult != null) {
         queryMetrics.identity(authenticationResult.getIdentity());
       }
@@ -48,6 +48,7 @@ import org.apache.druid.query.QueryTimeoutException;
 import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.query.QueryUnsupportedException;
 import org.apache.druid.query.TruncatedResponseContextException;
+import org.apache.druid.query.columnar.ColumnarResultFormat;
 import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.server.metrics.QueryCountStatsProvider;
 import org.apache.druid.server.security.Access;
@@ -162,7 +163,7 @@ public class QueryResource implements QueryCountStatsProvider
   }
 
   @POST
-  @Produces({MediaType.APPLICATION_JSON, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
+  @Produces({MediaType.APPLICATION_JSON, SmileMediaTypes.APPLICATION_JACKSON_SMILE, ColumnarResultFormat.MEDIA_TYPE})
   @Consumes({MediaType.APPLICATION_JSON, SmileMediaTypes.APPLICATION_JACKSON_SMILE, APPLICATION_SMILE})
   public Response doPost(
       final InputStream in,
@@ -181,6 +182,12 @@ public class QueryResource implements QueryCountStatsProvider
       acceptHeader = req.getContentType();
     }
 
+    // Columnar results are only used for successful responses, everything else uses the format of the request.
+    final boolean acceptsColumnar = ColumnarResultFormat.MEDIA_TYPE.equals(acceptHeader);
+    if (acceptsColumnar) {
+      acceptHeader = req.getContentType();
+    }
+
     final ResourceIOReaderWriter ioReaderWriter = createResourceIOReaderWriter(acceptHeader, pretty != null);
 
     final String currThreadName = Thread.currentThread().getName();
@@ -232,20 +239,27 @@ public class QueryResource implements QueryCountStatsProvider
             queryLifecycle.getQuery(),
             serializeDateTimeAsLong
         );
+        final boolean columnar = acceptsColumnar && ColumnarResultFormat.isSupported(query);
 
         Response.ResponseBuilder responseBuilder = Response
             .ok(
                 new StreamingOutput()
                 {
                   @Override
+                  @SuppressWarnings("unchecked")
                   public void write(OutputStream outputStream) throws WebApplicationException
                   {
                     Exception e = null;
 
                     CountingOutputStream os = new CountingOutputStream(outputStream);
                     try {
-                      // json serializer will always close the yielder
-                      jsonWriter.writeValue(os, yielder);
+                      // json serializer and columnar writer will always close the yielder
+                      if (columnar) {
+                        ColumnarResultFormat.newWriter((Query) queryLifecycle.getQuery(), jsonWriter)
+                                            .write((Yielder) yielder, os);
+                      } else {
+                        jsonWriter.writeValue(os, yielder);
+                      }
 
                       os.flush(); // Some types of OutputStream suppress flush errors in the .close() method.
                       os.close();
@@ -268,7 +282,7 @@ public class QueryResource implements QueryCountStatsProvider
                     }
                   }
                 },
-                ioReaderWriter.getContentType()
+                columnar ? ColumnarResultFormat.MEDIA_TYPE : ioReaderWriter.getContentType()
             )
             .header("X-Druid-Query-Id", queryId);
 
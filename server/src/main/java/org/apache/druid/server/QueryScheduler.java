@@ -21,6 +21,7 @@ package org.apache.druid.server;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -28,6 +29,7 @@ import io.github.resilience4j.bulkhead.Bulkhead;
 import io.github.resilience4j.bulkhead.BulkheadConfig;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
 import org.apache.druid.client.SegmentServerSelector;
 import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.guava.LazySequence;
@@ -41,11 +43,14 @@ import org.apache.druid.server.initialization.ServerConfig;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * QueryScheduler (potentially) assigns any {@link Query} that is to be executed to a 'query lane' using the
@@ -59,10 +64,19 @@ public class QueryScheduler implements QueryWatcher
 {
   public static final int UNAVAILABLE = -1;
   public static final String TOTAL = "total";
+  /**
+   * Query context key of the estimated cost of a query, set by {@link #prioritizeAndLaneQuery} if the
+   * {@link QueryLaningStrategy} weights queries by cost
+   */
+  public static final String COST_KEY = "queryCost";
   private final int totalCapacity;
   private final QueryPrioritizationStrategy prioritizationStrategy;
   private final QueryLaningStrategy laningStrategy;
   private final BulkheadRegistry laneRegistry;
+  /**
+   * mapping of lane name to limit on the estimated cost of the queries running in the lane
+   */
+  private final Map<String, QueryCostLimiter> costLimiters;
   /**
    * mapping of query id to set of futures associated with the query
    */
@@ -93,6 +107,7 @@ public class QueryScheduler implements QueryWatcher
       this.totalCapacity = serverConfig.getNumThreads();
     }
     this.laneRegistry = BulkheadRegistry.of(getLaneConfigs(limitTotal));
+    this.costLimiters = createCostLimiters();
   }
 
   @Override
@@ -114,15 +129,30 @@ public class QueryScheduler implements QueryWatcher
   }
 
   /**
-   * Assign a query a priority and lane (if not set)
+   * Assign a query a priority and lane (if not set), and an estimated cost if the {@link QueryLaningStrategy} weights
+   * queries by cost. Queries whose cost exceeds the cost capacity of their lane are rejected right away, since they
+   * could never be admitted by {@link #run}.
    */
   public <T> Query<T> prioritizeAndLaneQuery(QueryPlus<T> queryPlus, Set<SegmentServerSelector> segments)
   {
     Query<T> query = queryPlus.getQuery();
     Optional<Integer> priority = prioritizationStrategy.computePriority(queryPlus, segments);
     query = priority.map(query::withPriority).orElse(query);
+    if (!costLimiters.isEmpty()) {
+      // always overridden, the cost set in the context by the user is never trusted
+      final long cost = laningStrategy.computeCost(queryPlus.withQuery(query), segments);
+      query = query.withOverriddenContext(ImmutableMap.of(COST_KEY, cost));
+    }
     Optional<String> lane = laningStrategy.computeLane(queryPlus.withQuery(query), segments);
-    return lane.map(query::withLane).orElse(query);
+    query = lane.map(query::withLane).orElse(query);
+
+    final long cost = getQueryCost(query);
+    for (QueryCostLimiter limiter : getCostLimiters(query)) {
+      if (cost > limiter.getCapacity()) {
+        throw new QueryCapacityExceededException(limiter.getLane(), cost, limiter.getCapacity());
+      }
+    }
+    return query;
   }
 
   /**
@@ -138,8 +168,21 @@ public class QueryScheduler implements QueryWatcher
    */
   public <T> Sequence<T> run(Query<?> query, Sequence<T> resultSequence)
   {
-    List<Bulkhead> bulkheads = acquireLanes(query);
-    return resultSequence.withBaggage(() -> finishLanes(bulkheads));
+    final long cost = getQueryCost(query);
+    // acquire the cost first, so that a query waiting for cost capacity doesn't hold query count capacity
+    final List<QueryCostLimiter> acquiredCost = acquireCost(query, cost);
+    final List<Bulkhead> bulkheads;
+    try {
+      bulkheads = acquireLanes(query);
+    }
+    catch (Exception ex) {
+      releaseCost(acquiredCost, cost);
+      throw ex;
+    }
+    return resultSequence.withBaggage(() -> {
+      finishLanes(bulkheads);
+      releaseCost(acquiredCost, cost);
+    });
   }
 
   /**
@@ -178,6 +221,24 @@ public class QueryScheduler implements QueryWatcher
     return queryDatasources.get(queryId);
   }
 
+  /**
+   * Get the limits on the estimated cost of the queries running in each lane, empty if the {@link QueryLaningStrategy}
+   * does not weight queries by cost
+   */
+  public Collection<QueryCostLimiter> getCostLimiters()
+  {
+    return costLimiters.values();
+  }
+
+  /**
+   * Get the estimated cost of a query set by {@link #prioritizeAndLaneQuery}, or 0 if it was not weighted by cost
+   */
+  public static long getQueryCost(Query<?> query)
+  {
+    final Object cost = query.getContextValue(COST_KEY);
+    return cost instanceof Number ? ((Number) cost).longValue() : 0;
+  }
+
   /**
    * Get the maximum number of concurrent queries that {@link #run} can support
    */
@@ -239,6 +300,59 @@ public class QueryScheduler implements QueryWatcher
     }
   }
 
+  /**
+   * Take the estimated cost of a query from the cost capacity of its lane, if limited, and of the 'total' lane, if
+   * limited, waiting for the capacity to be released by running queries up to
+   * {@link QueryLaningStrategy#getMaxCostWaitMillis}
+   */
+  @VisibleForTesting
+  List<QueryCostLimiter> acquireCost(Query<?> query, long cost)
+  {
+    final List<QueryCostLimiter> limiters = getCostLimiters(query);
+    if (cost <= 0 || limiters.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(laningStrategy.getMaxCostWaitMillis());
+    final List<QueryCostLimiter> acquired = new ArrayList<>(limiters.size());
+    try {
+      for (QueryCostLimiter limiter : limiters) {
+        final long remainingWaitMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadlineNs - System.nanoTime()));
+        limiter.acquire(cost, remainingWaitMillis);
+        acquired.add(limiter);
+      }
+      return acquired;
+    }
+    catch (Exception ex) {
+      releaseCost(acquired, cost);
+      throw ex;
+    }
+  }
+
+  @VisibleForTesting
+  void releaseCost(List<QueryCostLimiter> limiters, long cost)
+  {
+    limiters.forEach(limiter -> limiter.release(cost));
+  }
+
+  /**
+   * Get the cost limiters of the lane of a query and of the 'total' lane, lane first
+   */
+  private List<QueryCostLimiter> getCostLimiters(Query<?> query)
+  {
+    if (costLimiters.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final List<QueryCostLimiter> limiters = new ArrayList<>(2);
+    final String lane = QueryContexts.getLane(query);
+    if (lane != null && !TOTAL.equals(lane) && costLimiters.containsKey(lane)) {
+      limiters.add(costLimiters.get(lane));
+    }
+    if (costLimiters.containsKey(TOTAL)) {
+      limiters.add(costLimiters.get(TOTAL));
+    }
+    return limiters;
+  }
+
   /**
    * Release all {@link Bulkhead} semaphores in the list
    */
@@ -277,4 +391,16 @@ public class QueryScheduler implements QueryWatcher
     }
     return configs;
   }
+
+  /**
+   * With {@link QueryLaningStrategy#getLaneCostLimits}, create a map of lane name to {@link QueryCostLimiter}
+   */
+  private Map<String, QueryCostLimiter> createCostLimiters()
+  {
+    Map<String, QueryCostLimiter> limiters = new HashMap<>();
+    for (Object2LongMap.Entry<String> entry : laningStrategy.getLaneCostLimits().object2LongEntrySet()) {
+      limiters.put(entry.getKey(), new QueryCostLimiter(entry.getKey(), entry.getLongValue()));
+    }
+    return limiters;
+  }
 }
@@ -31,19 +31,27 @@ import org.apache.druid.query.TableDataSource;
 import org.apache.druid.query.planning.DataSourceAnalysis;
 import org.apache.druid.segment.ReferenceCountingSegment;
 import org.apache.druid.segment.Segment;
+import org.apache.druid.segment.SimpleQueryableIndex;
 import org.apache.druid.segment.join.table.IndexedTable;
 import org.apache.druid.segment.join.table.ReferenceCountingIndexedTable;
 import org.apache.druid.segment.loading.SegmentLoader;
 import org.apache.druid.segment.loading.SegmentLoadingException;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.SegmentId;
+import org.apache.druid.timeline.TimelineObjectHolder;
 import org.apache.druid.timeline.VersionedIntervalTimeline;
 import org.apache.druid.timeline.partition.PartitionChunk;
 import org.apache.druid.timeline.partition.PartitionHolder;
 import org.apache.druid.timeline.partition.ShardSpec;
 import org.apache.druid.utils.CollectionUtils;
 
+import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -154,11 +162,89 @@ public class SegmentManager
     return CollectionUtils.mapValues(dataSources, SegmentManager.DataSourceState::getNumSegments);
   }
 
+  /**
+   * Returns a map of dataSource to the number of times queries accessed each column of its segments, since they were
+   * loaded. Only memory-mapped segments are accounted for, see {@link SimpleQueryableIndex#getColumnAccessCounts()}.
+   * In virtual storage mode, segments which are not fetched are not accounted for either.
+   *
+   * @return a map of dataSources and the access counts of their columns
+   */
+  public Map<String, Map<String, Long>> getColumnAccessCounts()
+  {
+    final Map<String, Map<String, Long>> retVal = new HashMap<>();
+    for (Map.Entry<String, DataSourceState> entry : dataSources.entrySet()) {
+      final Map<String, Long> columnAccessCounts = new HashMap<>();
+      // Overshadowed segments are not queried, and are not accounted for. Partially overshadowed segments are in
+      // several holders.
+      final Set<ReferenceCountingSegment> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (TimelineObjectHolder<String, ReferenceCountingSegment> holder :
+          entry.getValue().getTimeline().lookup(Intervals.ETERNITY)) {
+        for (ReferenceCountingSegment segment : holder.getObject().payloads()) {
+          final SimpleQueryableIndex index = getSimpleQueryableIndex(segment);
+          if (index != null && visited.add(segment)) {
+            index.getColumnAccessCounts().forEach((column, count) -> columnAccessCounts.merge(column, count, Long::sum));
+          }
+        }
+      }
+      retVal.put(entry.getKey(), columnAccessCounts);
+    }
+    return retVal;
+  }
+
+  /**
+   * Reads the given columns of a loaded segment into the page cache, see
+   * {@link SimpleQueryableIndex#prefetchColumns}. Does nothing if the segment is not loaded, or not memory-mapped.
+   *
+   * @return the number of bytes read
+   */
+  public long prefetchColumns(final DataSegment segment, Collection<String> columns) throws IOException
+  {
+    final DataSourceState dataSourceState = dataSources.get(segment.getDataSource());
+    if (dataSourceState == null) {
+      return 0;
+    }
+    final PartitionHolder<ReferenceCountingSegment> entry = dataSourceState.getTimeline().findEntry(
+        segment.getInterval(),
+        segment.getVersion()
+    );
+    final PartitionChunk<ReferenceCountingSegment> chunk =
+        entry == null ? null : entry.getChunk(segment.getShardSpec().getPartitionNum());
+    if (chunk == null) {
+      return 0;
+    }
+
+    // Prevents the segment from being closed, and its files unmapped, while they are read.
+    final Optional<Closeable> reference = chunk.getObject().acquireReferences();
+    if (!reference.isPresent()) {
+      return 0;
+    }
+    try (Closeable ignored = reference.get()) {
+      final SimpleQueryableIndex index = getSimpleQueryableIndex(chunk.getObject());
+      return index == null ? 0 : index.prefetchColumns(columns);
+    }
+  }
+
+  @Nullable
+  private static SimpleQueryableIndex getSimpleQueryableIndex(ReferenceCountingSegment segment)
+  {
+    final Segment baseSegment = segment.getBaseSegment();
+    return baseSegment == null ? null : baseSegment.as(SimpleQueryableIndex.class);
+  }
+
   public boolean isSegmentCached(final DataSegment segment)
   {
     return segmentLoader.isSegmentLoaded(segment);
   }
 
+  /**
+   * Fetches the files of the segment from deep storage to the segment cache, unless they are already cached, without
+   * loading the segment. {@link #loadSegment} then reads them from the cache.
+   */
+  public void downloadSegment(final DataSegment segment) throws SegmentLoadingException
+  {
+    segmentLoader.getSegmentFiles(segment);
+  }
+
   /**
    * Returns the timeline for a datasource, if it exists. The analysis object passed in must represent a scan-based
    * datasource of a single table.
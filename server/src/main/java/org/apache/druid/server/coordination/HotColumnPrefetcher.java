@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordination;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.emitter.EmittingLogger;
+import org.apache.druid.segment.loading.SegmentLoaderConfig;
+import org.apache.druid.server.SegmentManager;
+import org.apache.druid.timeline.DataSegment;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the columns most frequently accessed by queries into the page cache when segments are loaded, so that the
+ * first queries on them don't wait for random reads from disk, see {@link SegmentLoaderConfig#isPrefetchHotColumns()}.
+ *
+ * The hot columns of each dataSource are the ones with the highest access counts in the segments loaded on this
+ * server, see {@link SegmentManager#getColumnAccessCounts()}. They are saved in the info dir, so that the segments
+ * loaded from the local cache after a restart are prefetched too, before any query ran.
+ */
+class HotColumnPrefetcher
+{
+  private static final EmittingLogger log = new EmittingLogger(HotColumnPrefetcher.class);
+
+  static final String HOT_COLUMNS_FILE_NAME = "_hotColumns.json";
+
+  private static final long REFRESH_PERIOD_MILLIS = 60_000;
+
+  private final ObjectMapper jsonMapper;
+  private final SegmentLoaderConfig config;
+  private final SegmentManager segmentManager;
+
+  @GuardedBy("this")
+  private Map<String, List<String>> hotColumns = new HashMap<>();
+  @GuardedBy("this")
+  private long lastRefreshMillis = 0;
+
+  @Nullable
+  private volatile ExecutorService exec = null;
+
+  HotColumnPrefetcher(ObjectMapper jsonMapper, SegmentLoaderConfig config, SegmentManager segmentManager)
+  {
+    this.jsonMapper = jsonMapper;
+    this.config = config;
+    this.segmentManager = segmentManager;
+  }
+
+  private boolean isEnabled()
+  {
+    // Prefetching would fetch segments which are not queried in virtual storage mode.
+    return config.isPrefetchHotColumns() && !config.isVirtualStorage() && !config.getLocations().isEmpty();
+  }
+
+  void start()
+  {
+    if (!isEnabled()) {
+      return;
+    }
+    synchronized (this) {
+      hotColumns = readHotColumns();
+      // Columns saved before a restart are used until the segments loaded since have been queried for a while.
+      lastRefreshMillis = System.currentTimeMillis();
+    }
+    exec = Execs.singleThreaded("HotColumnPrefetcher-%s");
+  }
+
+  void stop()
+  {
+    final ExecutorService exec = this.exec;
+    if (exec == null) {
+      return;
+    }
+    this.exec = null;
+    exec.shutdownNow();
+    refreshHotColumns();
+  }
+
+  /**
+   * Asynchronously prefetches the hot columns of the given segment, which must be loaded in {@link SegmentManager}.
+   */
+  void prefetch(DataSegment segment)
+  {
+    final ExecutorService exec = this.exec;
+    if (exec == null) {
+      return;
+    }
+    try {
+      exec.submit(() -> prefetchNow(segment));
+    }
+    catch (RejectedExecutionException e) {
+      // Stopped concurrently.
+      log.debug("Not prefetching columns of segment[%s], stopped.", segment.getId());
+    }
+  }
+
+  @VisibleForTesting
+  void prefetchNow(DataSegment segment)
+  {
+    final List<String> columns = getHotColumns(segment.getDataSource());
+    if (columns.isEmpty()) {
+      return;
+    }
+    try {
+      final long startTime = System.currentTimeMillis();
+      final long numBytes = segmentManager.prefetchColumns(segment, columns);
+      log.debug(
+          "Prefetched %,d bytes of columns%s of segment[%s] in %,d ms.",
+          numBytes,
+          columns,
+          segment.getId(),
+          System.currentTimeMillis() - startTime
+      );
+    }
+    catch (Exception e) {
+      log.warn(e, "Failed to prefetch columns of segment[%s]", segment.getId());
+    }
+  }
+
+  @VisibleForTesting
+  synchronized List<String> getHotColumns(String dataSource)
+  {
+    final long now = System.currentTimeMillis();
+    if (now - lastRefreshMillis >= REFRESH_PERIOD_MILLIS) {
+      refreshHotColumns();
+      lastRefreshMillis = now;
+    }
+    return hotColumns.getOrDefault(dataSource, Collections.emptyList());
+  }
+
+  /**
+   * Recomputes the hot columns of the dataSources whose segments were queried, and saves them if they changed. The hot
+   * columns of the other dataSources are kept.
+   */
+  @VisibleForTesting
+  synchronized void refreshHotColumns()
+  {
+    boolean changed = false;
+    for (Map.Entry<String, Map<String, Long>> entry : segmentManager.getColumnAccessCounts().entrySet()) {
+      final List<String> columns =
+          entry.getValue()
+               .entrySet()
+               .stream()
+               .filter(columnAndCount -> columnAndCount.getValue() > 0)
+               .sorted(
+                   Map.Entry.<String, Long>comparingByValue()
+                       .reversed()
+                       .thenComparing(Map.Entry.<String, Long>comparingByKey())
+               )
+               .limit(config.getNumPrefetchColumns())
+               .map(Map.Entry::getKey)
+               .collect(Collectors.toList());
+      if (!columns.isEmpty() && !columns.equals(hotColumns.get(entry.getKey()))) {
+        hotColumns.put(entry.getKey(), columns);
+        changed = true;
+      }
+    }
+
+    if (changed) {
+      writeHotColumns();
+    }
+  }
+
+  private Map<String, List<String>> readHotColumns()
+  {
+    final File file = new File(config.getInfoDir(), HOT_COLUMNS_FILE_NAME);
+    if (!file.exists()) {
+      return new HashMap<>();
+    }
+    try {
+      return new HashMap<>(jsonMapper.readValue(file, new TypeReference<Map<String, List<String>>>() {}));
+    }
+    catch (IOException e) {
+      log.warn(e, "Failed to read hot columns file[%s], ignoring it.", file);
+      return new HashMap<>();
+    }
+  }
+
+  @GuardedBy("this")
+  private void writeHotColumns()
+  {
+    final File file = new File(config.getInfoDir(), HOT_COLUMNS_FILE_NAME);
+    try {
+      jsonMapper.writeValue(file, hotColumns);
+    }
+    catch (IOException e) {
+      log.warn(e, "Failed to write hot columns file[%s].", file);
+    }
+  }
+}
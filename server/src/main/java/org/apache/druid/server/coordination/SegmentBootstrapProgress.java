@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordination;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.druid.timeline.DataSegment;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe progress of the loading of the segments found in the local cache when {@link SegmentLoadDropHandler}
+ * starts. Served by the loadstatus endpoint of {@link org.apache.druid.server.http.HistoricalResource}, and emitted by
+ * {@link org.apache.druid.server.metrics.HistoricalMetricsMonitor}.
+ */
+public class SegmentBootstrapProgress
+{
+  private final AtomicInteger numSegmentsLoaded = new AtomicInteger();
+  private final AtomicInteger numSegmentsFailed = new AtomicInteger();
+  private final AtomicLong bytesLoaded = new AtomicLong();
+
+  private volatile int numSegmentsTotal = 0;
+  private volatile long bytesTotal = 0;
+  private volatile long startTimeMillis = 0;
+  private volatile boolean done = true;
+
+  void start(Collection<DataSegment> segments)
+  {
+    numSegmentsLoaded.set(0);
+    numSegmentsFailed.set(0);
+    bytesLoaded.set(0);
+    numSegmentsTotal = segments.size();
+    bytesTotal = segments.stream().mapToLong(DataSegment::getSize).sum();
+    startTimeMillis = System.currentTimeMillis();
+    done = false;
+  }
+
+  void segmentLoaded(DataSegment segment)
+  {
+    numSegmentsLoaded.incrementAndGet();
+    bytesLoaded.addAndGet(segment.getSize());
+  }
+
+  void segmentFailed(DataSegment segment)
+  {
+    numSegmentsFailed.incrementAndGet();
+    bytesLoaded.addAndGet(segment.getSize());
+  }
+
+  void finish()
+  {
+    done = true;
+  }
+
+  /**
+   * Whether all the segments of the local cache were loaded or failed to load, or there was nothing to load.
+   */
+  @JsonProperty
+  public boolean isDone()
+  {
+    return done;
+  }
+
+  @JsonProperty
+  public int getNumSegmentsTotal()
+  {
+    return numSegmentsTotal;
+  }
+
+  @JsonProperty
+  public int getNumSegmentsLoaded()
+  {
+    return numSegmentsLoaded.get();
+  }
+
+  @JsonProperty
+  public int getNumSegmentsFailed()
+  {
+    return numSegmentsFailed.get();
+  }
+
+  @JsonProperty
+  public int getNumSegmentsPending()
+  {
+    return done ? 0 : Math.max(0, numSegmentsTotal - numSegmentsLoaded.get() - numSegmentsFailed.get());
+  }
+
+  @JsonProperty
+  public long getBytesTotal()
+  {
+    return bytesTotal;
+  }
+
+  @JsonProperty
+  public long getBytesLoaded()
+  {
+    return bytesLoaded.get();
+  }
+
+  /**
+   * Estimates the time left to load the pending segments, from the average throughput since the start, in bytes per
+   * millisecond. Returns null if nothing was loaded yet.
+   */
+  @Nullable
+  @JsonProperty
+  public Long getEstimatedRemainingMillis()
+  {
+    if (done) {
+      return 0L;
+    }
+    final long loaded = bytesLoaded.get();
+    if (loaded == 0) {
+      return null;
+    }
+    final long elapsedMillis = System.currentTimeMillis() - startTimeMillis;
+    return (long) (Math.max(0, bytesTotal - loaded) * (elapsedMillis / (double) loaded));
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.druid.server.coordination;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -50,6 +51,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +63,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -73,6 +77,18 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
 {
   private static final EmittingLogger log = new EmittingLogger(SegmentLoadDropHandler.class);
 
+  /**
+   * Name of the file of the info dir which records how much each dataSource was queried, see
+   * {@link SegmentLoaderConfig#isPrioritizedBootstrap()}.
+   */
+  static final String DATA_SOURCE_ACTIVITY_FILE_NAME = "_dataSourceActivity.json";
+
+  /**
+   * Interval between the announcements of batches of segments loaded by a prioritized bootstrap, if
+   * {@link SegmentLoaderConfig#getAnnounceIntervalMillis()} doesn't set one.
+   */
+  private static final int PRIORITIZED_BOOTSTRAP_ANNOUNCE_INTERVAL_MILLIS = 1000;
+
   // Synchronizes removals from segmentsToDelete
   private final Object segmentDeleteLock = new Object();
 
@@ -86,9 +102,20 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
   private final SegmentManager segmentManager;
   private final ScheduledExecutorService exec;
   private final ConcurrentSkipListSet<DataSegment> segmentsToDelete;
+  private final HotColumnPrefetcher hotColumnPrefetcher;
+  private final SegmentBootstrapProgress bootstrapProgress = new SegmentBootstrapProgress();
 
   private volatile boolean started = false;
 
+  // Runs the bootstrap in the background, if it is prioritized.
+  @Nullable
+  private ExecutorService bootstrapExec = null;
+
+  // Downloads the segments to load before they are submitted to exec, see SegmentLoaderConfig#getNumDownloadThreads().
+  // Only set while started.
+  @Nullable
+  private volatile ExecutorService downloadExec = null;
+
   // Keep history of load/drop request status in a LRU cache to maintain idempotency if same request shows up
   // again and to return status of a completed request. Maximum size of this cache must be significantly greater
   // than number of pending load/drop requests. so that history is not lost too quickly.
@@ -142,6 +169,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
 
     this.exec = exec;
     this.segmentsToDelete = new ConcurrentSkipListSet<>();
+    this.hotColumnPrefetcher = new HotColumnPrefetcher(jsonMapper, config, segmentManager);
     requestStatuses = CacheBuilder.newBuilder().maximumSize(config.getStatusQueueMaxSize()).initialCapacity(8).build();
   }
 
@@ -155,9 +183,30 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
 
       log.info("Starting...");
       try {
+        if (config.getNumDownloadThreads() > 0 && !config.isVirtualStorage()) {
+          downloadExec = Execs.multiThreaded(config.getNumDownloadThreads(), "SegmentDownload-%s");
+        }
         if (!config.getLocations().isEmpty()) {
-          loadLocalCache();
-          serverAnnouncer.announce();
+          hotColumnPrefetcher.start();
+          final List<DataSegment> cachedSegments = readLocalCache();
+          bootstrapProgress.start(cachedSegments);
+          if (config.isPrioritizedBootstrap()) {
+            prioritizeBootstrap(cachedSegments, readDataSourceActivity());
+            // Segments can be queried as soon as they are announced, which requires the server to be announced first.
+            serverAnnouncer.announce();
+            bootstrapExec = Execs.singleThreaded("SegmentBootstrap-%s");
+            bootstrapExec.submit(
+                () -> loadLocalCache(
+                    cachedSegments,
+                    config.getAnnounceIntervalMillis() > 0
+                    ? config.getAnnounceIntervalMillis()
+                    : PRIORITIZED_BOOTSTRAP_ANNOUNCE_INTERVAL_MILLIS
+                )
+            );
+          } else {
+            loadLocalCache(cachedSegments, config.getAnnounceIntervalMillis());
+            serverAnnouncer.announce();
+          }
         }
       }
       catch (Exception e) {
@@ -179,8 +228,20 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
 
       log.info("Stopping...");
       try {
+        if (downloadExec != null) {
+          downloadExec.shutdownNow();
+          downloadExec = null;
+        }
         if (!config.getLocations().isEmpty()) {
           serverAnnouncer.unannounce();
+          hotColumnPrefetcher.stop();
+          if (bootstrapExec != null) {
+            bootstrapExec.shutdownNow();
+            bootstrapExec = null;
+          }
+          if (config.isPrioritizedBootstrap()) {
+            writeDataSourceActivity();
+          }
         }
       }
       catch (Exception e) {
@@ -198,9 +259,21 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     return started;
   }
 
-  private void loadLocalCache()
+  /**
+   * Whether this handler is started, and finished loading the segments found in the local cache.
+   */
+  public boolean isCacheInitialized()
+  {
+    return started && bootstrapProgress.isDone();
+  }
+
+  public SegmentBootstrapProgress getBootstrapProgress()
+  {
+    return bootstrapProgress;
+  }
+
+  private List<DataSegment> readLocalCache()
   {
-    final long start = System.currentTimeMillis();
     File baseDir = config.getInfoDir();
     if (!baseDir.isDirectory()) {
       if (baseDir.exists()) {
@@ -215,6 +288,10 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     int ignored = 0;
     for (int i = 0; i < segmentsToLoad.length; i++) {
       File file = segmentsToLoad[i];
+      if (HotColumnPrefetcher.HOT_COLUMNS_FILE_NAME.equals(file.getName())
+          || DATA_SOURCE_ACTIVITY_FILE_NAME.equals(file.getName())) {
+        continue;
+      }
       log.info("Loading segment cache file [%d/%d][%s].", i + 1, segmentsToLoad.length, file);
       try {
         final DataSegment segment = jsonMapper.readValue(file, DataSegment.class);
@@ -222,7 +299,8 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
         if (!segment.getId().toString().equals(file.getName())) {
           log.warn("Ignoring cache file[%s] for segment[%s].", file.getPath(), segment.getId());
           ignored++;
-        } else if (segmentManager.isSegmentCached(segment)) {
+        } else if (config.isVirtualStorage() || segmentManager.isSegmentCached(segment)) {
+          // In virtual storage mode, segments are announced whether their files were fetched or not.
           cachedSegments.add(segment);
         } else {
           log.warn("Unable to find cache file for %s. Deleting lookup entry", segment.getId());
@@ -246,12 +324,76 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
          .emit();
     }
 
+    return cachedSegments;
+  }
+
+  private void loadLocalCache(List<DataSegment> cachedSegments, int announceIntervalMillis)
+  {
+    final long start = System.currentTimeMillis();
     addSegments(
         cachedSegments,
+        announceIntervalMillis,
         () -> log.info("Cache load took %,d ms", System.currentTimeMillis() - start)
     );
   }
 
+  /**
+   * Sorts the segments to bootstrap so that the segments of the dataSources which were queried the most before the
+   * restart are loaded first, and then the newest segments first.
+   */
+  @VisibleForTesting
+  static void prioritizeBootstrap(List<DataSegment> segments, Map<String, Long> dataSourceActivity)
+  {
+    segments.sort(
+        Comparator.comparingLong((DataSegment segment) -> dataSourceActivity.getOrDefault(segment.getDataSource(), 0L))
+                  .reversed()
+                  .thenComparing(
+                      Comparator.comparingLong((DataSegment segment) -> segment.getInterval().getEndMillis()).reversed()
+                  )
+                  .thenComparing(Comparator.naturalOrder())
+    );
+  }
+
+  private Map<String, Long> readDataSourceActivity()
+  {
+    final File file = new File(config.getInfoDir(), DATA_SOURCE_ACTIVITY_FILE_NAME);
+    if (!file.exists()) {
+      return new HashMap<>();
+    }
+    try {
+      return new HashMap<>(jsonMapper.readValue(file, new TypeReference<Map<String, Long>>() {}));
+    }
+    catch (IOException e) {
+      log.warn(e, "Failed to read dataSource activity file[%s], ignoring it.", file);
+      return new HashMap<>();
+    }
+  }
+
+  /**
+   * Records how many times queries accessed the columns of each dataSource, to prioritize the next bootstrap. The
+   * dataSources which were not queried since the last bootstrap keep their previous activity.
+   */
+  private void writeDataSourceActivity()
+  {
+    final Map<String, Long> dataSourceActivity = readDataSourceActivity();
+    segmentManager.getColumnAccessCounts().forEach(
+        (dataSource, columnAccessCounts) -> {
+          final long activity = columnAccessCounts.values().stream().mapToLong(Long::longValue).sum();
+          if (activity > 0) {
+            dataSourceActivity.put(dataSource, activity);
+          }
+        }
+    );
+
+    final File file = new File(config.getInfoDir(), DATA_SOURCE_ACTIVITY_FILE_NAME);
+    try {
+      jsonMapper.writeValue(file, dataSourceActivity);
+    }
+    catch (IOException e) {
+      log.warn(e, "Failed to write dataSource activity file[%s].", file);
+    }
+  }
+
   /**
    * Load a single segment. If the segment is loaded successfully, this function simply returns. Otherwise it will
    * throw a SegmentLoadingException
@@ -270,6 +412,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     }
 
     if (loaded) {
+      hotColumnPrefetcher.prefetch(segment);
       File segmentInfoCacheFile = new File(config.getInfoDir(), segment.getId().toString());
       if (!segmentInfoCacheFile.exists()) {
         try {
@@ -333,11 +476,15 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     }
   }
 
-  private void addSegments(Collection<DataSegment> segments, final DataSegmentChangeCallback callback)
+  private void addSegments(
+      Collection<DataSegment> segments,
+      int announceIntervalMillis,
+      final DataSegmentChangeCallback callback
+  )
   {
     ExecutorService loadingExecutor = null;
     try (final BackgroundSegmentAnnouncer backgroundSegmentAnnouncer =
-             new BackgroundSegmentAnnouncer(announcer, exec, config.getAnnounceIntervalMillis())) {
+             new BackgroundSegmentAnnouncer(this::announceUnlessDropped, exec, announceIntervalMillis)) {
 
       backgroundSegmentAnnouncer.startAnnouncing();
 
@@ -351,6 +498,12 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
         loadingExecutor.submit(
             () -> {
               try {
+                if (segmentsToDelete.contains(segment)) {
+                  // Dropped by the coordinator while bootstrapping, see announceUnlessDropped().
+                  log.info("Skipping segment[%s] dropped before it was loaded", segment.getId());
+                  bootstrapProgress.segmentLoaded(segment);
+                  return;
+                }
                 log.info(
                     "Loading segment[%d/%d][%s]",
                     counter.incrementAndGet(),
@@ -365,10 +518,12 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
                   Thread.currentThread().interrupt();
                   throw new SegmentLoadingException(e, "Loading Interrupted");
                 }
+                bootstrapProgress.segmentLoaded(segment);
               }
               catch (SegmentLoadingException e) {
                 log.error(e, "[%s] failed to load", segment.getId());
                 failedSegments.add(segment);
+                bootstrapProgress.segmentFailed(segment);
               }
               finally {
                 latch.countDown();
@@ -399,6 +554,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
          .emit();
     }
     finally {
+      bootstrapProgress.finish();
       callback.execute();
       if (loadingExecutor != null) {
         loadingExecutor.shutdownNow();
@@ -406,6 +562,19 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     }
   }
 
+  /**
+   * Announces the segments loaded by the bootstrap, except the ones dropped since they started loading, which the
+   * scheduled drop removes. Synchronized with {@link #removeSegment} so that a segment is never announced after the
+   * drop which unannounced it, as the drop wouldn't unannounce it again.
+   */
+  private void announceUnlessDropped(List<DataSegment> segments) throws IOException
+  {
+    synchronized (segmentDeleteLock) {
+      segments.removeIf(segmentsToDelete::contains);
+      announcer.announceSegments(segments);
+    }
+  }
+
   @Override
   public void removeSegment(DataSegment segment, DataSegmentChangeCallback callback)
   {
@@ -420,8 +589,10 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
   {
     Status result = null;
     try {
-      announcer.unannounceSegment(segment);
-      segmentsToDelete.add(segment);
+      synchronized (segmentDeleteLock) {
+        segmentsToDelete.add(segment);
+        announcer.unannounceSegment(segment);
+      }
 
       Runnable runnable = () -> {
         try {
@@ -499,6 +670,13 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
       synchronized (waitingFutures) {
         waitingFutures.add(future);
       }
+      // A request completing before the future was added resolved the waiting futures without it.
+      for (AtomicReference<Status> status : statuses.values()) {
+        if (status.get().getState() != Status.STATE.PENDING) {
+          future.resolve();
+          break;
+        }
+      }
     }
 
     return future;
@@ -515,12 +693,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
               public void addSegment(DataSegment segment, DataSegmentChangeCallback callback)
               {
                 requestStatuses.put(changeRequest, new AtomicReference<>(Status.PENDING));
-                exec.submit(
-                    () -> SegmentLoadDropHandler.this.addSegment(
-                        ((SegmentChangeRequestLoad) changeRequest).getSegment(),
-                        () -> resolveWaitingFutures()
-                    )
-                );
+                submitLoad(((SegmentChangeRequestLoad) changeRequest).getSegment());
               }
 
               @Override
@@ -541,6 +714,42 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     }
   }
 
+  /**
+   * Submits the load of the segment to the loading threads. With download threads, the segment is downloaded first,
+   * so that the loading threads don't wait for deep storage while downloaded segments are waiting to be loaded.
+   */
+  private void submitLoad(DataSegment segment)
+  {
+    final ExecutorService downloadExec = this.downloadExec;
+    if (downloadExec == null) {
+      exec.submit(() -> addSegment(segment, this::resolveWaitingFutures));
+      return;
+    }
+
+    try {
+      downloadExec.submit(
+          () -> {
+            // The files of a segment pending deletion may be deleted anytime, so it's left to addSegment(), which first
+            // cancels the deletion.
+            if (!segmentsToDelete.contains(segment)) {
+              try {
+                segmentManager.downloadSegment(segment);
+              }
+              catch (Exception e) {
+                // addSegment() retries the download, and reports the failure.
+                log.warn(e, "Failed to download segment[%s] before loading it.", segment.getId());
+              }
+            }
+            exec.submit(() -> addSegment(segment, this::resolveWaitingFutures));
+          }
+      );
+    }
+    catch (RejectedExecutionException e) {
+      // Stopped concurrently, the segment is loaded without downloading it first.
+      exec.submit(() -> addSegment(segment, this::resolveWaitingFutures));
+    }
+  }
+
   private void updateRequestStatus(DataSegmentChangeRequest changeRequest, Status result)
   {
     if (result == null) {
@@ -571,7 +780,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     private static final EmittingLogger log = new EmittingLogger(BackgroundSegmentAnnouncer.class);
 
     private final int intervalMillis;
-    private final DataSegmentAnnouncer announcer;
+    private final SegmentsAnnouncer announcer;
     private final ScheduledExecutorService exec;
     private final LinkedBlockingQueue<DataSegment> queue;
     private final SettableFuture<Boolean> doneAnnouncing;
@@ -585,7 +794,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     private volatile ScheduledFuture nextAnnoucement = null;
 
     public BackgroundSegmentAnnouncer(
-        DataSegmentAnnouncer announcer,
+        SegmentsAnnouncer announcer,
         ScheduledExecutorService exec,
         int intervalMillis
     )
@@ -626,7 +835,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
                     final List<DataSegment> segments = new ArrayList<>();
                     queue.drainTo(segments);
                     try {
-                      announcer.announceSegments(segments);
+                      announcer.announce(segments);
                       nextAnnoucement = exec.schedule(this, intervalMillis, TimeUnit.MILLISECONDS);
                     }
                     catch (IOException e) {
@@ -657,7 +866,7 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
         try {
           final List<DataSegment> segments = new ArrayList<>();
           queue.drainTo(segments);
-          announcer.announceSegments(segments);
+          announcer.announce(segments);
         }
         catch (Exception e) {
           throw new SegmentLoadingException(e, "Failed to announce segments[%s]", queue);
@@ -699,6 +908,11 @@ public class SegmentLoadDropHandler implements DataSegmentChangeHandler
     }
   }
 
+  private interface SegmentsAnnouncer
+  {
+    void announce(List<DataSegment> segments) throws IOException;
+  }
+
   // Future with cancel() implementation to remove it from "waitingFutures" list
   private static class CustomSettableFuture extends AbstractFuture<List<DataSegmentChangeRequestAndStatus>>
   {
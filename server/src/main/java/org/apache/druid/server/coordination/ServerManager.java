@@ -41,6 +41,7 @@ import org.apache.druid.query.NoopQueryRunner;
 import org.apache.druid.query.PerSegmentOptimizingQueryRunner;
 import org.apache.druid.query.PerSegmentQueryOptimizationContext;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryCountersQueryRunner;
 import org.apache.druid.query.QueryDataSource;
 import org.apache.druid.query.QueryMetrics;
 import org.apache.druid.query.QueryRunner;
@@ -225,9 +226,13 @@ public class ServerManager implements QuerySegmentWalker
         );
 
     return CPUTimeMetricQueryRunner.safeBuild(
-        new FinalizeResultsQueryRunner<>(
-            toolChest.mergeResults(factory.mergeRunners(exec, queryRunners)),
-            toolChest
+        QueryCountersQueryRunner.forQuery(
+            new FinalizeResultsQueryRunner<>(
+                toolChest.mergeResults(factory.mergeRunners(exec, queryRunners)),
+                toolChest
+            ),
+            toolChest,
+            emitter
         ),
         toolChest,
         emitter,
@@ -339,7 +344,7 @@ public class ServerManager implements QuerySegmentWalker
     return new SetAndVerifyContextQueryRunner<>(
         serverConfig,
         CPUTimeMetricQueryRunner.safeBuild(
-            perSegmentOptimizingQueryRunner,
+            QueryCountersQueryRunner.forSegment(perSegmentOptimizingQueryRunner),
             toolChest,
             emitter,
             cpuTimeAccumulator,
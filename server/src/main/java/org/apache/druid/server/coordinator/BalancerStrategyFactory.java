@@ -28,6 +28,7 @@ import com.google.common.util.concurrent.ListeningExecutorService;
         @JsonSubTypes.Type(name = "diskNormalized", value = DiskNormalizedCostBalancerStrategyFactory.class),
         @JsonSubTypes.Type(name = "cost", value = CostBalancerStrategyFactory.class),
         @JsonSubTypes.Type(name = "cachingCost", value = CachingCostBalancerStrategyFactory.class),
+        @JsonSubTypes.Type(name = "sampledCost", value = SampledCostBalancerStrategyFactory.class),
         @JsonSubTypes.Type(name = "random", value = RandomBalancerStrategyFactory.class),
 })
 public interface BalancerStrategyFactory
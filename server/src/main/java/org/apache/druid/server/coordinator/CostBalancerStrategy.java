@@ -70,15 +70,28 @@ public class CostBalancerStrategy implements BalancerStrategy
     final Interval intervalA = segmentA.getInterval();
     final Interval intervalB = segmentB.getInterval();
 
-    final double t0 = intervalA.getStartMillis();
-    final double t1 = (intervalA.getEndMillis() - t0) / MILLIS_FACTOR;
-    final double start = (intervalB.getStartMillis() - t0) / MILLIS_FACTOR;
-    final double end = (intervalB.getEndMillis() - t0) / MILLIS_FACTOR;
-
     // constant cost-multiplier for segments of the same datsource
     final double multiplier = segmentA.getDataSource().equals(segmentB.getDataSource()) ? 2.0 : 1.0;
 
-    return INV_LAMBDA_SQUARE * intervalCost(t1, start, end) * multiplier;
+    return computeJointIntervalsCost(
+        intervalA.getStartMillis(),
+        intervalA.getEndMillis(),
+        intervalB.getStartMillis(),
+        intervalB.getEndMillis()
+    ) * multiplier;
+  }
+
+  /**
+   * The joint cost of two segments of different datasources, given the start and end millis of their intervals.
+   */
+  static double computeJointIntervalsCost(final long startA, final long endA, final long startB, final long endB)
+  {
+    final double t0 = startA;
+    final double t1 = (endA - t0) / MILLIS_FACTOR;
+    final double start = (startB - t0) / MILLIS_FACTOR;
+    final double end = (endB - t0) / MILLIS_FACTOR;
+
+    return INV_LAMBDA_SQUARE * intervalCost(t1, start, end);
   }
 
   /**
@@ -60,6 +60,7 @@ import org.apache.druid.java.util.common.lifecycle.LifecycleStart;
 import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
 import org.apache.druid.java.util.emitter.EmittingLogger;
 import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
 import org.apache.druid.metadata.MetadataRuleManager;
 import org.apache.druid.metadata.SegmentsMetadataManager;
 import org.apache.druid.server.DruidNode;
@@ -93,6 +94,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -783,6 +785,7 @@ public class DruidCoordinator
                 .withCompactionConfig(getCompactionConfig())
                 .withEmitter(emitter)
                 .withBalancerStrategy(balancerStrategy)
+                .withComputeExec(balancerExec)
                 .build();
 
         boolean coordinationPaused = getDynamicConfigs().getPauseCoordination();
@@ -801,7 +804,13 @@ public class DruidCoordinator
               && coordLeaderSelector.isLeader()
               && startingLeaderCounter == coordLeaderSelector.localTerm()) {
 
+            final long dutyStartNanos = System.nanoTime();
             params = duty.run(params);
+            emitter.emit(
+                new ServiceMetricEvent.Builder()
+                    .setDimension("duty", duty.getClass().getName())
+                    .build("coordinator/time", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dutyStartNanos))
+            );
 
             if (params == null) {
               // This duty wanted to cancel the run. No log message, since the duty should have logged a reason.
@@ -92,4 +92,20 @@ public abstract class DruidCoordinatorConfig
   {
     return 1;
   }
+
+  /**
+   * Upper bound of the size of the batches of {@link HttpLoadQueuePeon}, which grow from
+   * {@link #getHttpLoadQueuePeonBatchSize()} with the rate at which the server completes the requests.
+   */
+  @Config("druid.coordinator.loadqueuepeon.http.maxBatchSize")
+  public int getHttpLoadQueuePeonMaxBatchSize()
+  {
+    return getHttpLoadQueuePeonBatchSize();
+  }
+
+  @Config("druid.coordinator.loadqueuepeon.http.maxOutstandingBatches")
+  public int getHttpLoadQueuePeonMaxOutstandingBatches()
+  {
+    return 1;
+  }
 }
@@ -22,6 +22,7 @@ package org.apache.druid.server.coordinator;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import org.apache.druid.client.DataSourcesSnapshot;
 import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.metadata.MetadataRuleManager;
@@ -70,6 +71,7 @@ public class DruidCoordinatorRuntimeParams
   private final CoordinatorStats stats;
   private final BalancerStrategy balancerStrategy;
   private final Set<String> broadcastDatasources;
+  private final @Nullable ListeningExecutorService computeExec;
 
   private DruidCoordinatorRuntimeParams(
       long startTimeNanos,
@@ -85,7 +87,8 @@ public class DruidCoordinatorRuntimeParams
       CoordinatorCompactionConfig coordinatorCompactionConfig,
       CoordinatorStats stats,
       BalancerStrategy balancerStrategy,
-      Set<String> broadcastDatasources
+      Set<String> broadcastDatasources,
+      @Nullable ListeningExecutorService computeExec
   )
   {
     this.startTimeNanos = startTimeNanos;
@@ -102,6 +105,7 @@ public class DruidCoordinatorRuntimeParams
     this.stats = stats;
     this.balancerStrategy = balancerStrategy;
     this.broadcastDatasources = broadcastDatasources;
+    this.computeExec = computeExec;
   }
 
   public long getStartTimeNanos()
@@ -180,6 +184,16 @@ public class DruidCoordinatorRuntimeParams
     return broadcastDatasources;
   }
 
+  /**
+   * Returns the pool of {@link CoordinatorDynamicConfig#getBalancerComputeThreads()} threads on which duties may run
+   * computations which only read the runtime params, or null if they must run on the calling thread.
+   */
+  @Nullable
+  public ListeningExecutorService getComputeExec()
+  {
+    return computeExec;
+  }
+
   public boolean coordinatorIsLeadingEnoughTimeToMarkAsUnusedOvershadowedSegements()
   {
     long nanosElapsedSinceCoordinatorStart = System.nanoTime() - getStartTimeNanos();
@@ -216,7 +230,8 @@ public class DruidCoordinatorRuntimeParams
         coordinatorCompactionConfig,
         stats,
         balancerStrategy,
-        broadcastDatasources
+        broadcastDatasources,
+        computeExec
     );
   }
 
@@ -236,7 +251,8 @@ public class DruidCoordinatorRuntimeParams
         coordinatorCompactionConfig,
         stats,
         balancerStrategy,
-        broadcastDatasources
+        broadcastDatasources,
+        computeExec
     );
   }
 
@@ -256,6 +272,7 @@ public class DruidCoordinatorRuntimeParams
     private CoordinatorStats stats;
     private BalancerStrategy balancerStrategy;
     private Set<String> broadcastDatasources;
+    private @Nullable ListeningExecutorService computeExec;
 
     private Builder()
     {
@@ -272,6 +289,7 @@ public class DruidCoordinatorRuntimeParams
       this.coordinatorDynamicConfig = CoordinatorDynamicConfig.builder().build();
       this.coordinatorCompactionConfig = CoordinatorCompactionConfig.empty();
       this.broadcastDatasources = new HashSet<>();
+      this.computeExec = null;
     }
 
     Builder(
@@ -288,7 +306,8 @@ public class DruidCoordinatorRuntimeParams
         CoordinatorCompactionConfig coordinatorCompactionConfig,
         CoordinatorStats stats,
         BalancerStrategy balancerStrategy,
-        Set<String> broadcastDatasources
+        Set<String> broadcastDatasources,
+        @Nullable ListeningExecutorService computeExec
     )
     {
       this.startTimeNanos = startTimeNanos;
@@ -305,6 +324,7 @@ public class DruidCoordinatorRuntimeParams
       this.stats = stats;
       this.balancerStrategy = balancerStrategy;
       this.broadcastDatasources = broadcastDatasources;
+      this.computeExec = computeExec;
     }
 
     public DruidCoordinatorRuntimeParams build()
@@ -324,7 +344,8 @@ public class DruidCoordinatorRuntimeParams
           coordinatorCompactionConfig,
           stats,
           balancerStrategy,
-          broadcastDatasources
+          broadcastDatasources,
+          computeExec
       );
     }
 
@@ -436,5 +457,11 @@ public class DruidCoordinatorRuntimeParams
       this.broadcastDatasources = broadcastDatasources;
       return this;
     }
+
+    public Builder withComputeExec(@Nullable ListeningExecutorService computeExec)
+    {
+      this.computeExec = computeExec;
+      return this;
+    }
   }
 }
@@ -22,6 +22,7 @@ package org.apache.druid.server.coordinator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Iterators;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -44,6 +45,7 @@ import org.jboss.netty.handler.codec.http.HttpHeaders;
 import org.jboss.netty.handler.codec.http.HttpMethod;
 import org.joda.time.Duration;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
 import java.io.InputStream;
@@ -59,7 +61,6 @@ import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -79,6 +80,16 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
 
   private static final EmittingLogger log = new EmittingLogger(HttpLoadQueuePeon.class);
 
+  /**
+   * The batches are sized for the server to complete them in about this time, see {@link #getBatchSize()}.
+   */
+  private static final long BATCH_DURATION_MILLIS = 1000;
+
+  /**
+   * Weight of the last measure in the completion rate of the server, see {@link #updateCompletionRate(int)}.
+   */
+  private static final double RATE_SMOOTHING_FACTOR = 0.3;
+
   private final AtomicLong queuedSize = new AtomicLong(0);
   private final AtomicInteger failedAssignCount = new AtomicInteger(0);
 
@@ -105,7 +116,21 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
   private final URL changeRequestURL;
   private final String serverId;
 
-  private final AtomicBoolean mainLoopInProgress = new AtomicBoolean(false);
+  // Number of batches sent to the server, whose response hasn't been processed yet.
+  @GuardedBy("lock")
+  private int numOutstandingBatches = 0;
+
+  // Rate at which the server completes the requests, see updateCompletionRate().
+  @GuardedBy("lock")
+  private double completionRatePerMilli = 0;
+  @GuardedBy("lock")
+  private int numCompletedSinceRateUpdate = 0;
+  @GuardedBy("lock")
+  private long lastRateUpdateMillis = System.currentTimeMillis();
+  // Whether there were no requests for the server since the last rate update.
+  @GuardedBy("lock")
+  private boolean idle = true;
+
   private final ExecutorService callBackExecutor;
 
   private final ObjectWriter requestBodyWriter;
@@ -143,42 +168,81 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
 
   private void doSegmentManagement()
   {
-    if (stopped || !mainLoopInProgress.compareAndSet(false, true)) {
-      log.trace("[%s]Ignoring tick. Either in-progress already or stopped.", serverId);
-      return;
-    }
+    // Sends batches until maxOutstandingBatches are waiting for a response, or there are no requests left to send, so
+    // that the server starts on the requests of the next batches while the responses of the previous ones are coming.
+    while (true) {
+      final List<SegmentHolder> batch;
+      synchronized (lock) {
+        if (stopped || numOutstandingBatches >= config.getHttpLoadQueuePeonMaxOutstandingBatches()) {
+          log.trace("[%s]Ignoring tick. Either enough batches in-progress already or stopped.", serverId);
+          return;
+        }
 
-    final int batchSize = config.getHttpLoadQueuePeonBatchSize();
+        batch = nextBatch();
+        if (batch.isEmpty()) {
+          log.trace(
+              "[%s]Found no load/drop requests to send. SegmentsToLoad[%d], SegmentsToDrop[%d], batchSize[%d].",
+              serverId,
+              segmentsToLoad.size(),
+              segmentsToDrop.size(),
+              getBatchSize()
+          );
+          if (numOutstandingBatches == 0) {
+            idle = true;
+          }
+          return;
+        }
 
-    final List<DataSegmentChangeRequest> newRequests = new ArrayList<>(batchSize);
+        if (idle) {
+          // The time the server had nothing to do doesn't count in its completion rate.
+          idle = false;
+          numCompletedSinceRateUpdate = 0;
+          lastRateUpdateMillis = System.currentTimeMillis();
+        }
+        numOutstandingBatches++;
+      }
 
-    synchronized (lock) {
-      Iterator<Map.Entry<DataSegment, SegmentHolder>> iter = Iterators.concat(
-          segmentsToDrop.entrySet().iterator(),
-          segmentsToLoad.entrySet().iterator()
-      );
+      sendBatch(batch);
+    }
+  }
 
-      while (newRequests.size() < batchSize && iter.hasNext()) {
-        Map.Entry<DataSegment, SegmentHolder> entry = iter.next();
-        if (entry.getValue().hasTimedOut()) {
-          entry.getValue().requestFailed("timed out");
-          iter.remove();
-        } else {
-          newRequests.add(entry.getValue().getChangeRequest());
-        }
+  /**
+   * Picks the requests of the next batch among the ones which are not already in an outstanding batch, and fails the
+   * ones which timed out. Requests still pending on the server after their batch are sent again in the next batches,
+   * to poll their status.
+   */
+  @GuardedBy("lock")
+  private List<SegmentHolder> nextBatch()
+  {
+    final int batchSize = getBatchSize();
+    final List<SegmentHolder> batch = new ArrayList<>(batchSize);
+
+    Iterator<Map.Entry<DataSegment, SegmentHolder>> iter = Iterators.concat(
+        segmentsToDrop.entrySet().iterator(),
+        segmentsToLoad.entrySet().iterator()
+    );
+
+    while (batch.size() < batchSize && iter.hasNext()) {
+      Map.Entry<DataSegment, SegmentHolder> entry = iter.next();
+      if (entry.getValue().inOutstandingBatch) {
+        continue;
+      }
+      if (entry.getValue().hasTimedOut()) {
+        entry.getValue().requestFailed("timed out");
+        iter.remove();
+      } else {
+        entry.getValue().inOutstandingBatch = true;
+        batch.add(entry.getValue());
       }
     }
+    return batch;
+  }
 
-    if (newRequests.size() == 0) {
-      log.trace(
-          "[%s]Found no load/drop requests. SegmentsToLoad[%d], SegmentsToDrop[%d], batchSize[%d].",
-          serverId,
-          segmentsToLoad.size(),
-          segmentsToDrop.size(),
-          config.getHttpLoadQueuePeonBatchSize()
-      );
-      mainLoopInProgress.set(false);
-      return;
+  private void sendBatch(List<SegmentHolder> batch)
+  {
+    final List<DataSegmentChangeRequest> newRequests = new ArrayList<>(batch.size());
+    for (SegmentHolder holder : batch) {
+      newRequests.add(holder.getChangeRequest());
     }
 
     try {
@@ -216,11 +280,13 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
                         return;
                       }
 
+                      int numCompleted = 0;
                       for (SegmentLoadDropHandler.DataSegmentChangeRequestAndStatus e : statuses) {
                         switch (e.getStatus().getState()) {
                           case SUCCESS:
                           case FAILED:
                             handleResponseStatus(e.getRequest(), e.getStatus());
+                            numCompleted++;
                             break;
                           case PENDING:
                             log.trace("Request[%s] is still pending on server[%s].", e.getRequest(), serverId);
@@ -230,6 +296,7 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
                             log.error("Server[%s] returned unknown state in status[%s].", serverId, e.getStatus());
                         }
                       }
+                      updateCompletionRate(numCompleted);
                     }
                   }
                   catch (Exception ex) {
@@ -242,7 +309,7 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
                 }
               }
               finally {
-                mainLoopInProgress.set(false);
+                finishBatch(batch);
 
                 if (scheduleNextRunImmediately) {
                   processingExecutor.execute(HttpLoadQueuePeon.this::doSegmentManagement);
@@ -257,7 +324,7 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
                 logRequestFailure(t);
               }
               finally {
-                mainLoopInProgress.set(false);
+                finishBatch(batch);
               }
             }
 
@@ -277,7 +344,50 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
     }
     catch (Throwable th) {
       log.error(th, "Error sending load/drop request to [%s].", serverId);
-      mainLoopInProgress.set(false);
+      finishBatch(batch);
+    }
+  }
+
+  private void finishBatch(List<SegmentHolder> batch)
+  {
+    synchronized (lock) {
+      for (SegmentHolder holder : batch) {
+        holder.inOutstandingBatch = false;
+      }
+      numOutstandingBatches--;
+    }
+  }
+
+  /**
+   * Returns the number of requests the server completes in about {@link #BATCH_DURATION_MILLIS}, according to its
+   * completion rate, bounded by the configured batch sizes.
+   */
+  @VisibleForTesting
+  int getBatchSize()
+  {
+    synchronized (lock) {
+      final int minBatchSize = config.getHttpLoadQueuePeonBatchSize();
+      final int maxBatchSize = Math.max(minBatchSize, config.getHttpLoadQueuePeonMaxBatchSize());
+      final double completedPerBatch = completionRatePerMilli * BATCH_DURATION_MILLIS;
+      return (int) Math.max(minBatchSize, Math.min(maxBatchSize, Math.ceil(completedPerBatch)));
+    }
+  }
+
+  /**
+   * Updates the exponentially weighted moving average of the rate at which the server completes the requests, at most
+   * once per {@link #BATCH_DURATION_MILLIS}, since responses come as soon as any request of their batch completes.
+   */
+  @GuardedBy("lock")
+  private void updateCompletionRate(int numCompleted)
+  {
+    numCompletedSinceRateUpdate += numCompleted;
+    final long now = System.currentTimeMillis();
+    final long elapsedMillis = now - lastRateUpdateMillis;
+    if (elapsedMillis >= BATCH_DURATION_MILLIS) {
+      final double rate = (double) numCompletedSinceRateUpdate / elapsedMillis;
+      completionRatePerMilli = RATE_SMOOTHING_FACTOR * rate + (1 - RATE_SMOOTHING_FACTOR) * completionRatePerMilli;
+      numCompletedSinceRateUpdate = 0;
+      lastRateUpdateMillis = now;
     }
   }
 
@@ -473,6 +583,10 @@ public class HttpLoadQueuePeon extends LoadQueuePeon
     // Time when this request was sent to target server the first time.
     private volatile long scheduleTime = -1;
 
+    // Whether this request is in a batch sent to the server, whose response hasn't been processed yet.
+    @GuardedBy("lock")
+    private boolean inOutstandingBatch = false;
+
     private SegmentHolder(
         DataSegment segment,
         DataSegmentChangeRequest changeRequest,
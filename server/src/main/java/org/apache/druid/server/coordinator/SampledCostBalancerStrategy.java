@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordinator;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.apache.druid.client.ImmutableDruidServer;
+import org.apache.druid.timeline.DataSegment;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Approximates the cost computed by {@link CostBalancerStrategy} in a time which doesn't depend on the number of
+ * segments of the servers. The segments of each server are counted per interval in a {@link ServerIntervalHistogram},
+ * built once per coordinator run, when the server is first considered. The cost of a segment on a server is then
+ * computed from at most {@code maxSamplesPerServer} of the intervals of the server close to the segment, so a balancing
+ * decision costs at most about {@code 2 * maxSamplesPerServer} computations of the cost function per server.
+ *
+ * The costs of the segments loading or to be dropped by a server are computed exactly, like in
+ * {@link CostBalancerStrategy}.
+ */
+public class SampledCostBalancerStrategy extends CostBalancerStrategy
+{
+  private final int maxSamplesPerServer;
+  private final ConcurrentMap<String, ServerIntervalHistogram> histograms = new ConcurrentHashMap<>();
+
+  public SampledCostBalancerStrategy(ListeningExecutorService exec, int maxSamplesPerServer)
+  {
+    super(exec);
+    Preconditions.checkArgument(maxSamplesPerServer > 0, "maxSamplesPerServer must be positive");
+    this.maxSamplesPerServer = maxSamplesPerServer;
+  }
+
+  @Override
+  protected double computeCost(
+      final DataSegment proposalSegment,
+      final ServerHolder server,
+      final boolean includeCurrentServer
+  )
+  {
+    // (optional) Don't include server if it is already serving segment
+    if (!includeCurrentServer && server.isServingSegment(proposalSegment)) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    // Don't calculate cost if the server doesn't have enough space or is loading the segment
+    if (proposalSegment.getSize() > server.getAvailableSize() || server.isLoadingSegment(proposalSegment)) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    double cost = getHistogram(server.getServer()).computeCost(proposalSegment, maxSamplesPerServer);
+
+    // exclusive of the proposalSegment
+    if (server.isServingSegment(proposalSegment)) {
+      cost -= computeJointSegmentsCost(proposalSegment, proposalSegment);
+    }
+
+    // plus the costs of segments that will be loaded
+    cost += computeJointSegmentsCost(proposalSegment, server.getPeon().getSegmentsToLoad());
+
+    // minus the costs of segments that are marked to be dropped
+    cost -= computeJointSegmentsCost(proposalSegment, server.getPeon().getSegmentsMarkedToDrop());
+
+    return cost;
+  }
+
+  private ServerIntervalHistogram getHistogram(ImmutableDruidServer server)
+  {
+    ServerIntervalHistogram histogram = histograms.get(server.getName());
+    // A different snapshot of the server may have different segments.
+    if (histogram == null || histogram.getServer() != server) {
+      histogram = ServerIntervalHistogram.of(server);
+      histograms.put(server.getName(), histogram);
+    }
+    return histogram;
+  }
+}
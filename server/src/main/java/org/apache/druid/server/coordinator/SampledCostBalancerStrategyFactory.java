@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordinator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import javax.annotation.Nullable;
+
+public class SampledCostBalancerStrategyFactory implements BalancerStrategyFactory
+{
+  private static final int DEFAULT_MAX_SAMPLES_PER_SERVER = 500;
+
+  private final int maxSamplesPerServer;
+
+  @JsonCreator
+  public SampledCostBalancerStrategyFactory(
+      @JsonProperty("maxSamplesPerServer") @Nullable Integer maxSamplesPerServer
+  )
+  {
+    this.maxSamplesPerServer = maxSamplesPerServer == null ? DEFAULT_MAX_SAMPLES_PER_SERVER : maxSamplesPerServer;
+    Preconditions.checkArgument(this.maxSamplesPerServer > 0, "maxSamplesPerServer must be positive");
+  }
+
+  @JsonProperty
+  public int getMaxSamplesPerServer()
+  {
+    return maxSamplesPerServer;
+  }
+
+  @Override
+  public SampledCostBalancerStrategy createBalancerStrategy(ListeningExecutorService exec)
+  {
+    return new SampledCostBalancerStrategy(exec, maxSamplesPerServer);
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordinator;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.apache.druid.client.ImmutableDruidServer;
+import org.apache.druid.timeline.DataSegment;
+import org.joda.time.Interval;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Number of segments served by a server per interval, in total and per datasource, sorted by the start of the
+ * intervals. Used by {@link SampledCostBalancerStrategy} to compute the joint cost of a segment with the segments of
+ * the server once per distinct interval rather than once per segment, and only with the intervals close enough to the
+ * segment for their cost not to be negligible.
+ */
+class ServerIntervalHistogram
+{
+  /**
+   * Beyond this distance, the joint cost of two intervals is less than 2^-30 of the cost of adjacent intervals, since
+   * the cost function has a half-life of one day.
+   */
+  static final long HORIZON_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+  static ServerIntervalHistogram of(ImmutableDruidServer server)
+  {
+    final Object2IntOpenHashMap<Interval> allCounts = new Object2IntOpenHashMap<>();
+    final Map<String, Object2IntOpenHashMap<Interval>> countsPerDataSource = new HashMap<>();
+    for (DataSegment segment : server.iterateAllSegments()) {
+      allCounts.addTo(segment.getInterval(), 1);
+      countsPerDataSource.computeIfAbsent(segment.getDataSource(), dataSource -> new Object2IntOpenHashMap<>())
+                         .addTo(segment.getInterval(), 1);
+    }
+
+    final Map<String, IntervalCounts> intervalCountsPerDataSource = new HashMap<>();
+    countsPerDataSource.forEach((dataSource, counts) -> intervalCountsPerDataSource.put(
+        dataSource,
+        new IntervalCounts(counts)
+    ));
+    return new ServerIntervalHistogram(server, new IntervalCounts(allCounts), intervalCountsPerDataSource);
+  }
+
+  private final ImmutableDruidServer server;
+  private final IntervalCounts allIntervalCounts;
+  private final Map<String, IntervalCounts> intervalCountsPerDataSource;
+
+  private ServerIntervalHistogram(
+      ImmutableDruidServer server,
+      IntervalCounts allIntervalCounts,
+      Map<String, IntervalCounts> intervalCountsPerDataSource
+  )
+  {
+    this.server = server;
+    this.allIntervalCounts = allIntervalCounts;
+    this.intervalCountsPerDataSource = intervalCountsPerDataSource;
+  }
+
+  ImmutableDruidServer getServer()
+  {
+    return server;
+  }
+
+  /**
+   * Returns the sum of the joint costs of the given segment with all the segments of the server, including itself if
+   * the server serves it. If more than maxSamples intervals are close to the segment, the cost is extrapolated from
+   * maxSamples of them, see {@link IntervalCounts#computeCostAwayFromSegment}.
+   */
+  double computeCost(DataSegment segment, int maxSamples)
+  {
+    final Interval interval = segment.getInterval();
+    // The joint cost of segments of the same datasource is twice the one of segments of different datasources.
+    double cost = allIntervalCounts.computeCost(interval, maxSamples);
+    final IntervalCounts sameDataSourceIntervalCounts = intervalCountsPerDataSource.get(segment.getDataSource());
+    if (sameDataSourceIntervalCounts != null) {
+      cost += sameDataSourceIntervalCounts.computeCost(interval, maxSamples);
+    }
+    return cost;
+  }
+
+  private static class IntervalCounts
+  {
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] counts;
+    private final long maxDurationMillis;
+
+    private IntervalCounts(Object2IntMap<Interval> countsPerInterval)
+    {
+      final List<Object2IntMap.Entry<Interval>> entries = new ArrayList<>(countsPerInterval.object2IntEntrySet());
+      entries.sort(Comparator.comparingLong(entry -> entry.getKey().getStartMillis()));
+
+      starts = new long[entries.size()];
+      ends = new long[entries.size()];
+      counts = new int[entries.size()];
+      long maxDurationMillis = 0;
+      for (int i = 0; i < entries.size(); i++) {
+        final Interval interval = entries.get(i).getKey();
+        starts[i] = interval.getStartMillis();
+        ends[i] = interval.getEndMillis();
+        counts[i] = entries.get(i).getIntValue();
+        maxDurationMillis = Math.max(maxDurationMillis, interval.toDurationMillis());
+      }
+      this.maxDurationMillis = maxDurationMillis;
+    }
+
+    private double computeCost(Interval interval, int maxSamples)
+    {
+      final long start = interval.getStartMillis();
+      final long end = interval.getEndMillis();
+      // Computed with doubles, which saturate when cast back to long, since intervals may be eternity.
+      final int from = firstStartAfter((long) ((double) start - HORIZON_MILLIS - maxDurationMillis));
+      final int to = firstStartAfter((long) ((double) end + HORIZON_MILLIS));
+
+      if (to - from <= maxSamples) {
+        double cost = 0;
+        for (int i = from; i < to; i++) {
+          cost += computeCost(start, end, i);
+        }
+        return cost;
+      }
+
+      // The samples are split between the intervals starting before and after the segment, in proportion to their
+      // numbers, with at least one sample on each side if possible.
+      final int middle = Math.max(from, Math.min(to, firstStartAfter(start)));
+      final int numSamplesBefore = Math.max(
+          middle > from ? 1 : 0,
+          Math.min(middle < to ? maxSamples - 1 : maxSamples, (int) ((long) maxSamples * (middle - from) / (to - from)))
+      );
+      return computeCostAwayFromSegment(start, end, middle - 1, -1, middle - from, numSamplesBefore)
+             + computeCostAwayFromSegment(start, end, middle, 1, to - middle, maxSamples - numSamplesBefore);
+    }
+
+    /**
+     * Computes the cost of the numIntervals intervals from the given index, in the given direction, away from the
+     * segment. If there are more than maxSamples of them, the intervals are split into maxSamples blocks, whose sizes
+     * grow geometrically with their distance from the segment, so that the closest intervals, which weigh the most in
+     * the cost, are sampled the most densely. The cost of each block is extrapolated from its middle interval.
+     */
+    private double computeCostAwayFromSegment(
+        long start,
+        long end,
+        int first,
+        int step,
+        int numIntervals,
+        int maxSamples
+    )
+    {
+      double cost = 0;
+      if (numIntervals <= maxSamples) {
+        for (int offset = 0; offset < numIntervals; offset++) {
+          cost += computeCost(start, end, first + step * offset);
+        }
+        return cost;
+      }
+      if (maxSamples == 0) {
+        return 0;
+      }
+
+      final double growth = Math.pow(numIntervals, 1.0 / maxSamples);
+      double blockEndOffset = 1;
+      int blockStart = 0;
+      for (int block = 1; block <= maxSamples; block++) {
+        blockEndOffset *= growth;
+        // Each block has at least one interval, and the last one ends with the intervals.
+        final int blockEnd = block == maxSamples
+                             ? numIntervals
+                             : Math.min(
+                                 numIntervals - (maxSamples - block),
+                                 Math.max(blockStart + 1, (int) Math.round(blockEndOffset))
+                             );
+        cost += computeCost(start, end, first + step * ((blockStart + blockEnd - 1) / 2)) * (blockEnd - blockStart);
+        blockStart = blockEnd;
+      }
+      return cost;
+    }
+
+    private double computeCost(long start, long end, int index)
+    {
+      return counts[index] * CostBalancerStrategy.computeJointIntervalsCost(start, end, starts[index], ends[index]);
+    }
+
+    /**
+     * Returns the index of the first interval starting after the given millis, or the number of intervals if none.
+     */
+    private int firstStartAfter(long millis)
+    {
+      int low = 0;
+      int high = starts.length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (starts[mid] <= millis) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
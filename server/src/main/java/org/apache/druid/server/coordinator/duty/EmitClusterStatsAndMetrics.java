@@ -167,6 +167,13 @@ public class EmitClusterStatsAndMetrics implements CoordinatorDuty
         )
     );
 
+    emitter.emit(
+        new ServiceMetricEvent.Builder().build(
+            "segment/fullyReplicated/count",
+            stats.getGlobalStat(RunRules.FULLY_REPLICATED_COUNT)
+        )
+    );
+
     stats.forEachTieredStat(
         "movedCount",
         (final String tier, final long count) -> {
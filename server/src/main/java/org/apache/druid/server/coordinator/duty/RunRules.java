@@ -20,6 +20,9 @@
 package org.apache.druid.server.coordinator.duty;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import org.apache.druid.client.ImmutableDruidDataSource;
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.emitter.EmittingLogger;
@@ -29,15 +32,22 @@ import org.apache.druid.server.coordinator.DruidCluster;
 import org.apache.druid.server.coordinator.DruidCoordinator;
 import org.apache.druid.server.coordinator.DruidCoordinatorRuntimeParams;
 import org.apache.druid.server.coordinator.ReplicationThrottler;
+import org.apache.druid.server.coordinator.SegmentReplicantLookup;
 import org.apache.druid.server.coordinator.rules.BroadcastDistributionRule;
+import org.apache.druid.server.coordinator.rules.LoadRule;
 import org.apache.druid.server.coordinator.rules.Rule;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.SegmentId;
 import org.joda.time.DateTime;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 /**
  */
@@ -45,6 +55,7 @@ public class RunRules implements CoordinatorDuty
 {
   private static final EmittingLogger log = new EmittingLogger(RunRules.class);
   private static final int MAX_MISSING_RULES = 10;
+  public static final String FULLY_REPLICATED_COUNT = "fullyReplicatedCount";
 
   private final ReplicationThrottler replicatorThrottler;
 
@@ -98,47 +109,40 @@ public class RunRules implements CoordinatorDuty
         .withReplicationManager(replicatorThrottler)
         .build();
 
-    // Run through all matched rules for used segments
+    // Match the rules of the used segments, partitioned by datasource. This only reads the runtime params, so it is
+    // done in parallel if possible. Running the matched rules, which assigns and drops segments, is done afterwards in
+    // the order of the used segments.
     DateTime now = DateTimes.nowUtc();
     MetadataRuleManager databaseRuleManager = paramsWithReplicationManager.getDatabaseRuleManager();
+    final List<DataSourceRules> allDataSourceRules = matchRules(params, databaseRuleManager, overshadowed, now);
 
+    final Map<SegmentId, Rule> rulesToRun = new HashMap<>();
     final List<SegmentId> segmentsWithMissingRules = Lists.newArrayListWithCapacity(MAX_MISSING_RULES);
     int missingRules = 0;
-
     final Set<String> broadcastDatasources = new HashSet<>();
-    for (ImmutableDruidDataSource dataSource : params.getDataSourcesSnapshot().getDataSourcesMap().values()) {
-      List<Rule> rules = databaseRuleManager.getRulesWithDefault(dataSource.getName());
-      for (Rule rule : rules) {
-        // A datasource is considered a broadcast datasource if it has any broadcast rules.
-        // The set of broadcast datasources is used by BalanceSegments, so it's important that RunRules
-        // executes before BalanceSegments.
-        if (rule instanceof BroadcastDistributionRule) {
-          broadcastDatasources.add(dataSource.getName());
-          break;
+    for (DataSourceRules dataSourceRules : allDataSourceRules) {
+      // A datasource is considered a broadcast datasource if it has any broadcast rules.
+      // The set of broadcast datasources is used by BalanceSegments, so it's important that RunRules
+      // executes before BalanceSegments.
+      if (dataSourceRules.hasBroadcastRule) {
+        broadcastDatasources.add(dataSourceRules.dataSource);
+      }
+      rulesToRun.putAll(dataSourceRules.rulesToRun);
+      stats.accumulate(dataSourceRules.stats);
+      for (SegmentId segmentId : dataSourceRules.segmentsWithMissingRules) {
+        if (segmentsWithMissingRules.size() < MAX_MISSING_RULES) {
+          segmentsWithMissingRules.add(segmentId);
         }
       }
+      missingRules += dataSourceRules.missingRules;
     }
 
-    for (DataSegment segment : params.getUsedSegments()) {
-      if (overshadowed.contains(segment.getId())) {
-        // Skipping overshadowed segments
-        continue;
-      }
-      List<Rule> rules = databaseRuleManager.getRulesWithDefault(segment.getDataSource());
-      boolean foundMatchingRule = false;
-      for (Rule rule : rules) {
-        if (rule.appliesTo(segment, now)) {
+    if (!rulesToRun.isEmpty()) {
+      for (DataSegment segment : params.getUsedSegments()) {
+        final Rule rule = rulesToRun.get(segment.getId());
+        if (rule != null) {
           stats.accumulate(rule.run(coordinator, paramsWithReplicationManager, segment));
-          foundMatchingRule = true;
-          break;
-        }
-      }
-
-      if (!foundMatchingRule) {
-        if (segmentsWithMissingRules.size() < MAX_MISSING_RULES) {
-          segmentsWithMissingRules.add(segment.getId());
         }
-        missingRules++;
       }
     }
 
@@ -154,4 +158,110 @@ public class RunRules implements CoordinatorDuty
                  .withBroadcastDatasources(broadcastDatasources)
                  .build();
   }
+
+  private static List<DataSourceRules> matchRules(
+      DruidCoordinatorRuntimeParams params,
+      MetadataRuleManager databaseRuleManager,
+      Set<SegmentId> overshadowed,
+      DateTime now
+  )
+  {
+    final Collection<ImmutableDruidDataSource> dataSources =
+        params.getDataSourcesSnapshot().getDataSourcesMap().values();
+    final SegmentReplicantLookup segmentReplicantLookup = params.getSegmentReplicantLookup();
+    final ListeningExecutorService exec = params.getComputeExec();
+
+    if (exec == null) {
+      final List<DataSourceRules> allDataSourceRules = new ArrayList<>(dataSources.size());
+      for (ImmutableDruidDataSource dataSource : dataSources) {
+        allDataSourceRules.add(
+            matchRules(dataSource, databaseRuleManager, segmentReplicantLookup, overshadowed, now)
+        );
+      }
+      return allDataSourceRules;
+    }
+
+    final List<ListenableFuture<DataSourceRules>> futures = new ArrayList<>(dataSources.size());
+    for (ImmutableDruidDataSource dataSource : dataSources) {
+      futures.add(
+          exec.submit(() -> matchRules(dataSource, databaseRuleManager, segmentReplicantLookup, overshadowed, now))
+      );
+    }
+    try {
+      return Futures.allAsList(futures).get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static DataSourceRules matchRules(
+      ImmutableDruidDataSource dataSource,
+      MetadataRuleManager databaseRuleManager,
+      SegmentReplicantLookup segmentReplicantLookup,
+      Set<SegmentId> overshadowed,
+      DateTime now
+  )
+  {
+    final List<Rule> rules = databaseRuleManager.getRulesWithDefault(dataSource.getName());
+    final DataSourceRules dataSourceRules = new DataSourceRules(dataSource.getName());
+    for (Rule rule : rules) {
+      if (rule instanceof BroadcastDistributionRule) {
+        dataSourceRules.hasBroadcastRule = true;
+        break;
+      }
+    }
+
+    for (DataSegment segment : dataSource.getSegments()) {
+      if (overshadowed.contains(segment.getId())) {
+        // Skipping overshadowed segments
+        continue;
+      }
+      Rule matchingRule = null;
+      for (Rule rule : rules) {
+        if (rule.appliesTo(segment, now)) {
+          matchingRule = rule;
+          break;
+        }
+      }
+
+      if (matchingRule == null) {
+        if (dataSourceRules.segmentsWithMissingRules.size() < MAX_MISSING_RULES) {
+          dataSourceRules.segmentsWithMissingRules.add(segment.getId());
+        }
+        dataSourceRules.missingRules++;
+      } else if (matchingRule instanceof LoadRule
+                 && ((LoadRule) matchingRule).isFullyReplicated(segmentReplicantLookup, segment)) {
+        // Running the rule would neither load nor drop anything, which is the case of most segments in a stable
+        // cluster. Skipping it avoids computing the candidate servers of the segment in each tier.
+        ((LoadRule) matchingRule).addFullyReplicatedStats(segment, dataSourceRules.stats);
+        dataSourceRules.stats.addToGlobalStat(FULLY_REPLICATED_COUNT, 1);
+      } else {
+        dataSourceRules.rulesToRun.put(segment.getId(), matchingRule);
+      }
+    }
+    return dataSourceRules;
+  }
+
+  /**
+   * The rules matched by the used segments of a datasource, and the stats of the segments whose rule needs not run.
+   */
+  private static class DataSourceRules
+  {
+    private final String dataSource;
+    private final Map<SegmentId, Rule> rulesToRun = new HashMap<>();
+    private final CoordinatorStats stats = new CoordinatorStats();
+    private final List<SegmentId> segmentsWithMissingRules = new ArrayList<>();
+    private int missingRules = 0;
+    private boolean hasBroadcastRule = false;
+
+    private DataSourceRules(String dataSource)
+    {
+      this.dataSource = dataSource;
+    }
+  }
 }
@@ -119,6 +119,41 @@ public abstract class LoadRule implements Rule
     });
   }
 
+  /**
+   * Returns true if the segment has exactly the target number of replicants loaded in each tier, and no replicant
+   * loading or loaded in other tiers, so that {@link #run} would neither load nor drop any replicant of it. Unlike
+   * {@link #run}, this method doesn't use the state of this rule, so it may be called concurrently.
+   */
+  public boolean isFullyReplicated(SegmentReplicantLookup segmentReplicantLookup, DataSegment segment)
+  {
+    int totalTargetReplicants = 0;
+    for (Map.Entry<String, Integer> entry : getTieredReplicants().entrySet()) {
+      final int targetReplicantsInTier = entry.getValue();
+      if (targetReplicantsInTier > 0) {
+        if (segmentReplicantLookup.getLoadedReplicants(segment.getId(), entry.getKey()) != targetReplicantsInTier) {
+          return false;
+        }
+        totalTargetReplicants += targetReplicantsInTier;
+      }
+    }
+    return totalTargetReplicants > 0
+           && segmentReplicantLookup.getTotalReplicants(segment.getId()) == totalTargetReplicants;
+  }
+
+  /**
+   * Adds to the given stats the ones {@link #run} returns for a segment which {@link #isFullyReplicated}.
+   */
+  public void addFullyReplicatedStats(DataSegment segment, CoordinatorStats stats)
+  {
+    getTieredReplicants().forEach((final String tier, final Integer ruleReplicants) -> {
+      stats.addToTieredStat(ASSIGNED_COUNT, tier, 0);
+      if (ruleReplicants > 0) {
+        stats.addToTieredStat(DROPPED_COUNT, tier, 0);
+      }
+      stats.addToTieredStat(REQUIRED_CAPACITY, tier, segment.getSize() * ruleReplicants);
+    });
+  }
+
   /**
    * @param stats {@link CoordinatorStats} to accumulate assignment statistics.
    */
@@ -21,27 +21,35 @@ package org.apache.druid.server.http;
 
 import com.google.common.collect.ImmutableMap;
 import com.sun.jersey.spi.container.ResourceFilters;
+import org.apache.druid.server.SegmentManager;
 import org.apache.druid.server.coordination.SegmentLoadDropHandler;
 import org.apache.druid.server.http.security.StateResourceFilter;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.Map;
 
 @Path("/druid/historical/v1")
 public class HistoricalResource
 {
   private final SegmentLoadDropHandler segmentLoadDropHandler;
+  private final SegmentManager segmentManager;
 
   @Inject
   public HistoricalResource(
-      SegmentLoadDropHandler segmentLoadDropHandler
+      SegmentLoadDropHandler segmentLoadDropHandler,
+      SegmentManager segmentManager
   )
   {
     this.segmentLoadDropHandler = segmentLoadDropHandler;
+    this.segmentManager = segmentManager;
   }
 
   @GET
@@ -50,17 +58,37 @@ public class HistoricalResource
   @Produces(MediaType.APPLICATION_JSON)
   public Response getLoadStatus()
   {
-    return Response.ok(ImmutableMap.of("cacheInitialized", segmentLoadDropHandler.isStarted())).build();
+    return Response.ok(
+        ImmutableMap.of(
+            "cacheInitialized",
+            segmentLoadDropHandler.isCacheInitialized(),
+            "bootstrap",
+            segmentLoadDropHandler.getBootstrapProgress()
+        )
+    ).build();
   }
 
   @GET
   @Path("/readiness")
   public Response getReadiness()
   {
-    if (segmentLoadDropHandler.isStarted()) {
+    if (segmentLoadDropHandler.isCacheInitialized()) {
       return Response.ok().build();
     } else {
       return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
     }
   }
+
+  @GET
+  @Path("/columnAccess")
+  @ResourceFilters(StateResourceFilter.class)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getColumnAccessCounts(@QueryParam("dataSource") @Nullable String dataSource)
+  {
+    final Map<String, Map<String, Long>> columnAccessCounts = segmentManager.getColumnAccessCounts();
+    if (dataSource == null) {
+      return Response.ok(columnAccessCounts).build();
+    }
+    return Response.ok(columnAccessCounts.getOrDefault(dataSource, Collections.emptyMap())).build();
+  }
 }
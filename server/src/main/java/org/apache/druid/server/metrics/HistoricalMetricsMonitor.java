@@ -28,6 +28,7 @@ import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
 import org.apache.druid.java.util.metrics.AbstractMonitor;
 import org.apache.druid.query.DruidMetrics;
 import org.apache.druid.server.SegmentManager;
+import org.apache.druid.server.coordination.SegmentBootstrapProgress;
 import org.apache.druid.server.coordination.SegmentLoadDropHandler;
 import org.apache.druid.timeline.DataSegment;
 
@@ -56,6 +57,20 @@ public class HistoricalMetricsMonitor extends AbstractMonitor
   {
     emitter.emit(new ServiceMetricEvent.Builder().build("segment/max", serverConfig.getMaxSize()));
 
+    final SegmentBootstrapProgress bootstrapProgress = segmentLoadDropMgr.getBootstrapProgress();
+    if (!bootstrapProgress.isDone()) {
+      final ServiceMetricEvent.Builder builder =
+          new ServiceMetricEvent.Builder().setDimension("tier", serverConfig.getTier())
+                                          .setDimension("priority", String.valueOf(serverConfig.getPriority()));
+      emitter.emit(builder.build("segment/bootstrap/loaded", bootstrapProgress.getNumSegmentsLoaded()));
+      emitter.emit(builder.build("segment/bootstrap/failed", bootstrapProgress.getNumSegmentsFailed()));
+      emitter.emit(builder.build("segment/bootstrap/pending", bootstrapProgress.getNumSegmentsPending()));
+      final Long estimatedRemainingMillis = bootstrapProgress.getEstimatedRemainingMillis();
+      if (estimatedRemainingMillis != null) {
+        emitter.emit(builder.build("segment/bootstrap/eta", estimatedRemainingMillis));
+      }
+    }
+
     final Object2LongOpenHashMap<String> pendingDeleteSizes = new Object2LongOpenHashMap<>();
 
     for (DataSegment segment : segmentLoadDropMgr.getPendingDeleteSnapshot()) {
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.server.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.java.util.metrics.AbstractMonitor;
+import org.apache.druid.java.util.metrics.KeyedDiff;
+import org.apache.druid.server.QueryCostLimiter;
+import org.apache.druid.server.QueryScheduler;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the estimated cost of the queries admitted in each lane of the {@link QueryScheduler}, and the time they
+ * waited to be admitted, if the laning strategy weights queries by cost.
+ */
+public class QuerySchedulerStatsMonitor extends AbstractMonitor
+{
+  private final KeyedDiff keyedDiff = new KeyedDiff();
+  private final QueryScheduler scheduler;
+
+  @Inject
+  public QuerySchedulerStatsMonitor(QueryScheduler scheduler)
+  {
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public boolean doMonitor(ServiceEmitter emitter)
+  {
+    for (QueryCostLimiter limiter : scheduler.getCostLimiters()) {
+      final ServiceMetricEvent.Builder builder = new ServiceMetricEvent.Builder();
+      builder.setDimension("lane", limiter.getLane());
+      final Map<String, Long> diff = keyedDiff.to(
+          limiter.getLane(),
+          ImmutableMap.of(
+              "query/scheduler/admitted/count", limiter.getAdmittedCount(),
+              "query/scheduler/admitted/cost", limiter.getAdmittedCost(),
+              "query/scheduler/wait/time", TimeUnit.NANOSECONDS.toMillis(limiter.getWaitTimeNs())
+          )
+      );
+      if (diff != null) {
+        for (Map.Entry<String, Long> diffEntry : diff.entrySet()) {
+          emitter.emit(builder.build(diffEntry.getKey(), diffEntry.getValue()));
+        }
+      }
+      emitter.emit(builder.build("query/scheduler/cost/available", limiter.getAvailableCapacity()));
+    }
+    return true;
+  }
+}
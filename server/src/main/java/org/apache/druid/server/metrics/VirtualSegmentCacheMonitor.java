@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.metrics;
+
+import com.google.inject.Inject;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.java.util.metrics.AbstractMonitor;
+import org.apache.druid.segment.loading.VirtualSegmentStats;
+
+/**
+ * Emits the statistics of the segments loaded on demand by historicals in virtual storage mode.
+ */
+public class VirtualSegmentCacheMonitor extends AbstractMonitor
+{
+  private final VirtualSegmentStats stats;
+  private volatile VirtualSegmentStats.Snapshot prevSnapshot = null;
+
+  @Inject
+  public VirtualSegmentCacheMonitor(VirtualSegmentStats stats)
+  {
+    this.stats = stats;
+  }
+
+  @Override
+  public boolean doMonitor(ServiceEmitter emitter)
+  {
+    final VirtualSegmentStats.Snapshot snapshot = stats.snapshot();
+    final VirtualSegmentStats.Snapshot delta = snapshot.delta(prevSnapshot);
+    prevSnapshot = snapshot;
+
+    final ServiceMetricEvent.Builder builder = new ServiceMetricEvent.Builder();
+    emitter.emit(builder.build("segment/virtual/hits", delta.getNumHits()));
+    emitter.emit(builder.build("segment/virtual/misses", delta.getNumMisses()));
+    emitter.emit(builder.build("segment/virtual/hitRate", delta.hitRate()));
+    emitter.emit(builder.build("segment/virtual/fetch/time", delta.averageFetchTimeMillis()));
+    emitter.emit(builder.build("segment/virtual/fetch/bytes", delta.getFetchedBytes()));
+    emitter.emit(builder.build("segment/virtual/evictions", delta.getNumEvictions()));
+    emitter.emit(builder.build("segment/virtual/evicted/bytes", delta.getEvictedBytes()));
+    return true;
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.server.scheduling;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import org.apache.druid.client.SegmentServerSelector;
+import org.apache.druid.client.selector.ServerSelector;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.server.QueryLaningStrategy;
+import org.apache.druid.server.QueryScheduler;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Query laning strategy which weights queries by an estimate of their cost, computed from the number and size of the
+ * segments they scan, the length of their intervals and their type, and limits the total cost of the queries running
+ * concurrently rather than only their number. Queries whose cost is at least {@code expensiveCostThreshold} are
+ * associated into an 'expensive' lane, with a lower cost capacity, so that a few expensive queries cannot take all of
+ * the capacity from cheap interactive queries.
+ */
+public class CostBasedQueryLaningStrategy implements QueryLaningStrategy
+{
+  public static final String EXPENSIVE = "expensive";
+
+  private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+  private static final long MILLIS_PER_HOUR = 3600 * 1000;
+
+  private static final int DEFAULT_MAX_EXPENSIVE_COST_PERCENT = 50;
+  private static final double DEFAULT_COST_PER_SEGMENT = 1;
+  private static final double DEFAULT_COST_PER_MEGABYTE = 0.01;
+  private static final double DEFAULT_COST_PER_HOUR = 0;
+
+  @JsonProperty
+  private final long maxTotalCost;
+
+  @Nullable
+  @JsonProperty
+  private final Long expensiveCostThreshold;
+
+  @JsonProperty
+  private final int maxExpensiveCostPercent;
+
+  @JsonProperty
+  private final long maxWaitMillis;
+
+  @JsonProperty
+  private final double costPerSegment;
+
+  @JsonProperty
+  private final double costPerMegabyte;
+
+  @JsonProperty
+  private final double costPerHour;
+
+  @JsonProperty
+  private final Map<String, Double> queryTypeWeights;
+
+  @JsonCreator
+  public CostBasedQueryLaningStrategy(
+      @JsonProperty("maxTotalCost") Long maxTotalCost,
+      @JsonProperty("expensiveCostThreshold") @Nullable Long expensiveCostThreshold,
+      @JsonProperty("maxExpensiveCostPercent") @Nullable Integer maxExpensiveCostPercent,
+      @JsonProperty("maxWaitMillis") @Nullable Long maxWaitMillis,
+      @JsonProperty("costPerSegment") @Nullable Double costPerSegment,
+      @JsonProperty("costPerMegabyte") @Nullable Double costPerMegabyte,
+      @JsonProperty("costPerHour") @Nullable Double costPerHour,
+      @JsonProperty("queryTypeWeights") @Nullable Map<String, Double> queryTypeWeights
+  )
+  {
+    this.maxTotalCost = Preconditions.checkNotNull(maxTotalCost, "maxTotalCost must be set");
+    Preconditions.checkArgument(maxTotalCost > 0, "maxTotalCost must be greater than 0");
+    this.expensiveCostThreshold = expensiveCostThreshold;
+    Preconditions.checkArgument(
+        expensiveCostThreshold == null || expensiveCostThreshold > 0,
+        "expensiveCostThreshold must be greater than 0"
+    );
+    this.maxExpensiveCostPercent = maxExpensiveCostPercent == null
+                                   ? DEFAULT_MAX_EXPENSIVE_COST_PERCENT
+                                   : maxExpensiveCostPercent;
+    Preconditions.checkArgument(
+        0 < this.maxExpensiveCostPercent && this.maxExpensiveCostPercent <= 100,
+        "maxExpensiveCostPercent must be in the range 1 to 100"
+    );
+    this.maxWaitMillis = maxWaitMillis == null ? 0 : maxWaitMillis;
+    Preconditions.checkArgument(this.maxWaitMillis >= 0, "maxWaitMillis must not be negative");
+    this.costPerSegment = costPerSegment == null ? DEFAULT_COST_PER_SEGMENT : costPerSegment;
+    this.costPerMegabyte = costPerMegabyte == null ? DEFAULT_COST_PER_MEGABYTE : costPerMegabyte;
+    this.costPerHour = costPerHour == null ? DEFAULT_COST_PER_HOUR : costPerHour;
+    this.queryTypeWeights = queryTypeWeights == null ? ImmutableMap.of() : queryTypeWeights;
+    Preconditions.checkArgument(
+        this.costPerSegment >= 0 && this.costPerMegabyte >= 0 && this.costPerHour >= 0,
+        "costPerSegment, costPerMegabyte and costPerHour must not be negative"
+    );
+    Preconditions.checkArgument(
+        this.queryTypeWeights.values().stream().allMatch(weight -> weight != null && weight > 0),
+        "All query type weights must be greater than 0"
+    );
+  }
+
+  @Override
+  public Object2IntMap<String> getLaneLimits(int totalLimit)
+  {
+    return Object2IntMaps.emptyMap();
+  }
+
+  @Override
+  public Object2LongMap<String> getLaneCostLimits()
+  {
+    Object2LongMap<String> limits = new Object2LongArrayMap<>(2);
+    limits.put(QueryScheduler.TOTAL, maxTotalCost);
+    if (expensiveCostThreshold != null) {
+      limits.put(EXPENSIVE, Math.max(1, (long) Math.ceil(maxTotalCost * (maxExpensiveCostPercent / 100.0))));
+    }
+    return limits;
+  }
+
+  @Override
+  public long getMaxCostWaitMillis()
+  {
+    return maxWaitMillis;
+  }
+
+  /**
+   * The cost of a query is the sum of the costs of its segments, of the bytes of its segments and of the hours of its
+   * intervals, multiplied by the weight of its query type, and at least 1.
+   */
+  @Override
+  public <T> long computeCost(QueryPlus<T> query, Set<SegmentServerSelector> segments)
+  {
+    final Query<T> theQuery = query.getQuery();
+    long bytes = 0;
+    for (SegmentServerSelector segment : segments) {
+      final ServerSelector server = segment.getServer();
+      if (server != null) {
+        bytes += server.getSegment().getSize();
+      }
+    }
+    long intervalMillis = 0;
+    for (Interval interval : theQuery.getIntervals()) {
+      intervalMillis += interval.toDurationMillis();
+    }
+    final double cost = segments.size() * costPerSegment
+                        + ((double) bytes / BYTES_PER_MEGABYTE) * costPerMegabyte
+                        + ((double) intervalMillis / MILLIS_PER_HOUR) * costPerHour;
+    final double weight = queryTypeWeights.getOrDefault(theQuery.getType(), 1.0);
+    // saturates at Long.MAX_VALUE for queries on eternity with a cost per hour
+    return Math.max(1, (long) Math.ceil(cost * weight));
+  }
+
+  @Override
+  public <T> Optional<String> computeLane(QueryPlus<T> query, Set<SegmentServerSelector> segments)
+  {
+    final Query<T> theQuery = query.getQuery();
+    final String lane = theQuery.getContextValue(QueryContexts.LANE_KEY);
+    if (lane == null && expensiveCostThreshold != null
+        && QueryScheduler.getQueryCost(theQuery) >= expensiveCostThreshold) {
+      return Optional.of(EXPENSIVE);
+    }
+    return Optional.ofNullable(lane);
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.druid.client;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -34,6 +35,7 @@ import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.http.client.HttpClient;
 import org.apache.druid.java.util.http.client.Request;
+import org.apache.druid.java.util.http.client.response.ClientResponse;
 import org.apache.druid.java.util.http.client.response.HttpResponseHandler;
 import org.apache.druid.java.util.http.client.response.StatusResponseHolder;
 import org.apache.druid.query.Druids;
@@ -43,15 +45,23 @@ import org.apache.druid.query.QueryRunnerTestHelper;
 import org.apache.druid.query.QueryTimeoutException;
 import org.apache.druid.query.ReflectionQueryToolChestWarehouse;
 import org.apache.druid.query.Result;
+import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.query.timeboundary.TimeBoundaryQuery;
+import org.apache.druid.server.QueryResource;
 import org.apache.druid.server.coordination.ServerType;
 import org.apache.druid.server.metrics.NoopServiceEmitter;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.partition.NoneShardSpec;
 import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.http.DefaultHttpChunk;
+import org.jboss.netty.handler.codec.http.DefaultHttpResponse;
 import org.jboss.netty.handler.codec.http.HttpMethod;
+import org.jboss.netty.handler.codec.http.HttpResponse;
 import org.jboss.netty.handler.codec.http.HttpResponseStatus;
+import org.jboss.netty.handler.codec.http.HttpVersion;
 import org.jboss.netty.handler.timeout.ReadTimeoutException;
 import org.joda.time.Duration;
 import org.junit.Assert;
@@ -64,9 +74,11 @@ import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DirectDruidClientTest
 {
@@ -413,4 +425,239 @@ public class DirectDruidClientTest
     Assert.assertEquals(hostName, actualException.getHost());
     EasyMock.verify(httpClient);
   }
+
+  @Test
+  public void testQueuedBytesBudget() throws Exception
+  {
+    final QueuedBytesBudget budget = new QueuedBytesBudget(10);
+    final DirectDruidClient budgetedClient = new DirectDruidClient(
+        new ReflectionQueryToolChestWarehouse(),
+        QueryRunnerTestHelper.NOOP_QUERYWATCHER,
+        new DefaultObjectMapper(),
+        httpClient,
+        "http",
+        hostName,
+        new NoopServiceEmitter(),
+        budget
+    );
+
+    final Capture<HttpResponseHandler> capturedHandler = EasyMock.newCapture();
+    EasyMock.expect(
+        httpClient.go(
+            EasyMock.anyObject(Request.class),
+            EasyMock.capture(capturedHandler),
+            EasyMock.anyObject(Duration.class)
+        )
+    ).andReturn(SettableFuture.create()).once();
+    EasyMock.replay(httpClient);
+
+    TimeBoundaryQuery query = Druids.newTimeBoundaryQueryBuilder().dataSource("test").build();
+    query = query.withOverriddenContext(ImmutableMap.of(DirectDruidClient.QUERY_FAIL_TIME, Long.MAX_VALUE));
+    final ResponseContext context = DirectDruidClient.makeResponseContextForQuery();
+    budgetedClient.run(QueryPlus.wrap(query), context);
+
+    final List<Long> resumedChunks = new ArrayList<>();
+    final HttpResponseHandler.TrafficCop trafficCop = chunkNum -> {
+      resumedChunks.add(chunkNum);
+      return 1000L;
+    };
+    final HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    response.setContent(ChannelBuffers.wrappedBuffer(new byte[4]));
+
+    final HttpResponseHandler<InputStream, InputStream> handler = capturedHandler.getValue();
+    final ClientResponse<InputStream> clientResponse = handler.handleResponse(response, trafficCop);
+    Assert.assertTrue(clientResponse.isContinueReading());
+
+    // Over the budget: reads are suspended until the queued chunk is consumed.
+    final ClientResponse<InputStream> chunkResponse = handler.handleChunk(
+        clientResponse,
+        new DefaultHttpChunk(ChannelBuffers.wrappedBuffer(new byte[16])),
+        1
+    );
+    Assert.assertFalse(chunkResponse.isContinueReading());
+    Assert.assertEquals(16, budget.getQueuedBytes());
+
+    final InputStream stream = clientResponse.getObj();
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(0, stream.read());
+    }
+    Assert.assertEquals(0, budget.getQueuedBytes());
+    Assert.assertEquals(ImmutableList.of(0L, 1L), resumedChunks);
+    Assert.assertEquals(
+        2000L,
+        ((AtomicLong) context.get(ResponseContext.Key.QUERY_BACK_PRESSURE_NANOS)).get()
+    );
+
+    // Bytes queued when the response fails are given back to the budget.
+    handler.handleChunk(clientResponse, new DefaultHttpChunk(ChannelBuffers.wrappedBuffer(new byte[16])), 2);
+    Assert.assertEquals(16, budget.getQueuedBytes());
+    handler.exceptionCaught(clientResponse, new ReadTimeoutException());
+    Assert.assertEquals(0, budget.getQueuedBytes());
+    EasyMock.verify(httpClient);
+    budget.stop();
+  }
+
+  @Test(timeout = 60_000L)
+  public void testQueuedBytesReleasedWhenResponseNotConsumed() throws Exception
+  {
+    final QueuedBytesBudget budget = new QueuedBytesBudget(10);
+    final DirectDruidClient budgetedClient = new DirectDruidClient(
+        new ReflectionQueryToolChestWarehouse(),
+        QueryRunnerTestHelper.NOOP_QUERYWATCHER,
+        new DefaultObjectMapper(),
+        httpClient,
+        "http",
+        hostName,
+        new NoopServiceEmitter(),
+        budget
+    );
+
+    final Capture<HttpResponseHandler> capturedHandler = EasyMock.newCapture(CaptureType.ALL);
+    EasyMock.expect(
+        httpClient.go(
+            EasyMock.anyObject(Request.class),
+            EasyMock.capture(capturedHandler),
+            EasyMock.anyObject(Duration.class)
+        )
+    ).andReturn(SettableFuture.create()).times(2);
+    EasyMock.replay(httpClient);
+
+    final TimeBoundaryQuery query = Druids.newTimeBoundaryQueryBuilder().dataSource("test").build();
+
+    // A response received in full, and closed after reading a part of it.
+    budgetedClient.run(
+        QueryPlus.wrap(query.withOverriddenContext(ImmutableMap.of(DirectDruidClient.QUERY_FAIL_TIME, Long.MAX_VALUE))),
+        DirectDruidClient.makeResponseContextForQuery()
+    );
+    final HttpResponseHandler<InputStream, InputStream> closedHandler = capturedHandler.getValues().get(0);
+    final ClientResponse<InputStream> closedResponse = closedHandler.handleResponse(makeResponse(4), chunkNum -> 0L);
+    closedHandler.handleChunk(closedResponse, new DefaultHttpChunk(ChannelBuffers.wrappedBuffer(new byte[16])), 1);
+    closedHandler.done(closedResponse);
+    Assert.assertEquals(20, budget.getQueuedBytes());
+    Assert.assertEquals(0, closedResponse.getObj().read());
+    closedResponse.getObj().close();
+    Assert.assertEquals(0, budget.getQueuedBytes());
+
+    // A response received in full, and never consumed, until its query times out.
+    budgetedClient.run(
+        QueryPlus.wrap(
+            query.withOverriddenContext(
+                ImmutableMap.of(DirectDruidClient.QUERY_FAIL_TIME, System.currentTimeMillis() + 500)
+            )
+        ),
+        DirectDruidClient.makeResponseContextForQuery()
+    );
+    final HttpResponseHandler<InputStream, InputStream> handler = capturedHandler.getValues().get(1);
+    final ClientResponse<InputStream> clientResponse = handler.handleResponse(makeResponse(4), chunkNum -> 0L);
+    handler.handleChunk(clientResponse, new DefaultHttpChunk(ChannelBuffers.wrappedBuffer(new byte[16])), 1);
+    handler.done(clientResponse);
+    Assert.assertEquals(20, budget.getQueuedBytes());
+    while (budget.getQueuedBytes() != 0) {
+      Thread.sleep(10);
+    }
+    EasyMock.verify(httpClient);
+    budget.stop();
+  }
+
+  @Test
+  public void testQueueTimeReportedByServer()
+  {
+    final Capture<HttpResponseHandler> capturedHandler = EasyMock.newCapture();
+    EasyMock.expect(
+        httpClient.go(
+            EasyMock.anyObject(Request.class),
+            EasyMock.capture(capturedHandler),
+            EasyMock.anyObject(Duration.class)
+        )
+    ).andReturn(SettableFuture.create()).once();
+    EasyMock.replay(httpClient);
+
+    TimeBoundaryQuery query = Druids.newTimeBoundaryQueryBuilder().dataSource("test").build();
+    query = query.withOverriddenContext(ImmutableMap.of(DirectDruidClient.QUERY_FAIL_TIME, Long.MAX_VALUE));
+    final ResponseContext context = DirectDruidClient.makeResponseContextForQuery();
+    client.run(QueryPlus.wrap(query), context);
+
+    final HttpResponse response = makeResponse(4);
+    response.headers().add(QueryResource.HEADER_RESPONSE_CONTEXT, "{\"queryWaitNanos\": 5000000}");
+    capturedHandler.getValue().handleResponse(response, chunkNum -> 0L);
+
+    Assert.assertEquals(5_000_000, client.getLatencyStats().getAverageQueueTimeNs(), 0);
+    Assert.assertNull(context.get(ResponseContext.Key.QUERY_WAIT_NANOS));
+    EasyMock.verify(httpClient);
+  }
+
+  @Test
+  public void testHedgedRequest() throws Exception
+  {
+    final SettableFuture<InputStream> primaryFuture = SettableFuture.create();
+    final SettableFuture<InputStream> hedgeFuture = SettableFuture.create();
+    final Capture<Request> capturedRequest = EasyMock.newCapture(CaptureType.ALL);
+    final Capture<HttpResponseHandler> capturedHandler = EasyMock.newCapture(CaptureType.ALL);
+    EasyMock.expect(
+        httpClient.go(
+            EasyMock.capture(capturedRequest),
+            EasyMock.capture(capturedHandler),
+            EasyMock.anyObject(Duration.class)
+        )
+    ).andReturn(primaryFuture).once().andReturn(hedgeFuture).once();
+    // Cancellation of the query sent to the primary server.
+    EasyMock.expect(
+        httpClient.go(
+            EasyMock.anyObject(Request.class),
+            EasyMock.anyObject(HttpResponseHandler.class),
+            EasyMock.anyObject(Duration.class)
+        )
+    ).andReturn(SettableFuture.create()).anyTimes();
+    EasyMock.replay(httpClient);
+
+    final DirectDruidClient hedgeClient = new DirectDruidClient(
+        new ReflectionQueryToolChestWarehouse(),
+        QueryRunnerTestHelper.NOOP_QUERYWATCHER,
+        new DefaultObjectMapper(),
+        httpClient,
+        "http",
+        "foo2",
+        new NoopServiceEmitter()
+    );
+
+    TimeBoundaryQuery query = Druids.newTimeBoundaryQueryBuilder().dataSource("test").build();
+    query = query.withOverriddenContext(
+        ImmutableMap.of(DirectDruidClient.QUERY_FAIL_TIME, Long.MAX_VALUE, "queryId", "hedged")
+    );
+    final Sequence results = client.withHedge(hedgeClient, 10)
+                                   .run(QueryPlus.wrap(query), DirectDruidClient.makeResponseContextForQuery());
+
+    final long waitUntil = System.currentTimeMillis() + 10_000;
+    while (capturedHandler.getValues().size() < 2 && System.currentTimeMillis() < waitUntil) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(2, capturedHandler.getValues().size());
+    Assert.assertTrue(
+        capturedRequest.getValues().get(1).getContent().toString(StandardCharsets.UTF_8).contains("hedged-hedge-")
+    );
+
+    // The hedge server answers first.
+    final HttpResponseHandler<InputStream, InputStream> hedgeHandler = capturedHandler.getValues().get(1);
+    final HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    response.setContent(ChannelBuffers.wrappedBuffer(StringUtils.toUtf8("[]")));
+    final ClientResponse<InputStream> hedgeResponse = hedgeHandler.handleResponse(response, chunkNum -> 0);
+    hedgeHandler.done(hedgeResponse);
+    hedgeFuture.set(hedgeResponse.getObj());
+
+    Assert.assertTrue(primaryFuture.isCancelled());
+    Assert.assertTrue(results.toList().isEmpty());
+
+    // The response of the primary server is dropped.
+    final HttpResponseHandler<InputStream, InputStream> primaryHandler = capturedHandler.getValues().get(0);
+    final HttpResponse lateResponse = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    lateResponse.setContent(ChannelBuffers.wrappedBuffer(StringUtils.toUtf8("[]")));
+    Assert.assertEquals(-1, primaryHandler.handleResponse(lateResponse, chunkNum -> 0).getObj().read());
+  }
+
+  private static HttpResponse makeResponse(int numBytes)
+  {
+    final HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    response.setContent(ChannelBuffers.wrappedBuffer(new byte[numBytes]));
+    return response;
+  }
 }
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class QueuedBytesBudgetTest
+{
+  @Test(timeout = 60_000L)
+  public void testReleaseTimedOutResponses() throws InterruptedException
+  {
+    final QueuedBytesBudget budget = new QueuedBytesBudget(10);
+    try {
+      final CountDownLatch timedOutReleased = new CountDownLatch(1);
+      final AtomicBoolean unregisteredReleased = new AtomicBoolean(false);
+      final AtomicBoolean pendingReleased = new AtomicBoolean(false);
+
+      final Runnable unregistered = () -> unregisteredReleased.set(true);
+      budget.registerRelease(unregistered, 0);
+      budget.unregisterRelease(unregistered);
+      budget.registerRelease(() -> pendingReleased.set(true), Long.MAX_VALUE);
+      budget.registerRelease(timedOutReleased::countDown, System.currentTimeMillis());
+
+      Assert.assertTrue(timedOutReleased.await(10, TimeUnit.SECONDS));
+      Assert.assertFalse(unregisteredReleased.get());
+      Assert.assertFalse(pendingReleased.get());
+    }
+    finally {
+      budget.stop();
+    }
+  }
+
+  @Test
+  public void testUnlimited()
+  {
+    final QueuedBytesBudget budget = QueuedBytesBudget.unlimited();
+    Assert.assertFalse(budget.isLimited());
+    Assert.assertTrue(budget.reserve(Long.MAX_VALUE));
+    Assert.assertEquals(0, budget.getQueuedBytes());
+  }
+}
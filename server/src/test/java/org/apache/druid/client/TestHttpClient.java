@@ -55,6 +55,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An HTTP client for testing which emulates querying data nodes (historicals or realtime tasks).
@@ -65,6 +66,7 @@ public class TestHttpClient implements HttpClient
   private static final int RESPONSE_CTX_HEADER_LEN_LIMIT = 7 * 1024;
 
   private final Map<URL, SimpleServerManager> servers = new HashMap<>();
+  private final Map<URL, Integer> numQueries = new ConcurrentHashMap<>();
   private final ObjectMapper objectMapper;
 
   public TestHttpClient(ObjectMapper objectMapper)
@@ -88,6 +90,14 @@ public class TestHttpClient implements HttpClient
     return servers;
   }
 
+  /**
+   * Returns the number of queries sent to the given server.
+   */
+  public int getNumQueries(DruidServer server)
+  {
+    return numQueries.getOrDefault(computeUrl(server), 0);
+  }
+
   private static URL computeUrl(DruidServer server)
   {
     try {
@@ -116,6 +126,7 @@ public class TestHttpClient implements HttpClient
   {
     try {
       final Query query = objectMapper.readValue(request.getContent().array(), Query.class);
+      numQueries.merge(request.getUrl(), 1, Integer::sum);
       final QueryRunner queryRunner = servers.get(request.getUrl()).getQueryRunner();
       if (queryRunner == null) {
         throw new ISE("Can't find queryRunner for url[%s]", request.getUrl());
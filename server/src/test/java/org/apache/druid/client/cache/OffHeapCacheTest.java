@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+import org.apache.druid.guice.GuiceInjectors;
+import org.apache.druid.guice.JsonConfigProvider;
+import org.apache.druid.initialization.Initialization;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.server.metrics.NoopServiceEmitter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+public class OffHeapCacheTest
+{
+  private static final int BLOCK_SIZE = 64;
+
+  @Test
+  public void testSimpleInjection() throws IOException
+  {
+    final String uuid = UUID.randomUUID().toString();
+    System.setProperty(uuid + ".type", "offheap");
+    System.setProperty(uuid + ".compression", "zstd");
+    final Injector injector = Initialization.makeInjectorWithModules(
+        GuiceInjectors.makeStartupInjector(), ImmutableList.of(
+            binder -> {
+              binder.bindConstant().annotatedWith(Names.named("serviceName")).to("druid/test/redis");
+              binder.bindConstant().annotatedWith(Names.named("servicePort")).to(0);
+              binder.bindConstant().annotatedWith(Names.named("tlsServicePort")).to(-1);
+
+              binder.bind(Cache.class).toProvider(CacheProvider.class);
+              JsonConfigProvider.bind(binder, uuid, CacheProvider.class);
+            }
+        )
+    );
+    final CacheProvider cacheProvider = injector.getInstance(CacheProvider.class);
+    Assert.assertEquals(OffHeapCacheProvider.class, cacheProvider.getClass());
+    Assert.assertEquals("zstd", ((OffHeapCacheConfig) cacheProvider).getCompression());
+
+    final Cache cache = cacheProvider.get();
+    Assert.assertEquals(OffHeapCache.class, cache.getClass());
+    cache.close();
+  }
+
+  @Test
+  public void testBaseOps()
+  {
+    for (String compression : new String[]{"none", "lz4", "zstd"}) {
+      final OffHeapCache cache = new OffHeapCache(makeConfig(compression, true), 100 * BLOCK_SIZE);
+
+      final Cache.NamedKey aKey = new Cache.NamedKey("a", Ints.toByteArray(1));
+      Assert.assertNull(cache.get(aKey));
+      cache.put(aKey, Ints.toByteArray(1));
+      Assert.assertArrayEquals(Ints.toByteArray(1), cache.get(aKey));
+
+      // Larger than a block, and empty values.
+      final byte[] largeValue = new byte[5 * BLOCK_SIZE + 3];
+      for (int i = 0; i < largeValue.length; i++) {
+        largeValue[i] = (byte) (i % 7);
+      }
+      final Cache.NamedKey largeKey = new Cache.NamedKey("a", Ints.toByteArray(2));
+      final Cache.NamedKey emptyKey = new Cache.NamedKey("b", Ints.toByteArray(3));
+      cache.put(largeKey, largeValue);
+      cache.put(emptyKey, new byte[0]);
+      Assert.assertArrayEquals(largeValue, cache.get(largeKey));
+      Assert.assertArrayEquals(new byte[0], cache.get(emptyKey));
+
+      final Map<Cache.NamedKey, byte[]> bulk = cache.getBulk(
+          ImmutableList.of(aKey, largeKey, emptyKey, new Cache.NamedKey("miss", Ints.toByteArray(1)))
+      );
+      Assert.assertEquals(3, bulk.size());
+      Assert.assertArrayEquals(largeValue, bulk.get(largeKey));
+
+      // Overwrite
+      cache.put(aKey, Ints.toByteArray(10));
+      Assert.assertArrayEquals(Ints.toByteArray(10), cache.get(aKey));
+
+      cache.close("a");
+      Assert.assertNull(cache.get(aKey));
+      Assert.assertNull(cache.get(largeKey));
+      Assert.assertArrayEquals(new byte[0], cache.get(emptyKey));
+
+      final CacheStats stats = cache.getStats();
+      Assert.assertEquals(8, stats.getNumHits());
+      Assert.assertEquals(4, stats.getNumMisses());
+      Assert.assertEquals(1, stats.getNumEntries());
+      Assert.assertEquals(BLOCK_SIZE, stats.getSizeInBytes());
+      Assert.assertEquals(0, stats.getNumEvictions());
+      Assert.assertEquals(0, stats.getNumErrors());
+
+      cache.close();
+      Assert.assertEquals(0, cache.getNumSlabs());
+      Assert.assertNull(cache.get(emptyKey));
+    }
+  }
+
+  @Test
+  public void testScanDoesNotEvictFrequentEntries()
+  {
+    final OffHeapCache cache = new OffHeapCache(makeConfig("none", false), 100 * BLOCK_SIZE);
+
+    final int numHotKeys = 50;
+    for (int i = 0; i < numHotKeys; i++) {
+      cache.put(key("hot", i), value(i));
+    }
+    for (int j = 0; j < 3; j++) {
+      for (int i = 0; i < numHotKeys; i++) {
+        Assert.assertArrayEquals(value(i), cache.get(key("hot", i)));
+      }
+    }
+
+    // One-off entries, more than the cache can hold.
+    for (int i = 0; i < 500; i++) {
+      cache.put(key("scan", i), value(i));
+    }
+
+    for (int i = 0; i < numHotKeys; i++) {
+      Assert.assertArrayEquals(value(i), cache.get(key("hot", i)));
+    }
+    Assert.assertTrue(cache.getRejectionCount() > 0);
+
+    final CacheStats stats = cache.getStats();
+    Assert.assertTrue(stats.getSizeInBytes() <= 100 * BLOCK_SIZE);
+    Assert.assertEquals(stats.getSizeInBytes(), stats.getNumEntries() * BLOCK_SIZE);
+    Assert.assertTrue(stats.getNumEvictions() >= 500 - 50);
+  }
+
+  @Test
+  public void testLargeEntryDoesNotEvictFrequentEntries()
+  {
+    final OffHeapCache cache = new OffHeapCache(makeConfig("none", false), 100 * BLOCK_SIZE);
+    for (int i = 0; i < 99; i++) {
+      cache.put(key("small", i), value(i));
+      cache.get(key("small", i));
+    }
+
+    final Cache.NamedKey largeKey = key("large", 0);
+    cache.put(largeKey, new byte[10 * BLOCK_SIZE]);
+    Assert.assertNull(cache.get(largeKey));
+    Assert.assertEquals(1, cache.getRejectionCount());
+    for (int i = 0; i < 99; i++) {
+      Assert.assertArrayEquals(value(i), cache.get(key("small", i)));
+    }
+
+    // Never admitted, larger than the main part of the cache.
+    cache.put(largeKey, new byte[100 * BLOCK_SIZE]);
+    Assert.assertEquals(2, cache.getRejectionCount());
+    Assert.assertEquals(99, cache.getStats().getNumEntries());
+  }
+
+  @Test
+  public void testSlabsAreAllocatedOnDemand()
+  {
+    final OffHeapCache cache = new OffHeapCache(makeConfig("none", false), 100 * BLOCK_SIZE);
+    Assert.assertEquals(0, cache.getNumSlabs());
+
+    // Slabs of 10 blocks.
+    for (int i = 0; i < 15; i++) {
+      cache.put(key("a", i), value(i));
+    }
+    Assert.assertEquals(2, cache.getNumSlabs());
+
+    cache.doMonitor(new NoopServiceEmitter());
+    cache.close();
+    Assert.assertEquals(0, cache.getNumSlabs());
+  }
+
+  @Test(expected = IAE.class)
+  public void testUnknownCompression()
+  {
+    new OffHeapCache(makeConfig("snappy", false), 100 * BLOCK_SIZE);
+  }
+
+  @Test
+  public void testFrequencySketch()
+  {
+    final FrequencySketch sketch = new FrequencySketch(64);
+    final int hash = "key".hashCode();
+    Assert.assertEquals(0, sketch.frequency(hash));
+    for (int i = 0; i < 20; i++) {
+      sketch.increment(hash);
+    }
+    Assert.assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency(hash));
+
+    // Counters are halved after 10 increments per long of the sketch.
+    for (int i = 0; i < 10 * 64; i++) {
+      sketch.increment(Arrays.hashCode(Ints.toByteArray(i)));
+    }
+    Assert.assertTrue(sketch.frequency(hash) < FrequencySketch.MAX_FREQUENCY);
+  }
+
+  private static Cache.NamedKey key(String namespace, int i)
+  {
+    return new Cache.NamedKey(namespace, Ints.toByteArray(i));
+  }
+
+  private static byte[] value(int i)
+  {
+    return StringUtils.toUtf8(StringUtils.format("value%d", i));
+  }
+
+  private static OffHeapCacheConfig makeConfig(String compression, boolean evictOnClose)
+  {
+    return new OffHeapCacheConfig()
+    {
+      @Override
+      public int getBlockSize()
+      {
+        return BLOCK_SIZE;
+      }
+
+      @Override
+      public long getSlabSizeInBytes()
+      {
+        return 10 * BLOCK_SIZE;
+      }
+
+      @Override
+      public String getCompression()
+      {
+        return compression;
+      }
+
+      @Override
+      public boolean isEvictOnClose()
+      {
+        return evictOnClose;
+      }
+    };
+  }
+}
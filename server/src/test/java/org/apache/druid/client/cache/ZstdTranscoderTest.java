@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import net.spy.memcached.CachedData;
+import org.apache.druid.java.util.common.StringUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ZstdTranscoderTest
+{
+  private static final int MAX_SIZE = 1024 * 1024;
+
+  private ZstdTranscoder transcoder;
+
+  @Before
+  public void setUp()
+  {
+    transcoder = new ZstdTranscoder(MAX_SIZE, 3);
+    transcoder.setCompressionThreshold(0);
+  }
+
+  @Test
+  public void testRoundTrip()
+  {
+    final byte[] value = StringUtils.toUtf8(StringUtils.repeat("druid ", 1000));
+
+    final CachedData encoded = transcoder.encode(value);
+    Assert.assertTrue(encoded.getData().length < value.length);
+    Assert.assertArrayEquals(value, (byte[]) transcoder.decode(encoded));
+  }
+
+  @Test
+  public void testDecodeOtherCompressionIsMiss()
+  {
+    final LZ4Transcoder lz4Transcoder = new LZ4Transcoder(MAX_SIZE);
+    lz4Transcoder.setCompressionThreshold(0);
+
+    final CachedData encoded = lz4Transcoder.encode(StringUtils.toUtf8(StringUtils.repeat("druid ", 1000)));
+    Assert.assertNull(transcoder.decode(encoded));
+  }
+}
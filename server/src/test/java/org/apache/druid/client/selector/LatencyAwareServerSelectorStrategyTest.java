@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.selector;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.druid.client.DirectDruidClient;
+import org.apache.druid.client.DruidServer;
+import org.apache.druid.client.ServerLatencyStats;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.server.coordination.ServerType;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyAwareServerSelectorStrategyTest
+{
+  @Test
+  public void testPickLeastExpectedCompletionTime()
+  {
+    final QueryableDruidServer slow = makeServer("slow", 0, 100);
+    final QueryableDruidServer fast = makeServer("fast", 0, 10);
+    final LatencyAwareServerSelectorStrategy strategy = new LatencyAwareServerSelectorStrategy(null, null);
+
+    for (int i = 0; i < 20; i++) {
+      Assert.assertSame(fast, strategy.pick(ImmutableSet.of(slow, fast), null));
+    }
+  }
+
+  @Test
+  public void testPickAccountsForOpenConnections()
+  {
+    final QueryableDruidServer busy = makeServer("busy", 20, 10);
+    final QueryableDruidServer idle = makeServer("idle", 0, 50);
+    final LatencyAwareServerSelectorStrategy strategy = new LatencyAwareServerSelectorStrategy(null, null);
+
+    Assert.assertSame(idle, strategy.pick(ImmutableSet.of(busy, idle), null));
+  }
+
+  @Test
+  public void testPickAccountsForQueueTime()
+  {
+    final QueryableDruidServer queued = makeServer("queued", 0, 10, 100);
+    final QueryableDruidServer notQueued = makeServer("notQueued", 0, 20, 0);
+    final LatencyAwareServerSelectorStrategy strategy = new LatencyAwareServerSelectorStrategy(null, null);
+
+    for (int i = 0; i < 20; i++) {
+      Assert.assertSame(notQueued, strategy.pick(ImmutableSet.of(queued, notQueued), null));
+    }
+  }
+
+  @Test
+  public void testPickMultiple()
+  {
+    final QueryableDruidServer slow = makeServer("slow", 0, 100);
+    final QueryableDruidServer medium = makeServer("medium", 0, 50);
+    final QueryableDruidServer fast = makeServer("fast", 0, 10);
+    final LatencyAwareServerSelectorStrategy strategy = new LatencyAwareServerSelectorStrategy(null, null);
+
+    Assert.assertEquals(
+        ImmutableSet.of(fast, medium),
+        ImmutableSet.copyOf(strategy.pick(ImmutableSet.of(slow, medium, fast), null, 2))
+    );
+  }
+
+  @Test
+  public void testHedgeDelay()
+  {
+    final DirectDruidClient client = EasyMock.createMock(DirectDruidClient.class);
+    final ServerLatencyStats stats = new ServerLatencyStats();
+    EasyMock.expect(client.getLatencyStats()).andReturn(stats).anyTimes();
+    EasyMock.replay(client);
+    final QueryableDruidServer server = new QueryableDruidServer(
+        new DruidServer("server", "server", null, 0, ServerType.HISTORICAL, DruidServer.DEFAULT_TIER, 0),
+        client
+    );
+
+    final LatencyAwareServerSelectorStrategy noHedging = new LatencyAwareServerSelectorStrategy(null, null);
+    final LatencyAwareServerSelectorStrategy hedging = new LatencyAwareServerSelectorStrategy(0.9, 5L);
+    final LatencyAwareServerSelectorStrategy minDelay = new LatencyAwareServerSelectorStrategy(0.9, 500L);
+
+    // Not enough samples yet.
+    stats.recordTimeToFirstByte(TimeUnit.MILLISECONDS.toNanos(1));
+    Assert.assertEquals(-1, hedging.getHedgeDelayMillis(server));
+
+    for (int i = 1; i <= 100; i++) {
+      stats.recordTimeToFirstByte(TimeUnit.MILLISECONDS.toNanos(i));
+    }
+    Assert.assertEquals(-1, noHedging.getHedgeDelayMillis(server));
+    Assert.assertEquals(90, hedging.getHedgeDelayMillis(server));
+    Assert.assertEquals(500, minDelay.getHedgeDelayMillis(server));
+  }
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    final DefaultObjectMapper mapper = new DefaultObjectMapper();
+    final ServerSelectorStrategy strategy = mapper.readValue(
+        "{\"type\": \"latencyAware\", \"hedgePercentile\": 0.95}",
+        ServerSelectorStrategy.class
+    );
+    Assert.assertTrue(strategy instanceof LatencyAwareServerSelectorStrategy);
+    Assert.assertEquals(0.95, ((LatencyAwareServerSelectorStrategy) strategy).getHedgePercentile(), 0);
+    Assert.assertEquals(10, ((LatencyAwareServerSelectorStrategy) strategy).getMinHedgeDelayMillis());
+  }
+
+  private static QueryableDruidServer makeServer(String name, int numOpenConnections, long responseTimeMillis)
+  {
+    return makeServer(name, numOpenConnections, responseTimeMillis, 0);
+  }
+
+  private static QueryableDruidServer makeServer(
+      String name,
+      int numOpenConnections,
+      long responseTimeMillis,
+      long queueTimeMillis
+  )
+  {
+    final ServerLatencyStats stats = new ServerLatencyStats();
+    stats.recordTimeToFirstByte(TimeUnit.MILLISECONDS.toNanos(responseTimeMillis) / 2);
+    stats.recordResponseTime(TimeUnit.MILLISECONDS.toNanos(responseTimeMillis));
+    stats.recordQueueTime(TimeUnit.MILLISECONDS.toNanos(queueTimeMillis));
+
+    final DirectDruidClient client = EasyMock.createMock(DirectDruidClient.class);
+    EasyMock.expect(client.getLatencyStats()).andReturn(stats).anyTimes();
+    EasyMock.expect(client.getNumOpenConnections()).andReturn(numOpenConnections).anyTimes();
+    EasyMock.replay(client);
+    return new QueryableDruidServer(
+        new DruidServer(name, name, null, 0, ServerType.HISTORICAL, DruidServer.DEFAULT_TIER, 0),
+        client
+    );
+  }
+}
@@ -33,6 +33,7 @@ import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.tweak.HandleCallback;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -132,6 +133,38 @@ public class SQLMetadataConnectorTest
     dropTable(tableName);
   }
 
+  @Test
+  public void testCreateSegmentTableAddsUsedStatusLastUpdatedToExistingTable()
+  {
+    final String tableName = "segments_of_older_version";
+    connector.createTable(
+        tableName,
+        Collections.singletonList(
+            StringUtils.format(
+                "CREATE TABLE %1$s (\n"
+                + "  id VARCHAR(255) NOT NULL,\n"
+                + "  used BOOLEAN NOT NULL,\n"
+                + "  PRIMARY KEY (id)\n"
+                + ")",
+                tableName
+            )
+        )
+    );
+
+    connector.createSegmentTable(tableName);
+
+    connector.getDBI().withHandle(
+        handle -> {
+          Assert.assertTrue(connector.tableHasColumn(handle, tableName, "used_status_last_updated"));
+          Assert.assertTrue(connector.tableHasColumn(handle, tableName, "USED"));
+          Assert.assertFalse(connector.tableHasColumn(handle, tableName, "payload"));
+          return null;
+        }
+    );
+
+    dropTable(tableName);
+  }
+
   private void dropTable(final String tableName)
   {
     connector.getDBI().withHandle(
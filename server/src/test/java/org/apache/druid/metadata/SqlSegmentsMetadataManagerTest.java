@@ -837,6 +837,55 @@ public class SqlSegmentsMetadataManagerTest
     );
   }
 
+  @Test
+  public void testIncrementalPoll() throws IOException
+  {
+    final SegmentsMetadataManagerConfig config = new SegmentsMetadataManagerConfig();
+    config.setIncrementalPoll(true);
+    final SqlSegmentsMetadataManager manager = new SqlSegmentsMetadataManager(
+        jsonMapper,
+        Suppliers.ofInstance(config),
+        derbyConnectorRule.metadataTablesConfigSupplier(),
+        derbyConnectorRule.getConnector()
+    );
+
+    // The first poll is a full poll.
+    manager.poll();
+    final DataSourcesSnapshot fullPollSnapshot = manager.getDataSourcesSnapshot();
+    Assert.assertEquals(
+        ImmutableSet.of(segment1, segment2),
+        ImmutableSet.copyOf(fullPollSnapshot.iterateAllUsedSegmentsInSnapshot())
+    );
+
+    final String newDataSource = "wikipedia2";
+    final DataSegment newSegment = createNewSegment1(newDataSource);
+    publisher.publishSegment(newSegment);
+    Assert.assertTrue(manager.markSegmentAsUnused(segment2.getId().toString()));
+
+    manager.poll();
+    final DataSourcesSnapshot incrementalPollSnapshot = manager.getDataSourcesSnapshot();
+    Assert.assertEquals(
+        ImmutableSet.of(segment1),
+        ImmutableSet.copyOf(incrementalPollSnapshot.getDataSource("wikipedia").getSegments())
+    );
+    Assert.assertEquals(
+        ImmutableSet.of(newSegment),
+        ImmutableSet.copyOf(incrementalPollSnapshot.getDataSource(newDataSource).getSegments())
+    );
+
+    // Changes fetched again because of the lookback are not applied again.
+    manager.poll();
+    Assert.assertSame(incrementalPollSnapshot, manager.getDataSourcesSnapshot());
+
+    Assert.assertTrue(manager.markSegmentAsUnused(newSegment.getId().toString()));
+    manager.poll();
+    Assert.assertNull(manager.getDataSourcesSnapshot().getDataSource(newDataSource));
+    Assert.assertSame(
+        incrementalPollSnapshot.getDataSource("wikipedia"),
+        manager.getDataSourcesSnapshot().getDataSource("wikipedia")
+    );
+  }
+
   @Test
   public void testStopAndStart()
   {
@@ -19,12 +19,14 @@
 
 package org.apache.druid.query;
 
+import org.apache.druid.client.DruidServer;
 import org.apache.druid.client.SimpleServerView;
 import org.apache.druid.client.cache.Cache;
 import org.apache.druid.client.cache.CacheConfig;
 import org.apache.druid.client.cache.MapCache;
 import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.query.timeseries.TimeseriesResultValue;
 import org.apache.druid.timeline.DataSegment;
 import org.joda.time.Interval;
@@ -192,6 +194,104 @@ public class ResultLevelCachingQueryRunnerTest extends QueryRunnerBasedOnCluster
     Assert.assertEquals(1, cache.getStats().getNumMisses());
   }
 
+  @Test
+  public void testPopulateAndUseByBucket() throws IOException
+  {
+    // Large enough for one entry per bucket.
+    cache.close();
+    cache = MapCache.create(1024 * 1024);
+    prepareCluster(10);
+    final Query<Result<TimeseriesResultValue>> query = timeseriesQuery(Intervals.of("2000-01-01T03/PT3H"));
+    final List<Result<TimeseriesResultValue>> expectedResults1 =
+        createQueryRunner(newCacheConfig(false, false), query).run(QueryPlus.wrap(query), responseContext()).toList();
+    Assert.assertEquals(2, expectedResults1.size());
+
+    final ResponseContext responseContext1 = responseContext();
+    final List<Result<TimeseriesResultValue>> results1 = createQueryRunner(newIncrementalCacheConfig(), query)
+        .run(QueryPlus.wrap(query), responseContext1)
+        .toList();
+    Assert.assertEquals(expectedResults1, results1);
+    Assert.assertNotNull(responseContext1.get(ResponseContext.Key.ETAG));
+    Assert.assertEquals(0, cache.getStats().getNumHits());
+    Assert.assertEquals(3, cache.getStats().getNumEntries());
+    Assert.assertEquals(3, cache.getStats().getNumMisses());
+
+    final ResponseContext responseContext2 = responseContext();
+    final List<Result<TimeseriesResultValue>> results2 = createQueryRunner(newIncrementalCacheConfig(), query)
+        .run(QueryPlus.wrap(query), responseContext2)
+        .toList();
+    Assert.assertEquals(expectedResults1, results2);
+    Assert.assertEquals(
+        responseContext1.get(ResponseContext.Key.ETAG),
+        responseContext2.get(ResponseContext.Key.ETAG)
+    );
+    Assert.assertEquals(3, cache.getStats().getNumHits());
+    Assert.assertEquals(3, cache.getStats().getNumEntries());
+
+    // New data in the last bucket, the cached results of the other buckets are still used.
+    final DataSegment segment = newSegment(Intervals.of("2000-01-01T05/PT1H"), 0, 1);
+    addServer(SimpleServerView.createServer(11), segment, generateSegment(segment));
+    final List<Result<TimeseriesResultValue>> expectedResults3 =
+        createQueryRunner(newCacheConfig(false, false), query).run(QueryPlus.wrap(query), responseContext()).toList();
+    Assert.assertEquals(3, expectedResults3.size());
+
+    final ResponseContext responseContext3 = responseContext();
+    final List<Result<TimeseriesResultValue>> results3 = createQueryRunner(newIncrementalCacheConfig(), query)
+        .run(QueryPlus.wrap(query), responseContext3)
+        .toList();
+    Assert.assertEquals(expectedResults3, results3);
+    Assert.assertNotNull(responseContext3.get(ResponseContext.Key.ETAG));
+    Assert.assertNotEquals(
+        responseContext1.get(ResponseContext.Key.ETAG),
+        responseContext3.get(ResponseContext.Key.ETAG)
+    );
+    Assert.assertEquals(6, cache.getStats().getNumHits());
+    Assert.assertEquals(3, cache.getStats().getNumEntries());
+    Assert.assertEquals(3, cache.getStats().getNumMisses());
+  }
+
+  @Test
+  public void testQueryConsecutiveStaleBucketsAtOnce() throws IOException
+  {
+    // Large enough for one entry per bucket.
+    cache.close();
+    cache = MapCache.create(1024 * 1024);
+    final DruidServer dayServer = SimpleServerView.createServer(1);
+    final DataSegment daySegment = newSegment(Intervals.of("2000-01-01/P1D"), 0, 1);
+    addServer(dayServer, daySegment, generateSegment(daySegment));
+    final Query<Result<TimeseriesResultValue>> query = timeseriesQuery(Intervals.of("2000-01-01T00/PT6H"));
+    final List<Result<TimeseriesResultValue>> expectedResults1 =
+        createQueryRunner(newCacheConfig(false, false), query).run(QueryPlus.wrap(query), responseContext()).toList();
+    Assert.assertEquals(6, expectedResults1.size());
+
+    // The 6 cold buckets are computed by a single query to the server.
+    final int numDayServerQueries1 = httpClient.getNumQueries(dayServer);
+    final List<Result<TimeseriesResultValue>> results1 = createQueryRunner(newIncrementalCacheConfig(), query)
+        .run(QueryPlus.wrap(query), responseContext())
+        .toList();
+    Assert.assertEquals(expectedResults1, results1);
+    Assert.assertEquals(numDayServerQueries1 + 1, httpClient.getNumQueries(dayServer));
+    Assert.assertEquals(6, cache.getStats().getNumEntries());
+
+    // New data in the 2 middle buckets, which are computed by a single query, and the other ones are cached.
+    final DruidServer newServer = SimpleServerView.createServer(2);
+    final DataSegment newSegment = newSegment(Intervals.of("2000-01-01T02/PT2H"), 0, 1).withVersion("2");
+    addServer(newServer, newSegment, generateSegment(newSegment));
+    final List<Result<TimeseriesResultValue>> expectedResults2 =
+        createQueryRunner(newCacheConfig(false, false), query).run(QueryPlus.wrap(query), responseContext()).toList();
+
+    final int numDayServerQueries2 = httpClient.getNumQueries(dayServer);
+    final int numNewServerQueries2 = httpClient.getNumQueries(newServer);
+    final List<Result<TimeseriesResultValue>> results2 = createQueryRunner(newIncrementalCacheConfig(), query)
+        .run(QueryPlus.wrap(query), responseContext())
+        .toList();
+    Assert.assertEquals(expectedResults2, results2);
+    Assert.assertEquals(numDayServerQueries2, httpClient.getNumQueries(dayServer));
+    Assert.assertEquals(numNewServerQueries2 + 1, httpClient.getNumQueries(newServer));
+    Assert.assertEquals(6, cache.getStats().getNumHits());
+    Assert.assertEquals(6, cache.getStats().getNumEntries());
+  }
+
   @Test
   public void testPopulateCacheWhenQueryThrowExceptionShouldNotCache()
   {
@@ -249,6 +349,30 @@ public class ResultLevelCachingQueryRunnerTest extends QueryRunnerBasedOnCluster
     );
   }
 
+  private CacheConfig newIncrementalCacheConfig()
+  {
+    return new CacheConfig()
+    {
+      @Override
+      public boolean isPopulateResultLevelCache()
+      {
+        return true;
+      }
+
+      @Override
+      public boolean isUseResultLevelCache()
+      {
+        return true;
+      }
+
+      @Override
+      public boolean isIncrementalResultLevelCache()
+      {
+        return true;
+      }
+    };
+  }
+
   private CacheConfig newCacheConfig(boolean populateResultLevelCache, boolean useResultLevelCache)
   {
     return new CacheConfig()
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.columnar;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import org.apache.druid.client.JsonParserIterator;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.groupby.GroupByQuery;
+import org.apache.druid.query.groupby.GroupByQueryConfig;
+import org.apache.druid.query.groupby.GroupByQueryQueryToolChest;
+import org.apache.druid.query.groupby.ResultRow;
+import org.apache.druid.query.scan.ScanQuery;
+import org.apache.druid.query.scan.ScanResultValue;
+import org.apache.druid.query.spec.MultipleIntervalSegmentSpec;
+import org.apache.druid.query.timeseries.TimeseriesResultValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ColumnarResultFormatTest
+{
+  private static final ObjectMapper JSON_MAPPER = new DefaultObjectMapper();
+  private static final ObjectMapper SMILE_MAPPER = new DefaultObjectMapper(new SmileFactory());
+
+  private static final GroupByQuery GROUP_BY_QUERY =
+      GroupByQuery.builder()
+                  .setDataSource("foo")
+                  .setGranularity(Granularities.ALL)
+                  .setInterval(Intervals.ETERNITY)
+                  .setDimensions(DefaultDimensionSpec.of("dim"))
+                  .setAggregatorSpecs(new CountAggregatorFactory("cnt"))
+                  .setContext(ImmutableMap.of(GroupByQueryConfig.CTX_KEY_ARRAY_RESULT_ROWS, true))
+                  .build();
+
+  @Test
+  public void testGroupByRoundTrip() throws IOException
+  {
+    final List<ResultRow> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(
+          ResultRow.of(
+              1000L * i,
+              i % 3 == 0 ? null : "dim" + (i % 2),
+              (long) i,
+              i * 0.5f,
+              i * 0.25d,
+              ImmutableList.of("a", "b" + i),
+              i % 2 == 0 ? "mixed" : (Object) (i * 1.5d),
+              null
+          )
+      );
+    }
+
+    for (ObjectMapper mapper : new ObjectMapper[]{JSON_MAPPER, SMILE_MAPPER}) {
+      Assert.assertEquals(rows, roundTrip(GROUP_BY_QUERY, rows, mapper, 3));
+      Assert.assertEquals(rows, roundTrip(GROUP_BY_QUERY, rows, mapper, ColumnarResultFormat.DEFAULT_BATCH_SIZE));
+    }
+  }
+
+  @Test
+  public void testGroupByWideDictionary() throws IOException
+  {
+    // More distinct strings than fit in one byte dictionary ids.
+    final List<ResultRow> rows = new ArrayList<>();
+    for (int i = 0; i < 70000; i++) {
+      rows.add(ResultRow.of("dim" + i, (long) i));
+    }
+    Assert.assertEquals(rows, roundTrip(GROUP_BY_QUERY, rows, SMILE_MAPPER, 1000));
+    Assert.assertEquals(rows, roundTrip(GROUP_BY_QUERY, rows, SMILE_MAPPER, 100000));
+  }
+
+  @Test
+  public void testTimeseriesRoundTrip() throws IOException
+  {
+    final Query<Result<TimeseriesResultValue>> query =
+        Druids.newTimeseriesQueryBuilder()
+              .dataSource("foo")
+              .granularity(Granularities.HOUR)
+              .intervals(Intervals.ONLY_ETERNITY)
+              .aggregators(new CountAggregatorFactory("cnt"))
+              .build();
+
+    final Map<String, Object> otherNames = new LinkedHashMap<>();
+    otherNames.put("cnt", 3L);
+    otherNames.put("sum", null);
+    final List<Result<TimeseriesResultValue>> results = ImmutableList.of(
+        new Result<>(DateTimes.of("2020-01-01T00"), new TimeseriesResultValue(ImmutableMap.of("cnt", 1L, "x", 2.5d))),
+        new Result<>(DateTimes.of("2020-01-01T01"), new TimeseriesResultValue(ImmutableMap.of("cnt", 2L, "x", 1d))),
+        new Result<>(DateTimes.of("2020-01-01T02"), new TimeseriesResultValue(otherNames)),
+        new Result<>(null, new TimeseriesResultValue(ImmutableMap.of("cnt", 6L)))
+    );
+
+    final List<Result<TimeseriesResultValue>> roundTripped = roundTrip(query, results, JSON_MAPPER, 10);
+    Assert.assertEquals(results, roundTripped);
+    Assert.assertNull(roundTripped.get(3).getTimestamp());
+    Assert.assertEquals(
+        ImmutableList.of("cnt", "sum"),
+        ImmutableList.copyOf(roundTripped.get(2).getValue().getBaseObject().keySet())
+    );
+  }
+
+  @Test
+  public void testScanRoundTrip() throws IOException
+  {
+    final List<String> columns = ImmutableList.of("__time", "dim", "met");
+    final List<List<Object>> compactedEvents = ImmutableList.of(
+        Arrays.<Object>asList(1L, "a", 1.5d),
+        Arrays.<Object>asList(2L, null, 2.5d),
+        Arrays.<Object>asList(3L, ImmutableList.of("b", "c"), null)
+    );
+    final List<Map<String, Object>> listEvents = new ArrayList<>();
+    for (List<Object> event : compactedEvents) {
+      final Map<String, Object> map = new LinkedHashMap<>();
+      for (int i = 0; i < columns.size(); i++) {
+        map.put(columns.get(i), event.get(i));
+      }
+      listEvents.add(map);
+    }
+
+    final List<ScanResultValue> compacted = ImmutableList.of(
+        new ScanResultValue("segment1", columns, compactedEvents),
+        new ScanResultValue("segment1", columns, ImmutableList.of()),
+        new ScanResultValue("segment2", columns, compactedEvents.subList(0, 1))
+    );
+    Assert.assertEquals(
+        compacted,
+        roundTrip(makeScanQuery(ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST), compacted, SMILE_MAPPER, 2)
+    );
+
+    final List<ScanResultValue> list = ImmutableList.of(new ScanResultValue(null, columns, listEvents));
+    Assert.assertEquals(
+        list,
+        roundTrip(makeScanQuery(ScanQuery.ResultFormat.RESULT_FORMAT_LIST), list, JSON_MAPPER, 2)
+    );
+  }
+
+  @Test
+  public void testEmptyResults() throws IOException
+  {
+    Assert.assertEquals(ImmutableList.of(), roundTrip(GROUP_BY_QUERY, ImmutableList.of(), JSON_MAPPER, 10));
+  }
+
+  @Test
+  public void testTruncatedStream() throws IOException
+  {
+    final List<ResultRow> rows = ImmutableList.of(ResultRow.of("a", 1L), ResultRow.of("b", 2L));
+    final byte[] bytes = write(GROUP_BY_QUERY, rows, JSON_MAPPER, 1);
+    final byte[] truncated = Arrays.copyOf(bytes, bytes.length - Integer.BYTES);
+
+    final PushbackInputStream in = ColumnarResultFormat.pushbackStream(new ByteArrayInputStream(truncated));
+    Assert.assertTrue(ColumnarResultFormat.readHeader(in));
+    final ColumnarResultReader<ResultRow> reader = ColumnarResultFormat.newReader(GROUP_BY_QUERY, in, JSON_MAPPER);
+    Assert.assertEquals(rows.get(0), reader.next());
+    Assert.assertEquals(rows.get(1), reader.next());
+    try {
+      reader.hasNext();
+      Assert.fail("Expected an IOException");
+    }
+    catch (IOException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testReadHeaderOfOtherFormats() throws IOException
+  {
+    final byte[][] others = {new byte[0], new byte[]{'['}, JSON_MAPPER.writeValueAsBytes(ImmutableList.of(1))};
+    for (byte[] bytes : others) {
+      final PushbackInputStream in = ColumnarResultFormat.pushbackStream(new ByteArrayInputStream(bytes));
+      Assert.assertFalse(ColumnarResultFormat.readHeader(in));
+      final byte[] read = new byte[bytes.length];
+      Assert.assertEquals(bytes.length, Math.max(0, in.read(read)));
+      Assert.assertArrayEquals(bytes, read);
+    }
+  }
+
+  @Test
+  public void testIsRequested()
+  {
+    Assert.assertFalse(ColumnarResultFormat.isRequested(GROUP_BY_QUERY));
+    Assert.assertTrue(
+        ColumnarResultFormat.isRequested(
+            GROUP_BY_QUERY.withOverriddenContext(ImmutableMap.of("columnarResultTransport", true))
+        )
+    );
+    Assert.assertFalse(
+        ColumnarResultFormat.isRequested(
+            GROUP_BY_QUERY.withOverriddenContext(ImmutableMap.of("columnarResultTransport", true, "bySegment", true))
+        )
+    );
+    Assert.assertTrue(ColumnarResultFormat.isSupported(makeScanQuery(ScanQuery.ResultFormat.RESULT_FORMAT_LIST)));
+    Assert.assertFalse(
+        ColumnarResultFormat.isSupported(makeScanQuery(ScanQuery.ResultFormat.RESULT_FORMAT_VALUE_VECTOR))
+    );
+    Assert.assertFalse(
+        ColumnarResultFormat.isSupported(
+            Druids.newTimeBoundaryQueryBuilder().dataSource("foo").build()
+        )
+    );
+  }
+
+  @Test
+  public void testJsonParserIteratorReadsBothFormats() throws IOException
+  {
+    final ObjectMapper mapper = new GroupByQueryQueryToolChest(null).decorateObjectMapper(SMILE_MAPPER, GROUP_BY_QUERY);
+    final List<ResultRow> rows = ImmutableList.of(ResultRow.of("a", 1.5d), ResultRow.of(null, 2.5d));
+
+    final byte[] columnar = write(GROUP_BY_QUERY, rows, mapper, 10);
+    final byte[] smile = mapper.writeValueAsBytes(rows);
+    for (byte[] bytes : new byte[][]{columnar, smile}) {
+      final JsonParserIterator<ResultRow> iterator = new JsonParserIterator<>(
+          mapper.getTypeFactory().constructType(ResultRow.class),
+          Futures.<InputStream>immediateFuture(new ByteArrayInputStream(bytes)),
+          "url",
+          GROUP_BY_QUERY,
+          "host",
+          mapper,
+          true
+      );
+      final List<ResultRow> read = new ArrayList<>();
+      while (iterator.hasNext()) {
+        read.add(iterator.next());
+      }
+      iterator.close();
+      Assert.assertEquals(rows, read);
+    }
+  }
+
+  private static ScanQuery makeScanQuery(ScanQuery.ResultFormat resultFormat)
+  {
+    return Druids.newScanQueryBuilder()
+                 .dataSource("foo")
+                 .intervals(new MultipleIntervalSegmentSpec(Intervals.ONLY_ETERNITY))
+                 .resultFormat(resultFormat)
+                 .context(new HashMap<>())
+                 .build();
+  }
+
+  private static <T> List<T> roundTrip(Query<T> query, List<T> results, ObjectMapper mapper, int batchSize)
+      throws IOException
+  {
+    final InputStream bytes = new ByteArrayInputStream(write(query, results, mapper, batchSize));
+    final PushbackInputStream in = ColumnarResultFormat.pushbackStream(bytes);
+    Assert.assertTrue(ColumnarResultFormat.readHeader(in));
+
+    final List<T> read = new ArrayList<>();
+    try (ColumnarResultReader<T> reader = ColumnarResultFormat.newReader(query, in, mapper)) {
+      while (reader.hasNext()) {
+        read.add(reader.next());
+      }
+    }
+    return read;
+  }
+
+  private static <T> byte[] write(Query<T> query, List<T> results, ObjectMapper mapper, int batchSize)
+      throws IOException
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ColumnarResultFormat.newWriter(query, mapper.writer(), batchSize).write(Sequences.simple(results), out);
+    return out.toByteArray();
+  }
+}
@@ -31,12 +31,14 @@ import java.io.File;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
 */
 public class CacheTestSegmentLoader implements SegmentLoader
 {
   private final Set<DataSegment> segmentsInTrash = new HashSet<>();
+  private final Set<DataSegment> segmentsDownloaded = ConcurrentHashMap.newKeySet();
 
   @Override
   public boolean isSegmentLoaded(DataSegment segment)
@@ -84,7 +86,8 @@ public class CacheTestSegmentLoader implements SegmentLoader
   @Override
   public File getSegmentFiles(DataSegment segment)
   {
-    throw new UnsupportedOperationException();
+    segmentsDownloaded.add(segment);
+    return new File(MapUtils.getString(segment.getLoadSpec(), "cacheDir"));
   }
 
   @Override
@@ -97,4 +100,9 @@ public class CacheTestSegmentLoader implements SegmentLoader
   {
     return segmentsInTrash;
   }
+
+  public Set<DataSegment> getSegmentsDownloaded()
+  {
+    return segmentsDownloaded;
+  }
 }
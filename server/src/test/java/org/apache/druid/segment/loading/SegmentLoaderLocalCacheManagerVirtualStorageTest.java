@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.loading;
+
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.emitter.EmittingLogger;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.segment.IndexSpec;
+import org.apache.druid.segment.ReferenceCountingSegment;
+import org.apache.druid.segment.Segment;
+import org.apache.druid.segment.TestHelper;
+import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.incremental.OnheapIncrementalIndex;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
+import org.apache.druid.server.metrics.NoopServiceEmitter;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.NoneShardSpec;
+import org.joda.time.Interval;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Optional;
+
+public class SegmentLoaderLocalCacheManagerVirtualStorageTest
+{
+  private static final long SEGMENT_SIZE = 100;
+
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private final ObjectMapper jsonMapper;
+
+  private File deepStorageFolder;
+  private File localSegmentCacheFolder;
+
+  public SegmentLoaderLocalCacheManagerVirtualStorageTest()
+  {
+    jsonMapper = new DefaultObjectMapper();
+    jsonMapper.registerSubtypes(new NamedType(LocalLoadSpec.class, "local"));
+    jsonMapper.setInjectableValues(
+        new InjectableValues.Std().addValue(
+            LocalDataSegmentPuller.class,
+            new LocalDataSegmentPuller()
+        )
+    );
+  }
+
+  @Before
+  public void setUp() throws Exception
+  {
+    EmittingLogger.registerEmitter(new NoopServiceEmitter());
+    deepStorageFolder = tmpFolder.newFolder("deep_storage");
+    localSegmentCacheFolder = tmpFolder.newFolder("segment_cache");
+  }
+
+  @Test
+  public void testFetchOnFirstUse() throws Exception
+  {
+    final SegmentLoaderLocalCacheManager manager = makeManager(2);
+    final DataSegment dataSegment = pushSegment("2014-10-20/P1D");
+
+    final ReferenceCountingSegment segment = ReferenceCountingSegment.wrapRootGenerationSegment(
+        manager.getSegment(dataSegment, false)
+    );
+    Assert.assertFalse(manager.isSegmentLoaded(dataSegment));
+    Assert.assertEquals(dataSegment.getId(), segment.getId());
+
+    queryAndRelease(segment);
+    Assert.assertTrue(manager.isSegmentLoaded(dataSegment));
+    queryAndRelease(segment);
+
+    final VirtualSegmentStats.Snapshot stats = manager.getVirtualSegmentStats().snapshot();
+    Assert.assertEquals(1, stats.getNumMisses());
+    Assert.assertEquals(1, stats.getNumHits());
+    Assert.assertEquals(SEGMENT_SIZE, stats.getFetchedBytes());
+    Assert.assertEquals(0, stats.getNumEvictions());
+
+    segment.close();
+    manager.cleanup(dataSegment);
+    Assert.assertFalse(manager.isSegmentLoaded(dataSegment));
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() throws Exception
+  {
+    final SegmentLoaderLocalCacheManager manager = makeManager(2);
+    final DataSegment dataSegment1 = pushSegment("2014-10-20/P1D");
+    final DataSegment dataSegment2 = pushSegment("2014-10-21/P1D");
+    final DataSegment dataSegment3 = pushSegment("2014-10-22/P1D");
+    final ReferenceCountingSegment segment1 = wrap(manager, dataSegment1);
+    final ReferenceCountingSegment segment2 = wrap(manager, dataSegment2);
+    final ReferenceCountingSegment segment3 = wrap(manager, dataSegment3);
+
+    queryAndRelease(segment1);
+    queryAndRelease(segment2);
+    queryAndRelease(segment1);
+    queryAndRelease(segment3);
+
+    Assert.assertTrue(manager.isSegmentLoaded(dataSegment1));
+    Assert.assertFalse(manager.isSegmentLoaded(dataSegment2));
+    Assert.assertTrue(manager.isSegmentLoaded(dataSegment3));
+
+    // The evicted segment is fetched again the next time it is used.
+    queryAndRelease(segment2);
+    Assert.assertTrue(manager.isSegmentLoaded(dataSegment2));
+    Assert.assertFalse(manager.isSegmentLoaded(dataSegment1));
+
+    final VirtualSegmentStats.Snapshot stats = manager.getVirtualSegmentStats().snapshot();
+    Assert.assertEquals(4, stats.getNumMisses());
+    Assert.assertEquals(1, stats.getNumHits());
+    Assert.assertEquals(2, stats.getNumEvictions());
+    Assert.assertEquals(2 * SEGMENT_SIZE, stats.getEvictedBytes());
+    Assert.assertEquals(2 * SEGMENT_SIZE, manager.getLocations().get(0).currSizeBytes());
+  }
+
+  @Test
+  public void testSegmentInUseIsNotEvicted() throws Exception
+  {
+    final SegmentLoaderLocalCacheManager manager = makeManager(1);
+    final DataSegment dataSegment1 = pushSegment("2014-10-20/P1D");
+    final DataSegment dataSegment2 = pushSegment("2014-10-21/P1D");
+    final ReferenceCountingSegment segment1 = wrap(manager, dataSegment1);
+    final ReferenceCountingSegment segment2 = wrap(manager, dataSegment2);
+
+    final Optional<Closeable> reference1 = segment1.acquireReferences();
+    Assert.assertTrue(reference1.isPresent());
+    Assert.assertEquals(1, segment1.asStorageAdapter().getNumRows());
+
+    final Optional<Closeable> reference2 = segment2.acquireReferences();
+    Assert.assertTrue(reference2.isPresent());
+    try {
+      segment2.asStorageAdapter();
+      Assert.fail("Expected the cache to be full");
+    }
+    catch (RuntimeException e) {
+      Assert.assertTrue(e.getCause() instanceof SegmentLoadingException);
+    }
+    Assert.assertTrue(manager.isSegmentLoaded(dataSegment1));
+
+    reference1.get().close();
+    Assert.assertEquals(1, segment2.asStorageAdapter().getNumRows());
+    reference2.get().close();
+
+    Assert.assertFalse(manager.isSegmentLoaded(dataSegment1));
+    Assert.assertTrue(manager.isSegmentLoaded(dataSegment2));
+  }
+
+  @Test
+  public void testClosedSegmentIsNotEvictedAgain() throws Exception
+  {
+    final SegmentLoaderLocalCacheManager manager = makeManager(1);
+    final DataSegment dataSegment1 = pushSegment("2014-10-20/P1D");
+    final DataSegment dataSegment2 = pushSegment("2014-10-21/P1D");
+    final ReferenceCountingSegment segment1 = wrap(manager, dataSegment1);
+    final ReferenceCountingSegment segment2 = wrap(manager, dataSegment2);
+
+    queryAndRelease(segment1);
+    segment1.close();
+    manager.cleanup(dataSegment1);
+    Assert.assertFalse(segment1.acquireReferences().isPresent());
+
+    queryAndRelease(segment2);
+    Assert.assertEquals(0, manager.getVirtualSegmentStats().snapshot().getNumEvictions());
+  }
+
+  private static ReferenceCountingSegment wrap(SegmentLoaderLocalCacheManager manager, DataSegment dataSegment)
+      throws SegmentLoadingException
+  {
+    return ReferenceCountingSegment.wrapRootGenerationSegment(manager.getSegment(dataSegment, false));
+  }
+
+  private static void queryAndRelease(Segment segment) throws Exception
+  {
+    final Optional<Closeable> reference = ((ReferenceCountingSegment) segment).acquireReferences();
+    Assert.assertTrue(reference.isPresent());
+    try {
+      Assert.assertEquals(1, segment.asStorageAdapter().getNumRows());
+    }
+    finally {
+      reference.get().close();
+    }
+  }
+
+  private SegmentLoaderLocalCacheManager makeManager(int numSegmentsInCache)
+  {
+    return new SegmentLoaderLocalCacheManager(
+        TestHelper.getTestIndexIO(),
+        new SegmentLoaderConfig()
+            .withLocations(
+                ImmutableList.of(
+                    new StorageLocationConfig(localSegmentCacheFolder, numSegmentsInCache * SEGMENT_SIZE, null)
+                )
+            )
+            .withVirtualStorage(true),
+        jsonMapper
+    );
+  }
+
+  /**
+   * Persists a segment with a single row in the local deep storage.
+   */
+  private DataSegment pushSegment(String intervalString) throws Exception
+  {
+    final Interval interval = Intervals.of(intervalString);
+    final IncrementalIndex<?> index = new OnheapIncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("count"))
+        .setMaxRowCount(10)
+        .build();
+    index.add(new MapBasedInputRow(interval.getStart(), ImmutableList.of("dim"), ImmutableMap.of("dim", "a")));
+
+    final File segmentDir = new File(deepStorageFolder, interval.toString().replace('/', '_'));
+    TestHelper.getTestIndexMergerV9(OffHeapMemorySegmentWriteOutMediumFactory.instance())
+              .persist(index, interval, segmentDir, new IndexSpec(), null);
+    index.close();
+
+    return DataSegment.builder()
+                      .dataSource("test_virtual_storage")
+                      .interval(interval)
+                      .loadSpec(ImmutableMap.of("type", "local", "path", segmentDir.getCanonicalPath()))
+                      .version("2015-05-27T03:38:35.683Z")
+                      .dimensions(ImmutableList.of("dim"))
+                      .metrics(ImmutableList.of("count"))
+                      .shardSpec(NoneShardSpec.instance())
+                      .binaryVersion(9)
+                      .size(SEGMENT_SIZE)
+                      .build();
+  }
+}
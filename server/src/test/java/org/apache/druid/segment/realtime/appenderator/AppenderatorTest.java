@@ -21,6 +21,7 @@ package org.apache.druid.segment.realtime.appenderator;
 
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -53,12 +54,14 @@ import org.apache.druid.timeline.partition.LinearShardSpec;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AppenderatorTest extends InitializedNullHandlingTest
@@ -801,6 +804,84 @@ public class AppenderatorTest extends InitializedNullHandlingTest
     }
   }
 
+  @Test
+  public void testParallelPersistAndMergeAndPush() throws Exception
+  {
+    final ConcurrentMap<String, String> commitMetadata = new ConcurrentHashMap<>();
+    final Supplier<Committer> committerSupplier = committerSupplierFromConcurrentMap(commitMetadata);
+
+    try (final AppenderatorTester tester = new AppenderatorTester(2, 2, 2, false)) {
+      final Appenderator appenderator = tester.getAppenderator();
+
+      // Every second row triggers a persist of one hydrant of each sink, so each sink ends up with three hydrants
+      // that are persisted concurrently with the ones of the other sink.
+      appenderator.startJob();
+      for (int i = 0; i < 3; i++) {
+        commitMetadata.put("x", String.valueOf(i));
+        appenderator.add(IDENTIFIERS.get(0), ir("2000", "foo" + i, 1), committerSupplier);
+        appenderator.add(IDENTIFIERS.get(2), ir("2001", "bar" + i, 2), committerSupplier);
+      }
+      appenderator.close();
+
+      // Restoring only works if the hydrants of each sink were persisted one after the other.
+      try (final AppenderatorTester tester2 = new AppenderatorTester(
+          2,
+          -1,
+          tester.getTuningConfig().getBasePersistDirectory(),
+          false,
+          new SimpleRowIngestionMeters(),
+          2,
+          2,
+          false
+      )) {
+        final Appenderator appenderator2 = tester2.getAppenderator();
+        Assert.assertEquals(ImmutableMap.of("x", "2"), appenderator2.startJob());
+        Assert.assertEquals(
+            ImmutableList.of(IDENTIFIERS.get(0), IDENTIFIERS.get(2)),
+            sorted(appenderator2.getSegments())
+        );
+        Assert.assertEquals(3, appenderator2.getRowCount(IDENTIFIERS.get(0)));
+        Assert.assertEquals(3, appenderator2.getRowCount(IDENTIFIERS.get(2)));
+
+        final SegmentsAndCommitMetadata segmentsAndCommitMetadata = appenderator2.push(
+            appenderator2.getSegments(),
+            null,
+            false
+        ).get();
+        Assert.assertEquals(
+            ImmutableList.of(IDENTIFIERS.get(0), IDENTIFIERS.get(2)),
+            sorted(
+                Lists.transform(segmentsAndCommitMetadata.getSegments(), SegmentIdWithShardSpec::fromDataSegment)
+            )
+        );
+        Assert.assertEquals(sorted(tester2.getPushedSegments()), sorted(segmentsAndCommitMetadata.getSegments()));
+      }
+    }
+  }
+
+  @Test
+  public void testParallelMergeAndPushFailure() throws Exception
+  {
+    try (final AppenderatorTester tester = new AppenderatorTester(2, 2, 2, true)) {
+      final Appenderator appenderator = tester.getAppenderator();
+
+      appenderator.startJob();
+      appenderator.add(IDENTIFIERS.get(0), ir("2000", "foo", 1), Suppliers.ofInstance(Committers.nil()));
+      appenderator.add(IDENTIFIERS.get(1), ir("2000", "bar", 2), Suppliers.ofInstance(Committers.nil()));
+      appenderator.add(IDENTIFIERS.get(2), ir("2001", "baz", 4), Suppliers.ofInstance(Committers.nil()));
+
+      try {
+        appenderator.push(appenderator.getSegments(), null, false).get();
+        Assert.fail("Expected the push to fail");
+      }
+      catch (ExecutionException e) {
+        Assert.assertTrue(Throwables.getRootCause(e) instanceof IOException);
+        Assert.assertEquals("Merge failure test", Throwables.getRootCause(e).getMessage());
+      }
+      Assert.assertTrue(tester.getPushedSegments().isEmpty());
+    }
+  }
+
   private static SegmentIdWithShardSpec si(String interval, String version, int partitionNum)
   {
     return new SegmentIdWithShardSpec(
@@ -53,6 +53,8 @@ import org.apache.druid.query.timeseries.TimeseriesQueryRunnerFactory;
 import org.apache.druid.segment.IndexIO;
 import org.apache.druid.segment.IndexMerger;
 import org.apache.druid.segment.IndexMergerV9;
+import org.apache.druid.segment.IndexSpec;
+import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.column.ColumnConfig;
 import org.apache.druid.segment.incremental.ParseExceptionHandler;
 import org.apache.druid.segment.incremental.RowIngestionMeters;
@@ -64,10 +66,12 @@ import org.apache.druid.segment.join.NoopJoinableFactory;
 import org.apache.druid.segment.loading.DataSegmentPusher;
 import org.apache.druid.segment.realtime.FireDepartmentMetrics;
 import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
+import org.apache.druid.segment.writeout.SegmentWriteOutMediumFactory;
 import org.apache.druid.server.coordination.NoopDataSegmentAnnouncer;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.partition.LinearShardSpec;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
@@ -134,6 +138,39 @@ public class AppenderatorTester implements AutoCloseable
       final boolean enablePushFailure,
       final RowIngestionMeters rowIngestionMeters
   )
+  {
+    this(maxRowsInMemory, maxSizeInBytes, basePersistDirectory, enablePushFailure, rowIngestionMeters, 1, 1, false);
+  }
+
+  public AppenderatorTester(
+      final int maxRowsInMemory,
+      final int numPersistThreads,
+      final int numMergeThreads,
+      final boolean enableMergeFailure
+  )
+  {
+    this(
+        maxRowsInMemory,
+        -1,
+        null,
+        false,
+        new SimpleRowIngestionMeters(),
+        numPersistThreads,
+        numMergeThreads,
+        enableMergeFailure
+    );
+  }
+
+  public AppenderatorTester(
+      final int maxRowsInMemory,
+      final long maxSizeInBytes,
+      final File basePersistDirectory,
+      final boolean enablePushFailure,
+      final RowIngestionMeters rowIngestionMeters,
+      final int numPersistThreads,
+      final int numMergeThreads,
+      final boolean enableMergeFailure
+  )
   {
     objectMapper = new DefaultObjectMapper();
     objectMapper.registerSubtypes(LinearShardSpec.class);
@@ -182,7 +219,20 @@ public class AppenderatorTester implements AutoCloseable
         null,
         null,
         null
-    );
+    )
+    {
+      @Override
+      public int getNumPersistThreads()
+      {
+        return numPersistThreads;
+      }
+
+      @Override
+      public int getNumMergeThreads()
+      {
+        return numMergeThreads;
+      }
+    };
 
     metrics = new FireDepartmentMetrics();
     queryExecutor = Execs.singleThreaded("queryExecutor(%d)");
@@ -198,7 +248,31 @@ public class AppenderatorTester implements AutoCloseable
           }
         }
     );
-    indexMerger = new IndexMergerV9(objectMapper, indexIO, OffHeapMemorySegmentWriteOutMediumFactory.instance());
+    indexMerger = new IndexMergerV9(objectMapper, indexIO, OffHeapMemorySegmentWriteOutMediumFactory.instance())
+    {
+      @Override
+      public File mergeQueryableIndex(
+          List<QueryableIndex> indexes,
+          boolean rollup,
+          AggregatorFactory[] metricAggs,
+          File outDir,
+          IndexSpec indexSpec,
+          @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory
+      ) throws IOException
+      {
+        if (enableMergeFailure) {
+          throw new IOException("Merge failure test");
+        }
+        return super.mergeQueryableIndex(
+            indexes,
+            rollup,
+            metricAggs,
+            outDir,
+            indexSpec,
+            segmentWriteOutMediumFactory
+        );
+      }
+    };
 
     emitter = new ServiceEmitter(
         "test",
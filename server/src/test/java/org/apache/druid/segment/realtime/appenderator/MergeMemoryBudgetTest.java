@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.realtime.appenderator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MergeMemoryBudgetTest
+{
+  @Test
+  public void testUnlimited() throws InterruptedException
+  {
+    final MergeMemoryBudget budget = new MergeMemoryBudget(0);
+    Assert.assertEquals(0, budget.acquire(Long.MAX_VALUE));
+    Assert.assertEquals(0, budget.getUsedBytes());
+  }
+
+  @Test
+  public void testLargeRequestIsCapped() throws InterruptedException
+  {
+    final MergeMemoryBudget budget = new MergeMemoryBudget(100);
+    Assert.assertEquals(100, budget.acquire(1000));
+    Assert.assertEquals(100, budget.getUsedBytes());
+    budget.release(100);
+    Assert.assertEquals(0, budget.getUsedBytes());
+  }
+
+  @Test(timeout = 60_000L)
+  public void testAcquireBlocksUntilRelease() throws InterruptedException
+  {
+    final MergeMemoryBudget budget = new MergeMemoryBudget(100);
+    final long first = budget.acquire(60);
+
+    final CountDownLatch acquired = new CountDownLatch(1);
+    final Thread thread = new Thread(
+        () -> {
+          try {
+            budget.acquire(60);
+            acquired.countDown();
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+    );
+    thread.start();
+
+    Assert.assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+    budget.release(first);
+    acquired.await();
+    Assert.assertEquals(60, budget.getUsedBytes());
+    thread.join();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeBudget()
+  {
+    new MergeMemoryBudget(-1);
+  }
+}
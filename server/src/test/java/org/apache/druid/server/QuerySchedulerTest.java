@@ -51,6 +51,7 @@ import org.apache.druid.query.aggregation.CountAggregatorFactory;
 import org.apache.druid.query.topn.TopNQuery;
 import org.apache.druid.query.topn.TopNQueryBuilder;
 import org.apache.druid.server.initialization.ServerConfig;
+import org.apache.druid.server.scheduling.CostBasedQueryLaningStrategy;
 import org.apache.druid.server.scheduling.HiLoQueryLaningStrategy;
 import org.apache.druid.server.scheduling.ManualQueryPrioritizationStrategy;
 import org.apache.druid.server.scheduling.NoQueryLaningStrategy;
@@ -322,6 +323,74 @@ public class QuerySchedulerTest
     getFuturesAndAssertAftermathIsChill(futures, scheduler, true, true);
   }
 
+  @Test
+  public void testCostFailsWhenOutOfCostCapacity()
+  {
+    // each query costs 24, one per hour of its interval
+    scheduler = new ObservableQueryScheduler(
+        TEST_HI_CAPACITY,
+        ManualQueryPrioritizationStrategy.INSTANCE,
+        new CostBasedQueryLaningStrategy(30L, null, null, null, 0.0, 0.0, 1.0, null),
+        new ServerConfig()
+    );
+    expected.expectMessage(
+        QueryCapacityExceededException.makeRemainingCostErrorMessage(QueryScheduler.TOTAL, 24, 6, 30)
+    );
+    expected.expect(QueryCapacityExceededException.class);
+
+    Query<?> query1 = scheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeInteractiveQuery()), ImmutableSet.of());
+    Assert.assertEquals(24, QueryScheduler.getQueryCost(query1));
+    scheduler.run(query1, Sequences.empty());
+    Assert.assertEquals(6, getCostLimiter(QueryScheduler.TOTAL).getAvailableCapacity());
+    Assert.assertEquals(4, scheduler.getTotalAvailableCapacity());
+
+    // not enough cost capacity left, even though the query count capacity is not exhausted
+    scheduler.run(
+        scheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeInteractiveQuery()), ImmutableSet.of()), Sequences.empty()
+    );
+  }
+
+  @Test
+  public void testCostFailsRightAwayWhenAboveCostCapacity()
+  {
+    scheduler = new ObservableQueryScheduler(
+        TEST_HI_CAPACITY,
+        ManualQueryPrioritizationStrategy.INSTANCE,
+        new CostBasedQueryLaningStrategy(10L, null, null, null, 0.0, 0.0, 1.0, null),
+        new ServerConfig()
+    );
+    expected.expectMessage(QueryCapacityExceededException.makeCostErrorMessage(QueryScheduler.TOTAL, 24, 10));
+    expected.expect(QueryCapacityExceededException.class);
+
+    scheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeInteractiveQuery()), ImmutableSet.of());
+  }
+
+  @Test
+  public void testCostReleasedWhenSequenceIsConsumed() throws IOException
+  {
+    scheduler = new ObservableQueryScheduler(
+        TEST_HI_CAPACITY,
+        ManualQueryPrioritizationStrategy.INSTANCE,
+        new CostBasedQueryLaningStrategy(30L, 20L, 80, null, 0.0, 0.0, 1.0, null),
+        new ServerConfig()
+    );
+
+    for (int i = 0; i < 2; i++) {
+      Query<?> query = scheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeInteractiveQuery()), ImmutableSet.of());
+      Assert.assertEquals(CostBasedQueryLaningStrategy.EXPENSIVE, QueryContexts.getLane(query));
+      Sequence<Integer> results = scheduler.run(query, makeSequence(10));
+      Assert.assertEquals(0, getCostLimiter(CostBasedQueryLaningStrategy.EXPENSIVE).getAvailableCapacity());
+      Assert.assertEquals(6, getCostLimiter(QueryScheduler.TOTAL).getAvailableCapacity());
+      Assert.assertEquals(10, consumeAndCloseSequence(results));
+      Assert.assertEquals(24, getCostLimiter(CostBasedQueryLaningStrategy.EXPENSIVE).getAvailableCapacity());
+      Assert.assertEquals(30, getCostLimiter(QueryScheduler.TOTAL).getAvailableCapacity());
+    }
+    Assert.assertEquals(2, getCostLimiter(CostBasedQueryLaningStrategy.EXPENSIVE).getAdmittedCount());
+    Assert.assertEquals(48, getCostLimiter(CostBasedQueryLaningStrategy.EXPENSIVE).getAdmittedCost());
+    Assert.assertEquals(48, getCostLimiter(QueryScheduler.TOTAL).getAdmittedCost());
+    Assert.assertEquals(TEST_HI_CAPACITY, scheduler.getTotalAvailableCapacity());
+  }
+
   @Test
   public void testConfigNone()
   {
@@ -484,6 +553,15 @@ public class QuerySchedulerTest
     }
   }
 
+  private QueryCostLimiter getCostLimiter(String lane)
+  {
+    return scheduler.getCostLimiters()
+                    .stream()
+                    .filter(limiter -> limiter.getLane().equals(lane))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("no cost limiter for lane " + lane));
+  }
+
   private TopNQuery makeRandomQuery()
   {
     return ThreadLocalRandom.current().nextBoolean() ? makeInteractiveQuery() : makeReportQuery();
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordination;
+
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.emitter.EmittingLogger;
+import org.apache.druid.query.TableDataSource;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.planning.DataSourceAnalysis;
+import org.apache.druid.segment.IndexSpec;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.ReferenceCountingSegment;
+import org.apache.druid.segment.TestHelper;
+import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.incremental.OnheapIncrementalIndex;
+import org.apache.druid.segment.loading.LocalDataSegmentPuller;
+import org.apache.druid.segment.loading.LocalLoadSpec;
+import org.apache.druid.segment.loading.SegmentLoaderConfig;
+import org.apache.druid.segment.loading.SegmentLoaderLocalCacheManager;
+import org.apache.druid.segment.loading.StorageLocationConfig;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
+import org.apache.druid.server.SegmentManager;
+import org.apache.druid.server.metrics.NoopServiceEmitter;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.NoneShardSpec;
+import org.joda.time.Interval;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+public class HotColumnPrefetcherTest
+{
+  private static final String DATA_SOURCE = "test_hot_columns";
+
+  @Rule
+  public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private final ObjectMapper jsonMapper;
+
+  private SegmentLoaderConfig config;
+  private SegmentManager segmentManager;
+  private DataSegment dataSegment;
+
+  public HotColumnPrefetcherTest()
+  {
+    jsonMapper = new DefaultObjectMapper();
+    jsonMapper.registerSubtypes(new NamedType(LocalLoadSpec.class, "local"));
+    jsonMapper.setInjectableValues(
+        new InjectableValues.Std().addValue(
+            LocalDataSegmentPuller.class,
+            new LocalDataSegmentPuller()
+        )
+    );
+  }
+
+  @Before
+  public void setUp() throws Exception
+  {
+    EmittingLogger.registerEmitter(new NoopServiceEmitter());
+
+    final File infoDir = tmpFolder.newFolder("info_dir");
+    final List<StorageLocationConfig> locations = Collections.singletonList(
+        new StorageLocationConfig(tmpFolder.newFolder("segment_cache"), 1_000_000L, null)
+    );
+    config = new SegmentLoaderConfig()
+    {
+      @Override
+      public List<StorageLocationConfig> getLocations()
+      {
+        return locations;
+      }
+
+      @Override
+      public File getInfoDir()
+      {
+        return infoDir;
+      }
+
+      @Override
+      public boolean isPrefetchHotColumns()
+      {
+        return true;
+      }
+
+      @Override
+      public int getNumPrefetchColumns()
+      {
+        return 2;
+      }
+    };
+
+    segmentManager = new SegmentManager(
+        new SegmentLoaderLocalCacheManager(TestHelper.getTestIndexIO(), config, jsonMapper)
+    );
+    dataSegment = pushSegment("2014-10-20/P1D");
+    Assert.assertTrue(segmentManager.loadSegment(dataSegment, false));
+  }
+
+  @Test
+  public void testColumnAccessCounts()
+  {
+    final QueryableIndex index = getQueryableIndex();
+    Assert.assertEquals(
+        ImmutableMap.of(DATA_SOURCE, ImmutableMap.of("__time", 0L, "dim1", 0L, "dim2", 0L, "count", 0L)),
+        segmentManager.getColumnAccessCounts()
+    );
+
+    queryColumns(index);
+    Assert.assertEquals(
+        ImmutableMap.of(DATA_SOURCE, ImmutableMap.of("__time", 0L, "dim1", 3L, "dim2", 2L, "count", 1L)),
+        segmentManager.getColumnAccessCounts()
+    );
+  }
+
+  @Test
+  public void testHotColumnsAreKeptAcrossRestarts() throws Exception
+  {
+    final HotColumnPrefetcher prefetcher = new HotColumnPrefetcher(jsonMapper, config, segmentManager);
+    prefetcher.start();
+    Assert.assertEquals(Collections.emptyList(), prefetcher.getHotColumns(DATA_SOURCE));
+
+    queryColumns(getQueryableIndex());
+    prefetcher.stop();
+    Assert.assertTrue(new File(config.getInfoDir(), HotColumnPrefetcher.HOT_COLUMNS_FILE_NAME).exists());
+
+    final HotColumnPrefetcher restartedPrefetcher = new HotColumnPrefetcher(jsonMapper, config, segmentManager);
+    restartedPrefetcher.start();
+    Assert.assertEquals(ImmutableList.of("dim1", "dim2"), restartedPrefetcher.getHotColumns(DATA_SOURCE));
+    Assert.assertEquals(Collections.emptyList(), restartedPrefetcher.getHotColumns("other"));
+    Assert.assertTrue(segmentManager.prefetchColumns(dataSegment, ImmutableList.of("dim1", "dim2")) > 0);
+    restartedPrefetcher.prefetchNow(dataSegment);
+    restartedPrefetcher.stop();
+  }
+
+  @Test
+  public void testPrefetchDroppedSegment() throws Exception
+  {
+    segmentManager.dropSegment(dataSegment);
+    Assert.assertEquals(0, segmentManager.prefetchColumns(dataSegment, ImmutableList.of("dim1")));
+  }
+
+  private QueryableIndex getQueryableIndex()
+  {
+    final ReferenceCountingSegment segment = segmentManager
+        .getTimeline(DataSourceAnalysis.forDataSource(new TableDataSource(DATA_SOURCE)))
+        .get()
+        .findEntry(dataSegment.getInterval(), dataSegment.getVersion())
+        .getChunk(0)
+        .getObject();
+    return segment.asQueryableIndex();
+  }
+
+  private static void queryColumns(QueryableIndex index)
+  {
+    for (int i = 0; i < 3; i++) {
+      index.getColumnHolder("dim1");
+    }
+    for (int i = 0; i < 2; i++) {
+      index.getColumnHolder("dim2");
+    }
+    index.getColumnHolder("count");
+    index.getColumnHolder("missing");
+  }
+
+  private DataSegment pushSegment(String intervalString) throws Exception
+  {
+    final Interval interval = Intervals.of(intervalString);
+    final IncrementalIndex<?> index = new OnheapIncrementalIndex.Builder()
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("count"))
+        .setMaxRowCount(10)
+        .build();
+    index.add(
+        new MapBasedInputRow(
+            interval.getStart(),
+            ImmutableList.of("dim1", "dim2"),
+            ImmutableMap.of("dim1", "a", "dim2", "b")
+        )
+    );
+
+    final File segmentDir = tmpFolder.newFolder();
+    TestHelper.getTestIndexMergerV9(OffHeapMemorySegmentWriteOutMediumFactory.instance())
+              .persist(index, interval, segmentDir, new IndexSpec(), null);
+    index.close();
+
+    return DataSegment.builder()
+                      .dataSource(DATA_SOURCE)
+                      .interval(interval)
+                      .loadSpec(ImmutableMap.of("type", "local", "path", segmentDir.getCanonicalPath()))
+                      .version("2015-05-27T03:38:35.683Z")
+                      .dimensions(ImmutableList.of("dim1", "dim2"))
+                      .metrics(ImmutableList.of("count"))
+                      .shardSpec(NoneShardSpec.instance())
+                      .binaryVersion(9)
+                      .size(10)
+                      .build();
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.druid.server.coordination;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -30,6 +31,7 @@ import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.concurrent.ScheduledExecutorFactory;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.segment.IndexIO;
+import org.apache.druid.segment.Segment;
 import org.apache.druid.segment.TestHelper;
 import org.apache.druid.segment.loading.CacheTestSegmentLoader;
 import org.apache.druid.segment.loading.SegmentLoaderConfig;
@@ -53,8 +55,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -111,7 +117,8 @@ public class SegmentLoadDropHandlerTest
         )
     );
 
-    scheduledRunnable = new ArrayList<>();
+    // Scheduled from the bootstrap threads too.
+    scheduledRunnable = new CopyOnWriteArrayList<>();
 
     segmentLoader = new CacheTestSegmentLoader();
     segmentManager = new SegmentManager(segmentLoader);
@@ -486,6 +493,180 @@ public class SegmentLoadDropHandlerTest
     Assert.assertTrue(infoDir.delete());
   }
 
+  @Test
+  public void testPrioritizeBootstrap()
+  {
+    final DataSegment old = makeSegment("test", "1", Intervals.of("P1d/2011-04-01"));
+    final DataSegment newest = makeSegment("test", "1", Intervals.of("P1d/2011-04-03"));
+    final DataSegment activeOld = makeSegment("test_active", "1", Intervals.of("P1d/2011-04-01"));
+    final DataSegment activeNew = makeSegment("test_active", "1", Intervals.of("P1d/2011-04-02"));
+    final DataSegment activeNewV2 = makeSegment("test_active", "2", Intervals.of("P1d/2011-04-02"));
+
+    final List<DataSegment> segments = new ArrayList<>(
+        ImmutableList.of(old, activeNewV2, newest, activeOld, activeNew)
+    );
+    SegmentLoadDropHandler.prioritizeBootstrap(segments, ImmutableMap.of("test_active", 10L, "other", 20L));
+    Assert.assertEquals(ImmutableList.of(activeNew, activeNewV2, activeOld, newest, old), segments);
+  }
+
+  @Test(timeout = 60_000L)
+  public void testPrioritizedBootstrap() throws Exception
+  {
+    SegmentLoadDropHandler handler = new SegmentLoadDropHandler(
+        jsonMapper,
+        new SegmentLoaderConfig()
+        {
+          @Override
+          public File getInfoDir()
+          {
+            return infoDir;
+          }
+
+          @Override
+          public int getNumLoadingThreads()
+          {
+            return 5;
+          }
+
+          @Override
+          public List<StorageLocationConfig> getLocations()
+          {
+            return locations;
+          }
+
+          @Override
+          public boolean isPrioritizedBootstrap()
+          {
+            return true;
+          }
+        },
+        announcer,
+        EasyMock.createNiceMock(DataSegmentServerAnnouncer.class),
+        segmentManager,
+        new ServerTypeConfig(ServerType.HISTORICAL)
+    );
+
+    Set<DataSegment> segments = new HashSet<>();
+    for (int i = 0; i < COUNT; ++i) {
+      segments.add(makeSegment("test" + i, "1", Intervals.of("P1d/2011-04-01")));
+      segments.add(makeSegment("test" + i, "1", Intervals.of("P1d/2011-04-02")));
+      segments.add(makeSegment("test_two" + i, "1", Intervals.of("P1d/2011-04-01")));
+    }
+    for (DataSegment segment : segments) {
+      writeSegmentToCache(segment);
+    }
+    final File activityFile = new File(infoDir, SegmentLoadDropHandler.DATA_SOURCE_ACTIVITY_FILE_NAME);
+    jsonMapper.writeValue(activityFile, ImmutableMap.of("test_two0", 10L));
+
+    handler.start();
+    Assert.assertTrue(handler.isStarted());
+    while (!handler.isCacheInitialized()) {
+      Thread.sleep(10);
+    }
+
+    for (int i = 0; i < COUNT; ++i) {
+      Assert.assertEquals(2L, segmentManager.getDataSourceCounts().get("test" + i).longValue());
+      Assert.assertEquals(1L, segmentManager.getDataSourceCounts().get("test_two" + i).longValue());
+    }
+    Assert.assertEquals(3 * COUNT, announceCount.get());
+
+    final SegmentBootstrapProgress progress = handler.getBootstrapProgress();
+    Assert.assertTrue(progress.isDone());
+    Assert.assertEquals(3 * COUNT, progress.getNumSegmentsTotal());
+    Assert.assertEquals(3 * COUNT, progress.getNumSegmentsLoaded());
+    Assert.assertEquals(0, progress.getNumSegmentsFailed());
+    Assert.assertEquals(0, progress.getNumSegmentsPending());
+    Assert.assertEquals(progress.getBytesTotal(), progress.getBytesLoaded());
+    Assert.assertEquals(0L, progress.getEstimatedRemainingMillis().longValue());
+
+    handler.stop();
+
+    // The activity of dataSources which were not queried is kept.
+    Assert.assertEquals(
+        ImmutableMap.of("test_two0", 10L),
+        jsonMapper.readValue(activityFile, new TypeReference<Map<String, Long>>() {})
+    );
+    Assert.assertTrue(activityFile.delete());
+    for (DataSegment segment : segments) {
+      deleteSegmentFromCache(segment);
+    }
+    Assert.assertEquals(0, infoDir.listFiles().length);
+  }
+
+  @Test(timeout = 60_000L)
+  public void testDropDuringPrioritizedBootstrap() throws Exception
+  {
+    final DataSegment segment = makeSegment("test", "1", Intervals.of("P1d/2011-04-01"));
+    writeSegmentToCache(segment);
+
+    final CountDownLatch loadStarted = new CountDownLatch(1);
+    final CountDownLatch dropped = new CountDownLatch(1);
+    final SegmentManager blockingSegmentManager = new SegmentManager(
+        new CacheTestSegmentLoader()
+        {
+          @Override
+          public Segment getSegment(DataSegment segment, boolean lazy)
+          {
+            loadStarted.countDown();
+            try {
+              dropped.await();
+            }
+            catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            return super.getSegment(segment, lazy);
+          }
+        }
+    );
+    SegmentLoadDropHandler handler = new SegmentLoadDropHandler(
+        jsonMapper,
+        new SegmentLoaderConfig()
+        {
+          @Override
+          public File getInfoDir()
+          {
+            return infoDir;
+          }
+
+          @Override
+          public List<StorageLocationConfig> getLocations()
+          {
+            return locations;
+          }
+
+          @Override
+          public boolean isPrioritizedBootstrap()
+          {
+            return true;
+          }
+        },
+        announcer,
+        EasyMock.createNiceMock(DataSegmentServerAnnouncer.class),
+        blockingSegmentManager,
+        scheduledExecutorFactory.create(5, "SegmentLoadDropHandlerTest-[%d]"),
+        new ServerTypeConfig(ServerType.HISTORICAL)
+    );
+
+    // The segment is dropped while the bootstrap loads it, so before it is announced.
+    handler.start();
+    loadStarted.await();
+    handler.removeSegment(segment, DataSegmentChangeCallback.NOOP);
+    dropped.countDown();
+    while (!handler.isCacheInitialized()) {
+      Thread.sleep(10);
+    }
+    Assert.assertFalse(segmentsAnnouncedByMe.contains(segment));
+
+    // Runs the scheduled drop.
+    for (Runnable runnable : scheduledRunnable) {
+      runnable.run();
+    }
+    Assert.assertFalse(segmentsAnnouncedByMe.contains(segment));
+    Assert.assertNull(blockingSegmentManager.getDataSourceCounts().get("test"));
+
+    handler.stop();
+  }
+
   @Test(timeout = 60_000L)
   public void testProcessBatch() throws Exception
   {
@@ -522,4 +703,55 @@ public class SegmentLoadDropHandlerTest
 
     segmentLoadDropHandler.stop();
   }
+
+  @Test(timeout = 60_000L)
+  public void testProcessBatchWithDownloadThreads() throws Exception
+  {
+    SegmentLoadDropHandler handler = new SegmentLoadDropHandler(
+        jsonMapper,
+        new SegmentLoaderConfig()
+        {
+          @Override
+          public File getInfoDir()
+          {
+            return infoDir;
+          }
+
+          @Override
+          public int getNumLoadingThreads()
+          {
+            return 5;
+          }
+
+          @Override
+          public int getNumDownloadThreads()
+          {
+            return 2;
+          }
+
+          @Override
+          public List<StorageLocationConfig> getLocations()
+          {
+            return locations;
+          }
+        },
+        announcer,
+        EasyMock.createNiceMock(DataSegmentServerAnnouncer.class),
+        segmentManager,
+        Executors.newScheduledThreadPool(5, Execs.makeThreadFactory("SegmentLoadDropHandlerTest-[%d]")),
+        new ServerTypeConfig(ServerType.HISTORICAL)
+    );
+    handler.start();
+
+    DataSegment segment = makeSegment("batchtest1", "1", Intervals.of("P1d/2011-04-01"));
+    List<DataSegmentChangeRequest> batch = ImmutableList.of(new SegmentChangeRequestLoad(segment));
+
+    // The batch is resolved once the segment is downloaded by a download thread, and loaded by a loading thread.
+    List<SegmentLoadDropHandler.DataSegmentChangeRequestAndStatus> result = handler.processBatch(batch).get();
+    Assert.assertEquals(SegmentLoadDropHandler.Status.SUCCESS, result.get(0).getStatus());
+    Assert.assertTrue(segmentLoader.getSegmentsDownloaded().contains(segment));
+    Assert.assertTrue(segmentsAnnouncedByMe.contains(segment));
+
+    handler.stop();
+  }
 }
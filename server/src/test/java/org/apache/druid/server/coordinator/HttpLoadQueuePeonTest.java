@@ -23,6 +23,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.java.util.common.RE;
 import org.apache.druid.java.util.common.concurrent.Execs;
@@ -40,14 +41,22 @@ import org.jboss.netty.handler.codec.http.HttpResponse;
 import org.jboss.netty.handler.codec.http.HttpResponseStatus;
 import org.jboss.netty.handler.codec.http.HttpVersion;
 import org.joda.time.Duration;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  */
@@ -164,6 +173,207 @@ public class HttpLoadQueuePeonTest
 
   }
 
+  @Test(timeout = 60_000L)
+  public void testMultipleOutstandingBatches() throws Exception
+  {
+    final PendingHttpClient httpClient = new PendingHttpClient();
+    HttpLoadQueuePeon httpLoadQueuePeon = new HttpLoadQueuePeon(
+        "http://dummy:4000",
+        ServerTestHelper.MAPPER,
+        httpClient,
+        new TestDruidCoordinatorConfig(null, null, null, null, null, null, 10, Duration.ZERO)
+        {
+          @Override
+          public int getHttpLoadQueuePeonBatchSize()
+          {
+            return 1;
+          }
+
+          @Override
+          public int getHttpLoadQueuePeonMaxOutstandingBatches()
+          {
+            return 2;
+          }
+        },
+        Executors.newScheduledThreadPool(
+            2,
+            Execs.makeThreadFactory("HttpLoadQueuePeonTest-%s")
+        ),
+        Execs.singleThreaded("HttpLoadQueuePeonTest")
+    );
+
+    httpLoadQueuePeon.start();
+
+    httpLoadQueuePeon.loadSegment(segment1, () -> {});
+    httpLoadQueuePeon.loadSegment(segment2, () -> {});
+    httpLoadQueuePeon.loadSegment(segment3, () -> {});
+
+    // Two batches are sent without waiting for the response of the first one.
+    final List<DataSegmentChangeRequest> first = httpClient.requests.take();
+    final List<DataSegmentChangeRequest> second = httpClient.requests.take();
+    Assert.assertEquals(1, first.size());
+    Assert.assertEquals(1, second.size());
+    Assert.assertNotEquals(first, second);
+    Assert.assertNull(httpClient.requests.poll(100, TimeUnit.MILLISECONDS));
+
+    // The third segment is sent as soon as a batch completes, while the other one is still outstanding.
+    httpClient.respond(first, SegmentLoadDropHandler.Status.SUCCESS);
+    final List<DataSegmentChangeRequest> third = httpClient.requests.take();
+    Assert.assertEquals(1, third.size());
+    Assert.assertFalse(third.equals(first) || third.equals(second));
+    Assert.assertEquals(2, httpLoadQueuePeon.getNumberOfSegmentsInQueue());
+
+    httpLoadQueuePeon.stop();
+  }
+
+  @Test(timeout = 60_000L)
+  public void testBatchSizeAdaptsToCompletionRate() throws Exception
+  {
+    final PendingHttpClient httpClient = new PendingHttpClient();
+    HttpLoadQueuePeon httpLoadQueuePeon = new HttpLoadQueuePeon(
+        "http://dummy:4000",
+        ServerTestHelper.MAPPER,
+        httpClient,
+        new TestDruidCoordinatorConfig(null, null, null, null, null, null, 10, Duration.ZERO)
+        {
+          @Override
+          public int getHttpLoadQueuePeonBatchSize()
+          {
+            return 1;
+          }
+
+          @Override
+          public int getHttpLoadQueuePeonMaxBatchSize()
+          {
+            return 6;
+          }
+
+          @Override
+          public int getHttpLoadQueuePeonMaxOutstandingBatches()
+          {
+            return 20;
+          }
+        },
+        Executors.newScheduledThreadPool(
+            2,
+            Execs.makeThreadFactory("HttpLoadQueuePeonTest-%s")
+        ),
+        Execs.singleThreaded("HttpLoadQueuePeonTest")
+    );
+
+    httpLoadQueuePeon.start();
+
+    // The time the server had nothing to do before the first requests doesn't count in its completion rate.
+    Thread.sleep(2000);
+    for (int i = 0; i < 500; i++) {
+      httpLoadQueuePeon.loadSegment(
+          new DataSegment("test", Intervals.of("2014/2015"), "v" + i, null, null, null, null, 0, 0),
+          () -> {}
+      );
+    }
+
+    final Deque<List<DataSegmentChangeRequest>> outstanding = new ArrayDeque<>();
+    for (int i = 0; i < 20; i++) {
+      outstanding.add(httpClient.requests.take());
+    }
+    Assert.assertEquals(1, httpLoadQueuePeon.getBatchSize());
+
+    // 16 requests completed in a bit more than a second: the batches grow, but not up to the maximum yet. Had the idle
+    // time counted, the batches would have at most 2 requests.
+    final int firstSize = respondForMoreThanBatchDuration(httpClient, outstanding);
+    Assert.assertTrue("batch size " + firstSize, firstSize > 2 && firstSize < 6);
+    Assert.assertEquals(firstSize, httpLoadQueuePeon.getBatchSize());
+
+    // The batches grow further, but stay capped at the maximum.
+    Assert.assertEquals(6, respondForMoreThanBatchDuration(httpClient, outstanding));
+    Assert.assertEquals(6, respondForMoreThanBatchDuration(httpClient, outstanding));
+    Assert.assertEquals(6, httpLoadQueuePeon.getBatchSize());
+
+    httpLoadQueuePeon.stop();
+  }
+
+  /**
+   * Completes 15 of the outstanding batches right away and one more after the one second batch duration has elapsed,
+   * so that the completion rate of the server is updated, and returns the size of the batch sent next.
+   */
+  private static int respondForMoreThanBatchDuration(
+      PendingHttpClient httpClient,
+      Deque<List<DataSegmentChangeRequest>> outstanding
+  ) throws Exception
+  {
+    for (int i = 0; i < 15; i++) {
+      httpClient.respond(outstanding.poll(), SegmentLoadDropHandler.Status.SUCCESS);
+    }
+    for (int i = 0; i < 15; i++) {
+      outstanding.add(httpClient.requests.take());
+    }
+    Thread.sleep(1100);
+    httpClient.respond(outstanding.poll(), SegmentLoadDropHandler.Status.SUCCESS);
+    final List<DataSegmentChangeRequest> next = httpClient.requests.take();
+    outstanding.add(next);
+    return next.size();
+  }
+
+  /**
+   * Holds the responses to the requests until {@link #respond} is called.
+   */
+  private static class PendingHttpClient implements HttpClient
+  {
+    private final BlockingQueue<List<DataSegmentChangeRequest>> requests = new LinkedBlockingQueue<>();
+    private final Map<List<DataSegmentChangeRequest>, SettableFuture<InputStream>> futures = new ConcurrentHashMap<>();
+
+    @Override
+    public <Intermediate, Final> ListenableFuture<Final> go(
+        Request request,
+        HttpResponseHandler<Intermediate, Final> httpResponseHandler
+    )
+    {
+      throw new UnsupportedOperationException("Not Implemented.");
+    }
+
+    @Override
+    public <Intermediate, Final> ListenableFuture<Final> go(
+        Request request,
+        HttpResponseHandler<Intermediate, Final> httpResponseHandler,
+        Duration duration
+    )
+    {
+      HttpResponse httpResponse = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+      httpResponse.setContent(ChannelBuffers.buffer(0));
+      httpResponseHandler.handleResponse(httpResponse, null);
+      try {
+        List<DataSegmentChangeRequest> changeRequests = ServerTestHelper.MAPPER.readValue(
+            request.getContent().array(), new TypeReference<List<DataSegmentChangeRequest>>()
+            {
+            }
+        );
+        SettableFuture<InputStream> future = SettableFuture.create();
+        futures.put(changeRequests, future);
+        requests.add(changeRequests);
+        return (ListenableFuture) future;
+      }
+      catch (Exception ex) {
+        throw new RE(ex, "Unexpected exception.");
+      }
+    }
+
+    private void respond(List<DataSegmentChangeRequest> changeRequests, SegmentLoadDropHandler.Status status)
+        throws Exception
+    {
+      List<SegmentLoadDropHandler.DataSegmentChangeRequestAndStatus> statuses = new ArrayList<>(changeRequests.size());
+      for (DataSegmentChangeRequest cr : changeRequests) {
+        statuses.add(new SegmentLoadDropHandler.DataSegmentChangeRequestAndStatus(cr, status));
+      }
+      futures.remove(changeRequests).set(
+          new ByteArrayInputStream(
+              ServerTestHelper.MAPPER
+                  .writerWithType(HttpLoadQueuePeon.RESPONSE_ENTITY_TYPE_REF)
+                  .writeValueAsBytes(statuses)
+          )
+      );
+    }
+  }
+
   private static class TestHttpClient implements HttpClient
   {
     @Override
@@ -1330,6 +1330,52 @@ public class RunRulesTest
     EasyMock.verify(mockPeon);
   }
 
+  @Test
+  public void testRunSkipsFullyReplicatedSegments()
+  {
+    mockCoordinator();
+    // No segment must be loaded or dropped.
+    EasyMock.expect(mockPeon.getSegmentsToLoad()).andReturn(new HashSet<>()).anyTimes();
+    EasyMock.expect(mockPeon.getSegmentsMarkedToDrop()).andReturn(new HashSet<>()).anyTimes();
+    EasyMock.replay(mockPeon);
+
+    EasyMock.expect(databaseRuleManager.getRulesWithDefault(EasyMock.anyObject())).andReturn(
+        Collections.singletonList(new ForeverLoadRule(ImmutableMap.of("hot", 1, "normal", 1)))
+    ).atLeastOnce();
+    EasyMock.replay(databaseRuleManager);
+
+    DruidServer server1 = new DruidServer("server1", "host1", null, 1000, ServerType.HISTORICAL, "hot", 0);
+    DruidServer server2 = new DruidServer("serverNorm2", "hostNorm2", null, 1000, ServerType.HISTORICAL, "normal", 0);
+    for (DataSegment segment : usedSegments) {
+      server1.addDataSegment(segment);
+      server2.addDataSegment(segment);
+    }
+
+    DruidCluster druidCluster = DruidClusterBuilder
+        .newBuilder()
+        .addTier("hot", new ServerHolder(server1.toImmutableDruidServer(), mockPeon))
+        .addTier("normal", new ServerHolder(server2.toImmutableDruidServer(), mockPeon))
+        .build();
+
+    ListeningExecutorService exec = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(2));
+    DruidCoordinatorRuntimeParams params = makeCoordinatorRuntimeParams(druidCluster, new RandomBalancerStrategy())
+        .withComputeExec(exec)
+        .build();
+
+    DruidCoordinatorRuntimeParams afterParams = ruleRunner.run(params);
+    CoordinatorStats stats = afterParams.getCoordinatorStats();
+
+    Assert.assertEquals(24L, stats.getGlobalStat(RunRules.FULLY_REPLICATED_COUNT));
+    Assert.assertEquals(0L, stats.getTieredStat("assignedCount", "hot"));
+    Assert.assertEquals(0L, stats.getTieredStat("assignedCount", "normal"));
+    Assert.assertEquals(0L, stats.getTieredStat("droppedCount", "hot"));
+    Assert.assertEquals(24L, stats.getTieredStat(LoadRule.REQUIRED_CAPACITY, "hot"));
+    Assert.assertEquals(24L, stats.getTieredStat(LoadRule.REQUIRED_CAPACITY, "normal"));
+
+    exec.shutdown();
+    EasyMock.verify(mockPeon);
+  }
+
   private void mockCoordinator()
   {
     EasyMock.expect(coordinator.getDynamicConfigs()).andReturn(createCoordinatorDynamicConfig()).anyTimes();
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.coordinator;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.druid.client.ImmutableDruidDataSource;
+import org.apache.druid.client.ImmutableDruidServer;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.server.coordination.DruidServerMetadata;
+import org.apache.druid.server.coordination.ServerType;
+import org.apache.druid.timeline.DataSegment;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+public class SampledCostBalancerStrategyTest
+{
+  private static final DateTime START = DateTimes.of("2020-01-01");
+  private static final int NUM_HOURS = 1440;
+
+  private ListeningExecutorService exec;
+  private ServerHolder server;
+
+  @Before
+  public void setUp()
+  {
+    exec = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(1));
+
+    // Two segments of "a" per hour, and one segment of "b" every three hours, over 60 days.
+    final List<DataSegment> segmentsA = new ArrayList<>();
+    final List<DataSegment> segmentsB = new ArrayList<>();
+    int index = 0;
+    for (int hour = 0; hour < NUM_HOURS; hour++) {
+      segmentsA.add(CostBalancerStrategyTest.getSegment(index++, "a", getHour(hour)));
+      segmentsA.add(CostBalancerStrategyTest.getSegment(index++, "a", getHour(hour)));
+      if (hour % 3 == 0) {
+        segmentsB.add(CostBalancerStrategyTest.getSegment(index++, "b", getHour(hour)));
+      }
+    }
+    server = new ServerHolder(
+        new ImmutableDruidServer(
+            new DruidServerMetadata("server", "localhost", null, Long.MAX_VALUE, ServerType.HISTORICAL, "hot", 1),
+            0L,
+            ImmutableMap.of(
+                "a", new ImmutableDruidDataSource("a", Collections.emptyMap(), segmentsA),
+                "b", new ImmutableDruidDataSource("b", Collections.emptyMap(), segmentsB)
+            ),
+            segmentsA.size() + segmentsB.size()
+        ),
+        new LoadQueuePeonTester()
+    );
+  }
+
+  @After
+  public void tearDown()
+  {
+    exec.shutdownNow();
+  }
+
+  @Test
+  public void testComputeCostWithinBudgetMatchesCostBalancerStrategy()
+  {
+    final CostBalancerStrategy costStrategy = new CostBalancerStrategy(exec);
+    final SampledCostBalancerStrategy sampledStrategy = new SampledCostBalancerStrategy(exec, NUM_HOURS);
+
+    // Segments further than the horizon are ignored, which is negligible unless all the segments are far.
+    for (int hour : new int[]{-5, 100, 720, 1439}) {
+      final DataSegment segment = CostBalancerStrategyTest.getSegment(1, "a", getHour(hour));
+      final double expected = costStrategy.computeCost(segment, server, false);
+      Assert.assertEquals(expected, sampledStrategy.computeCost(segment, server, false), expected * 1e-6);
+    }
+  }
+
+  @Test
+  public void testComputeCostWithSamplingApproximatesCostBalancerStrategy()
+  {
+    final CostBalancerStrategy costStrategy = new CostBalancerStrategy(exec);
+    final SampledCostBalancerStrategy sampledStrategy = new SampledCostBalancerStrategy(exec, 50);
+
+    for (int hour : new int[]{-5, 100, 720, 1439, 2000}) {
+      final DataSegment segment = CostBalancerStrategyTest.getSegment(1, "a", getHour(hour));
+      final double expected = costStrategy.computeCost(segment, server, false);
+      Assert.assertEquals(expected, sampledStrategy.computeCost(segment, server, false), expected * 0.05);
+    }
+  }
+
+  @Test
+  public void testComputeCostExcludesProposalSegment()
+  {
+    final CostBalancerStrategy costStrategy = new CostBalancerStrategy(exec);
+    final SampledCostBalancerStrategy sampledStrategy = new SampledCostBalancerStrategy(exec, NUM_HOURS);
+
+    final DataSegment servedSegment = server.getServer().getDataSource("a").getSegments().iterator().next();
+    Assert.assertEquals(
+        Double.POSITIVE_INFINITY,
+        sampledStrategy.computeCost(servedSegment, server, false),
+        0
+    );
+    final double expected = costStrategy.computeCost(servedSegment, server, true);
+    Assert.assertEquals(expected, sampledStrategy.computeCost(servedSegment, server, true), expected * 1e-6);
+  }
+
+  @Test
+  public void testFindNewSegmentHomeReplicator()
+  {
+    final List<ServerHolder> serverHolderList = CostBalancerStrategyTest.setupDummyCluster(10, 20);
+    final DataSegment segment = CostBalancerStrategyTest.getSegment(1000);
+
+    final BalancerStrategy strategy = new SampledCostBalancerStrategy(exec, 5);
+    final ServerHolder holder = strategy.findNewSegmentHomeReplicator(segment, serverHolderList);
+    Assert.assertNotNull("Should be able to find a place for new segment!!", holder);
+    Assert.assertEquals("Best Server should be BEST_SERVER", "BEST_SERVER", holder.getServer().getName());
+  }
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    final DefaultObjectMapper mapper = new DefaultObjectMapper();
+    final BalancerStrategyFactory factory = mapper.readValue(
+        "{\"strategy\": \"sampledCost\", \"maxSamplesPerServer\": 100}",
+        BalancerStrategyFactory.class
+    );
+    Assert.assertTrue(factory instanceof SampledCostBalancerStrategyFactory);
+    Assert.assertEquals(100, ((SampledCostBalancerStrategyFactory) factory).getMaxSamplesPerServer());
+  }
+
+  private static Interval getHour(int hour)
+  {
+    return new Interval(START.plusHours(hour), START.plusHours(hour + 1));
+  }
+}
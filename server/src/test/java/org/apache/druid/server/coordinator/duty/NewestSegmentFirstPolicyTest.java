@@ -19,14 +19,19 @@
 
 package org.apache.druid.server.coordinator.duty;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.apache.druid.indexer.partitions.DynamicPartitionsSpec;
 import org.apache.druid.jackson.DefaultObjectMapper;
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.java.util.common.guava.Comparators;
+import org.apache.druid.segment.IndexSpec;
 import org.apache.druid.server.coordinator.DataSourceCompactionConfig;
+import org.apache.druid.server.coordinator.UserCompactionTaskQueryTuningConfig;
+import org.apache.druid.timeline.CompactionState;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.Partitions;
 import org.apache.druid.timeline.VersionedIntervalTimeline;
@@ -38,6 +43,7 @@ import org.joda.time.Period;
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -51,7 +57,8 @@ public class NewestSegmentFirstPolicyTest
   private static final long DEFAULT_SEGMENT_SIZE = 1000;
   private static final int DEFAULT_NUM_SEGMENTS_PER_SHARD = 4;
 
-  private final NewestSegmentFirstPolicy policy = new NewestSegmentFirstPolicy(new DefaultObjectMapper());
+  private final ObjectMapper objectMapper = new DefaultObjectMapper();
+  private final NewestSegmentFirstPolicy policy = new NewestSegmentFirstPolicy(objectMapper);
 
   @Test
   public void testLargeOffsetAndSmallSegmentInterval()
@@ -455,6 +462,47 @@ public class NewestSegmentFirstPolicyTest
     );
   }
 
+  @Test
+  public void testIgnoreNumColumnMergeThreadsOfIndexSpec()
+  {
+    final Period segmentPeriod = new Period("PT1H");
+    final CompactionState compactionState = new CompactionState(
+        new DynamicPartitionsSpec(null, Long.MAX_VALUE),
+        new IndexSpec().asMap(objectMapper)
+    );
+    final VersionedIntervalTimeline<String, DataSegment> timeline = createTimeline(
+        new SegmentGenerateSpec(
+            Intervals.of("2017-11-16T00:00:00/2017-11-17T00:00:00"),
+            segmentPeriod,
+            DEFAULT_SEGMENT_SIZE,
+            DEFAULT_NUM_SEGMENTS_PER_SHARD,
+            compactionState
+        )
+    );
+
+    // Only the number of column merge threads differs from the index spec the segments were compacted with.
+    final CompactionSegmentIterator iterator = policy.reset(
+        ImmutableMap.of(
+            DATA_SOURCE,
+            createCompactionConfig(10000, new Period("PT1H"), createTuningConfig(makeIndexSpec(null, 4)))
+        ),
+        ImmutableMap.of(DATA_SOURCE, timeline),
+        Collections.emptyMap()
+    );
+    Assert.assertFalse(iterator.hasNext());
+
+    // The segment format differs from the index spec the segments were compacted with.
+    final CompactionSegmentIterator iteratorWithDifferentSpec = policy.reset(
+        ImmutableMap.of(
+            DATA_SOURCE,
+            createCompactionConfig(10000, new Period("PT1H"), createTuningConfig(makeIndexSpec(5, null)))
+        ),
+        ImmutableMap.of(DATA_SOURCE, timeline),
+        Collections.emptyMap()
+    );
+    Assert.assertTrue(iteratorWithDifferentSpec.hasNext());
+  }
+
   private static void assertCompactSegmentIntervals(
       CompactionSegmentIterator iterator,
       Period segmentPeriod,
@@ -531,6 +579,7 @@ public class NewestSegmentFirstPolicyTest
               ImmutableList.of(),
               ImmutableList.of(),
               shardSpec,
+              spec.lastCompactionState,
               0,
               spec.segmentSize
           );
@@ -548,6 +597,15 @@ public class NewestSegmentFirstPolicyTest
       long inputSegmentSizeBytes,
       Period skipOffsetFromLatest
   )
+  {
+    return createCompactionConfig(inputSegmentSizeBytes, skipOffsetFromLatest, null);
+  }
+
+  private DataSourceCompactionConfig createCompactionConfig(
+      long inputSegmentSizeBytes,
+      Period skipOffsetFromLatest,
+      @Nullable UserCompactionTaskQueryTuningConfig tuningConfig
+  )
   {
     return new DataSourceCompactionConfig(
         DATA_SOURCE,
@@ -555,17 +613,47 @@ public class NewestSegmentFirstPolicyTest
         inputSegmentSizeBytes,
         null,
         skipOffsetFromLatest,
+        tuningConfig,
+        null
+    );
+  }
+
+  private static UserCompactionTaskQueryTuningConfig createTuningConfig(IndexSpec indexSpec)
+  {
+    return new UserCompactionTaskQueryTuningConfig(
+        null,
+        null,
+        null,
+        null,
+        null,
+        indexSpec,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
         null,
         null
     );
   }
 
+  private static IndexSpec makeIndexSpec(@Nullable Integer zstdCompressionLevel, @Nullable Integer numColumnMergeThreads)
+  {
+    return new IndexSpec(null, null, null, null, null, null, null, zstdCompressionLevel, numColumnMergeThreads);
+  }
+
   private static class SegmentGenerateSpec
   {
     private final Interval totalInterval;
     private final Period segmentPeriod;
     private final long segmentSize;
     private final int numSegmentsPerShard;
+    @Nullable
+    private final CompactionState lastCompactionState;
 
     SegmentGenerateSpec(Interval totalInterval, Period segmentPeriod)
     {
@@ -573,12 +661,24 @@ public class NewestSegmentFirstPolicyTest
     }
 
     SegmentGenerateSpec(Interval totalInterval, Period segmentPeriod, long segmentSize, int numSegmentsPerShard)
+    {
+      this(totalInterval, segmentPeriod, segmentSize, numSegmentsPerShard, null);
+    }
+
+    SegmentGenerateSpec(
+        Interval totalInterval,
+        Period segmentPeriod,
+        long segmentSize,
+        int numSegmentsPerShard,
+        @Nullable CompactionState lastCompactionState
+    )
     {
       Preconditions.checkArgument(numSegmentsPerShard >= 1);
       this.totalInterval = totalInterval;
       this.segmentPeriod = segmentPeriod;
       this.segmentSize = segmentSize;
       this.numSegmentsPerShard = numSegmentsPerShard;
+      this.lastCompactionState = lastCompactionState;
     }
   }
 }
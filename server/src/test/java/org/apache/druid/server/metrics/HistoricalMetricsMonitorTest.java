@@ -29,6 +29,7 @@ import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.java.util.emitter.service.ServiceEventBuilder;
 import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
 import org.apache.druid.server.SegmentManager;
+import org.apache.druid.server.coordination.SegmentBootstrapProgress;
 import org.apache.druid.server.coordination.SegmentLoadDropHandler;
 import org.apache.druid.timeline.DataSegment;
 import org.easymock.Capture;
@@ -81,6 +82,7 @@ public class HistoricalMetricsMonitorTest extends EasyMockSupport
     final String tier = "tier";
 
     EasyMock.expect(druidServerConfig.getMaxSize()).andReturn(maxSize).once();
+    EasyMock.expect(segmentLoadDropMgr.getBootstrapProgress()).andReturn(new SegmentBootstrapProgress()).once();
     EasyMock.expect(segmentLoadDropMgr.getPendingDeleteSnapshot()).andReturn(ImmutableList.of(dataSegment)).once();
     EasyMock.expect(druidServerConfig.getTier()).andReturn(tier).once();
     EasyMock.expect(druidServerConfig.getPriority()).andReturn(priority).once();
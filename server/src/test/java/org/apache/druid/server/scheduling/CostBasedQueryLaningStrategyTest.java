@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.server.scheduling;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import org.apache.druid.client.SegmentServerSelector;
+import org.apache.druid.client.selector.HighestPriorityTierSelectorStrategy;
+import org.apache.druid.client.selector.RandomServerSelectorStrategy;
+import org.apache.druid.client.selector.ServerSelector;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.SegmentDescriptor;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.timeseries.TimeseriesQuery;
+import org.apache.druid.server.QueryLaningStrategy;
+import org.apache.druid.server.QueryScheduler;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.NumberedShardSpec;
+import org.joda.time.Interval;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class CostBasedQueryLaningStrategyTest
+{
+  private static final Interval INTERVAL = Intervals.of("2020-01-01/2020-01-02");
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private Druids.TimeseriesQueryBuilder queryBuilder;
+
+  @Before
+  public void setup()
+  {
+    this.queryBuilder = Druids.newTimeseriesQueryBuilder()
+                              .dataSource("test")
+                              .intervals(ImmutableList.of(INTERVAL))
+                              .granularity(Granularities.DAY)
+                              .aggregators(new CountAggregatorFactory("count"));
+  }
+
+  @Test
+  public void testMaxTotalCostRequired()
+  {
+    expectedException.expect(NullPointerException.class);
+    expectedException.expectMessage("maxTotalCost must be set");
+    QueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(null, null, null, null, null, null, null, null);
+  }
+
+  @Test
+  public void testMaxExpensiveCostPercentMustBeInRange()
+  {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("maxExpensiveCostPercent must be in the range 1 to 100");
+    QueryLaningStrategy strategy = new CostBasedQueryLaningStrategy(100L, 10L, 101, null, null, null, null, null);
+  }
+
+  @Test
+  public void testLaneCostLimits()
+  {
+    Object2LongMap<String> limits =
+        new CostBasedQueryLaningStrategy(100L, null, null, null, null, null, null, null).getLaneCostLimits();
+    Assert.assertEquals(1, limits.size());
+    Assert.assertEquals(100, limits.getLong(QueryScheduler.TOTAL));
+
+    limits = new CostBasedQueryLaningStrategy(100L, 10L, 25, null, null, null, null, null).getLaneCostLimits();
+    Assert.assertEquals(2, limits.size());
+    Assert.assertEquals(100, limits.getLong(QueryScheduler.TOTAL));
+    Assert.assertEquals(25, limits.getLong(CostBasedQueryLaningStrategy.EXPENSIVE));
+
+    // no lane is limited by query count
+    Assert.assertTrue(
+        new CostBasedQueryLaningStrategy(100L, 10L, 25, null, null, null, null, null).getLaneLimits(10).isEmpty()
+    );
+  }
+
+  @Test
+  public void testComputeCost()
+  {
+    final Set<SegmentServerSelector> segments = makeSegments(10, 100 * 1024 * 1024);
+    final TimeseriesQuery query = queryBuilder.build();
+
+    // 1 per segment and 0.01 per megabyte by default
+    Assert.assertEquals(
+        20,
+        new CostBasedQueryLaningStrategy(100L, null, null, null, null, null, null, null)
+            .computeCost(QueryPlus.wrap(query), segments)
+    );
+    // 24 hours
+    Assert.assertEquals(
+        10 + 48,
+        new CostBasedQueryLaningStrategy(100L, null, null, null, 1.0, 0.0, 2.0, null)
+            .computeCost(QueryPlus.wrap(query), segments)
+    );
+    Assert.assertEquals(
+        60,
+        new CostBasedQueryLaningStrategy(100L, null, null, null, null, null, null, ImmutableMap.of("timeseries", 3.0))
+            .computeCost(QueryPlus.wrap(query), segments)
+    );
+    Assert.assertEquals(
+        20,
+        new CostBasedQueryLaningStrategy(100L, null, null, null, null, null, null, ImmutableMap.of("groupBy", 3.0))
+            .computeCost(QueryPlus.wrap(query), segments)
+    );
+    // at least 1
+    Assert.assertEquals(
+        1,
+        new CostBasedQueryLaningStrategy(100L, null, null, null, null, null, null, null)
+            .computeCost(QueryPlus.wrap(query), ImmutableSet.of())
+    );
+  }
+
+  @Test
+  public void testLaningCheapQuery()
+  {
+    final CostBasedQueryLaningStrategy strategy =
+        new CostBasedQueryLaningStrategy(100L, 10L, null, null, null, null, null, null);
+    Assert.assertFalse(strategy.computeLane(QueryPlus.wrap(makeQueryWithCost(9)), ImmutableSet.of()).isPresent());
+  }
+
+  @Test
+  public void testLaningExpensiveQuery()
+  {
+    final CostBasedQueryLaningStrategy strategy =
+        new CostBasedQueryLaningStrategy(100L, 10L, null, null, null, null, null, null);
+    Assert.assertEquals(
+        CostBasedQueryLaningStrategy.EXPENSIVE,
+        strategy.computeLane(QueryPlus.wrap(makeQueryWithCost(10)), ImmutableSet.of()).get()
+    );
+  }
+
+  @Test
+  public void testLaningWithoutThreshold()
+  {
+    final CostBasedQueryLaningStrategy strategy =
+        new CostBasedQueryLaningStrategy(100L, null, null, null, null, null, null, null);
+    Assert.assertFalse(strategy.computeLane(QueryPlus.wrap(makeQueryWithCost(50)), ImmutableSet.of()).isPresent());
+  }
+
+  @Test
+  public void testLaningPreservesManualSetLane()
+  {
+    final CostBasedQueryLaningStrategy strategy =
+        new CostBasedQueryLaningStrategy(100L, 10L, null, null, null, null, null, null);
+    final TimeseriesQuery query = queryBuilder.context(
+        ImmutableMap.of(QueryScheduler.COST_KEY, 50, QueryContexts.LANE_KEY, "interactive")
+    ).build();
+    Assert.assertEquals("interactive", strategy.computeLane(QueryPlus.wrap(query), ImmutableSet.of()).get());
+  }
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    final QueryLaningStrategy strategy = new DefaultObjectMapper().readValue(
+        "{\"strategy\": \"cost\", \"maxTotalCost\": 1000, \"expensiveCostThreshold\": 100, \"maxWaitMillis\": 500}",
+        QueryLaningStrategy.class
+    );
+    Assert.assertTrue(strategy instanceof CostBasedQueryLaningStrategy);
+    Assert.assertEquals(500, strategy.getMaxCostWaitMillis());
+    Assert.assertEquals(500, strategy.getLaneCostLimits().getLong(CostBasedQueryLaningStrategy.EXPENSIVE));
+  }
+
+  private Query<?> makeQueryWithCost(long cost)
+  {
+    return queryBuilder.context(ImmutableMap.of(QueryScheduler.COST_KEY, cost)).build();
+  }
+
+  private static Set<SegmentServerSelector> makeSegments(int numSegments, long segmentSize)
+  {
+    final Set<SegmentServerSelector> segments = new HashSet<>();
+    for (int i = 0; i < numSegments; i++) {
+      final DataSegment segment = DataSegment.builder()
+                                             .dataSource("test")
+                                             .interval(INTERVAL)
+                                             .version("v1")
+                                             .shardSpec(new NumberedShardSpec(i, numSegments))
+                                             .size(segmentSize)
+                                             .build();
+      segments.add(
+          new SegmentServerSelector(
+              new ServerSelector(
+                  segment,
+                  new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy())
+              ),
+              new SegmentDescriptor(INTERVAL, "v1", i)
+          )
+      );
+    }
+    return segments;
+  }
+}
@@ -1120,6 +1120,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectWithProjection() throws Exception
   {
+    // Cannot vectorize due to virtual columns.
+    cannotVectorize();
+
     testQuery(
         "SELECT SUBSTRING(dim2, 1, 1) FROM druid.foo LIMIT 2",
         ImmutableList.of(
@@ -1169,6 +1172,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectStarWithLimitTimeDescending() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         PLANNER_CONFIG_DEFAULT_NO_COMPLEX_SERDE,
         QUERY_CONTEXT_DEFAULT,
@@ -1247,6 +1253,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectSingleColumnWithLimitDescending() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1 FROM druid.foo ORDER BY __time DESC LIMIT 2",
         ImmutableList.of(
@@ -1296,6 +1305,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectLimitWrapping() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1 FROM druid.foo ORDER BY __time DESC",
         OUTER_LIMIT_CONTEXT,
@@ -1320,6 +1332,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectLimitWrappingOnTopOfOffset() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1 FROM druid.foo ORDER BY __time DESC OFFSET 1",
         OUTER_LIMIT_CONTEXT,
@@ -1345,6 +1360,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectLimitWrappingOnTopOfOffsetAndLowLimit() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1 FROM druid.foo ORDER BY __time DESC LIMIT 1 OFFSET 1",
         OUTER_LIMIT_CONTEXT,
@@ -1369,6 +1387,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectLimitWrappingOnTopOfOffsetAndHighLimit() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1 FROM druid.foo ORDER BY __time DESC LIMIT 10 OFFSET 1",
         OUTER_LIMIT_CONTEXT,
@@ -1394,6 +1415,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectLimitWrappingAgainAkaIDontReallyQuiteUnderstandCalciteQueryPlanning() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     // this test is for a specific bug encountered where the 2nd query would not plan with auto limit wrapping, but if
     // *any* column was removed from the select output, e.g. the first query in this test, then it does plan and
     // function correctly. Running the query supplying an explicit limit worked, and turning off auto limit worked.
@@ -1710,6 +1734,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectProjectionFromSelectSingleColumnWithInnerLimitDescending() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         "SELECT 'beep ' || dim1 FROM (SELECT dim1 FROM druid.foo ORDER BY __time DESC LIMIT 2)",
         ImmutableList.of(
@@ -1734,6 +1761,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectProjectionFromSelectSingleColumnDescending() throws Exception
   {
+    // Cannot vectorize due to virtual columns.
+    cannotVectorize();
+
     // Regression test for https://github.com/apache/druid/issues/7768.
 
     // After upgrading to Calcite 1.21, Calcite no longer respects the ORDER BY __time DESC
@@ -1766,6 +1796,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectProjectionFromSelectSingleColumnWithInnerAndOuterLimitDescending() throws Exception
   {
+    // Cannot vectorize descending scans.
+    cannotVectorize();
+
     testQuery(
         "SELECT 'beep ' || dim1 FROM (SELECT dim1 FROM druid.foo ORDER BY __time DESC LIMIT 4) LIMIT 2",
         ImmutableList.of(
@@ -3346,9 +3379,6 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testColumnComparison() throws Exception
   {
-    // Cannot vectorize due to expression filter.
-    cannotVectorize();
-
     testQuery(
         "SELECT dim1, m1, COUNT(*) FROM druid.foo WHERE m1 - 1 = dim1 GROUP BY dim1, m1",
         ImmutableList.of(
@@ -4335,6 +4365,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testNullDoubleTopN() throws Exception
   {
+    // Cannot vectorize topN on numeric dimensions.
+    cannotVectorize();
+
     List<Object[]> expected;
     if (useDefault) {
       expected = ImmutableList.of(
@@ -4375,6 +4408,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testNullFloatTopN() throws Exception
   {
+    // Cannot vectorize topN on numeric dimensions.
+    cannotVectorize();
+
     List<Object[]> expected;
     if (useDefault) {
       expected = ImmutableList.of(
@@ -4415,6 +4451,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testNullLongTopN() throws Exception
   {
+    // Cannot vectorize topN on numeric dimensions.
+    cannotVectorize();
+
     List<Object[]> expected;
     if (useDefault) {
       expected = ImmutableList.of(
@@ -4724,6 +4763,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testTwoExactCountDistincts() throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         PLANNER_CONFIG_NO_HLL,
         "SELECT COUNT(distinct dim1), COUNT(distinct dim2) FROM druid.foo",
@@ -9556,6 +9598,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testFilterAndGroupByLookupUsingPostAggregationJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT base.dim2, lookyloo.v, base.cnt FROM (\n"
         + "  SELECT dim2, COUNT(*) cnt FROM foo GROUP BY dim2\n"
@@ -9642,6 +9687,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testSelectOnLookupUsingInnerJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim2, lookyloo.*\n"
         + "FROM foo INNER JOIN lookup.lookyloo ON foo.dim2 = lookyloo.k\n",
@@ -9674,6 +9722,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testLeftJoinTwoLookupsUsingJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1, dim2, l1.v, l2.v\n"
         + "FROM foo\n"
@@ -9717,6 +9768,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinTableLookupLookupWithFilterWithOuterLimit(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1\n"
         + "FROM foo\n"
@@ -9760,6 +9814,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinTableLookupLookupWithFilterWithoutLimit(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1\n"
         + "FROM foo\n"
@@ -9801,6 +9858,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinTableLookupLookupWithFilterWithOuterLimitWithAllColumns(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT __time, cnt, dim1, dim2, dim3, m1, m2, unique_dim1\n"
         + "FROM foo\n"
@@ -9844,6 +9904,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinTableLookupLookupWithFilterWithoutLimitWithAllColumns(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT __time, cnt, dim1, dim2, dim3, m1, m2, unique_dim1\n"
         + "FROM foo\n"
@@ -9885,6 +9948,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testManyManyInnerJoinOnManyManyLookup(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1\n"
         + "FROM foo\n"
@@ -10097,6 +10163,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinQueryOfLookupRemovable(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     // Like "testInnerJoinQueryOfLookup", but the subquery is removable.
 
     testQuery(
@@ -10455,6 +10524,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testCommaJoinLeftFunction() throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT foo.dim1, foo.dim2, l.k, l.v\n"
         + "FROM foo, lookup.lookyloo l\n"
@@ -10611,6 +10683,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinCastLeft(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     // foo.m1 is FLOAT, l.k is STRING.
 
     testQuery(
@@ -10645,6 +10720,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinCastRight(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     // foo.m1 is FLOAT, l.k is STRING.
 
     testQuery(
@@ -10689,6 +10767,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinMismatchedTypes(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     // foo.m1 is FLOAT, l.k is STRING. Comparing them generates a CAST.
 
     testQuery(
@@ -10733,6 +10814,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinLeftFunction(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT foo.dim1, foo.dim2, l.k, l.v\n"
         + "FROM foo\n"
@@ -10769,6 +10853,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinRightFunction(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT foo.dim1, foo.dim2, l.k, l.v\n"
         + "FROM foo\n"
@@ -10812,6 +10899,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testLeftJoinLookupOntoLookupUsingJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim2, l1.v, l2.v\n"
         + "FROM foo\n"
@@ -10855,6 +10945,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testLeftJoinThreeLookupsUsingJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1, dim2, l1.v, l2.v, l3.v\n"
         + "FROM foo\n"
@@ -10905,6 +10998,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testSelectOnLookupUsingLeftJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1, lookyloo.*\n"
         + "FROM foo LEFT JOIN lookup.lookyloo ON foo.dim1 = lookyloo.k\n"
@@ -10942,6 +11038,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testSelectOnLookupUsingRightJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1, lookyloo.*\n"
         + "FROM foo RIGHT JOIN lookup.lookyloo ON foo.dim1 = lookyloo.k\n"
@@ -10977,6 +11076,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testSelectOnLookupUsingFullJoinOperator(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1, m1, cnt, lookyloo.*\n"
         + "FROM foo FULL JOIN lookup.lookyloo ON foo.dim1 = lookyloo.k\n"
@@ -11098,6 +11200,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectStarFromLookup() throws Exception
   {
+    // Cannot vectorize scans of lookups.
+    cannotVectorize();
+
     testQuery(
         "SELECT * FROM lookup.lookyloo",
         ImmutableList.of(
@@ -12933,6 +13038,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testUsingSubqueryAsFilterOnTwoColumns() throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT __time, cnt, dim1, dim2 FROM druid.foo "
         + " WHERE (dim1, dim2) IN ("
@@ -12992,6 +13100,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testUsingSubqueryAsFilterWithInnerSort() throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     // Regression test for https://github.com/apache/druid/issues/4208
 
     testQuery(
@@ -13044,6 +13155,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSemiJoinWithOuterTimeExtractScan() throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1, EXTRACT(MONTH FROM __time) FROM druid.foo\n"
         + " WHERE dim2 IN (\n"
@@ -13353,6 +13467,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinWithIsNullFilter(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1, l.v from druid.foo f inner join lookup.lookyloo l on f.dim1 = l.k where f.dim2 is null",
         queryContext,
@@ -13761,6 +13878,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testPostAggWithTopN() throws Exception
   {
+    // Cannot vectorize topN on numeric dimensions.
+    cannotVectorize();
+
     testQuery(
         "SELECT "
         + "  AVG(m2), "
@@ -13823,6 +13943,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testConcat() throws Exception
   {
+    // Cannot vectorize due to virtual columns.
+    cannotVectorize();
+
     testQuery(
         "SELECT CONCAT(dim1, '-', dim1, '_', dim1) as dimX FROM foo",
         ImmutableList.of(
@@ -13879,6 +14002,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testTextcat() throws Exception
   {
+    // Cannot vectorize due to virtual columns.
+    cannotVectorize();
+
     testQuery(
         "SELECT textcat(dim1, dim1) as dimX FROM foo",
         ImmutableList.of(
@@ -14269,6 +14395,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testTimestampDiff() throws Exception
   {
+    // Cannot vectorize due to virtual columns.
+    cannotVectorize();
+
     testQuery(
         "SELECT TIMESTAMPDIFF(DAY, TIMESTAMP '1999-01-01 00:00:00', __time), \n"
         + "TIMESTAMPDIFF(DAY, __time, DATE '2001-01-01'), \n"
@@ -14638,6 +14767,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectConstantArrayExpressionFromTable() throws Exception
   {
+    // Cannot vectorize due to virtual columns.
+    cannotVectorize();
+
     testQuery(
         "SELECT ARRAY[1,2] as arr, dim1 FROM foo LIMIT 1",
         ImmutableList.of(
@@ -14686,6 +14818,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testSelectNonConstantArrayExpressionFromTable() throws Exception
   {
+    // Cannot vectorize due to virtual columns.
+    cannotVectorize();
+
     testQuery(
         "SELECT ARRAY[CONCAT(dim1, 'word'),'up'] as arr, dim1 FROM foo LIMIT 5",
         ImmutableList.of(
@@ -14755,6 +14890,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testMultiValueStringOverlapFilterNonLiteral() throws Exception
   {
+    // Cannot vectorize due to expression filter.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim3 FROM druid.numfoo WHERE MV_OVERLAP(dim3, ARRAY[dim2]) LIMIT 5",
         ImmutableList.of(
@@ -14827,6 +14965,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Test
   public void testMultiValueStringContainsArrayOfNonLiteral() throws Exception
   {
+    // Cannot vectorize due to expression filter.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim3 FROM druid.numfoo WHERE MV_CONTAINS(dim3, ARRAY[dim2]) LIMIT 5",
         ImmutableList.of(
@@ -15569,6 +15710,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testCountOnSemiJoinSingleColumn(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT dim1 FROM foo WHERE dim1 IN (SELECT dim1 FROM foo WHERE dim1 = '10.1')\n",
         queryContext,
@@ -15610,6 +15754,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testLeftJoinOnTwoInlineDataSourcesWithTimeFilter(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "with abc as\n"
         + "(\n"
@@ -15679,6 +15826,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testLeftJoinOnTwoInlineDataSourcesWithOuterWhere(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "with abc as\n"
         + "(\n"
@@ -15733,6 +15883,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testLeftJoinOnTwoInlineDataSources(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "with abc as\n"
         + "(\n"
@@ -15786,6 +15939,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinOnTwoInlineDataSourcesWithOuterWhere(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "with abc as\n"
         + "(\n"
@@ -15840,6 +15996,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testInnerJoinOnTwoInlineDataSources(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "with abc as\n"
         + "(\n"
@@ -15980,6 +16139,9 @@ public class CalciteQueryTest extends BaseCalciteQueryTest
   @Parameters(source = QueryContextForJoinProvider.class)
   public void testTopNOnStringWithNonSortedOrUniqueDictionary(Map<String, Object> queryContext) throws Exception
   {
+    // Cannot vectorize JOIN operator.
+    cannotVectorize();
+
     testQuery(
         "SELECT druid.broadcast.dim4, COUNT(*)\n"
         + "FROM druid.numfoo\n"